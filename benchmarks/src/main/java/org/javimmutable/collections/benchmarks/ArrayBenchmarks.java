@@ -0,0 +1,153 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.benchmarks;
+
+import org.javimmutable.collections.JImmutableArray;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.array.trie32.TrieArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for TrieArray.  Keys come from the selected distribution so that
+ * both densely packed and sparse tries are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayBenchmarks
+{
+    static final int PROBES = 1024;
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "RANDOM", "CLUSTERED"})
+    public KeyDistribution distribution;
+
+    private int[] keys;
+    private int[] probes;
+    private JImmutableArray<Integer> array;
+
+    @Setup
+    public void setUp()
+    {
+        keys = distribution.createKeys(size);
+        probes = KeyDistribution.selectProbes(keys, PROBES);
+        array = build(TrieArray.<Integer>of(), keys);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void get(Blackhole bh)
+    {
+        final JImmutableArray<Integer> array = this.array;
+        for (int key : probes) {
+            bh.consume(array.getValueOr(key, null));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void assign(Blackhole bh)
+    {
+        final JImmutableArray<Integer> array = this.array;
+        for (int key : probes) {
+            bh.consume(array.assign(key, -1));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void delete(Blackhole bh)
+    {
+        final JImmutableArray<Integer> array = this.array;
+        for (int key : probes) {
+            bh.consume(array.delete(key));
+        }
+    }
+
+    @Benchmark
+    public long cursor()
+    {
+        long total = 0;
+        for (JImmutableMap.Entry<Integer, Integer> entry : array) {
+            total += entry.getValue();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public JImmutableArray<Integer> build()
+    {
+        return build(TrieArray.<Integer>of(), keys);
+    }
+
+    @Benchmark
+    public TrieArray<Integer> builder()
+    {
+        final TrieArray.Builder<Integer> builder = TrieArray.builder();
+        for (int key : keys) {
+            builder.add(key);
+        }
+        return builder.build();
+    }
+
+    private static JImmutableArray<Integer> build(JImmutableArray<Integer> array,
+                                                  int[] keys)
+    {
+        for (int key : keys) {
+            array = array.assign(key, key);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,127 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Controls the pattern of int keys used to populate collections in benchmarks.
+ * The tries and trees behave very differently for dense keys than for sparse
+ * ones so every benchmark is run against each distribution.
+ */
+public enum KeyDistribution
+{
+    /**
+     * Keys are 0 through size-1 in order.
+     */
+    SEQUENTIAL
+        {
+            @Override
+            int[] createKeys(int size,
+                             Random random)
+            {
+                final int[] keys = new int[size];
+                for (int i = 0; i < size; ++i) {
+                    keys[i] = i;
+                }
+                return keys;
+            }
+        },
+    /**
+     * Keys are spread randomly over the full range of non-negative ints.
+     */
+    RANDOM
+        {
+            @Override
+            int[] createKeys(int size,
+                             Random random)
+            {
+                final int[] keys = new int[size];
+                for (int i = 0; i < size; ++i) {
+                    keys[i] = random.nextInt(Integer.MAX_VALUE);
+                }
+                return keys;
+            }
+        },
+    /**
+     * Keys come in runs of consecutive values starting at random offsets.
+     */
+    CLUSTERED
+        {
+            @Override
+            int[] createKeys(int size,
+                             Random random)
+            {
+                final int[] keys = new int[size];
+                int next = 0;
+                for (int i = 0; i < size; ++i) {
+                    if (i % CLUSTER_SIZE == 0) {
+                        next = random.nextInt(Integer.MAX_VALUE - CLUSTER_SIZE);
+                    }
+                    keys[i] = next;
+                    next += 1;
+                }
+                return keys;
+            }
+        };
+
+    private static final int CLUSTER_SIZE = 64;
+
+    abstract int[] createKeys(int size,
+                              Random random);
+
+    /**
+     * Creates size keys using a fixed seed so that runs are repeatable.
+     */
+    public int[] createKeys(int size)
+    {
+        return createKeys(size, new Random(size));
+    }
+
+    /**
+     * Creates count keys selected at random from keys for use as lookup probes.
+     */
+    public static int[] selectProbes(int[] keys,
+                                     int count)
+    {
+        final Random random = new Random(keys.length + count);
+        final int[] probes = new int[count];
+        for (int i = 0; i < count; ++i) {
+            probes[i] = keys[random.nextInt(keys.length)];
+        }
+        return probes;
+    }
+}
@@ -0,0 +1,218 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.benchmarks;
+
+import org.javimmutable.collections.JImmutableRandomAccessList;
+import org.javimmutable.collections.btree_list.JImmutableBtreeList;
+import org.javimmutable.collections.list.JImmutableArrayList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the JImmutableArrayList and JImmutableBtreeList classes.  Lists
+ * only support insertion at the ends so the random access benchmarks (insert and
+ * delete at arbitrary indexes) only use the btree list.  Probes are indexes
+ * chosen using the selected distribution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListBenchmarks
+{
+    static final int PROBES = 1024;
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "RANDOM", "CLUSTERED"})
+    public KeyDistribution distribution;
+
+    private Integer[] values;
+    private int[] probes;
+    private JImmutableArrayList<Integer> arrayList;
+    private JImmutableBtreeList<Integer> btreeList;
+
+    @Setup
+    public void setUp()
+    {
+        values = MapBenchmarks.boxed(distribution.createKeys(size));
+        probes = new int[PROBES];
+        final int[] keys = distribution.createKeys(PROBES);
+        for (int i = 0; i < PROBES; ++i) {
+            probes[i] = Math.abs(keys[i] % size);
+        }
+        arrayList = JImmutableArrayList.<Integer>builder().add(values).build();
+        btreeList = JImmutableBtreeList.<Integer>builder().add(values).build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void arrayListGet(Blackhole bh)
+    {
+        final JImmutableArrayList<Integer> list = arrayList;
+        for (int index : probes) {
+            bh.consume(list.get(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void arrayListAssign(Blackhole bh)
+    {
+        final JImmutableArrayList<Integer> list = arrayList;
+        for (int index : probes) {
+            bh.consume(list.assign(index, -1));
+        }
+    }
+
+    @Benchmark
+    public long arrayListCursor()
+    {
+        long total = 0;
+        for (Integer value : arrayList) {
+            total += value;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public JImmutableArrayList<Integer> arrayListInsertLast()
+    {
+        JImmutableArrayList<Integer> list = JImmutableArrayList.of();
+        for (Integer value : values) {
+            list = list.insertLast(value);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public JImmutableArrayList<Integer> arrayListDeleteLast()
+    {
+        JImmutableArrayList<Integer> list = arrayList;
+        while (!list.isEmpty()) {
+            list = list.deleteLast();
+        }
+        return list;
+    }
+
+    @Benchmark
+    public JImmutableArrayList<Integer> arrayListBuilder()
+    {
+        return JImmutableArrayList.<Integer>builder().add(values).build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void btreeListGet(Blackhole bh)
+    {
+        final JImmutableBtreeList<Integer> list = btreeList;
+        for (int index : probes) {
+            bh.consume(list.get(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void btreeListAssign(Blackhole bh)
+    {
+        final JImmutableBtreeList<Integer> list = btreeList;
+        for (int index : probes) {
+            bh.consume(list.assign(index, -1));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void btreeListInsert(Blackhole bh)
+    {
+        final JImmutableBtreeList<Integer> list = btreeList;
+        for (int index : probes) {
+            bh.consume(list.insert(index, -1));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void btreeListDelete(Blackhole bh)
+    {
+        final JImmutableBtreeList<Integer> list = btreeList;
+        for (int index : probes) {
+            bh.consume(list.delete(index));
+        }
+    }
+
+    @Benchmark
+    public long btreeListCursor()
+    {
+        long total = 0;
+        for (Integer value : btreeList) {
+            total += value;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public JImmutableRandomAccessList<Integer> btreeListInsertLast()
+    {
+        JImmutableRandomAccessList<Integer> list = JImmutableBtreeList.of();
+        for (Integer value : values) {
+            list = list.insertLast(value);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public JImmutableBtreeList<Integer> btreeListBuilder()
+    {
+        return JImmutableBtreeList.<Integer>builder().add(values).build();
+    }
+}
@@ -0,0 +1,188 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.benchmarks;
+
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.hash.JImmutableHashMap;
+import org.javimmutable.collections.inorder.JImmutableInsertOrderMap;
+import org.javimmutable.collections.tree.JImmutableTreeMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the JImmutableMap implementations.  Each map type is populated
+ * with Integer keys from the selected distribution and then probed using keys
+ * known to be present in the map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapBenchmarks
+{
+    static final int PROBES = 1024;
+
+    public enum MapType
+    {
+        HASH
+            {
+                @Override
+                JImmutableMap<Integer, Integer> empty()
+                {
+                    return JImmutableHashMap.of();
+                }
+            },
+        TREE
+            {
+                @Override
+                JImmutableMap<Integer, Integer> empty()
+                {
+                    return JImmutableTreeMap.of();
+                }
+            },
+        INSERT_ORDER
+            {
+                @Override
+                JImmutableMap<Integer, Integer> empty()
+                {
+                    return JImmutableInsertOrderMap.of();
+                }
+            };
+
+        abstract JImmutableMap<Integer, Integer> empty();
+    }
+
+    @Param({"HASH", "TREE", "INSERT_ORDER"})
+    public MapType mapType;
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "RANDOM", "CLUSTERED"})
+    public KeyDistribution distribution;
+
+    private Integer[] keys;
+    private Integer[] probes;
+    private JImmutableMap<Integer, Integer> map;
+
+    @Setup
+    public void setUp()
+    {
+        final int[] rawKeys = distribution.createKeys(size);
+        keys = boxed(rawKeys);
+        probes = boxed(KeyDistribution.selectProbes(rawKeys, PROBES));
+        map = build(mapType.empty(), keys);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void get(Blackhole bh)
+    {
+        final JImmutableMap<Integer, Integer> map = this.map;
+        for (Integer key : probes) {
+            bh.consume(map.getValueOr(key, null));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void assign(Blackhole bh)
+    {
+        final JImmutableMap<Integer, Integer> map = this.map;
+        for (Integer key : probes) {
+            bh.consume(map.assign(key, -1));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void delete(Blackhole bh)
+    {
+        final JImmutableMap<Integer, Integer> map = this.map;
+        for (Integer key : probes) {
+            bh.consume(map.delete(key));
+        }
+    }
+
+    @Benchmark
+    public long cursor()
+    {
+        long total = 0;
+        for (JImmutableMap.Entry<Integer, Integer> entry : map) {
+            total += entry.getValue();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public JImmutableMap<Integer, Integer> build()
+    {
+        return build(mapType.empty(), keys);
+    }
+
+    private static JImmutableMap<Integer, Integer> build(JImmutableMap<Integer, Integer> map,
+                                                         Integer[] keys)
+    {
+        for (Integer key : keys) {
+            map = map.assign(key, key);
+        }
+        return map;
+    }
+
+    static Integer[] boxed(int[] values)
+    {
+        final Integer[] answer = new Integer[values.length];
+        for (int i = 0; i < values.length; ++i) {
+            answer[i] = values[i];
+        }
+        return answer;
+    }
+}
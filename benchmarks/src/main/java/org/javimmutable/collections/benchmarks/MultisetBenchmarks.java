@@ -0,0 +1,179 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.benchmarks;
+
+import org.javimmutable.collections.JImmutableMultiset;
+import org.javimmutable.collections.hash.JImmutableHashMultiset;
+import org.javimmutable.collections.inorder.JImmutableInsertOrderMultiset;
+import org.javimmutable.collections.tree.JImmutableTreeMultiset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the JImmutableMultiset implementations.  Every value is
+ * inserted twice so that occurrence counts are exercised along with the
+ * underlying maps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultisetBenchmarks
+{
+    static final int PROBES = 1024;
+
+    public enum MultisetType
+    {
+        HASH
+            {
+                @Override
+                JImmutableMultiset<Integer> empty()
+                {
+                    return JImmutableHashMultiset.of();
+                }
+            },
+        TREE
+            {
+                @Override
+                JImmutableMultiset<Integer> empty()
+                {
+                    return JImmutableTreeMultiset.of();
+                }
+            },
+        INSERT_ORDER
+            {
+                @Override
+                JImmutableMultiset<Integer> empty()
+                {
+                    return JImmutableInsertOrderMultiset.of();
+                }
+            };
+
+        abstract JImmutableMultiset<Integer> empty();
+    }
+
+    @Param({"HASH", "TREE", "INSERT_ORDER"})
+    public MultisetType multisetType;
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "RANDOM", "CLUSTERED"})
+    public KeyDistribution distribution;
+
+    private Integer[] values;
+    private Integer[] probes;
+    private JImmutableMultiset<Integer> multiset;
+
+    @Setup
+    public void setUp()
+    {
+        final int[] rawValues = distribution.createKeys(size);
+        values = MapBenchmarks.boxed(rawValues);
+        probes = MapBenchmarks.boxed(KeyDistribution.selectProbes(rawValues, PROBES));
+        multiset = build(multisetType.empty(), values);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void count(Blackhole bh)
+    {
+        final JImmutableMultiset<Integer> multiset = this.multiset;
+        for (Integer value : probes) {
+            bh.consume(multiset.count(value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void insert(Blackhole bh)
+    {
+        final JImmutableMultiset<Integer> multiset = this.multiset;
+        for (Integer value : probes) {
+            bh.consume(multiset.insert(value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void deleteOccurrence(Blackhole bh)
+    {
+        final JImmutableMultiset<Integer> multiset = this.multiset;
+        for (Integer value : probes) {
+            bh.consume(multiset.deleteOccurrence(value));
+        }
+    }
+
+    @Benchmark
+    public long occurrenceCursor()
+    {
+        long total = 0;
+        for (Integer value : multiset.occurrenceCursor()) {
+            total += value;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public JImmutableMultiset<Integer> build()
+    {
+        return build(multisetType.empty(), values);
+    }
+
+    private static JImmutableMultiset<Integer> build(JImmutableMultiset<Integer> multiset,
+                                                     Integer[] values)
+    {
+        for (Integer value : values) {
+            multiset = multiset.insert(value, 2);
+        }
+        return multiset;
+    }
+}
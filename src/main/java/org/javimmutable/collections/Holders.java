@@ -192,8 +192,8 @@ public abstract class Holders<V>
         }
     }
 
-    public static <T> boolean areEqual(Holder<T> a,
-                                       Holder<T> b)
+    public static <T> boolean areEqual(Holder<? extends T> a,
+                                       Holder<? extends T> b)
     {
         if ((a == null) || (b == null)) {
             return (a == null) && (b == null);
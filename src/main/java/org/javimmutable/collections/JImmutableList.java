@@ -277,4 +277,13 @@ public interface JImmutableList<T>
      */
     @Nonnull
     List<T> getList();
+
+    /**
+     * Passes every value in the list to proc in order.  Implementations visit their
+     * internal nodes directly so, unlike a Cursor or Iterator, no objects are created
+     * for each value visited.
+     *
+     * @param proc procedure to call for each value
+     */
+    void forEachValue(@Nonnull Proc1<? super T> proc);
 }
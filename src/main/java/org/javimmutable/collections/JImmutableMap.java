@@ -71,6 +71,25 @@ public interface JImmutableMap<K, V>
         V getValue();
     }
 
+    /**
+     * MutableBuilder for maps.  Entries added later replace any earlier entry with an equal key.
+     *
+     * @param <K>
+     * @param <V>
+     */
+    interface Builder<K, V>
+            extends MutableBuilder<Entry<K, V>, JImmutableMap<K, V>>
+    {
+        /**
+         * Adds the key/value pair to the entries included in the map when build() is called.
+         *
+         * @return the builder (convenience for chaining multiple calls)
+         */
+        @Nonnull
+        Builder<K, V> add(@Nonnull K key,
+                          V value);
+    }
+
     /**
      * Add key/value entry to the map, replacing any existing entry with same key.
      *
@@ -149,6 +168,15 @@ public interface JImmutableMap<K, V>
     @Nonnull
     JImmutableMap<K, V> delete(@Nonnull K key);
 
+    /**
+     * Passes every entry in the map to proc in the same order as cursor().  Implementations
+     * visit their internal nodes directly so, unlike a Cursor or Iterator, no objects are
+     * created for each entry visited.
+     *
+     * @param proc procedure to call for each entry
+     */
+    void forEachEntry(@Nonnull Proc1<? super Entry<K, V>> proc);
+
     /**
      * Return the number of entries in the map.
      *
@@ -50,6 +50,25 @@ import java.util.Set;
 public interface JImmutableMultiset<T>
         extends JImmutableSet<T>
 {
+    /**
+     * MutableBuilder for multisets.  Each call to add(T) adds one occurrence of the value.
+     *
+     * @param <T>
+     */
+    interface Builder<T>
+            extends MutableBuilder<T, JImmutableMultiset<T>>
+    {
+        /**
+         * Adds count occurrences of value to the multiset produced by build().
+         * Count must be greater than or equal to zero.
+         *
+         * @return the builder (convenience for chaining multiple calls)
+         */
+        @Nonnull
+        Builder<T> add(@Nonnull T value,
+                       int count);
+    }
+
     /**
      * Adds one occurrence of value to the multiset.
      *
@@ -55,6 +55,11 @@ public interface JImmutableSet<T>
                 Iterable<T>,
                 InvariantCheckable
 {
+    interface Builder<T>
+            extends MutableBuilder<T, JImmutableSet<T>>
+    {
+    }
+
     /**
      * Adds the single value to the Set.
      *
@@ -0,0 +1,154 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Describes a single difference between two versions of a JImmutableMap as returned by
+ * AbstractJImmutableMap.diff().  ADDED entries have only a new value, REMOVED entries have only
+ * an old value, and CHANGED entries have both.
+ *
+ * @param <K>
+ * @param <V>
+ */
+@Immutable
+public class MapDiffEntry<K, V>
+{
+    public enum Type
+    {
+        ADDED,
+        REMOVED,
+        CHANGED
+    }
+
+    private final Type type;
+    private final K key;
+    private final Holder<V> oldValue;
+    private final Holder<V> newValue;
+
+    private MapDiffEntry(Type type,
+                         K key,
+                         Holder<V> oldValue,
+                         Holder<V> newValue)
+    {
+        this.type = type;
+        this.key = key;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    @Nonnull
+    public static <K, V> MapDiffEntry<K, V> added(@Nonnull K key,
+                                                  V newValue)
+    {
+        return new MapDiffEntry<K, V>(Type.ADDED, key, Holders.<V>of(), Holders.of(newValue));
+    }
+
+    @Nonnull
+    public static <K, V> MapDiffEntry<K, V> removed(@Nonnull K key,
+                                                    V oldValue)
+    {
+        return new MapDiffEntry<K, V>(Type.REMOVED, key, Holders.of(oldValue), Holders.<V>of());
+    }
+
+    @Nonnull
+    public static <K, V> MapDiffEntry<K, V> changed(@Nonnull K key,
+                                                    V oldValue,
+                                                    V newValue)
+    {
+        return new MapDiffEntry<K, V>(Type.CHANGED, key, Holders.of(oldValue), Holders.of(newValue));
+    }
+
+    @Nonnull
+    public Type getType()
+    {
+        return type;
+    }
+
+    @Nonnull
+    public K getKey()
+    {
+        return key;
+    }
+
+    /**
+     * @return the value in the older map or an empty Holder if the key was added
+     */
+    @Nonnull
+    public Holder<V> getOldValue()
+    {
+        return oldValue;
+    }
+
+    /**
+     * @return the value in the newer map or an empty Holder if the key was removed
+     */
+    @Nonnull
+    public Holder<V> getNewValue()
+    {
+        return newValue;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (o == this) {
+            return true;
+        } else if (!(o instanceof MapDiffEntry)) {
+            return false;
+        } else {
+            final MapDiffEntry<?, ?> other = (MapDiffEntry<?, ?>)o;
+            return (type == other.type) &&
+                   key.equals(other.key) &&
+                   Holders.areEqual(oldValue, other.oldValue) &&
+                   Holders.areEqual(newValue, other.newValue);
+        }
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return (31 * ((31 * type.hashCode()) + key.hashCode()) + Holders.hashCode(oldValue)) * 31 + Holders.hashCode(newValue);
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s(%s,%s,%s)", type, key, oldValue, newValue);
+    }
+}
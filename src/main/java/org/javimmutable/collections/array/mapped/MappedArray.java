@@ -0,0 +1,476 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.array.mapped;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Holder;
+import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.IntEntryProc;
+import org.javimmutable.collections.JImmutableArray;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.MapEntry;
+import org.javimmutable.collections.array.trie32.TrieArray;
+import org.javimmutable.collections.array.trie32.TrieNode;
+import org.javimmutable.collections.common.AbstractJImmutableArray;
+import org.javimmutable.collections.cursors.StandardCursor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * JImmutableArray implementation that stores its values as fixed size binary records
+ * (see RecordCodec) in a memory mapped file rather than on the java heap.  Intended for
+ * very large, read mostly arrays that need to be saved and then reopened quickly.
+ * <p>
+ * Values are grouped into pages of 32 using the same index math as the leaves of a
+ * TrieArray (page is index >> TrieNode.BRANCH_SHIFT, slot within page is
+ * index & TrieNode.BRANCH_MASK).  The file is never modified.  Instead assign() and
+ * delete() copy the affected page into a heap buffer and store it in a TrieArray of
+ * changed pages that is shared between versions of the array just like any other
+ * persistent structure.  Reads check the changed pages first and then the file.
+ * The write() method saves any array (including all of its changes) into a new file that
+ * can later be opened in constant time using open().
+ * <p>
+ * Files contain every page between the lowest and highest index in the array so this class
+ * is best suited to arrays whose indexes are mostly contiguous.  Values are decoded by the
+ * RecordCodec every time they are read so get() and cursors create new value objects.
+ */
+@Immutable
+public class MappedArray<T>
+        extends AbstractJImmutableArray<T>
+{
+    private final RecordCodec<T> codec;
+    private final MappedPages base;
+    private final JImmutableArray<ByteBuffer> changed;
+    private final int size;
+
+    private MappedArray(RecordCodec<T> codec,
+                        MappedPages base,
+                        JImmutableArray<ByteBuffer> changed,
+                        int size)
+    {
+        this.codec = codec;
+        this.base = base;
+        this.changed = changed;
+        this.size = size;
+    }
+
+    /**
+     * Creates an empty array that is not backed by any file.  All values assigned to
+     * it are stored in heap pages until the array is saved using write().
+     */
+    public static <T> MappedArray<T> of(@Nonnull RecordCodec<T> codec)
+    {
+        return new MappedArray<T>(codec, MappedPages.empty(codec.getRecordSize()), TrieArray.<ByteBuffer>of(), 0);
+    }
+
+    /**
+     * Maps a file previously created using write() into memory and returns an array
+     * containing its values.  Only the fixed size header of the file is read so this
+     * takes constant time regardless of the size of the file.  The codec must have the
+     * same record size as the codec used to write the file.
+     *
+     * @throws IOException if the file could not be mapped or was not created by write()
+     */
+    public static <T> MappedArray<T> open(@Nonnull File file,
+                                          @Nonnull RecordCodec<T> codec)
+        throws IOException
+    {
+        return open(file, codec, MappedPages.DEFAULT_CHUNK_SIZE);
+    }
+
+    // allows unit tests to force use of multiple chunks
+    static <T> MappedArray<T> open(@Nonnull File file,
+                                   @Nonnull RecordCodec<T> codec,
+                                   int maxChunkSize)
+        throws IOException
+    {
+        final MappedPages pages = MappedPages.open(file, codec.getRecordSize(), maxChunkSize);
+        return new MappedArray<T>(codec, pages, TrieArray.<ByteBuffer>of(), pages.size());
+    }
+
+    /**
+     * Writes all of the values in array into file (replacing any existing contents)
+     * in the format used by open().  array can be any JImmutableArray implementation.
+     *
+     * @throws IOException if the file could not be written
+     */
+    public static <T> void write(@Nonnull File file,
+                                 @Nonnull RecordCodec<T> codec,
+                                 @Nonnull JImmutableArray<T> array)
+        throws IOException
+    {
+        final int recordSize = codec.getRecordSize();
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(0);
+            final FileChannel channel = raf.getChannel();
+            final ByteBuffer page = ByteBuffer.allocate(MappedPages.pageSize(recordSize));
+            long position = MappedPages.HEADER_SIZE;
+            int firstPage = 0;
+            int currentPage = 0;
+            int pageCount = 0;
+            int size = 0;
+            for (Cursor<JImmutableMap.Entry<Integer, T>> cursor = array.cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+                final int index = cursor.getValue().getKey();
+                final int pageIndex = index >> TrieNode.BRANCH_SHIFT;
+                if (size == 0) {
+                    firstPage = pageIndex;
+                    currentPage = pageIndex;
+                } else if (pageIndex != currentPage) {
+                    position = writeFully(channel, page, position);
+                    pageCount += 1;
+                    Arrays.fill(page.array(), (byte)0);
+                    while (++currentPage < pageIndex) {
+                        position = writeFully(channel, page, position);
+                        pageCount += 1;
+                    }
+                }
+                final int slot = index & TrieNode.BRANCH_MASK;
+                page.putInt(0, page.getInt(0) | (1 << slot));
+                codec.write(page, MappedPages.recordOffset(0, slot, recordSize), cursor.getValue().getValue());
+                size += 1;
+            }
+            if (size > 0) {
+                writeFully(channel, page, position);
+                pageCount += 1;
+            }
+            writeFully(channel, MappedPages.createHeader(recordSize, firstPage, pageCount, size), 0);
+        } finally {
+            raf.close();
+        }
+    }
+
+    @Nullable
+    @Override
+    public T getValueOr(int index,
+                        @Nullable T defaultValue)
+    {
+        final int page = index >> TrieNode.BRANCH_SHIFT;
+        final int slot = index & TrieNode.BRANCH_MASK;
+        final ByteBuffer changedPage = changed.get(page);
+        if (changedPage != null) {
+            return getValueOr(changedPage, 0, slot, defaultValue);
+        } else if (base.containsPage(page)) {
+            return getValueOr(base.buffer(page), base.offset(page), slot, defaultValue);
+        } else {
+            return defaultValue;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Holder<T> find(int index)
+    {
+        final int page = index >> TrieNode.BRANCH_SHIFT;
+        final int slot = index & TrieNode.BRANCH_MASK;
+        final ByteBuffer changedPage = changed.get(page);
+        if (changedPage != null) {
+            return find(changedPage, 0, slot);
+        } else if (base.containsPage(page)) {
+            return find(base.buffer(page), base.offset(page), slot);
+        } else {
+            return Holders.of();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public MappedArray<T> assign(int index,
+                                 @Nullable T value)
+    {
+        final int page = index >> TrieNode.BRANCH_SHIFT;
+        final int slot = index & TrieNode.BRANCH_MASK;
+        final ByteBuffer newPage = copyPage(page);
+        final int bits = newPage.getInt(0);
+        final int bit = 1 << slot;
+        newPage.putInt(0, bits | bit);
+        codec.write(newPage, MappedPages.recordOffset(0, slot, codec.getRecordSize()), value);
+        final int newSize = ((bits & bit) == 0) ? (size + 1) : size;
+        return new MappedArray<T>(codec, base, changed.assign(page, newPage), newSize);
+    }
+
+    @Nonnull
+    @Override
+    public MappedArray<T> delete(int index)
+    {
+        if (find(index).isEmpty()) {
+            return this;
+        }
+
+        final int page = index >> TrieNode.BRANCH_SHIFT;
+        final int slot = index & TrieNode.BRANCH_MASK;
+        final ByteBuffer newPage = copyPage(page);
+        final int bits = newPage.getInt(0) & ~(1 << slot);
+        newPage.putInt(0, bits);
+        final int recordOffset = MappedPages.recordOffset(0, slot, codec.getRecordSize());
+        Arrays.fill(newPage.array(), recordOffset, recordOffset + codec.getRecordSize(), (byte)0);
+        if ((bits == 0) && !base.containsPage(page)) {
+            return new MappedArray<T>(codec, base, changed.delete(page), size - 1);
+        } else {
+            return new MappedArray<T>(codec, base, changed.assign(page, newPage), size - 1);
+        }
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Nonnull
+    @Override
+    public MappedArray<T> deleteAll()
+    {
+        return of(codec);
+    }
+
+    @Nonnull
+    @Override
+    public Cursor<JImmutableMap.Entry<Integer, T>> cursor()
+    {
+        final EntrySource<T> source = EntrySource.first(this);
+        return source.atEnd() ? StandardCursor.<JImmutableMap.Entry<Integer, T>>of() : StandardCursor.of(source);
+    }
+
+    /**
+     * Visits every index and value in the array in the same order as cursor() without
+     * creating Entry objects or boxing indexes.
+     */
+    public void forEach(@Nonnull IntEntryProc<? super T> proc)
+    {
+        for (EntrySource<T> source = EntrySource.first(this); !source.atEnd(); source = source.advance()) {
+            proc.apply(source.index(), source.value());
+        }
+    }
+
+    /**
+     * @return true if no pages have been changed since the file was opened
+     */
+    public boolean isUnchanged()
+    {
+        return changed.isEmpty();
+    }
+
+    @Override
+    public void checkInvariants()
+    {
+        int changedSize = base.size();
+        for (Cursor<JImmutableMap.Entry<Integer, ByteBuffer>> cursor = changed.cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+            final int page = cursor.getValue().getKey();
+            final int bits = cursor.getValue().getValue().getInt(0);
+            if (base.containsPage(page)) {
+                changedSize += Integer.bitCount(bits) - Integer.bitCount(base.buffer(page).getInt(base.offset(page)));
+            } else if (bits == 0) {
+                throw new IllegalStateException("empty changed page " + page);
+            } else {
+                changedSize += Integer.bitCount(bits);
+            }
+        }
+        if (changedSize != size) {
+            throw new IllegalStateException(String.format("size mismatch: expected=%d actual=%d", changedSize, size));
+        }
+    }
+
+    private T getValueOr(ByteBuffer buffer,
+                         int pageOffset,
+                         int slot,
+                         T defaultValue)
+    {
+        if ((buffer.getInt(pageOffset) & (1 << slot)) == 0) {
+            return defaultValue;
+        } else {
+            return codec.read(buffer, MappedPages.recordOffset(pageOffset, slot, codec.getRecordSize()));
+        }
+    }
+
+    private Holder<T> find(ByteBuffer buffer,
+                           int pageOffset,
+                           int slot)
+    {
+        if ((buffer.getInt(pageOffset) & (1 << slot)) == 0) {
+            return Holders.of();
+        } else {
+            return Holders.of(codec.read(buffer, MappedPages.recordOffset(pageOffset, slot, codec.getRecordSize())));
+        }
+    }
+
+    // heap copy of the current contents of the page (possibly all empty) that can be modified
+    private ByteBuffer copyPage(int page)
+    {
+        final int pageSize = MappedPages.pageSize(codec.getRecordSize());
+        final ByteBuffer answer = ByteBuffer.allocate(pageSize);
+        final ByteBuffer changedPage = changed.get(page);
+        if (changedPage != null) {
+            System.arraycopy(changedPage.array(), 0, answer.array(), 0, pageSize);
+        } else if (base.containsPage(page)) {
+            final ByteBuffer source = base.buffer(page).duplicate();
+            source.position(base.offset(page));
+            source.limit(base.offset(page) + pageSize);
+            answer.put(source);
+        }
+        return answer;
+    }
+
+    private static long writeFully(FileChannel channel,
+                                   ByteBuffer buffer,
+                                   long position)
+        throws IOException
+    {
+        buffer.rewind();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return position;
+    }
+
+    /**
+     * Source that merges the changed pages with the pages from the file in index order.
+     * Pages in changedPages replace any page from the file with the same page index.
+     */
+    @Immutable
+    private static class EntrySource<T>
+            implements StandardCursor.Source<JImmutableMap.Entry<Integer, T>>
+    {
+        private final MappedArray<T> array;
+        private final Cursor<JImmutableMap.Entry<Integer, ByteBuffer>> changedPages;
+        private final int nextBasePage;
+        private final int page;
+        private final ByteBuffer buffer;
+        private final int pageOffset;
+        private final int slot;
+
+        private EntrySource(MappedArray<T> array,
+                            Cursor<JImmutableMap.Entry<Integer, ByteBuffer>> changedPages,
+                            int nextBasePage,
+                            int page,
+                            ByteBuffer buffer,
+                            int pageOffset,
+                            int slot)
+        {
+            this.array = array;
+            this.changedPages = changedPages;
+            this.nextBasePage = nextBasePage;
+            this.page = page;
+            this.buffer = buffer;
+            this.pageOffset = pageOffset;
+            this.slot = slot;
+        }
+
+        private static <T> EntrySource<T> first(MappedArray<T> array)
+        {
+            return nextPage(array, array.changed.cursor().start(), array.base.getFirstPage());
+        }
+
+        // finds the next page containing at least one value
+        private static <T> EntrySource<T> nextPage(MappedArray<T> array,
+                                                   Cursor<JImmutableMap.Entry<Integer, ByteBuffer>> changedPages,
+                                                   int nextBasePage)
+        {
+            final MappedPages base = array.base;
+            while (true) {
+                final boolean hasBase = nextBasePage < base.getLimitPage();
+                final int page;
+                final ByteBuffer buffer;
+                final int pageOffset;
+                if (changedPages.hasValue() && (!hasBase || (changedPages.getValue().getKey() <= nextBasePage))) {
+                    page = changedPages.getValue().getKey();
+                    buffer = changedPages.getValue().getValue();
+                    pageOffset = 0;
+                    changedPages = changedPages.next();
+                    if (page == nextBasePage) {
+                        nextBasePage += 1;
+                    }
+                } else if (hasBase) {
+                    page = nextBasePage;
+                    buffer = base.buffer(page);
+                    pageOffset = base.offset(page);
+                    nextBasePage += 1;
+                } else {
+                    return new EntrySource<T>(array, changedPages, nextBasePage, 0, null, 0, 0);
+                }
+                final int bits = buffer.getInt(pageOffset);
+                if (bits != 0) {
+                    return new EntrySource<T>(array, changedPages, nextBasePage, page, buffer, pageOffset, Integer.numberOfTrailingZeros(bits));
+                }
+            }
+        }
+
+        @Override
+        public boolean atEnd()
+        {
+            return buffer == null;
+        }
+
+        @Override
+        public JImmutableMap.Entry<Integer, T> currentValue()
+        {
+            return MapEntry.of(index(), value());
+        }
+
+        @Override
+        public EntrySource<T> advance()
+        {
+            if (buffer == null) {
+                throw new IllegalStateException();
+            }
+            // clear the bits for this slot and all slots before it
+            final int remaining = buffer.getInt(pageOffset) & ~((2 << slot) - 1);
+            if (remaining != 0) {
+                return new EntrySource<T>(array, changedPages, nextBasePage, page, buffer, pageOffset, Integer.numberOfTrailingZeros(remaining));
+            } else {
+                return nextPage(array, changedPages, nextBasePage);
+            }
+        }
+
+        private int index()
+        {
+            return (page << TrieNode.BRANCH_SHIFT) | slot;
+        }
+
+        private T value()
+        {
+            return array.codec.read(buffer, MappedPages.recordOffset(pageOffset, slot, array.codec.getRecordSize()));
+        }
+    }
+}
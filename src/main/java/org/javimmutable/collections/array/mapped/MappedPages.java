@@ -0,0 +1,223 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.array.mapped;
+
+import org.javimmutable.collections.array.trie32.TrieNode;
+
+import javax.annotation.concurrent.Immutable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read only view of the pages stored in a file written by MappedArray.  Each page holds
+ * the 32 values whose indexes share the same index >> TrieNode.BRANCH_SHIFT (the leaf
+ * level of a TrieArray) and consists of a 32 bit mask of the slots containing values
+ * followed by 32 fixed size records.  The file has a fixed size header followed by a
+ * contiguous range of pages.
+ * <p>
+ * Pages are mapped into memory in chunks of up to 1 GB so files larger than 2 GB can be
+ * used.  The file itself is closed once it has been mapped since the mapping remains
+ * valid until the buffers are garbage collected.
+ */
+@Immutable
+class MappedPages
+{
+    static final int MAGIC = 0x4a494d41;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int DEFAULT_CHUNK_SIZE = 1 << 30;
+    static final int MIN_PAGE = Integer.MIN_VALUE >> TrieNode.BRANCH_SHIFT;
+    static final int MAX_PAGE = Integer.MAX_VALUE >> TrieNode.BRANCH_SHIFT;
+
+    private final int recordSize;
+    private final int pageSize;
+    private final int firstPage;
+    private final int pageCount;
+    private final int size;
+    private final int pagesPerChunk;
+    private final ByteBuffer[] chunks;
+
+    private MappedPages(int recordSize,
+                        int firstPage,
+                        int pageCount,
+                        int size,
+                        int pagesPerChunk,
+                        ByteBuffer[] chunks)
+    {
+        this.recordSize = recordSize;
+        this.pageSize = pageSize(recordSize);
+        this.firstPage = firstPage;
+        this.pageCount = pageCount;
+        this.size = size;
+        this.pagesPerChunk = pagesPerChunk;
+        this.chunks = chunks;
+    }
+
+    static MappedPages empty(int recordSize)
+    {
+        return new MappedPages(recordSize, 0, 0, 0, 1, new ByteBuffer[0]);
+    }
+
+    static int pageSize(int recordSize)
+    {
+        return 4 + (32 * recordSize);
+    }
+
+    static int recordOffset(int pageOffset,
+                            int slot,
+                            int recordSize)
+    {
+        return pageOffset + 4 + (slot * recordSize);
+    }
+
+    static MappedPages open(File file,
+                            int recordSize,
+                            int maxChunkSize)
+        throws IOException
+    {
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = raf.getChannel();
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("file too short for header: " + file);
+                }
+            }
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("not a mapped array file: " + file);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("unsupported mapped array file version: " + header.getInt(4));
+            }
+            if (header.getInt(8) != recordSize) {
+                throw new IOException(String.format("record size mismatch: expected=%d file=%d", recordSize, header.getInt(8)));
+            }
+            final int firstPage = header.getInt(12);
+            final int pageCount = header.getInt(16);
+            final int size = header.getInt(20);
+            final int pageSize = pageSize(recordSize);
+            if ((pageCount < 0) || (size < 0) || (size > ((long)pageCount << TrieNode.BRANCH_SHIFT))) {
+                throw new IOException(String.format("invalid page count or size: pageCount=%d size=%d", pageCount, size));
+            }
+            if ((firstPage < MIN_PAGE) || (((long)firstPage + pageCount - 1) > MAX_PAGE)) {
+                throw new IOException(String.format("invalid page range: firstPage=%d pageCount=%d", firstPage, pageCount));
+            }
+            if (channel.size() < HEADER_SIZE + ((long)pageCount * pageSize)) {
+                throw new IOException("file too short for pages: " + file);
+            }
+
+            final int pagesPerChunk = Math.max(1, maxChunkSize / pageSize);
+            final int chunkCount = (pageCount + pagesPerChunk - 1) / pagesPerChunk;
+            final ByteBuffer[] chunks = new ByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; ++i) {
+                final long offset = HEADER_SIZE + ((long)i * pagesPerChunk * pageSize);
+                final int pages = Math.min(pagesPerChunk, pageCount - (i * pagesPerChunk));
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, (long)pages * pageSize);
+            }
+            return new MappedPages(recordSize, firstPage, pageCount, size, pagesPerChunk, chunks);
+        } finally {
+            raf.close();
+        }
+    }
+
+    static ByteBuffer createHeader(int recordSize,
+                                   int firstPage,
+                                   int pageCount,
+                                   int size)
+    {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(8, recordSize);
+        header.putInt(12, firstPage);
+        header.putInt(16, pageCount);
+        header.putInt(20, size);
+        return header;
+    }
+
+    int getRecordSize()
+    {
+        return recordSize;
+    }
+
+    int getPageSize()
+    {
+        return pageSize;
+    }
+
+    int getFirstPage()
+    {
+        return firstPage;
+    }
+
+    int getLimitPage()
+    {
+        return firstPage + pageCount;
+    }
+
+    /**
+     * @return number of values in all of the pages
+     */
+    int size()
+    {
+        return size;
+    }
+
+    boolean containsPage(int page)
+    {
+        return (page >= firstPage) && (page < (firstPage + pageCount));
+    }
+
+    /**
+     * @return the buffer containing the specified page, which must be in the file
+     */
+    ByteBuffer buffer(int page)
+    {
+        return chunks[(page - firstPage) / pagesPerChunk];
+    }
+
+    /**
+     * @return offset of the specified page within the buffer returned by buffer(page)
+     */
+    int offset(int page)
+    {
+        return ((page - firstPage) % pagesPerChunk) * pageSize;
+    }
+}
@@ -0,0 +1,147 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.array.mapped;
+
+import javax.annotation.concurrent.Immutable;
+import java.nio.ByteBuffer;
+
+/**
+ * Standard RecordCodec implementations for boxed primitive values.
+ * None of them support null values.
+ */
+public final class RecordCodecs
+{
+    private static final RecordCodec<Long> LONGS = new LongCodec();
+    private static final RecordCodec<Integer> INTS = new IntCodec();
+    private static final RecordCodec<Double> DOUBLES = new DoubleCodec();
+
+    private RecordCodecs()
+    {
+    }
+
+    public static RecordCodec<Long> longs()
+    {
+        return LONGS;
+    }
+
+    public static RecordCodec<Integer> ints()
+    {
+        return INTS;
+    }
+
+    public static RecordCodec<Double> doubles()
+    {
+        return DOUBLES;
+    }
+
+    @Immutable
+    private static class LongCodec
+            implements RecordCodec<Long>
+    {
+        @Override
+        public int getRecordSize()
+        {
+            return 8;
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer,
+                         int offset)
+        {
+            return buffer.getLong(offset);
+        }
+
+        @Override
+        public void write(ByteBuffer buffer,
+                          int offset,
+                          Long value)
+        {
+            buffer.putLong(offset, value);
+        }
+    }
+
+    @Immutable
+    private static class IntCodec
+            implements RecordCodec<Integer>
+    {
+        @Override
+        public int getRecordSize()
+        {
+            return 4;
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer,
+                            int offset)
+        {
+            return buffer.getInt(offset);
+        }
+
+        @Override
+        public void write(ByteBuffer buffer,
+                          int offset,
+                          Integer value)
+        {
+            buffer.putInt(offset, value);
+        }
+    }
+
+    @Immutable
+    private static class DoubleCodec
+            implements RecordCodec<Double>
+    {
+        @Override
+        public int getRecordSize()
+        {
+            return 8;
+        }
+
+        @Override
+        public Double read(ByteBuffer buffer,
+                           int offset)
+        {
+            return buffer.getDouble(offset);
+        }
+
+        @Override
+        public void write(ByteBuffer buffer,
+                          int offset,
+                          Double value)
+        {
+            buffer.putDouble(offset, value);
+        }
+    }
+}
@@ -38,6 +38,7 @@ package org.javimmutable.collections.array.trie32;
 import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.IntEntryProc;
 import org.javimmutable.collections.JImmutableMap;
 import org.javimmutable.collections.common.MutableDelta;
 import org.javimmutable.collections.cursors.StandardCursor;
@@ -56,6 +57,29 @@ public class EmptyTrieNode<T>
         return (EmptyTrieNode<T>)EMPTY;
     }
 
+    @Override
+    public void forEach(IntEntryProc<? super T> proc)
+    {
+    }
+
+    @Override
+    void expandChildren(int shift,
+                        TrieNode<T>[] dest)
+    {
+    }
+
+    @Override
+    int getChildCount()
+    {
+        return 0;
+    }
+
+    @Override
+    TrieNode<T> getChild(int position)
+    {
+        throw new IndexOutOfBoundsException();
+    }
+
     @Override
     public boolean isEmpty()
     {
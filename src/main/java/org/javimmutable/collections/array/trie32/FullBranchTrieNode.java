@@ -39,6 +39,7 @@ import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Func1;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.IntEntryProc;
 import org.javimmutable.collections.JImmutableMap;
 import org.javimmutable.collections.common.IndexedArray;
 import org.javimmutable.collections.common.MutableDelta;
@@ -53,12 +54,21 @@ public class FullBranchTrieNode<T>
 {
     private final int shift;
     private final TrieNode<T>[] entries;
+    private final EditToken owner;
 
     FullBranchTrieNode(int shift,
                        TrieNode<T>[] entries)
+    {
+        this(shift, entries, null);
+    }
+
+    FullBranchTrieNode(int shift,
+                       TrieNode<T>[] entries,
+                       EditToken owner)
     {
         this.shift = shift;
         this.entries = entries;
+        this.owner = owner;
     }
 
     static <T> FullBranchTrieNode<T> fromSource(int index,
@@ -134,7 +144,7 @@ public class FullBranchTrieNode<T>
         if (newChild == child) {
             return this;
         } else {
-            return createUpdatedEntries(shift, childIndex, newChild);
+            return createUpdatedEntries(shift, childIndex, newChild, null);
         }
     }
 
@@ -153,7 +163,7 @@ public class FullBranchTrieNode<T>
         if (newChild == child) {
             return this;
         } else {
-            return createUpdatedEntries(shift, childIndex, newChild);
+            return createUpdatedEntries(shift, childIndex, newChild, null);
         }
     }
 
@@ -166,7 +176,7 @@ public class FullBranchTrieNode<T>
         final int childIndex = (index >>> shift) & 0x1f;
         final TrieNode<T> child = entries[childIndex];
         final TrieNode<T> newChild = child.delete(shift - 5, index, sizeDelta);
-        return createDeleteResultNode(shift, childIndex, child, newChild);
+        return createDeleteResultNode(shift, childIndex, child, newChild, null);
     }
 
     @Override
@@ -180,7 +190,42 @@ public class FullBranchTrieNode<T>
         final int childIndex = (index >>> shift) & 0x1f;
         final TrieNode<T> child = entries[childIndex];
         final TrieNode<T> newChild = child.delete(shift - 5, index, key, transforms, sizeDelta);
-        return createDeleteResultNode(shift, childIndex, child, newChild);
+        return createDeleteResultNode(shift, childIndex, child, newChild, null);
+    }
+
+    @Override
+    public <K, V> TrieNode<T> editAssign(EditToken editor,
+                                         int shift,
+                                         int index,
+                                         K key,
+                                         V value,
+                                         Transforms<T, K, V> transforms,
+                                         MutableDelta sizeDelta)
+    {
+        assert this.shift == shift;
+        final int childIndex = (index >>> shift) & 0x1f;
+        final TrieNode<T> child = entries[childIndex];
+        final TrieNode<T> newChild = child.editAssign(editor, shift - 5, index, key, value, transforms, sizeDelta);
+        if (newChild == child) {
+            return this;
+        } else {
+            return createUpdatedEntries(shift, childIndex, newChild, editor);
+        }
+    }
+
+    @Override
+    public <K, V> TrieNode<T> editDelete(EditToken editor,
+                                         int shift,
+                                         int index,
+                                         K key,
+                                         Transforms<T, K, V> transforms,
+                                         MutableDelta sizeDelta)
+    {
+        assert this.shift == shift;
+        final int childIndex = (index >>> shift) & 0x1f;
+        final TrieNode<T> child = entries[childIndex];
+        final TrieNode<T> newChild = child.editDelete(editor, shift - 5, index, key, transforms, sizeDelta);
+        return createDeleteResultNode(shift, childIndex, child, newChild, editor);
     }
 
     @Override
@@ -237,27 +282,62 @@ public class FullBranchTrieNode<T>
                                        });
     }
 
+    @Override
+    public void forEach(IntEntryProc<? super T> proc)
+    {
+        for (TrieNode<T> entry : entries) {
+            entry.forEach(proc);
+        }
+    }
+
+    @Override
+    void expandChildren(int shift,
+                        TrieNode<T>[] dest)
+    {
+        assert this.shift == shift;
+        System.arraycopy(entries, 0, dest, 0, 32);
+    }
+
+    @Override
+    int getChildCount()
+    {
+        return 32;
+    }
+
+    @Override
+    TrieNode<T> getChild(int position)
+    {
+        return entries[position];
+    }
+
     private TrieNode<T> createUpdatedEntries(int shift,
                                              int childIndex,
-                                             TrieNode<T> newChild)
+                                             TrieNode<T> newChild,
+                                             EditToken editor)
     {
         assert newChild.isLeaf() || (newChild.getShift() == (shift - 5));
-        TrieNode<T>[] newEntries = entries.clone();
-        newEntries[childIndex] = newChild;
-        return new FullBranchTrieNode<T>(shift, newEntries);
+        if ((editor != null) && (editor == owner)) {
+            entries[childIndex] = newChild;
+            return this;
+        } else {
+            final TrieNode<T>[] newEntries = entries.clone();
+            newEntries[childIndex] = newChild;
+            return new FullBranchTrieNode<T>(shift, newEntries, editor);
+        }
     }
 
     private TrieNode<T> createDeleteResultNode(int shift,
                                                int childIndex,
                                                TrieNode<T> child,
-                                               TrieNode<T> newChild)
+                                               TrieNode<T> newChild,
+                                               EditToken editor)
     {
         if (newChild == child) {
             return this;
         } else if (newChild.isEmpty()) {
-            return MultiBranchTrieNode.fullWithout(shift, entries, childIndex);
+            return MultiBranchTrieNode.fullWithout(shift, entries, childIndex, editor);
         } else {
-            return createUpdatedEntries(shift, childIndex, newChild);
+            return createUpdatedEntries(shift, childIndex, newChild, editor);
         }
     }
 }
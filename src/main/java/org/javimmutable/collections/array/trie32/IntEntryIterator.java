@@ -0,0 +1,117 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.array.trie32;
+
+/**
+ * Mutable iterator over the int keys and values of a trie.  Unlike a Cursor this
+ * object changes state as it advances so no objects are created during iteration.
+ * Keys are visited in the same order as the trie's entry cursors.  Typical usage:
+ * <pre>
+ *     IntEntryIterator&lt;String&gt; iterator = array.intEntryIterator();
+ *     while (iterator.next()) {
+ *         process(iterator.getKey(), iterator.getValue());
+ *     }
+ * </pre>
+ * Instances are not thread safe and must not be shared between threads.
+ */
+public class IntEntryIterator<T>
+{
+    // 7 levels of branches (shifts 30 through 0) plus a leaf
+    private static final int MAX_DEPTH = 8;
+
+    private final TrieNode<T>[] nodes;
+    private final int[] positions;
+    private int depth;
+    private int key;
+    private T value;
+
+    IntEntryIterator(TrieNode<T> root)
+    {
+        nodes = MultiBranchTrieNode.allocate(MAX_DEPTH);
+        positions = new int[MAX_DEPTH];
+        nodes[0] = root;
+        depth = 1;
+    }
+
+    /**
+     * Advances to the next entry.
+     *
+     * @return true if there was another entry or false if the end has been reached
+     */
+    public boolean next()
+    {
+        while (depth > 0) {
+            final int top = depth - 1;
+            final TrieNode<T> node = nodes[top];
+            if (node instanceof LeafTrieNode) {
+                final LeafTrieNode<T> leaf = (LeafTrieNode<T>)node;
+                key = leaf.getIndex();
+                value = leaf.getValue();
+                nodes[top] = null;
+                depth = top;
+                return true;
+            }
+            final int position = positions[top];
+            if (position >= node.getChildCount()) {
+                nodes[top] = null;
+                depth = top;
+            } else {
+                positions[top] = position + 1;
+                nodes[depth] = node.getChild(position);
+                positions[depth] = 0;
+                depth += 1;
+            }
+        }
+        value = null;
+        return false;
+    }
+
+    /**
+     * @return key of the current entry (only valid after next() has returned true)
+     */
+    public int getKey()
+    {
+        return key;
+    }
+
+    /**
+     * @return value of the current entry (only valid after next() has returned true)
+     */
+    public T getValue()
+    {
+        return value;
+    }
+}
@@ -38,6 +38,7 @@ package org.javimmutable.collections.array.trie32;
 import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.IntEntryProc;
 import org.javimmutable.collections.JImmutableMap;
 import org.javimmutable.collections.MapEntry;
 import org.javimmutable.collections.common.MutableDelta;
@@ -154,6 +155,24 @@ public class LeafTrieNode<T>
         }
     }
 
+    @Override
+    public <K, V> TrieNode<T> editAssign(EditToken editor,
+                                         int shift,
+                                         int index,
+                                         K key,
+                                         V value,
+                                         Transforms<T, K, V> transforms,
+                                         MutableDelta sizeDelta)
+    {
+        assert shift >= -5;
+        if (this.index == index) {
+            return assign(shift, index, key, value, transforms, sizeDelta);
+        } else {
+            assert shift >= 0;
+            return SingleBranchTrieNode.forIndex(shift, this.index, this).editAssign(editor, shift, index, key, value, transforms, sizeDelta);
+        }
+    }
+
     @Override
     public TrieNode<T> delete(int shift,
                               int index,
@@ -164,7 +183,7 @@ public class LeafTrieNode<T>
             sizeDelta.subtract(1);
             return of();
         } else {
-            assert shift > 0;
+            assert shift >= 0;
             return this;
         }
     }
@@ -232,6 +251,36 @@ public class LeafTrieNode<T>
         return SingleValueCursor.of(value);
     }
 
+    @Override
+    public void forEach(IntEntryProc<? super T> proc)
+    {
+        proc.apply(index, value);
+    }
+
+    @Override
+    void expandChildren(int shift,
+                        TrieNode<T>[] dest)
+    {
+        dest[(index >>> shift) & 0x1f] = this;
+    }
+
+    @Override
+    int getChildCount()
+    {
+        return 0;
+    }
+
+    @Override
+    TrieNode<T> getChild(int position)
+    {
+        throw new IndexOutOfBoundsException();
+    }
+
+    int getIndex()
+    {
+        return index;
+    }
+
     @Override
     public boolean isFilled()
     {
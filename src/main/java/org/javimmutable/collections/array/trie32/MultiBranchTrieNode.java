@@ -40,6 +40,7 @@ import org.javimmutable.collections.Func1;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.Holders;
 import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.IntEntryProc;
 import org.javimmutable.collections.JImmutableMap;
 import org.javimmutable.collections.common.MutableDelta;
 import org.javimmutable.collections.cursors.MultiTransformCursor;
@@ -54,18 +55,31 @@ public class MultiBranchTrieNode<T>
     // used by SignedOrderCursorSource to determine which index to use next
     private static final IndexList SIGNED_INDEX_LIST = new IndexList(2, new IndexList(3, new IndexList(0, new IndexList(1, null))));
 
+    // at ROOT_SHIFT only branches 0-3 are possible and branches 0 and 1 hold the non-negative indexes
+    private static final int NON_NEGATIVE_BRANCHES = 0x3;
+
     private final int shift;
     private final int bitmask;
     private final TrieNode<T>[] entries;
+    private final EditToken owner;
 
     private MultiBranchTrieNode(int shift,
                                 int bitmask,
                                 TrieNode<T>[] entries)
+    {
+        this(shift, bitmask, entries, null);
+    }
+
+    private MultiBranchTrieNode(int shift,
+                                int bitmask,
+                                TrieNode<T>[] entries,
+                                EditToken owner)
     {
         assert shift >= 0;
         this.shift = shift;
         this.bitmask = bitmask;
         this.entries = entries;
+        this.owner = owner;
     }
 
     static <T> MultiBranchTrieNode<T> forTesting(int shift)
@@ -116,13 +130,64 @@ public class MultiBranchTrieNode<T>
     static <T> MultiBranchTrieNode<T> fullWithout(int shift,
                                                   TrieNode<T>[] entries,
                                                   int withoutIndex)
+    {
+        return fullWithout(shift, entries, withoutIndex, null);
+    }
+
+    static <T> MultiBranchTrieNode<T> fullWithout(int shift,
+                                                  TrieNode<T>[] entries,
+                                                  int withoutIndex,
+                                                  EditToken owner)
     {
         assert entries.length == 32;
         final TrieNode<T>[] newEntries = allocate(31);
         System.arraycopy(entries, 0, newEntries, 0, withoutIndex);
         System.arraycopy(entries, withoutIndex + 1, newEntries, withoutIndex, 31 - withoutIndex);
         final int newMask = ~(1 << withoutIndex);
-        return new MultiBranchTrieNode<T>(shift, newMask, newEntries);
+        return new MultiBranchTrieNode<T>(shift, newMask, newEntries, owner);
+    }
+
+    /**
+     * Creates the most compact node containing the non-empty nodes in children.
+     * children must contain exactly 32 nodes indexed by branch index.
+     */
+    static <T> TrieNode<T> forChildren(int shift,
+                                       TrieNode<T>[] children)
+    {
+        assert children.length == 32;
+        int bitmask = 0;
+        int length = 0;
+        for (int i = 0; i < 32; ++i) {
+            if (!children[i].isEmpty()) {
+                bitmask |= (1 << i);
+                length += 1;
+            }
+        }
+        switch (length) {
+        case 0:
+            return of();
+        case 1: {
+            final int branchIndex = Integer.numberOfTrailingZeros(bitmask);
+            final TrieNode<T> child = children[branchIndex];
+            if (child.isLeaf()) {
+                return child;
+            } else {
+                return SingleBranchTrieNode.forBranchIndex(shift, branchIndex, child);
+            }
+        }
+        case 32:
+            return new FullBranchTrieNode<T>(shift, children.clone());
+        default: {
+            final TrieNode<T>[] entries = allocate(length);
+            int childIndex = 0;
+            for (int i = 0; i < 32; ++i) {
+                if (!children[i].isEmpty()) {
+                    entries[childIndex++] = children[i];
+                }
+            }
+            return new MultiBranchTrieNode<T>(shift, bitmask, entries);
+        }
+        }
     }
 
     @Override
@@ -211,11 +276,11 @@ public class MultiBranchTrieNode<T>
         if ((bitmask & bit) == 0) {
             final TrieNode<T> newChild = LeafTrieNode.of(index, value);
             sizeDelta.add(1);
-            return selectNodeForInsertResult(shift, bit, bitmask, childIndex, entries, newChild);
+            return selectNodeForInsertResult(shift, bit, bitmask, childIndex, entries, newChild, null);
         } else {
             final TrieNode<T> child = entries[childIndex];
             final TrieNode<T> newChild = child.assign(shift - 5, index, value, sizeDelta);
-            return selectNodeForUpdateResult(shift, bitmask, childIndex, entries, child, newChild);
+            return selectNodeForUpdateResult(shift, bitmask, childIndex, entries, child, newChild, null);
         }
     }
 
@@ -234,11 +299,11 @@ public class MultiBranchTrieNode<T>
         final TrieNode<T>[] entries = this.entries;
         if ((bitmask & bit) == 0) {
             final TrieNode<T> newChild = LeafTrieNode.of(index, transforms.update(Holders.<T>of(), key, value, sizeDelta));
-            return selectNodeForInsertResult(shift, bit, bitmask, childIndex, entries, newChild);
+            return selectNodeForInsertResult(shift, bit, bitmask, childIndex, entries, newChild, null);
         } else {
             final TrieNode<T> child = entries[childIndex];
             final TrieNode<T> newChild = child.assign(shift - 5, index, key, value, transforms, sizeDelta);
-            return selectNodeForUpdateResult(shift, bitmask, childIndex, entries, child, newChild);
+            return selectNodeForUpdateResult(shift, bitmask, childIndex, entries, child, newChild, null);
         }
     }
 
@@ -257,7 +322,7 @@ public class MultiBranchTrieNode<T>
             final int childIndex = realIndex(bitmask, bit);
             final TrieNode<T> child = entries[childIndex];
             final TrieNode<T> newChild = child.delete(shift - 5, index, sizeDelta);
-            return selectNodeForDeleteResult(shift, bit, bitmask, entries, childIndex, child, newChild);
+            return selectNodeForDeleteResult(shift, bit, bitmask, entries, childIndex, child, newChild, null);
         }
     }
 
@@ -278,7 +343,53 @@ public class MultiBranchTrieNode<T>
             final int childIndex = realIndex(bitmask, bit);
             final TrieNode<T> child = entries[childIndex];
             TrieNode<T> newChild = child.delete(shift - 5, index, key, transforms, sizeDelta);
-            return selectNodeForDeleteResult(shift, bit, bitmask, entries, childIndex, child, newChild);
+            return selectNodeForDeleteResult(shift, bit, bitmask, entries, childIndex, child, newChild, null);
+        }
+    }
+
+    @Override
+    public <K, V> TrieNode<T> editAssign(EditToken editor,
+                                         int shift,
+                                         int index,
+                                         K key,
+                                         V value,
+                                         Transforms<T, K, V> transforms,
+                                         MutableDelta sizeDelta)
+    {
+        assert this.shift == shift;
+        final int bit = 1 << ((index >>> shift) & 0x1f);
+        final int bitmask = this.bitmask;
+        final int childIndex = realIndex(bitmask, bit);
+        final TrieNode<T>[] entries = this.entries;
+        if ((bitmask & bit) == 0) {
+            final TrieNode<T> newChild = LeafTrieNode.of(index, transforms.update(Holders.<T>of(), key, value, sizeDelta));
+            return selectNodeForInsertResult(shift, bit, bitmask, childIndex, entries, newChild, editor);
+        } else {
+            final TrieNode<T> child = entries[childIndex];
+            final TrieNode<T> newChild = child.editAssign(editor, shift - 5, index, key, value, transforms, sizeDelta);
+            return selectNodeForUpdateResult(shift, bitmask, childIndex, entries, child, newChild, editor);
+        }
+    }
+
+    @Override
+    public <K, V> TrieNode<T> editDelete(EditToken editor,
+                                         int shift,
+                                         int index,
+                                         K key,
+                                         Transforms<T, K, V> transforms,
+                                         MutableDelta sizeDelta)
+    {
+        assert this.shift == shift;
+        final int bit = 1 << ((index >>> shift) & 0x1f);
+        final int bitmask = this.bitmask;
+        final TrieNode<T>[] entries = this.entries;
+        if ((bitmask & bit) == 0) {
+            return this;
+        } else {
+            final int childIndex = realIndex(bitmask, bit);
+            final TrieNode<T> child = entries[childIndex];
+            final TrieNode<T> newChild = child.editDelete(editor, shift - 5, index, key, transforms, sizeDelta);
+            return selectNodeForDeleteResult(shift, bit, bitmask, entries, childIndex, child, newChild, editor);
         }
     }
 
@@ -348,6 +459,71 @@ public class MultiBranchTrieNode<T>
         }
     }
 
+    @Override
+    public void forEach(IntEntryProc<? super T> proc)
+    {
+        final TrieNode<T>[] entries = this.entries;
+        if (shift != ROOT_SHIFT) {
+            for (TrieNode<T> entry : entries) {
+                entry.forEach(proc);
+            }
+        } else {
+            // negative indexes (branches 2 and 3) come before non-negative ones
+            final int length = entries.length;
+            final int firstNegative = Integer.bitCount(bitmask & NON_NEGATIVE_BRANCHES);
+            for (int i = firstNegative; i < length; ++i) {
+                entries[i].forEach(proc);
+            }
+            for (int i = 0; i < firstNegative; ++i) {
+                entries[i].forEach(proc);
+            }
+        }
+    }
+
+    @Override
+    public void anyOrderForEach(IntEntryProc<? super T> proc)
+    {
+        for (TrieNode<T> entry : entries) {
+            entry.forEach(proc);
+        }
+    }
+
+    @Override
+    void expandChildren(int shift,
+                        TrieNode<T>[] dest)
+    {
+        assert this.shift == shift;
+        int remaining = bitmask;
+        for (TrieNode<T> entry : entries) {
+            final int branchIndex = Integer.numberOfTrailingZeros(remaining);
+            dest[branchIndex] = entry;
+            remaining &= ~(1 << branchIndex);
+        }
+    }
+
+    @Override
+    int getChildCount()
+    {
+        return entries.length;
+    }
+
+    @Override
+    TrieNode<T> getChild(int position)
+    {
+        if (shift != ROOT_SHIFT) {
+            return entries[position];
+        } else {
+            final int length = entries.length;
+            final int firstNegative = Integer.bitCount(bitmask & NON_NEGATIVE_BRANCHES);
+            final int negativeCount = length - firstNegative;
+            if (position < negativeCount) {
+                return entries[firstNegative + position];
+            } else {
+                return entries[position - negativeCount];
+            }
+        }
+    }
+
     // for use by unit tests
     int getBitmask()
     {
@@ -365,15 +541,20 @@ public class MultiBranchTrieNode<T>
                                                   int childIndex,
                                                   TrieNode<T>[] entries,
                                                   TrieNode<T> child,
-                                                  TrieNode<T> newChild)
+                                                  TrieNode<T> newChild,
+                                                  EditToken editor)
     {
         if (newChild == child) {
             return this;
+        } else if ((editor != null) && (editor == owner)) {
+            assert newChild.isLeaf() || (newChild.getShift() == (shift - 5));
+            entries[childIndex] = newChild;
+            return this;
         } else {
             assert newChild.isLeaf() || (newChild.getShift() == (shift - 5));
             final TrieNode<T>[] newEntries = entries.clone();
             newEntries[childIndex] = newChild;
-            return new MultiBranchTrieNode<T>(shift, bitmask, newEntries);
+            return new MultiBranchTrieNode<T>(shift, bitmask, newEntries, editor);
         }
     }
 
@@ -382,7 +563,8 @@ public class MultiBranchTrieNode<T>
                                                   int bitmask,
                                                   int childIndex,
                                                   TrieNode<T>[] entries,
-                                                  TrieNode<T> newChild)
+                                                  TrieNode<T> newChild,
+                                                  EditToken editor)
     {
         final int oldLength = entries.length;
         final TrieNode<T>[] newEntries = allocate(oldLength + 1);
@@ -392,9 +574,9 @@ public class MultiBranchTrieNode<T>
         }
         newEntries[childIndex] = newChild;
         if (newEntries.length == 32) {
-            return new FullBranchTrieNode<T>(shift, newEntries);
+            return new FullBranchTrieNode<T>(shift, newEntries, editor);
         } else {
-            return new MultiBranchTrieNode<T>(shift, bitmask | bit, newEntries);
+            return new MultiBranchTrieNode<T>(shift, bitmask | bit, newEntries, editor);
         }
     }
 
@@ -404,7 +586,8 @@ public class MultiBranchTrieNode<T>
                                                   TrieNode<T>[] entries,
                                                   int childIndex,
                                                   TrieNode<T> child,
-                                                  TrieNode<T> newChild)
+                                                  TrieNode<T> newChild,
+                                                  EditToken editor)
     {
         if (newChild.isEmpty()) {
             switch (entries.length) {
@@ -425,11 +608,11 @@ public class MultiBranchTrieNode<T>
                 final TrieNode<T>[] newArray = allocate(newLength);
                 System.arraycopy(entries, 0, newArray, 0, childIndex);
                 System.arraycopy(entries, childIndex + 1, newArray, childIndex, newLength - childIndex);
-                return new MultiBranchTrieNode<T>(shift, bitmask & ~bit, newArray);
+                return new MultiBranchTrieNode<T>(shift, bitmask & ~bit, newArray, editor);
             }
             }
         } else {
-            return selectNodeForUpdateResult(shift, bitmask, childIndex, entries, child, newChild);
+            return selectNodeForUpdateResult(shift, bitmask, childIndex, entries, child, newChild, editor);
         }
     }
 
@@ -38,6 +38,7 @@ package org.javimmutable.collections.array.trie32;
 import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.IntEntryProc;
 import org.javimmutable.collections.JImmutableMap;
 import org.javimmutable.collections.common.MutableDelta;
 
@@ -190,6 +191,43 @@ public class SingleBranchTrieNode<T>
         }
     }
 
+    @Override
+    public <K, V> TrieNode<T> editAssign(EditToken editor,
+                                         int shift,
+                                         int index,
+                                         K key,
+                                         V value,
+                                         Transforms<T, K, V> transforms,
+                                         MutableDelta sizeDelta)
+    {
+        assert this.shift == shift;
+        final int branchIndex = (index >>> shift) & 0x1f;
+        if (this.branchIndex == branchIndex) {
+            TrieNode<T> newChild = child.editAssign(editor, shift - 5, index, key, value, transforms, sizeDelta);
+            return selectNodeForUpdateResult(shift, branchIndex, newChild);
+        } else {
+            return MultiBranchTrieNode.forBranchIndex(shift, this.branchIndex, child).editAssign(editor, shift, index, key, value, transforms, sizeDelta);
+        }
+    }
+
+    @Override
+    public <K, V> TrieNode<T> editDelete(EditToken editor,
+                                         int shift,
+                                         int index,
+                                         K key,
+                                         Transforms<T, K, V> transforms,
+                                         MutableDelta sizeDelta)
+    {
+        assert this.shift == shift;
+        final int branchIndex = (index >>> shift) & 0x1f;
+        if (this.branchIndex != branchIndex) {
+            return this;
+        } else {
+            final TrieNode<T> newChild = child.editDelete(editor, shift - 5, index, key, transforms, sizeDelta);
+            return selectNodeForDeleteResult(shift, branchIndex, newChild);
+        }
+    }
+
     @Override
     public int getShift()
     {
@@ -226,6 +264,35 @@ public class SingleBranchTrieNode<T>
         return child.anyOrderValueCursor();
     }
 
+    @Override
+    public void forEach(IntEntryProc<? super T> proc)
+    {
+        child.forEach(proc);
+    }
+
+    @Override
+    void expandChildren(int shift,
+                        TrieNode<T>[] dest)
+    {
+        assert this.shift == shift;
+        dest[branchIndex] = child;
+    }
+
+    @Override
+    int getChildCount()
+    {
+        return 1;
+    }
+
+    @Override
+    TrieNode<T> getChild(int position)
+    {
+        if (position != 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        return child;
+    }
+
     // for tests
     int getBranchIndex()
     {
@@ -38,6 +38,7 @@ package org.javimmutable.collections.array.trie32;
 import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.common.MutableDelta;
 
 /**
@@ -96,4 +97,11 @@ public interface Transforms<T, K, V>
      * in the specified leaf object.
      */
     Cursor<JImmutableMap.Entry<K, V>> cursor(T leaf);
+
+    /**
+     * Pass every JImmutableMap.Entry in the specified leaf object to proc.
+     * Unlike cursor() this should not create any temporary objects.
+     */
+    void forEachEntry(T leaf,
+                      Proc1<? super JImmutableMap.Entry<K, V>> proc);
 }
@@ -39,15 +39,25 @@ import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.Holders;
 import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.IntEntryProc;
 import org.javimmutable.collections.JImmutableArray;
 import org.javimmutable.collections.JImmutableMap;
 import org.javimmutable.collections.MutableBuilder;
+import org.javimmutable.collections.SplittableCursorable;
 import org.javimmutable.collections.common.AbstractJImmutableArray;
+import org.javimmutable.collections.common.AbstractSerializationProxy;
+import org.javimmutable.collections.common.IndexedArray;
 import org.javimmutable.collections.common.MutableDelta;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
@@ -56,7 +66,11 @@ import java.util.List;
 @Immutable
 public class TrieArray<T>
         extends AbstractJImmutableArray<T>
+        implements SplittableCursorable<JImmutableMap.Entry<Integer, T>>,
+                   Serializable
 {
+    private static final long serialVersionUID = -121805L;
+
     @SuppressWarnings("unchecked")
     private static final TrieArray EMPTY = new TrieArray(TrieNode.of(), 0);
 
@@ -161,8 +175,8 @@ public class TrieArray<T>
 
     @Nonnull
     @Override
-    public JImmutableArray<T> assign(int index,
-                                     @Nullable T value)
+    public TrieArray<T> assign(int index,
+                               @Nullable T value)
     {
         MutableDelta sizeDelta = new MutableDelta();
         TrieNode<T> newRoot = root.paddedToMinimumDepthForShift(TrieNode.shiftForIndex(index));
@@ -172,7 +186,7 @@ public class TrieArray<T>
 
     @Nonnull
     @Override
-    public JImmutableArray<T> delete(int index)
+    public TrieArray<T> delete(int index)
     {
         if (root.getShift() < TrieNode.shiftForIndex(index)) {
             return this;
@@ -203,12 +217,61 @@ public class TrieArray<T>
         return root.signedOrderEntryCursor();
     }
 
+    @Nonnull
+    @Override
+    public List<Cursor<JImmutableMap.Entry<Integer, T>>> splitCursors(int minParts)
+    {
+        final List<Cursor<JImmutableMap.Entry<Integer, T>>> cursors = new ArrayList<Cursor<JImmutableMap.Entry<Integer, T>>>();
+        for (TrieNode<T> node : root.splitNodes(minParts)) {
+            cursors.add(node.signedOrderEntryCursor());
+        }
+        return cursors;
+    }
+
+    @Nonnull
+    @Override
+    public Cursor<T> valuesCursor()
+    {
+        return root.signedOrderValueCursor();
+    }
+
+    /**
+     * Visits every index and value in the array in the same order as cursor().  Unlike
+     * cursor() no Entry objects are created and indexes are passed without boxing.
+     */
+    public void forEach(@Nonnull IntEntryProc<? super T> proc)
+    {
+        root.forEach(proc);
+    }
+
+    /**
+     * Creates a mutable iterator over the indexes and values in the array.  Indexes are
+     * visited in the same order as cursor() but no Entry objects are created and indexes are
+     * returned without boxing.
+     */
+    @Nonnull
+    public IntEntryIterator<T> intEntryIterator()
+    {
+        return new IntEntryIterator<T>(root);
+    }
+
     @Override
     public void checkInvariants()
     {
         //TODO: fix empty checkInvariants()
     }
 
+    private Object writeReplace()
+    {
+        return new SerializationProxy<T>(this);
+    }
+
+    private void readObject(ObjectInputStream in)
+        throws InvalidObjectException
+    {
+        throw new InvalidObjectException("serialization proxy required");
+    }
+
     public static class Builder<T>
             implements MutableBuilder<T, TrieArray<T>>
     {
@@ -345,4 +408,63 @@ public class TrieArray<T>
             return new TrieNode[size];
         }
     }
+
+    /**
+     * Writes the size followed by each index and value in signed index order.  The trie is
+     * rebuilt bottom up when read so no intermediate nodes are created.
+     */
+    private static class SerializationProxy<T>
+            extends AbstractSerializationProxy<TrieArray<T>>
+    {
+        private static final long serialVersionUID = -121805L;
+
+        public SerializationProxy()
+        {
+            super(null);
+        }
+
+        private SerializationProxy(TrieArray<T> array)
+        {
+            super(array);
+        }
+
+        @Override
+        protected void writeCollection(ObjectOutput out,
+                                       TrieArray<T> array)
+            throws IOException
+        {
+            out.writeInt(array.size);
+            for (Cursor<JImmutableMap.Entry<Integer, T>> cursor = array.cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+                out.writeInt(cursor.getValue().getKey());
+                out.writeObject(cursor.getValue().getValue());
+            }
+        }
+
+        @Override
+        protected TrieArray<T> readCollection(ObjectInput in)
+            throws IOException, ClassNotFoundException
+        {
+            final int size = readSize(in);
+            if (size == 0) {
+                return of();
+            }
+            final int[] indexes = new int[size];
+            final Object[] values = new Object[size];
+            for (int i = 0; i < size; ++i) {
+                indexes[i] = in.readInt();
+                values[i] = in.readObject();
+                if ((i > 0) && (indexes[i] <= indexes[i - 1])) {
+                    throw new InvalidObjectException("indexes out of order");
+                }
+            }
+            final TrieNode<T> root = TrieNode.fromSorted(TrieNode.ROOT_SHIFT, indexes, IndexedArray.<T>retained(SerializationProxy.<T>cast(values)), 0, size);
+            return new TrieArray<T>(root.trimmedToMinimumDepth(), size);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T[] cast(Object[] values)
+        {
+            return (T[])values;
+        }
+    }
 }
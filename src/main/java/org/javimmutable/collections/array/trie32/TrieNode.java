@@ -37,16 +37,29 @@ package org.javimmutable.collections.array.trie32;
 
 import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
+import org.javimmutable.collections.Holders;
 import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.IntEntryProc;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.common.MapDiffBuilder;
 import org.javimmutable.collections.common.MutableDelta;
+import org.javimmutable.collections.common.ParallelHelper;
 
 import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 
 @Immutable
 public abstract class TrieNode<T>
 {
     public static final int ROOT_SHIFT = 30;
+    // number of index bits used to select a child at each level of the trie
+    public static final int BRANCH_SHIFT = 5;
+    // mask applied to the shifted index to select a child at each level of the trie
+    public static final int BRANCH_MASK = 0x1f;
 
     public abstract boolean isEmpty();
 
@@ -90,6 +103,38 @@ public abstract class TrieNode<T>
                                               Transforms<T, K, V> transforms,
                                               MutableDelta sizeDelta);
 
+    /**
+     * Same as assign() but any branch nodes owned by editor may be modified in place and
+     * any newly created branch nodes are owned by editor.  Used to build tries quickly
+     * without creating a new path of nodes for every key.  The default implementation
+     * simply calls assign().
+     */
+    public <K, V> TrieNode<T> editAssign(EditToken editor,
+                                         int shift,
+                                         int index,
+                                         K key,
+                                         V value,
+                                         Transforms<T, K, V> transforms,
+                                         MutableDelta sizeDelta)
+    {
+        return assign(shift, index, key, value, transforms, sizeDelta);
+    }
+
+    /**
+     * Same as delete() but any branch nodes owned by editor may be modified in place and
+     * any newly created branch nodes are owned by editor.  The default implementation
+     * simply calls delete().
+     */
+    public <K, V> TrieNode<T> editDelete(EditToken editor,
+                                         int shift,
+                                         int index,
+                                         K key,
+                                         Transforms<T, K, V> transforms,
+                                         MutableDelta sizeDelta)
+    {
+        return delete(shift, index, key, transforms, sizeDelta);
+    }
+
     public abstract int getShift();
 
     public abstract boolean isLeaf();
@@ -131,11 +176,134 @@ public abstract class TrieNode<T>
 
     public abstract Cursor<T> anyOrderValueCursor();
 
+    /**
+     * Visits every index and value in this node.  When called on a root node
+     * the indexes are visited in signed order just like signedOrderEntryCursor().
+     * Unlike a cursor no objects are created while visiting the values.
+     */
+    public abstract void forEach(IntEntryProc<? super T> proc);
+
+    /**
+     * Visits every index and value in this node in the same order as anyOrderEntryCursor().
+     * Only a root node orders its children differently for forEach() so this default
+     * simply delegates to it.
+     */
+    public void anyOrderForEach(IntEntryProc<? super T> proc)
+    {
+        forEach(proc);
+    }
+
+    /**
+     * Passes every entry stored in the leaf objects of this node to proc using transforms
+     * to find the entries.  Entries are visited in the same order as anyOrderEntryCursor(transforms).
+     * Only a single adapter object is created regardless of the number of entries visited.
+     */
+    public <K, V> void forEachEntry(final Transforms<T, K, V> transforms,
+                                    final Proc1<? super JImmutableMap.Entry<K, V>> proc)
+    {
+        anyOrderForEach(new IntEntryProc<T>()
+        {
+            @Override
+            public void apply(int index,
+                              T leaf)
+            {
+                transforms.forEachEntry(leaf, proc);
+            }
+        });
+    }
+
+    // stores each child into the slot of dest for its branch index at shift, used by merge()
+    abstract void expandChildren(int shift,
+                                 TrieNode<T>[] dest);
+
+    /**
+     * Splits this node along child boundaries, one level at a time, until there are at least
+     * minParts nodes or there are no more branch nodes to split.  The returned nodes are in the
+     * same signed order used by forEach() and together contain all of the values in this node.
+     */
+    public List<TrieNode<T>> splitNodes(int minParts)
+    {
+        return ParallelHelper.splitNodes(this, minParts, new ParallelHelper.Splitter<TrieNode<T>>()
+        {
+            @Override
+            public boolean addChildrenTo(TrieNode<T> node,
+                                         List<TrieNode<T>> dest)
+            {
+                final int count = node.getChildCount();
+                for (int i = 0; i < count; ++i) {
+                    dest.add(node.getChild(i));
+                }
+                return count > 0;
+            }
+        });
+    }
+
+    // number of children visited by IntEntryIterator
+    abstract int getChildCount();
+
+    // child at the specified position in signed order, used by IntEntryIterator
+    abstract TrieNode<T> getChild(int position);
+
     public static <T> TrieNode<T> of()
     {
         return EmptyTrieNode.instance();
     }
 
+    /**
+     * Merges the contents of other into node and returns the resulting node.  Values from other
+     * replace values in node for any keys present in both.  Subtrees that only exist in one of the
+     * nodes, or that are the same object in both, are reused as is.  The number of keys present
+     * in both nodes is added to overlap so the size of the result is the size of node plus
+     * otherSize minus overlap.
+     * <p>
+     * Keys are only visited in leaves that differ between the nodes.  Computing the overlap also
+     * requires the number of keys in either the subtrees shared by both nodes or the subtrees
+     * found only in other.  Both sets are counted in step and counting stops as soon as either
+     * is done so the cost of a merge is proportional to the number of branches that differ
+     * rather than the number of keys.
+     */
+    public static <T, K, V> TrieNode<T> merge(int shift,
+                                              TrieNode<T> node,
+                                              TrieNode<T> other,
+                                              int otherSize,
+                                              Transforms<T, K, V> transforms,
+                                              MutableDelta overlap)
+    {
+        final Merger<T, K, V> merger = new Merger<T, K, V>(transforms);
+        final TrieNode<T> answer = merger.merge(shift, node, other);
+        overlap.add(merger.overlap(otherSize));
+        return answer;
+    }
+
+    /**
+     * Adds a MapDiffEntry to diffs for every key that differs between oldNode and newNode.
+     * Subtrees that are the same object in both nodes are skipped without being visited
+     * so the cost is proportional to the number of branches that differ.
+     */
+    public static <T, K, V> void diff(int shift,
+                                      TrieNode<T> oldNode,
+                                      TrieNode<T> newNode,
+                                      Transforms<T, K, V> transforms,
+                                      MapDiffBuilder<K, V> diffs)
+    {
+        if ((oldNode == newNode) || diffs.isDone()) {
+            // shared subtree so there can't be any differences
+        } else if (oldNode.isEmpty()) {
+            diffs.addedAll(newNode.anyOrderEntryCursor(transforms));
+        } else if (newNode.isEmpty()) {
+            diffs.removedAll(oldNode.anyOrderEntryCursor(transforms));
+        } else if ((oldNode instanceof LeafTrieNode) && (newNode instanceof LeafTrieNode) && (((LeafTrieNode)oldNode).getIndex() == ((LeafTrieNode)newNode).getIndex())) {
+            diffLeaves(((LeafTrieNode<T>)oldNode).getValue(), ((LeafTrieNode<T>)newNode).getValue(), transforms, diffs);
+        } else {
+            assert shift >= 0;
+            final TrieNode<T>[] oldChildren = expandedChildren(shift, oldNode);
+            final TrieNode<T>[] newChildren = expandedChildren(shift, newNode);
+            for (int i = 0; i < 32; ++i) {
+                diff(shift - BRANCH_SHIFT, oldChildren[i], newChildren[i], transforms, diffs);
+            }
+        }
+    }
+
     public static <T> TrieNode<T> fromSource(int index,
                                              Indexed<? extends T> source,
                                              int offset,
@@ -161,6 +329,48 @@ public abstract class TrieNode<T>
         }
     }
 
+    /**
+     * Builds a trie bottom up from indexes that are strictly ascending in signed order with no
+     * intermediate nodes being copied.  Used to rebuild tries from serialized form.
+     *
+     * @param shift   shift of the node being built (normally ROOT_SHIFT)
+     * @param indexes strictly ascending indexes of the values
+     * @param values  value for each index
+     * @param offset  first position in indexes to include
+     * @param limit   position after last one to include
+     */
+    public static <T> TrieNode<T> fromSorted(int shift,
+                                             int[] indexes,
+                                             Indexed<? extends T> values,
+                                             int offset,
+                                             int limit)
+    {
+        switch (limit - offset) {
+        case 0:
+            return of();
+
+        case 1:
+            return LeafTrieNode.<T>of(indexes[offset], values.get(offset));
+
+        default: {
+            assert shift >= 0;
+            final TrieNode<T>[] children = MultiBranchTrieNode.allocate(32);
+            Arrays.fill(children, TrieNode.<T>of());
+            int start = offset;
+            while (start < limit) {
+                final int branchIndex = (indexes[start] >>> shift) & 0x1f;
+                int end = start + 1;
+                while ((end < limit) && (((indexes[end] >>> shift) & 0x1f) == branchIndex)) {
+                    end += 1;
+                }
+                children[branchIndex] = fromSorted(shift - BRANCH_SHIFT, indexes, values, start, end);
+                start = end;
+            }
+            return MultiBranchTrieNode.forChildren(shift, children);
+        }
+        }
+    }
+
     public static int shiftForIndex(int index)
     {
         switch (Integer.numberOfLeadingZeros(index)) {
@@ -213,4 +423,157 @@ public abstract class TrieNode<T>
         }
         throw new IllegalArgumentException();
     }
+
+    private static <T> TrieNode<T>[] expandedChildren(int shift,
+                                                      TrieNode<T> node)
+    {
+        final TrieNode<T>[] children = MultiBranchTrieNode.allocate(32);
+        Arrays.fill(children, TrieNode.<T>of());
+        node.expandChildren(shift, children);
+        return children;
+    }
+
+    private static <T, K, V> void diffLeaves(T oldValue,
+                                             T newValue,
+                                             Transforms<T, K, V> transforms,
+                                             MapDiffBuilder<K, V> diffs)
+    {
+        for (Cursor<JImmutableMap.Entry<K, V>> c = transforms.cursor(oldValue).start(); c.hasValue() && !diffs.isDone(); c = c.next()) {
+            final JImmutableMap.Entry<K, V> entry = c.getValue();
+            final Holder<V> value = transforms.findValue(newValue, entry.getKey());
+            if (value.isEmpty()) {
+                diffs.removed(entry.getKey(), entry.getValue());
+            } else {
+                diffs.compare(entry.getKey(), entry.getValue(), value.getValue());
+            }
+        }
+        for (Cursor<JImmutableMap.Entry<K, V>> c = transforms.cursor(newValue).start(); c.hasValue() && !diffs.isDone(); c = c.next()) {
+            final JImmutableMap.Entry<K, V> entry = c.getValue();
+            if (transforms.findValue(oldValue, entry.getKey()).isEmpty()) {
+                diffs.added(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Holds the state of a single merge().  Subtrees shared by both nodes and subtrees found
+     * only in other are remembered rather than counted as they are found.
+     */
+    private static class Merger<T, K, V>
+    {
+        private final Transforms<T, K, V> transforms;
+        private final List<TrieNode<T>> shared = new ArrayList<TrieNode<T>>();
+        private final List<TrieNode<T>> otherOnly = new ArrayList<TrieNode<T>>();
+        private final MutableDelta leafAdded = new MutableDelta();
+        private int leafOverlap;
+
+        private Merger(Transforms<T, K, V> transforms)
+        {
+            this.transforms = transforms;
+        }
+
+        private TrieNode<T> merge(int shift,
+                                  TrieNode<T> node,
+                                  TrieNode<T> other)
+        {
+            if (other.isEmpty()) {
+                return node;
+            } else if (node == other) {
+                shared.add(other);
+                return node;
+            } else if (node.isEmpty()) {
+                otherOnly.add(other);
+                return other;
+            } else if ((node instanceof LeafTrieNode) && (other instanceof LeafTrieNode) && (((LeafTrieNode)node).getIndex() == ((LeafTrieNode)other).getIndex())) {
+                return mergeLeaves((LeafTrieNode<T>)node, (LeafTrieNode<T>)other);
+            } else {
+                assert shift >= 0;
+                final TrieNode<T>[] nodeChildren = expandedChildren(shift, node);
+                final TrieNode<T>[] otherChildren = expandedChildren(shift, other);
+                final TrieNode<T>[] children = MultiBranchTrieNode.allocate(32);
+                boolean sameAsNode = !(node instanceof LeafTrieNode);
+                boolean sameAsOther = !(other instanceof LeafTrieNode);
+                for (int i = 0; i < 32; ++i) {
+                    final TrieNode<T> child = merge(shift - BRANCH_SHIFT, nodeChildren[i], otherChildren[i]);
+                    sameAsNode = sameAsNode && (child == nodeChildren[i]);
+                    sameAsOther = sameAsOther && (child == otherChildren[i]);
+                    children[i] = child;
+                }
+                if (sameAsNode) {
+                    return node;
+                } else if (sameAsOther) {
+                    return other;
+                } else {
+                    return MultiBranchTrieNode.forChildren(shift, children);
+                }
+            }
+        }
+
+        private TrieNode<T> mergeLeaves(LeafTrieNode<T> node,
+                                        LeafTrieNode<T> other)
+        {
+            final int addedBefore = leafAdded.getValue();
+            int otherKeys = 0;
+            T value = node.getValue();
+            for (Cursor<JImmutableMap.Entry<K, V>> c = transforms.cursor(other.getValue()).start(); c.hasValue(); c = c.next()) {
+                final JImmutableMap.Entry<K, V> entry = c.getValue();
+                final Holder<V> current = transforms.findValue(value, entry.getKey());
+                if (current.isEmpty() || (current.getValue() != entry.getValue())) {
+                    value = transforms.update(Holders.of(value), entry.getKey(), entry.getValue(), leafAdded);
+                }
+                otherKeys += 1;
+            }
+            leafOverlap += otherKeys - (leafAdded.getValue() - addedBefore);
+            return (value == node.getValue()) ? node : LeafTrieNode.of(node.getIndex(), value);
+        }
+
+        /**
+         * Every key in other is either in a merged leaf, a shared subtree or a subtree found only
+         * in other so knowing the size of either of the last two is enough to compute the overlap.
+         */
+        private int overlap(int otherSize)
+        {
+            final KeyCounter<T, K, V> sharedKeys = new KeyCounter<T, K, V>(shared, transforms);
+            final KeyCounter<T, K, V> otherOnlyKeys = new KeyCounter<T, K, V>(otherOnly, transforms);
+            for (; ; ) {
+                if (!sharedKeys.countNext()) {
+                    return leafOverlap + sharedKeys.count;
+                }
+                if (!otherOnlyKeys.countNext()) {
+                    return otherSize - leafAdded.getValue() - otherOnlyKeys.count;
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the keys in a list of nodes one at a time so that two lists can be counted in step.
+     */
+    private static class KeyCounter<T, K, V>
+    {
+        private final Iterator<TrieNode<T>> nodes;
+        private final Transforms<T, K, V> transforms;
+        private Cursor<JImmutableMap.Entry<K, V>> cursor;
+        private int count;
+
+        private KeyCounter(List<TrieNode<T>> nodes,
+                           Transforms<T, K, V> transforms)
+        {
+            this.nodes = nodes.iterator();
+            this.transforms = transforms;
+        }
+
+        private boolean countNext()
+        {
+            while ((cursor == null) || !cursor.hasValue()) {
+                if (!nodes.hasNext()) {
+                    return false;
+                }
+                cursor = nodes.next().anyOrderEntryCursor(transforms).start();
+            }
+            cursor = cursor.next();
+            count += 1;
+            return true;
+        }
+    }
 }
@@ -37,12 +37,15 @@ package org.javimmutable.collections.btree_list;
 
 import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.Tuple2;
 import org.javimmutable.collections.common.ArrayHelper;
 import org.javimmutable.collections.common.IndexedArray;
 import org.javimmutable.collections.cursors.LazyMultiCursor;
 
 import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.List;
 
 class BtreeBranchNode<T>
     implements BtreeNode<T>,
@@ -96,6 +99,36 @@ class BtreeBranchNode<T>
         return new BtreeBranchNode<T>(children.clone());
     }
 
+    /**
+     * Joins two nodes of any depth into a single balanced node containing the values of
+     * first followed by the values of second.  Runs in time proportional to the depth of
+     * the deeper node and shares all nodes not along the seam between the two.
+     */
+    @Nonnull
+    static <T> BtreeNode<T> concat(@Nonnull BtreeNode<T> first,
+                                   @Nonnull BtreeNode<T> second)
+    {
+        if (first.valueCount() == 0) {
+            return second;
+        } else if (second.valueCount() == 0) {
+            return first;
+        } else if (first.depth() >= second.depth()) {
+            return join(first.appendNode(second));
+        } else {
+            return join(second.prependNode(first));
+        }
+    }
+
+    @Nonnull
+    static <T> BtreeNode<T> join(@Nonnull BtreeInsertResult<T> result)
+    {
+        if (result.type == BtreeInsertResult.Type.INPLACE) {
+            return result.newNode;
+        } else {
+            return new BtreeBranchNode<T>(result.newNode, result.extraNode);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     @Nonnull
     private static <T> BtreeNode<T>[] allocateNodes(int size)
@@ -244,6 +277,105 @@ class BtreeBranchNode<T>
                                                      new BtreeBranchNode<T>(ArrayHelper.subArray(this, children, branch.children, MIN_CHILDREN, children.length + branch.children.length)));
     }
 
+    @Nonnull
+    @Override
+    public BtreeInsertResult<T> appendNode(@Nonnull BtreeNode<T> node)
+    {
+        if (node.valueCount() == 0) {
+            return BtreeInsertResult.<T>createInPlace(this);
+        }
+        final int lastIndex = children.length - 1;
+        final BtreeNode<T>[] newChildren;
+        if (node.depth() == depth()) {
+            // merge our last child with its first child and keep all the others
+            final BtreeBranchNode<T> branch = (BtreeBranchNode<T>)node;
+            final BtreeInsertResult<T> seam = children[lastIndex].appendNode(branch.children[0]);
+            final BtreeNode<T>[] joined = ArrayHelper.concat(this, children, branch.children);
+            if (seam.type == BtreeInsertResult.Type.INPLACE) {
+                newChildren = ArrayHelper.assignDelete(this, joined, lastIndex, seam.newNode);
+            } else {
+                newChildren = ArrayHelper.assignTwo(joined, lastIndex, seam.newNode, seam.extraNode);
+            }
+        } else {
+            final BtreeInsertResult<T> result = children[lastIndex].appendNode(node);
+            if (result.type == BtreeInsertResult.Type.INPLACE) {
+                newChildren = ArrayHelper.assign(children, lastIndex, result.newNode);
+            } else {
+                newChildren = ArrayHelper.assignAppend(this, children, result.newNode, result.extraNode);
+            }
+        }
+        return createBalanced(newChildren);
+    }
+
+    @Nonnull
+    @Override
+    public BtreeInsertResult<T> prependNode(@Nonnull BtreeNode<T> node)
+    {
+        if (node.valueCount() == 0) {
+            return BtreeInsertResult.<T>createInPlace(this);
+        } else if (node.depth() == depth()) {
+            return node.appendNode(this);
+        }
+        final BtreeInsertResult<T> result = children[0].prependNode(node);
+        if (result.type == BtreeInsertResult.Type.INPLACE) {
+            return createBalanced(ArrayHelper.assign(children, 0, result.newNode));
+        } else {
+            return createBalanced(ArrayHelper.assignInsert(this, children, 0, result.newNode, result.extraNode));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public BtreeNode<T> prefix(int limit)
+    {
+        if (limit == valueCount) {
+            return this;
+        } else if (limit == 0) {
+            return BtreeEmptyNode.of();
+        }
+        final Location<T> loc = findIndexForGetAssign(limit);
+        final BtreeNode<T> childPrefix = loc.child.prefix(loc.logicalIndex);
+        if (loc.childIndex == 0) {
+            return childPrefix;
+        }
+        final BtreeNode<T> before;
+        if (loc.childIndex == 1) {
+            before = children[0];
+        } else {
+            before = new BtreeBranchNode<T>(ArrayHelper.subArray(this, children, 0, loc.childIndex));
+        }
+        return join(before.appendNode(childPrefix));
+    }
+
+    @Nonnull
+    @Override
+    public BtreeNode<T> suffix(int offset)
+    {
+        if (offset == 0) {
+            return this;
+        } else if (offset == valueCount) {
+            return BtreeEmptyNode.of();
+        }
+        final Location<T> loc = findIndexForGetAssign(offset);
+        final BtreeNode<T> childSuffix = loc.child.suffix(loc.logicalIndex);
+        final int lastIndex = children.length - 1;
+        if (loc.childIndex == lastIndex) {
+            return childSuffix;
+        }
+        final BtreeNode<T> after;
+        if (loc.childIndex == (lastIndex - 1)) {
+            after = children[lastIndex];
+        } else {
+            after = new BtreeBranchNode<T>(ArrayHelper.subArray(this, children, loc.childIndex + 1, children.length));
+        }
+        return join(after.prependNode(childSuffix));
+    }
+
+    void addChildrenTo(List<BtreeNode<T>> dest)
+    {
+        Collections.addAll(dest, children);
+    }
+
     @Nonnull
     @Override
     public BtreeNode<T> firstChild()
@@ -260,11 +392,15 @@ class BtreeBranchNode<T>
         if (valueCount != countValues(children)) {
             throw new IllegalStateException();
         }
+        // every node below the root must be at least half full
         int depth = children[0].depth();
         for (BtreeNode<T> child : children) {
             if (child.depth() != depth) {
                 throw new IllegalStateException();
             }
+            if (child.childCount() < MIN_CHILDREN) {
+                throw new IllegalStateException();
+            }
             child.checkInvariants();
         }
     }
@@ -276,6 +412,14 @@ class BtreeBranchNode<T>
         return LazyMultiCursor.cursor(IndexedArray.retained(children));
     }
 
+    @Override
+    public void forEachValue(@Nonnull Proc1<? super T> proc)
+    {
+        for (BtreeNode<T> child : children) {
+            child.forEachValue(proc);
+        }
+    }
+
     @Override
     public int depth()
     {
@@ -290,6 +434,18 @@ class BtreeBranchNode<T>
         return (BtreeNode<T>[])new BtreeNode[size];
     }
 
+    // splits children evenly into two nodes if there are too many for one
+    private BtreeInsertResult<T> createBalanced(BtreeNode<T>[] newChildren)
+    {
+        if (newChildren.length <= MAX_CHILDREN) {
+            return BtreeInsertResult.<T>createInPlace(new BtreeBranchNode<T>(newChildren));
+        } else {
+            final int half = newChildren.length / 2;
+            return BtreeInsertResult.<T>createSplit(new BtreeBranchNode<T>(ArrayHelper.subArray(this, newChildren, 0, half)),
+                                                    new BtreeBranchNode<T>(ArrayHelper.subArray(this, newChildren, half, newChildren.length)));
+        }
+    }
+
     private Location<T> findIndexForGetAssign(int index)
     {
         int childIndex = 0;
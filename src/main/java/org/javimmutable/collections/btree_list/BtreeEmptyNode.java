@@ -36,6 +36,7 @@
 package org.javimmutable.collections.btree_list;
 
 import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.Tuple2;
 import org.javimmutable.collections.cursors.StandardCursor;
 
@@ -128,6 +129,34 @@ class BtreeEmptyNode<T>
         return this;
     }
 
+    @Nonnull
+    @Override
+    public BtreeInsertResult<T> appendNode(@Nonnull BtreeNode<T> node)
+    {
+        return BtreeInsertResult.createInPlace(node);
+    }
+
+    @Nonnull
+    @Override
+    public BtreeInsertResult<T> prependNode(@Nonnull BtreeNode<T> node)
+    {
+        return BtreeInsertResult.createInPlace(node);
+    }
+
+    @Nonnull
+    @Override
+    public BtreeNode<T> prefix(int limit)
+    {
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BtreeNode<T> suffix(int offset)
+    {
+        return this;
+    }
+
     @Override
     public boolean containsIndex(int index)
     {
@@ -146,6 +175,11 @@ class BtreeEmptyNode<T>
         return StandardCursor.of();
     }
 
+    @Override
+    public void forEachValue(@Nonnull Proc1<? super T> proc)
+    {
+    }
+
     @Override
     public int depth()
     {
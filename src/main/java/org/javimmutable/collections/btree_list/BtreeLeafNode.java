@@ -37,6 +37,7 @@ package org.javimmutable.collections.btree_list;
 
 import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.Tuple2;
 import org.javimmutable.collections.common.ArrayHelper;
 import org.javimmutable.collections.common.IndexedArray;
@@ -150,6 +151,14 @@ class BtreeLeafNode<T>
         return StandardCursor.of(IndexedArray.retained(values));
     }
 
+    @Override
+    public void forEachValue(@Nonnull Proc1<? super T> proc)
+    {
+        for (T value : values) {
+            proc.apply(value);
+        }
+    }
+
     @Nonnull
     @Override
     public BtreeNode<T> delete(int index)
@@ -188,6 +197,62 @@ class BtreeLeafNode<T>
         return this;
     }
 
+    @Nonnull
+    @Override
+    public BtreeInsertResult<T> appendNode(@Nonnull BtreeNode<T> node)
+    {
+        if (node.valueCount() == 0) {
+            return BtreeInsertResult.createInPlace(this);
+        }
+        final BtreeLeafNode<T> leaf = (BtreeLeafNode<T>)node;
+        final int length = values.length + leaf.values.length;
+        if (length <= MAX_CHILDREN) {
+            return BtreeInsertResult.createInPlace(new BtreeLeafNode<T>(ArrayHelper.concat(this, values, leaf.values)));
+        } else if ((values.length >= MIN_CHILDREN) && (leaf.values.length >= MIN_CHILDREN)) {
+            return BtreeInsertResult.createSplit(this, node);
+        } else {
+            final int half = length / 2;
+            return BtreeInsertResult.createSplit(new BtreeLeafNode<T>(ArrayHelper.subArray(this, values, leaf.values, 0, half)),
+                                                 new BtreeLeafNode<T>(ArrayHelper.subArray(this, values, leaf.values, half, length)));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public BtreeInsertResult<T> prependNode(@Nonnull BtreeNode<T> node)
+    {
+        if (node.valueCount() == 0) {
+            return BtreeInsertResult.createInPlace(this);
+        }
+        return node.appendNode(this);
+    }
+
+    @Nonnull
+    @Override
+    public BtreeNode<T> prefix(int limit)
+    {
+        if (limit == 0) {
+            return BtreeEmptyNode.of();
+        } else if (limit == values.length) {
+            return this;
+        } else {
+            return new BtreeLeafNode<T>(ArrayHelper.subArray(this, values, 0, limit));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public BtreeNode<T> suffix(int offset)
+    {
+        if (offset == values.length) {
+            return BtreeEmptyNode.of();
+        } else if (offset == 0) {
+            return this;
+        } else {
+            return new BtreeLeafNode<T>(ArrayHelper.subArray(this, values, offset, values.length));
+        }
+    }
+
     @Override
     public int depth()
     {
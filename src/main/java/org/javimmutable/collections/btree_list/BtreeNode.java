@@ -37,6 +37,7 @@ package org.javimmutable.collections.btree_list;
 
 import org.javimmutable.collections.Cursorable;
 import org.javimmutable.collections.InvariantCheckable;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.Tuple2;
 
 import javax.annotation.Nonnull;
@@ -83,7 +84,41 @@ interface BtreeNode<T>
     @Nonnull
     BtreeNode<T> firstChild();
 
+    /**
+     * Joins node to the end of this node.  The depth of node must not be greater than the
+     * depth of this node.  Nodes along the seam between the two trees are merged or evenly
+     * redistributed so the result stays balanced.
+     */
+    @Nonnull
+    BtreeInsertResult<T> appendNode(@Nonnull BtreeNode<T> node);
+
+    /**
+     * Joins node to the start of this node.  The depth of node must not be greater than the
+     * depth of this node.
+     */
+    @Nonnull
+    BtreeInsertResult<T> prependNode(@Nonnull BtreeNode<T> node);
+
+    /**
+     * @return node containing the values with indexes in the range [0,limit) which may be
+     * shallower than this node and whose root may have fewer than MIN_CHILDREN children
+     */
+    @Nonnull
+    BtreeNode<T> prefix(int limit);
+
+    /**
+     * @return node containing the values with indexes in the range [offset,valueCount()) which
+     * may be shallower than this node and whose root may have fewer than MIN_CHILDREN children
+     */
+    @Nonnull
+    BtreeNode<T> suffix(int offset);
+
     boolean containsIndex(int index);
 
+    /**
+     * Passes every value in this node to proc in list order without creating any cursors.
+     */
+    void forEachValue(@Nonnull Proc1<? super T> proc);
+
     int depth();
 }
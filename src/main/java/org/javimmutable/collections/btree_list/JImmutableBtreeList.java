@@ -36,18 +36,28 @@
 package org.javimmutable.collections.btree_list;
 
 import org.javimmutable.collections.*;
+import org.javimmutable.collections.common.AbstractSerializationProxy;
+import org.javimmutable.collections.common.IndexedArray;
 import org.javimmutable.collections.common.IndexedList;
 import org.javimmutable.collections.common.IteratorAdaptor;
 import org.javimmutable.collections.common.ListAdaptor;
+import org.javimmutable.collections.common.ParallelHelper;
 import org.javimmutable.collections.cursors.Cursors;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Implementation of JImmutableRandomAccessList that uses a B-Tree for its implementation.
@@ -56,8 +66,12 @@ import java.util.List;
  */
 @Immutable
 public class JImmutableBtreeList<T>
-        implements JImmutableRandomAccessList<T>
+        implements JImmutableRandomAccessList<T>,
+                   SplittableCursorable<T>,
+                   Serializable
 {
+    private static final long serialVersionUID = -121805L;
+
     private static final JImmutableBtreeList<Object> EMPTY = new JImmutableBtreeList<Object>(BtreeEmptyNode.of());
 
     private final BtreeNode<T> root;
@@ -76,55 +90,49 @@ public class JImmutableBtreeList<T>
     @Nonnull
     public static <T> JImmutableBtreeList<T> of(@Nonnull Indexed<? extends T> values)
     {
-        int nodeCount = values.size();
-        if (nodeCount == 0) {
+        return of(values, null);
+    }
+
+    /**
+     * Same as of(Indexed) but the nodes of each level of the tree are created in parallel by
+     * tasks run using executor.  If executor is null the nodes are all created by the calling
+     * thread.  The resulting tree is the same in either case.
+     */
+    @Nonnull
+    public static <T> JImmutableBtreeList<T> of(@Nonnull final Indexed<? extends T> values,
+                                                @Nullable ExecutorService executor)
+    {
+        final int valueCount = values.size();
+        if (valueCount == 0) {
             return of();
         }
 
-        if (nodeCount <= BtreeNode.MAX_CHILDREN) {
-            return new JImmutableBtreeList<T>(BtreeLeafNode.of(values, 0, nodeCount));
+        if (valueCount <= BtreeNode.MAX_CHILDREN) {
+            return new JImmutableBtreeList<T>(BtreeLeafNode.of(values, 0, valueCount));
         }
 
-        final List<BtreeNode<T>> nodes = new ArrayList<BtreeNode<T>>();
-        int remaining = nodeCount;
-        int offset = 0;
-        while (remaining > 0) {
-            BtreeNode<T> node;
-            if (remaining <= BtreeNode.MAX_CHILDREN) {
-                node = BtreeLeafNode.of(values, offset, Math.min(offset + BtreeNode.MAX_CHILDREN, nodeCount));
-                remaining = 0;
-                offset = nodeCount;
-            } else {
-                node = BtreeLeafNode.of(values, offset, offset + BtreeNode.MIN_CHILDREN);
-                remaining -= BtreeNode.MIN_CHILDREN;
-                offset += BtreeNode.MIN_CHILDREN;
+        List<BtreeNode<T>> nodes = ParallelHelper.createAll(executor, parentCount(valueCount), new Func1<Integer, BtreeNode<T>>()
+        {
+            @Override
+            public BtreeNode<T> apply(Integer index)
+            {
+                final int offset = index * BtreeNode.MIN_CHILDREN;
+                return BtreeLeafNode.of(values, offset, parentLimit(offset, valueCount));
             }
-            nodes.add(node);
-        }
-        nodeCount = nodes.size();
-
-        final Indexed<BtreeNode<T>> indexed = IndexedList.retained(nodes);
-        while (nodeCount > 1) {
-            remaining = nodeCount;
-            offset = 0;
-            int branchCount = 0;
-            while (remaining > 0) {
-                BtreeNode<T> node;
-                if (remaining <= BtreeNode.MAX_CHILDREN) {
-                    node = BtreeBranchNode.of(indexed, offset, Math.min(offset + BtreeNode.MAX_CHILDREN, nodeCount));
-                    remaining = 0;
-                    offset = nodeCount;
-                } else {
-                    node = BtreeBranchNode.of(indexed, offset, offset + BtreeNode.MIN_CHILDREN);
-                    remaining -= BtreeNode.MIN_CHILDREN;
-                    offset += BtreeNode.MIN_CHILDREN;
+        });
+        while (nodes.size() > 1) {
+            final int nodeCount = nodes.size();
+            final Indexed<BtreeNode<T>> children = IndexedList.retained(nodes);
+            nodes = ParallelHelper.createAll(executor, parentCount(nodeCount), new Func1<Integer, BtreeNode<T>>()
+            {
+                @Override
+                public BtreeNode<T> apply(Integer index)
+                {
+                    final int offset = index * BtreeNode.MIN_CHILDREN;
+                    return BtreeBranchNode.of(children, offset, parentLimit(offset, nodeCount));
                 }
-                nodes.set(branchCount, node);
-                branchCount += 1;
-            }
-            nodeCount = branchCount;
+            });
         }
-
         return new JImmutableBtreeList<T>(nodes.get(0));
     }
 
@@ -144,7 +152,9 @@ public class JImmutableBtreeList<T>
 
     private JImmutableBtreeList<T> createForDelete(@Nonnull BtreeNode<T> newRoot)
     {
-        if (newRoot.valueCount() == 0) {
+        if (newRoot == root) {
+            return this;
+        } else if (newRoot.valueCount() == 0) {
             return of();
         }
         while (newRoot.childCount() == 1) {
@@ -233,6 +243,9 @@ public class JImmutableBtreeList<T>
     public JImmutableBtreeList<T> insertAll(int index,
                                             @Nonnull Cursorable<? extends T> values)
     {
+        if (values instanceof JImmutableBtreeList) {
+            return splice(index, (JImmutableBtreeList<? extends T>)values);
+        }
         return insertAll(index, values.cursor());
     }
 
@@ -360,6 +373,67 @@ public class JImmutableBtreeList<T>
         return of();
     }
 
+    /**
+     * Returns a list containing the values of this list followed by the values of other.
+     * The two trees are joined along their edges in O(log n) time and all nodes away from
+     * the seam are shared with the original lists.
+     */
+    @Nonnull
+    public JImmutableBtreeList<T> concat(@Nonnull JImmutableBtreeList<? extends T> other)
+    {
+        return createForDelete(BtreeBranchNode.concat(root, nodeOf(other)));
+    }
+
+    /**
+     * Splits this list into a list of the values before index and a list of the values
+     * starting at index.  Runs in O(log n) time and shares all nodes away from the split
+     * point with this list.
+     *
+     * @throws IndexOutOfBoundsException if index is negative or greater than size()
+     */
+    @Nonnull
+    public Tuple2<JImmutableBtreeList<T>, JImmutableBtreeList<T>> split(int index)
+    {
+        if ((index < 0) || (index > size())) {
+            throw new IndexOutOfBoundsException();
+        }
+        return Tuple2.of(createForDelete(root.prefix(index)), createForDelete(root.suffix(index)));
+    }
+
+    /**
+     * Returns a list containing the values with indexes in the range [fromIndex,toIndex).
+     * Runs in O(log n) time and shares all nodes away from the ends of the range with this list.
+     *
+     * @throws IndexOutOfBoundsException if the indexes are out of range or fromIndex is greater than toIndex
+     */
+    @Nonnull
+    public JImmutableBtreeList<T> subList(int fromIndex,
+                                          int toIndex)
+    {
+        if ((fromIndex < 0) || (toIndex > size()) || (fromIndex > toIndex)) {
+            throw new IndexOutOfBoundsException();
+        }
+        return createForDelete(root.prefix(toIndex).suffix(fromIndex));
+    }
+
+    private JImmutableBtreeList<T> splice(int index,
+                                          @Nonnull JImmutableBtreeList<? extends T> values)
+    {
+        if ((index < 0) || (index > size())) {
+            throw new IndexOutOfBoundsException();
+        }
+        final BtreeNode<T> inserted = nodeOf(values);
+        final BtreeNode<T> newRoot = BtreeBranchNode.concat(BtreeBranchNode.concat(root.prefix(index), inserted), root.suffix(index));
+        return createForDelete(newRoot);
+    }
+
+    // nodes are never modified so a tree of a subtype can be safely shared
+    @SuppressWarnings("unchecked")
+    private static <T> BtreeNode<T> nodeOf(JImmutableBtreeList<? extends T> list)
+    {
+        return (BtreeNode<T>)list.root;
+    }
+
     @Override
     public int size()
     {
@@ -403,18 +477,63 @@ public class JImmutableBtreeList<T>
         return root.cursor();
     }
 
+    @Override
+    public void forEachValue(@Nonnull Proc1<? super T> proc)
+    {
+        root.forEachValue(proc);
+    }
+
     @Override
     public Iterator<T> iterator()
     {
         return IteratorAdaptor.of(cursor());
     }
 
+    /**
+     * Splits the tree along BtreeBranchNode child boundaries, one level at a time.
+     */
+    @Nonnull
+    @Override
+    public List<Cursor<T>> splitCursors(int minParts)
+    {
+        final List<BtreeNode<T>> nodes = ParallelHelper.splitNodes(root, minParts, new ParallelHelper.Splitter<BtreeNode<T>>()
+        {
+            @Override
+            public boolean addChildrenTo(BtreeNode<T> node,
+                                         List<BtreeNode<T>> dest)
+            {
+                if (node instanceof BtreeBranchNode) {
+                    ((BtreeBranchNode<T>)node).addChildrenTo(dest);
+                    return true;
+                } else {
+                    return false;
+                }
+            }
+        });
+        final List<Cursor<T>> cursors = new ArrayList<Cursor<T>>();
+        for (BtreeNode<T> node : nodes) {
+            cursors.add(node.cursor());
+        }
+        return cursors;
+    }
+
     @Override
     public void checkInvariants()
     {
+        if ((root instanceof BtreeBranchNode) && (root.childCount() < 2)) {
+            throw new IllegalStateException();
+        }
         root.checkInvariants();
     }
 
+    /**
+     * For unit test purposes only - depth of the tree with a leaf or empty root being depth 1.
+     */
+    int depth()
+    {
+        return root.depth();
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -433,6 +552,35 @@ public class JImmutableBtreeList<T>
         return Cursors.makeString(cursor());
     }
 
+    // Number of parents needed for count children.  Every parent holds MIN_CHILDREN children
+    // except for the last one which holds the remaining (up to MAX_CHILDREN) children.
+    private static int parentCount(int count)
+    {
+        if (count <= BtreeNode.MAX_CHILDREN) {
+            return 1;
+        } else {
+            return 1 + ((count - BtreeNode.MAX_CHILDREN + BtreeNode.MIN_CHILDREN - 1) / BtreeNode.MIN_CHILDREN);
+        }
+    }
+
+    // Limit of the children for the parent starting at offset, see parentCount()
+    private static int parentLimit(int offset,
+                                   int count)
+    {
+        return ((count - offset) <= BtreeNode.MAX_CHILDREN) ? count : (offset + BtreeNode.MIN_CHILDREN);
+    }
+
+    private Object writeReplace()
+    {
+        return new SerializationProxy<T>(this);
+    }
+
+    private void readObject(ObjectInputStream in)
+        throws InvalidObjectException
+    {
+        throw new InvalidObjectException("serialization proxy required");
+    }
+
     public static class Builder<T>
             implements JImmutableRandomAccessList.Builder<T>
     {
@@ -453,6 +601,16 @@ public class JImmutableBtreeList<T>
             return of(IndexedList.retained(values));
         }
 
+        /**
+         * Same as build() but the nodes of the list are created in parallel by tasks
+         * run using executor.  Produces the same list as build().
+         */
+        @Nonnull
+        public JImmutableBtreeList<T> build(@Nonnull ExecutorService executor)
+        {
+            return of(IndexedList.retained(values), executor);
+        }
+
         @Nonnull
         @Override
         public Builder<T> add(Cursor<? extends T> source)
@@ -510,4 +668,55 @@ public class JImmutableBtreeList<T>
             return this;
         }
     }
+
+    /**
+     * Writes the size followed by each value in order.  The list is rebuilt bottom up when read.
+     */
+    private static class SerializationProxy<T>
+            extends AbstractSerializationProxy<JImmutableBtreeList<T>>
+    {
+        private static final long serialVersionUID = -121805L;
+
+        public SerializationProxy()
+        {
+            super(null);
+        }
+
+        private SerializationProxy(JImmutableBtreeList<T> list)
+        {
+            super(list);
+        }
+
+        @Override
+        protected void writeCollection(ObjectOutput out,
+                                       JImmutableBtreeList<T> list)
+            throws IOException
+        {
+            out.writeInt(list.size());
+            for (Cursor<T> cursor = list.cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+                out.writeObject(cursor.getValue());
+            }
+        }
+
+        @Override
+        protected JImmutableBtreeList<T> readCollection(ObjectInput in)
+            throws IOException, ClassNotFoundException
+        {
+            final int size = readSize(in);
+            if (size == 0) {
+                return of();
+            }
+            final Object[] values = new Object[size];
+            for (int i = 0; i < size; ++i) {
+                values[i] = in.readObject();
+            }
+            return of(IndexedArray.<T>retained(SerializationProxy.<T>cast(values)));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T[] cast(Object[] values)
+        {
+            return (T[])values;
+        }
+    }
 }
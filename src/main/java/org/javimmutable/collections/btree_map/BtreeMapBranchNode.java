@@ -0,0 +1,346 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.btree_map;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Holder;
+import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.Tuple2;
+import org.javimmutable.collections.common.ArrayHelper;
+import org.javimmutable.collections.common.IndexedArray;
+import org.javimmutable.collections.cursors.LazyMultiCursor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.util.Comparator;
+
+/**
+ * Branch node holding up to MAX_CHILDREN children.  The largest key of each child is kept
+ * in a parallel array so that the child containing a key can be found with a binary search
+ * without touching the children themselves.
+ */
+@Immutable
+class BtreeMapBranchNode<K, V>
+    implements BtreeMapNode<K, V>,
+               ArrayHelper.Allocator<BtreeMapNode<K, V>>
+{
+    private final K[] keys;
+    private final BtreeMapNode<K, V>[] children;
+    private final int valueCount;
+
+    BtreeMapBranchNode(@Nonnull BtreeMapNode<K, V> child1,
+                       @Nonnull BtreeMapNode<K, V> child2)
+    {
+        this(createChildren(child1, child2));
+    }
+
+    @SuppressWarnings("unchecked")
+    private BtreeMapBranchNode(@Nonnull BtreeMapNode<K, V>[] children)
+    {
+        final K[] keys = (K[])new Object[children.length];
+        int valueCount = 0;
+        for (int i = 0; i < children.length; ++i) {
+            keys[i] = children[i].maxKey();
+            valueCount += children[i].valueCount();
+        }
+        this.keys = keys;
+        this.children = children;
+        this.valueCount = valueCount;
+    }
+
+    /**
+     * Creates a branch containing the nodes in the range [offset,limit) of source.
+     * The nodes must already be in ascending key order.
+     */
+    static <K, V> BtreeMapBranchNode<K, V> of(BtreeMapNode<K, V>[] source,
+                                              int offset,
+                                              int limit)
+    {
+        final int length = limit - offset;
+        assert (length > 0) && (length <= MAX_CHILDREN);
+        final BtreeMapNode<K, V>[] children = allocateNodes(length);
+        System.arraycopy(source, offset, children, 0, length);
+        return new BtreeMapBranchNode<K, V>(children);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    static <K, V> BtreeMapNode<K, V>[] allocateNodes(int size)
+    {
+        return (BtreeMapNode<K, V>[])new BtreeMapNode<?, ?>[size];
+    }
+
+    @Override
+    public int childCount()
+    {
+        return children.length;
+    }
+
+    @Override
+    public int valueCount()
+    {
+        return valueCount;
+    }
+
+    @Override
+    public K maxKey()
+    {
+        return keys[keys.length - 1];
+    }
+
+    @Override
+    public V getValueOr(@Nonnull Comparator<K> comparator,
+                        @Nonnull K key,
+                        V defaultValue)
+    {
+        final int index = childIndex(comparator, key);
+        return (index < children.length) ? children[index].getValueOr(comparator, key, defaultValue) : defaultValue;
+    }
+
+    @Nonnull
+    @Override
+    public Holder<V> find(@Nonnull Comparator<K> comparator,
+                          @Nonnull K key)
+    {
+        final int index = childIndex(comparator, key);
+        return (index < children.length) ? children[index].find(comparator, key) : Holders.<V>of();
+    }
+
+    @Nonnull
+    @Override
+    public Holder<JImmutableMap.Entry<K, V>> findEntry(@Nonnull Comparator<K> comparator,
+                                                       @Nonnull K key)
+    {
+        final int index = childIndex(comparator, key);
+        return (index < children.length) ? children[index].findEntry(comparator, key) : Holders.<JImmutableMap.Entry<K, V>>of();
+    }
+
+    @Nonnull
+    @Override
+    public BtreeMapInsertResult<K, V> assign(@Nonnull Comparator<K> comparator,
+                                             @Nonnull K key,
+                                             V value)
+    {
+        final int index = Math.min(childIndex(comparator, key), children.length - 1);
+        final BtreeMapNode<K, V> child = children[index];
+        final BtreeMapInsertResult<K, V> result = child.assign(comparator, key, value);
+        if (result.type == BtreeMapInsertResult.Type.INPLACE) {
+            if (result.newNode == child) {
+                return BtreeMapInsertResult.<K, V>createInPlace(this);
+            } else {
+                return BtreeMapInsertResult.<K, V>createInPlace(new BtreeMapBranchNode<K, V>(ArrayHelper.assign(children, index, result.newNode)));
+            }
+        }
+        assert result.type == BtreeMapInsertResult.Type.SPLIT;
+        final BtreeMapNode<K, V>[] newChildren = ArrayHelper.assignInsert(this, children, index, result.newNode, result.extraNode);
+        if (children.length == MAX_CHILDREN) {
+            final int splitIndex = (index == (children.length - 1)) ? MIN_CHILDREN + 1 : MIN_CHILDREN;
+            return BtreeMapInsertResult.<K, V>createSplit(new BtreeMapBranchNode<K, V>(ArrayHelper.subArray(this, newChildren, 0, splitIndex)),
+                                                          new BtreeMapBranchNode<K, V>(ArrayHelper.subArray(this, newChildren, splitIndex, newChildren.length)));
+        } else {
+            return BtreeMapInsertResult.<K, V>createInPlace(new BtreeMapBranchNode<K, V>(newChildren));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public BtreeMapNode<K, V> delete(@Nonnull Comparator<K> comparator,
+                                     @Nonnull K key)
+    {
+        final int index = childIndex(comparator, key);
+        if (index == children.length) {
+            return this;
+        }
+        final BtreeMapNode<K, V> child = children[index];
+        final BtreeMapNode<K, V> newChild = child.delete(comparator, key);
+        if (newChild == child) {
+            return this;
+        } else if (newChild.valueCount() == 0) {
+            if (children.length == 1) {
+                return BtreeMapEmptyNode.of();
+            } else {
+                return new BtreeMapBranchNode<K, V>(ArrayHelper.delete(this, children, index));
+            }
+        } else if ((newChild.childCount() >= MIN_CHILDREN) || (children.length == 1)) {
+            // a lone child can only occur in the root and is collapsed by the map
+            return new BtreeMapBranchNode<K, V>(ArrayHelper.assign(children, index, newChild));
+        } else {
+            int mergeIndex = index;
+            if (mergeIndex > 0) {
+                if (mergeIndex == (children.length - 1)) {
+                    // can't merge at the end of the array
+                    mergeIndex = children.length - 2;
+                } else {
+                    // always merge with the larger of the two neighboring nodes
+                    if (children[mergeIndex - 1].childCount() > children[mergeIndex + 1].childCount()) {
+                        mergeIndex -= 1;
+                    }
+                }
+            }
+            final BtreeMapNode<K, V> mergeChild;
+            final BtreeMapNode<K, V> nextChild;
+            if (mergeIndex == index) {
+                mergeChild = newChild;
+                nextChild = children[mergeIndex + 1];
+            } else {
+                assert mergeIndex == index - 1;
+                mergeChild = children[mergeIndex];
+                nextChild = newChild;
+            }
+            if ((mergeChild.childCount() + nextChild.childCount()) <= MAX_CHILDREN) {
+                return new BtreeMapBranchNode<K, V>(ArrayHelper.assignDelete(this,
+                                                                             children,
+                                                                             mergeIndex,
+                                                                             mergeChild.mergeChildren(nextChild)));
+            } else {
+                final Tuple2<BtreeMapNode<K, V>, BtreeMapNode<K, V>> distributed = mergeChild.distributeChildren(nextChild);
+                return new BtreeMapBranchNode<K, V>(ArrayHelper.assignTwo(children, mergeIndex, distributed.getFirst(), distributed.getSecond()));
+            }
+        }
+    }
+
+    @Nonnull
+    @Override
+    public BtreeMapNode<K, V> mergeChildren(BtreeMapNode<K, V> sibling)
+    {
+        final BtreeMapBranchNode<K, V> branch = (BtreeMapBranchNode<K, V>)sibling;
+        assert (children.length + branch.children.length) <= MAX_CHILDREN;
+        return new BtreeMapBranchNode<K, V>(ArrayHelper.concat(this, children, branch.children));
+    }
+
+    @Nonnull
+    @Override
+    public Tuple2<BtreeMapNode<K, V>, BtreeMapNode<K, V>> distributeChildren(BtreeMapNode<K, V> sibling)
+    {
+        final BtreeMapBranchNode<K, V> branch = (BtreeMapBranchNode<K, V>)sibling;
+        final int length = children.length + branch.children.length;
+        assert length >= MAX_CHILDREN;
+        assert length <= (2 * MAX_CHILDREN);
+        return Tuple2.<BtreeMapNode<K, V>, BtreeMapNode<K, V>>of(new BtreeMapBranchNode<K, V>(ArrayHelper.subArray(this, children, branch.children, 0, MIN_CHILDREN)),
+                                                                 new BtreeMapBranchNode<K, V>(ArrayHelper.subArray(this, children, branch.children, MIN_CHILDREN, length)));
+    }
+
+    @Nonnull
+    @Override
+    public BtreeMapNode<K, V> firstChild()
+    {
+        return children[0];
+    }
+
+    @Override
+    public void checkInvariants()
+    {
+        if ((children.length == 0) || (children.length > MAX_CHILDREN)) {
+            throw new IllegalStateException();
+        }
+        // every node below the root must be at least half full
+        final int depth = children[0].depth();
+        int count = 0;
+        for (int i = 0; i < children.length; ++i) {
+            final BtreeMapNode<K, V> child = children[i];
+            if ((child.depth() != depth) || (child.maxKey() != keys[i])) {
+                throw new IllegalStateException();
+            }
+            if (child.childCount() < MIN_CHILDREN) {
+                throw new IllegalStateException();
+            }
+            count += child.valueCount();
+            child.checkInvariants();
+        }
+        if (count != valueCount) {
+            throw new IllegalStateException();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Cursor<JImmutableMap.Entry<K, V>> cursor()
+    {
+        return LazyMultiCursor.cursor(IndexedArray.retained(children));
+    }
+
+    @Override
+    public void forEachEntry(@Nonnull Proc1<? super JImmutableMap.Entry<K, V>> proc)
+    {
+        for (BtreeMapNode<K, V> child : children) {
+            child.forEachEntry(proc);
+        }
+    }
+
+    @Override
+    public int depth()
+    {
+        return 1 + children[0].depth();
+    }
+
+    @Nonnull
+    @Override
+    public BtreeMapNode<K, V>[] allocate(int size)
+    {
+        return allocateNodes(size);
+    }
+
+    /**
+     * Binary search for the first child whose largest key is greater than or equal to key.
+     * Returns children.length if key is larger than every key in this node.
+     */
+    private int childIndex(@Nonnull Comparator<K> comparator,
+                           @Nonnull K key)
+    {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (comparator.compare(keys[mid], key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static <K, V> BtreeMapNode<K, V>[] createChildren(BtreeMapNode<K, V> child1,
+                                                              BtreeMapNode<K, V> child2)
+    {
+        final BtreeMapNode<K, V>[] children = allocateNodes(2);
+        children[0] = child1;
+        children[1] = child2;
+        return children;
+    }
+}
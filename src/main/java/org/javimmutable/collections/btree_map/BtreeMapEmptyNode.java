@@ -0,0 +1,165 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.btree_map;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Holder;
+import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.Tuple2;
+import org.javimmutable.collections.cursors.StandardCursor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.util.Comparator;
+
+@Immutable
+class BtreeMapEmptyNode<K, V>
+    implements BtreeMapNode<K, V>
+{
+    private static final BtreeMapEmptyNode<Object, Object> EMPTY = new BtreeMapEmptyNode<Object, Object>();
+
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    static <K, V> BtreeMapEmptyNode<K, V> of()
+    {
+        return (BtreeMapEmptyNode<K, V>)EMPTY;
+    }
+
+    @Override
+    public int childCount()
+    {
+        return 0;
+    }
+
+    @Override
+    public int valueCount()
+    {
+        return 0;
+    }
+
+    @Override
+    public K maxKey()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public V getValueOr(@Nonnull Comparator<K> comparator,
+                        @Nonnull K key,
+                        V defaultValue)
+    {
+        return defaultValue;
+    }
+
+    @Nonnull
+    @Override
+    public Holder<V> find(@Nonnull Comparator<K> comparator,
+                          @Nonnull K key)
+    {
+        return Holders.of();
+    }
+
+    @Nonnull
+    @Override
+    public Holder<JImmutableMap.Entry<K, V>> findEntry(@Nonnull Comparator<K> comparator,
+                                                       @Nonnull K key)
+    {
+        return Holders.of();
+    }
+
+    @Nonnull
+    @Override
+    public BtreeMapInsertResult<K, V> assign(@Nonnull Comparator<K> comparator,
+                                             @Nonnull K key,
+                                             V value)
+    {
+        return BtreeMapInsertResult.<K, V>createInPlace(new BtreeMapLeafNode<K, V>(key, value));
+    }
+
+    @Nonnull
+    @Override
+    public BtreeMapNode<K, V> delete(@Nonnull Comparator<K> comparator,
+                                     @Nonnull K key)
+    {
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BtreeMapNode<K, V> mergeChildren(BtreeMapNode<K, V> sibling)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Nonnull
+    @Override
+    public Tuple2<BtreeMapNode<K, V>, BtreeMapNode<K, V>> distributeChildren(BtreeMapNode<K, V> sibling)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Nonnull
+    @Override
+    public BtreeMapNode<K, V> firstChild()
+    {
+        return this;
+    }
+
+    @Override
+    public void checkInvariants()
+    {
+    }
+
+    @Nonnull
+    @Override
+    public Cursor<JImmutableMap.Entry<K, V>> cursor()
+    {
+        return StandardCursor.of();
+    }
+
+    @Override
+    public void forEachEntry(@Nonnull Proc1<? super JImmutableMap.Entry<K, V>> proc)
+    {
+    }
+
+    @Override
+    public int depth()
+    {
+        return 1;
+    }
+}
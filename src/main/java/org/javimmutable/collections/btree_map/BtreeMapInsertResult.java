@@ -0,0 +1,75 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.btree_map;
+
+class BtreeMapInsertResult<K, V>
+{
+    enum Type
+    {
+        INPLACE,
+        SPLIT
+    }
+
+    final Type type;
+    final BtreeMapNode<K, V> newNode;
+    final BtreeMapNode<K, V> extraNode;
+
+    private BtreeMapInsertResult(Type type,
+                                 BtreeMapNode<K, V> newNode,
+                                 BtreeMapNode<K, V> extraNode)
+    {
+        this.type = type;
+        this.newNode = newNode;
+        this.extraNode = extraNode;
+    }
+
+    static <K, V> BtreeMapInsertResult<K, V> createInPlace(BtreeMapNode<K, V> newNode)
+    {
+        return new BtreeMapInsertResult<K, V>(Type.INPLACE, newNode, null);
+    }
+
+    static <K, V> BtreeMapInsertResult<K, V> createSplit(BtreeMapNode<K, V> newNode,
+                                                         BtreeMapNode<K, V> extraNode)
+    {
+        return new BtreeMapInsertResult<K, V>(Type.SPLIT, newNode, extraNode);
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("<%s,%s,%s>", type, newNode, extraNode);
+    }
+}
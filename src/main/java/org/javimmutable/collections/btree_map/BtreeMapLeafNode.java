@@ -0,0 +1,311 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.btree_map;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Holder;
+import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.MapEntry;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.Tuple2;
+import org.javimmutable.collections.common.ArrayHelper;
+import org.javimmutable.collections.cursors.StandardCursor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.util.Comparator;
+
+/**
+ * Leaf node holding its keys and values in a pair of parallel arrays.  Keys are kept in
+ * ascending order so lookups are a binary search over a single contiguous array.
+ */
+@Immutable
+class BtreeMapLeafNode<K, V>
+    implements BtreeMapNode<K, V>
+{
+    private static final ArrayHelper.Allocator<Object> ALLOCATOR = ArrayHelper.allocator(Object.class);
+
+    private final K[] keys;
+    private final V[] values;
+
+    @SuppressWarnings("unchecked")
+    BtreeMapLeafNode(K key,
+                     V value)
+    {
+        this.keys = (K[])(new Object[]{key});
+        this.values = (V[])(new Object[]{value});
+    }
+
+    private BtreeMapLeafNode(K[] keys,
+                             V[] values)
+    {
+        assert keys.length == values.length;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Creates a leaf containing the keys and values in the range [offset,limit).
+     * The keys must already be in ascending order.
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> BtreeMapLeafNode<K, V> of(Indexed<? extends K> keys,
+                                            Indexed<? extends V> values,
+                                            int offset,
+                                            int limit)
+    {
+        final int length = limit - offset;
+        assert (length > 0) && (length <= MAX_CHILDREN);
+        final K[] newKeys = (K[])new Object[length];
+        final V[] newValues = (V[])new Object[length];
+        for (int i = 0; i < length; ++i) {
+            newKeys[i] = keys.get(offset + i);
+            newValues[i] = values.get(offset + i);
+        }
+        return new BtreeMapLeafNode<K, V>(newKeys, newValues);
+    }
+
+    @Override
+    public int childCount()
+    {
+        return keys.length;
+    }
+
+    @Override
+    public int valueCount()
+    {
+        return keys.length;
+    }
+
+    @Override
+    public K maxKey()
+    {
+        return keys[keys.length - 1];
+    }
+
+    @Override
+    public V getValueOr(@Nonnull Comparator<K> comparator,
+                        @Nonnull K key,
+                        V defaultValue)
+    {
+        final int index = indexOf(comparator, key);
+        return (index >= 0) ? values[index] : defaultValue;
+    }
+
+    @Nonnull
+    @Override
+    public Holder<V> find(@Nonnull Comparator<K> comparator,
+                          @Nonnull K key)
+    {
+        final int index = indexOf(comparator, key);
+        return (index >= 0) ? Holders.of(values[index]) : Holders.<V>of();
+    }
+
+    @Nonnull
+    @Override
+    public Holder<JImmutableMap.Entry<K, V>> findEntry(@Nonnull Comparator<K> comparator,
+                                                       @Nonnull K key)
+    {
+        final int index = indexOf(comparator, key);
+        return (index >= 0) ? Holders.<JImmutableMap.Entry<K, V>>of(entry(index)) : Holders.<JImmutableMap.Entry<K, V>>of();
+    }
+
+    @Nonnull
+    @Override
+    public BtreeMapInsertResult<K, V> assign(@Nonnull Comparator<K> comparator,
+                                             @Nonnull K key,
+                                             V value)
+    {
+        final int index = indexOf(comparator, key);
+        if (index >= 0) {
+            if (values[index] == value) {
+                return BtreeMapInsertResult.<K, V>createInPlace(this);
+            } else {
+                return BtreeMapInsertResult.<K, V>createInPlace(new BtreeMapLeafNode<K, V>(ArrayHelper.assign(keys, index, key),
+                                                                                           ArrayHelper.assign(values, index, value)));
+            }
+        }
+        final int insertIndex = -(index + 1);
+        final K[] newKeys = ArrayHelper.insert(BtreeMapLeafNode.<K>allocator(), keys, insertIndex, key);
+        final V[] newValues = ArrayHelper.insert(BtreeMapLeafNode.<V>allocator(), values, insertIndex, value);
+        if (keys.length == MAX_CHILDREN) {
+            final int splitIndex = (insertIndex == keys.length) ? MIN_CHILDREN + 1 : MIN_CHILDREN;
+            return BtreeMapInsertResult.<K, V>createSplit(subNode(newKeys, newValues, 0, splitIndex),
+                                                          subNode(newKeys, newValues, splitIndex, newKeys.length));
+        } else {
+            return BtreeMapInsertResult.<K, V>createInPlace(new BtreeMapLeafNode<K, V>(newKeys, newValues));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public BtreeMapNode<K, V> delete(@Nonnull Comparator<K> comparator,
+                                     @Nonnull K key)
+    {
+        final int index = indexOf(comparator, key);
+        if (index < 0) {
+            return this;
+        } else if (keys.length == 1) {
+            return BtreeMapEmptyNode.of();
+        } else {
+            return new BtreeMapLeafNode<K, V>(ArrayHelper.delete(BtreeMapLeafNode.<K>allocator(), keys, index),
+                                              ArrayHelper.delete(BtreeMapLeafNode.<V>allocator(), values, index));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public BtreeMapNode<K, V> mergeChildren(BtreeMapNode<K, V> sibling)
+    {
+        final BtreeMapLeafNode<K, V> leaf = (BtreeMapLeafNode<K, V>)sibling;
+        assert (keys.length + leaf.keys.length) <= MAX_CHILDREN;
+        return new BtreeMapLeafNode<K, V>(ArrayHelper.concat(BtreeMapLeafNode.<K>allocator(), keys, leaf.keys),
+                                          ArrayHelper.concat(BtreeMapLeafNode.<V>allocator(), values, leaf.values));
+    }
+
+    @Nonnull
+    @Override
+    public Tuple2<BtreeMapNode<K, V>, BtreeMapNode<K, V>> distributeChildren(BtreeMapNode<K, V> sibling)
+    {
+        final BtreeMapLeafNode<K, V> leaf = (BtreeMapLeafNode<K, V>)sibling;
+        final int length = keys.length + leaf.keys.length;
+        assert length >= MAX_CHILDREN;
+        assert length <= (2 * MAX_CHILDREN);
+        final ArrayHelper.Allocator<K> keyAllocator = allocator();
+        final ArrayHelper.Allocator<V> valueAllocator = allocator();
+        return Tuple2.<BtreeMapNode<K, V>, BtreeMapNode<K, V>>of(new BtreeMapLeafNode<K, V>(ArrayHelper.subArray(keyAllocator, keys, leaf.keys, 0, MIN_CHILDREN),
+                                                                                            ArrayHelper.subArray(valueAllocator, values, leaf.values, 0, MIN_CHILDREN)),
+                                                                 new BtreeMapLeafNode<K, V>(ArrayHelper.subArray(keyAllocator, keys, leaf.keys, MIN_CHILDREN, length),
+                                                                                            ArrayHelper.subArray(valueAllocator, values, leaf.values, MIN_CHILDREN, length)));
+    }
+
+    @Nonnull
+    @Override
+    public BtreeMapNode<K, V> firstChild()
+    {
+        return this;
+    }
+
+    @Override
+    public void checkInvariants()
+    {
+        if ((keys.length == 0) || (keys.length > MAX_CHILDREN)) {
+            throw new IllegalStateException();
+        }
+        if (values.length != keys.length) {
+            throw new IllegalStateException();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Cursor<JImmutableMap.Entry<K, V>> cursor()
+    {
+        return StandardCursor.of(new Indexed<JImmutableMap.Entry<K, V>>()
+        {
+            @Override
+            public JImmutableMap.Entry<K, V> get(int index)
+            {
+                return entry(index);
+            }
+
+            @Override
+            public int size()
+            {
+                return keys.length;
+            }
+        });
+    }
+
+    @Override
+    public void forEachEntry(@Nonnull Proc1<? super JImmutableMap.Entry<K, V>> proc)
+    {
+        for (int i = 0; i < keys.length; ++i) {
+            proc.apply(entry(i));
+        }
+    }
+
+    @Override
+    public int depth()
+    {
+        return 1;
+    }
+
+    /**
+     * Binary search of keys.  Returns the index of key if it is present.  Otherwise returns
+     * -(insertionPoint + 1) in the same manner as Arrays.binarySearch().
+     */
+    private int indexOf(@Nonnull Comparator<K> comparator,
+                        @Nonnull K key)
+    {
+        int low = 0;
+        int high = keys.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int diff = comparator.compare(keys[mid], key);
+            if (diff < 0) {
+                low = mid + 1;
+            } else if (diff > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private JImmutableMap.Entry<K, V> entry(int index)
+    {
+        return MapEntry.of(keys[index], values[index]);
+    }
+
+    private static <K, V> BtreeMapLeafNode<K, V> subNode(K[] keys,
+                                                         V[] values,
+                                                         int offset,
+                                                         int limit)
+    {
+        return new BtreeMapLeafNode<K, V>(ArrayHelper.subArray(BtreeMapLeafNode.<K>allocator(), keys, offset, limit),
+                                          ArrayHelper.subArray(BtreeMapLeafNode.<V>allocator(), values, offset, limit));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ArrayHelper.Allocator<T> allocator()
+    {
+        return (ArrayHelper.Allocator<T>)(ArrayHelper.Allocator)ALLOCATOR;
+    }
+}
@@ -0,0 +1,114 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.btree_map;
+
+import org.javimmutable.collections.Cursorable;
+import org.javimmutable.collections.Holder;
+import org.javimmutable.collections.InvariantCheckable;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.Tuple2;
+
+import javax.annotation.Nonnull;
+import java.util.Comparator;
+
+interface BtreeMapNode<K, V>
+    extends InvariantCheckable,
+            Cursorable<JImmutableMap.Entry<K, V>>
+{
+    int MIN_CHILDREN = 16;
+    int MAX_CHILDREN = 2 * MIN_CHILDREN;
+
+    /**
+     * @return number of direct children (or entries for leaves) of this node
+     */
+    int childCount();
+
+    /**
+     * @return number of entries in this node and its descendants
+     */
+    int valueCount();
+
+    /**
+     * @return largest key in this node and its descendants
+     */
+    K maxKey();
+
+    V getValueOr(@Nonnull Comparator<K> comparator,
+                 @Nonnull K key,
+                 V defaultValue);
+
+    @Nonnull
+    Holder<V> find(@Nonnull Comparator<K> comparator,
+                   @Nonnull K key);
+
+    @Nonnull
+    Holder<JImmutableMap.Entry<K, V>> findEntry(@Nonnull Comparator<K> comparator,
+                                                @Nonnull K key);
+
+    /**
+     * Returns a result whose newNode is this node if key already had value.
+     */
+    @Nonnull
+    BtreeMapInsertResult<K, V> assign(@Nonnull Comparator<K> comparator,
+                                      @Nonnull K key,
+                                      V value);
+
+    /**
+     * Returns this node if key was not present.  The resulting node may have
+     * fewer than MIN_CHILDREN children and its parent is responsible for merging
+     * it with a sibling.
+     */
+    @Nonnull
+    BtreeMapNode<K, V> delete(@Nonnull Comparator<K> comparator,
+                              @Nonnull K key);
+
+    @Nonnull
+    BtreeMapNode<K, V> mergeChildren(BtreeMapNode<K, V> sibling);
+
+    @Nonnull
+    Tuple2<BtreeMapNode<K, V>, BtreeMapNode<K, V>> distributeChildren(BtreeMapNode<K, V> sibling);
+
+    @Nonnull
+    BtreeMapNode<K, V> firstChild();
+
+    /**
+     * Passes every entry in this node to proc in key order.
+     */
+    void forEachEntry(@Nonnull Proc1<? super JImmutableMap.Entry<K, V>> proc);
+
+    int depth();
+}
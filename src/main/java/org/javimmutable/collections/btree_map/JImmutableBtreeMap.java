@@ -0,0 +1,358 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.btree_map;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Holder;
+import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.common.AbstractJImmutableMap;
+import org.javimmutable.collections.common.AbstractSerializationProxy;
+import org.javimmutable.collections.common.Conditions;
+import org.javimmutable.collections.common.IndexedArray;
+import org.javimmutable.collections.tree.ComparableComparator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.util.Comparator;
+
+/**
+ * Sorted map implemented as a B-tree with wide nodes.  Each leaf stores up to 32 keys and
+ * values in a pair of contiguous arrays and each branch stores the largest key of each of
+ * its children in another array.  Compared to JImmutableTreeMap the tree is much shallower
+ * and lookups are binary searches over arrays rather than chains of pointer dereferences,
+ * which generally makes lookups and iteration faster at the cost of copying somewhat larger
+ * nodes on each update.
+ */
+@Immutable
+public class JImmutableBtreeMap<K, V>
+        extends AbstractJImmutableMap<K, V>
+        implements Serializable
+{
+    private static final long serialVersionUID = -121805L;
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final JImmutableBtreeMap EMPTY = new JImmutableBtreeMap(new ComparableComparator(), BtreeMapEmptyNode.of());
+
+    private final Comparator<K> comparator;
+    private final BtreeMapNode<K, V> root;
+
+    private JImmutableBtreeMap(Comparator<K> comparator,
+                               BtreeMapNode<K, V> root)
+    {
+        this.comparator = comparator;
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K extends Comparable<K>, V> JImmutableBtreeMap<K, V> of()
+    {
+        return (JImmutableBtreeMap<K, V>)EMPTY;
+    }
+
+    /**
+     * Constructs an empty map using the specified Comparator.  Note that the Comparator MUST BE IMMUTABLE.
+     * The Comparator will be retained and used throughout the life of the map and its offspring and will
+     * be aggressively shared so it is imperative that the Comparator be completely immutable.
+     */
+    public static <K, V> JImmutableBtreeMap<K, V> of(@Nonnull Comparator<K> comparator)
+    {
+        return new JImmutableBtreeMap<K, V>(comparator, BtreeMapEmptyNode.<K, V>of());
+    }
+
+    /**
+     * Builds a map bottom up in O(n) time from keys that are in strictly ascending order
+     * according to comparator.  values must contain the value for each key at the same index.
+     *
+     * @throws IllegalArgumentException if the keys are not in strictly ascending order or
+     *                                  keys and values have different sizes
+     */
+    public static <K, V> JImmutableBtreeMap<K, V> fromSorted(@Nonnull Comparator<K> comparator,
+                                                             @Nonnull Indexed<? extends K> keys,
+                                                             @Nonnull Indexed<? extends V> values)
+    {
+        final int size = keys.size();
+        if (values.size() != size) {
+            throw new IllegalArgumentException("keys and values have different sizes");
+        }
+        for (int i = 1; i < size; ++i) {
+            if (comparator.compare(keys.get(i - 1), keys.get(i)) >= 0) {
+                throw new IllegalArgumentException("keys are not in ascending order");
+            }
+        }
+        return new JImmutableBtreeMap<K, V>(comparator, buildTree(keys, values));
+    }
+
+    @Override
+    public V getValueOr(K key,
+                        V defaultValue)
+    {
+        Conditions.stopNull(key);
+        return root.getValueOr(comparator, key, defaultValue);
+    }
+
+    @Nonnull
+    @Override
+    public Holder<V> find(@Nonnull K key)
+    {
+        Conditions.stopNull(key);
+        return root.find(comparator, key);
+    }
+
+    @Nonnull
+    @Override
+    public Holder<Entry<K, V>> findEntry(@Nonnull K key)
+    {
+        Conditions.stopNull(key);
+        return root.findEntry(comparator, key);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableBtreeMap<K, V> assign(@Nonnull K key,
+                                           V value)
+    {
+        Conditions.stopNull(key);
+        final BtreeMapInsertResult<K, V> result = root.assign(comparator, key, value);
+        if (result.type == BtreeMapInsertResult.Type.INPLACE) {
+            if (result.newNode == root) {
+                return this;
+            } else {
+                return withHashCode(new JImmutableBtreeMap<K, V>(comparator, result.newNode), hashCodeAfterAssign(key, value));
+            }
+        } else {
+            final BtreeMapNode<K, V> newRoot = new BtreeMapBranchNode<K, V>(result.newNode, result.extraNode);
+            return withHashCode(new JImmutableBtreeMap<K, V>(comparator, newRoot), hashCodeAfterAssign(key, value));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableBtreeMap<K, V> delete(@Nonnull K key)
+    {
+        Conditions.stopNull(key);
+        BtreeMapNode<K, V> newRoot = root.delete(comparator, key);
+        if (newRoot == root) {
+            return this;
+        } else if (newRoot.valueCount() == 0) {
+            return deleteAll();
+        }
+        while ((newRoot.childCount() == 1) && (newRoot.firstChild() != newRoot)) {
+            newRoot = newRoot.firstChild();
+        }
+        return withHashCode(new JImmutableBtreeMap<K, V>(comparator, newRoot), hashCodeAfterDelete(key));
+    }
+
+    @Override
+    public int size()
+    {
+        return root.valueCount();
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableBtreeMap<K, V> deleteAll()
+    {
+        return of(comparator);
+    }
+
+    @Nonnull
+    @Override
+    public Cursor<Entry<K, V>> cursor()
+    {
+        return root.cursor();
+    }
+
+    @Override
+    public void forEachEntry(@Nonnull Proc1<? super Entry<K, V>> proc)
+    {
+        root.forEachEntry(proc);
+    }
+
+    public Comparator<K> getComparator()
+    {
+        return comparator;
+    }
+
+    @Override
+    public void checkInvariants()
+    {
+        if ((root instanceof BtreeMapBranchNode) && (root.childCount() < 2)) {
+            throw new IllegalStateException();
+        }
+        root.checkInvariants();
+        int count = 0;
+        K previous = null;
+        for (Cursor<Entry<K, V>> cursor = root.cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+            final K key = cursor.getValue().getKey();
+            if ((count > 0) && (comparator.compare(previous, key) >= 0)) {
+                throw new IllegalStateException(String.format("keys out of order at index %d", count));
+            }
+            previous = key;
+            count += 1;
+        }
+        if (count != root.valueCount()) {
+            throw new IllegalStateException(String.format("size mismatch %d  %d", count, root.valueCount()));
+        }
+    }
+
+    /**
+     * Packs sorted keys and values into leaves and then packs each level of nodes into
+     * parents until a single root remains.  The nodes on each level are spread evenly
+     * over the minimum number of parents so every node other than the root has at least
+     * MIN_CHILDREN children.
+     */
+    private static <K, V> BtreeMapNode<K, V> buildTree(Indexed<? extends K> keys,
+                                                       Indexed<? extends V> values)
+    {
+        final int size = keys.size();
+        if (size == 0) {
+            return BtreeMapEmptyNode.of();
+        }
+        int count = parentCount(size);
+        BtreeMapNode<K, V>[] nodes = BtreeMapBranchNode.allocateNodes(count);
+        int offset = 0;
+        for (int i = 0; i < count; ++i) {
+            final int limit = evenLimit(size, count, i);
+            nodes[i] = BtreeMapLeafNode.<K, V>of(keys, values, offset, limit);
+            offset = limit;
+        }
+        while (count > 1) {
+            final int parentCount = parentCount(count);
+            final BtreeMapNode<K, V>[] parents = BtreeMapBranchNode.allocateNodes(parentCount);
+            offset = 0;
+            for (int i = 0; i < parentCount; ++i) {
+                final int limit = evenLimit(count, parentCount, i);
+                parents[i] = BtreeMapBranchNode.of(nodes, offset, limit);
+                offset = limit;
+            }
+            nodes = parents;
+            count = parentCount;
+        }
+        return nodes[0];
+    }
+
+    private static int parentCount(int childCount)
+    {
+        return (childCount + BtreeMapNode.MAX_CHILDREN - 1) / BtreeMapNode.MAX_CHILDREN;
+    }
+
+    private static int evenLimit(int total,
+                                 int groups,
+                                 int index)
+    {
+        return (int)(((long)total * (index + 1)) / groups);
+    }
+
+    private Object writeReplace()
+    {
+        return new SerializationProxy<K, V>(this);
+    }
+
+    private void readObject(ObjectInputStream in)
+        throws InvalidObjectException
+    {
+        throw new InvalidObjectException("serialization proxy required");
+    }
+
+    /**
+     * Writes the comparator and size followed by each key and value in sorted order.  The
+     * comparator must be Serializable.  The tree is rebuilt bottom up when read.
+     */
+    private static class SerializationProxy<K, V>
+            extends AbstractSerializationProxy<JImmutableBtreeMap<K, V>>
+    {
+        private static final long serialVersionUID = -121805L;
+
+        public SerializationProxy()
+        {
+            super(null);
+        }
+
+        private SerializationProxy(JImmutableBtreeMap<K, V> map)
+        {
+            super(map);
+        }
+
+        @Override
+        protected void writeCollection(ObjectOutput out,
+                                       JImmutableBtreeMap<K, V> map)
+            throws IOException
+        {
+            out.writeObject(map.comparator);
+            out.writeInt(map.size());
+            for (Cursor<Entry<K, V>> cursor = map.cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+                out.writeObject(cursor.getValue().getKey());
+                out.writeObject(cursor.getValue().getValue());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected JImmutableBtreeMap<K, V> readCollection(ObjectInput in)
+            throws IOException, ClassNotFoundException
+        {
+            final Comparator<K> comparator = (Comparator<K>)in.readObject();
+            final int size = readSize(in);
+            if (size == 0) {
+                return (comparator instanceof ComparableComparator) ? (JImmutableBtreeMap<K, V>)EMPTY : JImmutableBtreeMap.<K, V>of(comparator);
+            }
+            final Object[] keys = new Object[size];
+            final Object[] values = new Object[size];
+            for (int i = 0; i < size; ++i) {
+                keys[i] = in.readObject();
+                values[i] = in.readObject();
+            }
+            try {
+                return fromSorted(comparator, IndexedArray.retained(SerializationProxy.<K>cast(keys)), IndexedArray.retained(SerializationProxy.<V>cast(values)));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidObjectException(ex.getMessage());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T[] cast(Object[] values)
+        {
+            return (T[])values;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.btree_map;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.JImmutableSet;
+import org.javimmutable.collections.common.AbstractJImmutableSet;
+import org.javimmutable.collections.common.AbstractSerializationProxy;
+import org.javimmutable.collections.common.IndexedArray;
+import org.javimmutable.collections.tree.ComparableComparator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Sorted set backed by a JImmutableBtreeMap.
+ */
+@Immutable
+public class JImmutableBtreeSet<T>
+        extends AbstractJImmutableSet<T>
+        implements Serializable
+{
+    private static final long serialVersionUID = -121805L;
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final JImmutableBtreeSet EMPTY = new JImmutableBtreeSet(JImmutableBtreeMap.of(), new ComparableComparator());
+
+    private final Comparator<T> comparator;
+
+    private JImmutableBtreeSet(JImmutableMap<T, Boolean> map,
+                               Comparator<T> comparator)
+    {
+        super(map);
+        this.comparator = comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<T>> JImmutableBtreeSet<T> of()
+    {
+        return (JImmutableBtreeSet<T>)EMPTY;
+    }
+
+    public static <T> JImmutableBtreeSet<T> of(@Nonnull Comparator<T> comparator)
+    {
+        return new JImmutableBtreeSet<T>(JImmutableBtreeMap.<T, Boolean>of(comparator), comparator);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableBtreeSet<T> deleteAll()
+    {
+        return of(comparator);
+    }
+
+    public Comparator<T> getComparator()
+    {
+        return comparator;
+    }
+
+    @Override
+    protected JImmutableSet<T> create(JImmutableMap<T, Boolean> map)
+    {
+        return new JImmutableBtreeSet<T>(map, comparator);
+    }
+
+    @Override
+    protected Set<T> emptyMutableSet()
+    {
+        return new TreeSet<T>(comparator);
+    }
+
+    private Object writeReplace()
+    {
+        return new SerializationProxy<T>(this);
+    }
+
+    private void readObject(ObjectInputStream in)
+        throws InvalidObjectException
+    {
+        throw new InvalidObjectException("serialization proxy required");
+    }
+
+    /**
+     * Writes the comparator and size followed by each value in sorted order.  The comparator
+     * must be Serializable.  The underlying tree is rebuilt bottom up when read.
+     */
+    private static class SerializationProxy<T>
+            extends AbstractSerializationProxy<JImmutableBtreeSet<T>>
+    {
+        private static final long serialVersionUID = -121805L;
+
+        public SerializationProxy()
+        {
+            super(null);
+        }
+
+        private SerializationProxy(JImmutableBtreeSet<T> set)
+        {
+            super(set);
+        }
+
+        @Override
+        protected void writeCollection(ObjectOutput out,
+                                       JImmutableBtreeSet<T> set)
+            throws IOException
+        {
+            out.writeObject(set.comparator);
+            out.writeInt(set.size());
+            for (Cursor<T> cursor = set.cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+                out.writeObject(cursor.getValue());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected JImmutableBtreeSet<T> readCollection(ObjectInput in)
+            throws IOException, ClassNotFoundException
+        {
+            final Comparator<T> comparator = (Comparator<T>)in.readObject();
+            final int size = readSize(in);
+            if (size == 0) {
+                return (comparator instanceof ComparableComparator) ? (JImmutableBtreeSet<T>)EMPTY : of(comparator);
+            }
+            final Object[] values = new Object[size];
+            for (int i = 0; i < size; ++i) {
+                values[i] = in.readObject();
+            }
+            final Boolean[] flags = new Boolean[size];
+            Arrays.fill(flags, Boolean.TRUE);
+            try {
+                final JImmutableMap<T, Boolean> map = JImmutableBtreeMap.fromSorted(comparator, IndexedArray.retained(SerializationProxy.<T>cast(values)), IndexedArray.retained(flags));
+                return new JImmutableBtreeSet<T>(map, comparator);
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidObjectException(ex.getMessage());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T[] cast(Object[] values)
+        {
+            return (T[])values;
+        }
+    }
+}
@@ -37,8 +37,11 @@ package org.javimmutable.collections.common;
 
 import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Insertable;
+import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.MapDiffEntry;
 import org.javimmutable.collections.MapEntry;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.cursors.TransformCursor;
 
 import javax.annotation.Nonnull;
@@ -51,6 +54,10 @@ import java.util.Map;
 public abstract class AbstractJImmutableMap<K, V>
         implements JImmutableMap<K, V>
 {
+    // hash code computed on demand (or derived from a parent map) with 0 meaning not yet known.
+    // races are harmless since every thread computes the same value (like String.hashCode()).
+    private int cachedHashCode;
+
     @Nullable
     @Override
     public V get(K key)
@@ -112,6 +119,51 @@ public abstract class AbstractJImmutableMap<K, V>
         return TransformCursor.ofValues(cursor());
     }
 
+    /**
+     * Compares this map (the older version) to newer and returns a Cursor visiting
+     * a MapDiffEntry for every key that was added, removed, or had its value changed.
+     * Values are compared using equals().  The order of the entries is not specified.
+     * <p>
+     * This implementation looks up every key of each map in the other.  Derived classes
+     * that share structure between versions override it to skip any shared portions of
+     * the maps so the cost is proportional to the number of differences rather than the
+     * size of the maps.
+     *
+     * @param newer map to compare this map to
+     * @return Cursor over the differences between the maps
+     */
+    @Nonnull
+    public Cursor<MapDiffEntry<K, V>> diff(@Nonnull JImmutableMap<K, V> newer)
+    {
+        final MapDiffBuilder<K, V> diffs = new MapDiffBuilder<K, V>();
+        for (Entry<K, V> entry : this) {
+            final Holder<V> newValue = newer.find(entry.getKey());
+            if (newValue.isEmpty()) {
+                diffs.removed(entry.getKey(), entry.getValue());
+            } else {
+                diffs.compare(entry.getKey(), entry.getValue(), newValue.getValue());
+            }
+        }
+        for (Entry<K, V> entry : newer) {
+            if (find(entry.getKey()).isEmpty()) {
+                diffs.added(entry.getKey(), entry.getValue());
+            }
+        }
+        return diffs.cursor();
+    }
+
+    /**
+     * Visits the entries using cursor().  Derived classes should override this to
+     * walk their internal structure without creating a cursor for each entry.
+     */
+    @Override
+    public void forEachEntry(@Nonnull Proc1<? super Entry<K, V>> proc)
+    {
+        for (Cursor<Entry<K, V>> cursor = cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+            proc.apply(cursor.getValue());
+        }
+    }
+
     @Nonnull
     @Override
     public Map<K, V> getMap()
@@ -125,24 +177,117 @@ public abstract class AbstractJImmutableMap<K, V>
         return IteratorAdaptor.of(cursor());
     }
 
+    /**
+     * Computes the hash code as specified by java.util.Map the first time it is called and
+     * caches it.  Maps derived from this one using assign() or delete() after that point
+     * inherit an incrementally updated hash code so they never need to compute it.
+     */
     @Override
     public int hashCode()
     {
-        return getMap().hashCode();
+        int answer = cachedHashCode;
+        if (answer == 0) {
+            for (Cursor<Entry<K, V>> cursor = cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+                answer += entryHashCode(cursor.getValue().getKey(), cursor.getValue().getValue());
+            }
+            cachedHashCode = answer;
+        }
+        return answer;
     }
 
+    /**
+     * Compares sizes and (if both are known) hash codes before comparing any entries.
+     * Entries are compared using hasSameEntries().
+     */
     @Override
     public boolean equals(Object o)
     {
         if (o == this) {
             return true;
         } else if (o instanceof JImmutableMap) {
-            return getMap().equals(((JImmutableMap)o).getMap());
+            final JImmutableMap other = (JImmutableMap)o;
+            if (other.size() != size()) {
+                return false;
+            }
+            if (o instanceof AbstractJImmutableMap) {
+                final int otherHashCode = ((AbstractJImmutableMap)o).cachedHashCode;
+                if ((cachedHashCode != 0) && (otherHashCode != 0) && (cachedHashCode != otherHashCode)) {
+                    return false;
+                }
+            }
+            return hasSameEntries(other);
         } else {
             return (o instanceof Map) && getMap().equals(o);
         }
     }
 
+    /**
+     * Called by equals() to compare the entries of this map with those of another map
+     * of the same size.  Derived classes can override this to compare their internal
+     * structures directly when other is of the same class.
+     */
+    protected boolean hasSameEntries(@Nonnull JImmutableMap<?, ?> other)
+    {
+        return getMap().equals(other.getMap());
+    }
+
+    /**
+     * Used by derived classes to compute the hash code of the map that assign() will return.
+     * Returns 0 (unknown) if this map's hash code has not been computed.  Otherwise looks up
+     * the current value for key and adjusts the hash code to reflect the new value.  Maps whose
+     * hash codes are never requested therefore never pay for the extra lookup.
+     */
+    protected int hashCodeAfterAssign(@Nonnull K key,
+                                      V value)
+    {
+        final int answer = cachedHashCode;
+        if (answer == 0) {
+            return 0;
+        }
+        final Holder<Entry<K, V>> current = findEntry(key);
+        if (current.isEmpty()) {
+            return answer + entryHashCode(key, value);
+        } else {
+            return answer - entryHashCode(key, current.getValue().getValue()) + entryHashCode(key, value);
+        }
+    }
+
+    /**
+     * Used by derived classes to compute the hash code of the map that delete() will return.
+     * Returns 0 (unknown) if this map's hash code has not been computed.
+     */
+    protected int hashCodeAfterDelete(@Nonnull K key)
+    {
+        final int answer = cachedHashCode;
+        if (answer == 0) {
+            return 0;
+        }
+        final Holder<Entry<K, V>> current = findEntry(key);
+        return current.isEmpty() ? answer : (answer - entryHashCode(key, current.getValue().getValue()));
+    }
+
+    /**
+     * Stores a hash code computed by hashCodeAfterAssign() or hashCodeAfterDelete() in a newly
+     * created map before it is returned to the caller.
+     */
+    protected static <M extends JImmutableMap<?, ?>> M withHashCode(M map,
+                                                                 int hashCode)
+    {
+        if (map instanceof AbstractJImmutableMap) {
+            ((AbstractJImmutableMap)map).cachedHashCode = hashCode;
+        }
+        return map;
+    }
+
+    /**
+     * Hash code of a single entry as specified by java.util.Map.Entry.
+     */
+    protected static int entryHashCode(@Nullable Object key,
+                                       @Nullable Object value)
+    {
+        return ((key == null) ? 0 : key.hashCode()) ^ ((value == null) ? 0 : value.hashCode());
+    }
+
     @Override
     public String toString()
     {
@@ -576,7 +576,11 @@ public abstract class AbstractJImmutableMultiset<T>
     @Override
     public int hashCode()
     {
-        return Cursors.computeHashCode(occurrenceCursor());
+        int answer = 0;
+        for (Cursor<JImmutableMap.Entry<T, Integer>> cursor = map.cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+            answer += cursor.getValue().getKey().hashCode() * cursor.getValue().getValue();
+        }
+        return answer;
     }
 
     @Override
@@ -54,6 +54,7 @@ public abstract class AbstractJImmutableSet<T>
         implements JImmutableSet<T>
 {
     private final JImmutableMap<T, Boolean> map;
+    private int cachedHashCode;
 
     protected AbstractJImmutableSet(JImmutableMap<T, Boolean> map)
     {
@@ -65,7 +66,7 @@ public abstract class AbstractJImmutableSet<T>
     public JImmutableSet<T> insert(@Nonnull T value)
     {
         JImmutableMap<T, Boolean> newMap = map.assign(value, Boolean.TRUE);
-        return (newMap != map) ? create(newMap) : this;
+        return (newMap != map) ? createAdjusted(newMap, value.hashCode()) : this;
     }
 
     @Override
@@ -175,7 +176,7 @@ public abstract class AbstractJImmutableSet<T>
     public JImmutableSet<T> delete(T value)
     {
         JImmutableMap<T, Boolean> newMap = map.delete(value);
-        return (newMap != map) ? create(newMap) : this;
+        return (newMap != map) ? createAdjusted(newMap, -value.hashCode()) : this;
     }
 
     @Nonnull
@@ -357,12 +358,28 @@ public abstract class AbstractJImmutableSet<T>
         return IteratorAdaptor.of(cursor());
     }
 
+    /**
+     * Computes the hash code as specified by java.util.Set the first time it is called and
+     * caches it.  Sets derived from this one using insert() or delete() after that point
+     * inherit an incrementally updated hash code.
+     */
     @Override
     public int hashCode()
     {
-        return Cursors.computeHashCode(cursor());
+        int answer = cachedHashCode;
+        if (answer == 0) {
+            for (Cursor<T> cursor = cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+                answer += cursor.getValue().hashCode();
+            }
+            cachedHashCode = answer;
+        }
+        return answer;
     }
 
+    /**
+     * Sets sharing this implementation compare sizes and (if both are known) hash codes
+     * before comparing their underlying maps, which can skip any structure the two share.
+     */
     @Override
     public boolean equals(Object o)
     {
@@ -372,6 +389,15 @@ public abstract class AbstractJImmutableSet<T>
             return false;
         } else if (o instanceof JImmutableMultiset) {
             return o.equals(this);
+        } else if (o instanceof AbstractJImmutableSet) {
+            final AbstractJImmutableSet that = (AbstractJImmutableSet)o;
+            if (that.size() != size()) {
+                return false;
+            } else if ((cachedHashCode != 0) && (that.cachedHashCode != 0) && (cachedHashCode != that.cachedHashCode)) {
+                return false;
+            } else {
+                return map.equals(that.map);
+            }
         } else if (o instanceof JImmutableSet) {
             return getSet().equals(((JImmutableSet)o).getSet());
         } else {
@@ -406,6 +432,25 @@ public abstract class AbstractJImmutableSet<T>
      */
     protected abstract JImmutableSet<T> create(JImmutableMap<T, Boolean> map);
 
+    protected JImmutableMap<T, Boolean> getMap()
+    {
+        return map;
+    }
+
+    /**
+     * Creates a set for a map that differs from ours by the addition or removal of a single value.
+     * When our hash code is known and the size changed the new set's hash code is derived from ours.
+     */
+    private JImmutableSet<T> createAdjusted(JImmutableMap<T, Boolean> newMap,
+                                            int hashCodeDelta)
+    {
+        final JImmutableSet<T> answer = create(newMap);
+        if ((cachedHashCode != 0) && (newMap.size() != map.size()) && (answer instanceof AbstractJImmutableSet)) {
+            ((AbstractJImmutableSet)answer).cachedHashCode = cachedHashCode + hashCodeDelta;
+        }
+        return answer;
+    }
+
     /**
      * Implemented by derived classes to create a new empty Set
      */
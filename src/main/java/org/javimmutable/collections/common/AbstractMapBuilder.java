@@ -0,0 +1,121 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.common;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.JImmutableMap;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Base class for map builders.  Implements all of the bulk add methods in terms of
+ * add(key, value) so derived classes only need to collect keys and values into their
+ * scratch structures and build the final map from them.
+ */
+public abstract class AbstractMapBuilder<K, V>
+        implements JImmutableMap.Builder<K, V>
+{
+    @Nonnull
+    @Override
+    public abstract AbstractMapBuilder<K, V> add(@Nonnull K key,
+                                                 V value);
+
+    @Nonnull
+    @Override
+    public AbstractMapBuilder<K, V> add(JImmutableMap.Entry<K, V> entry)
+    {
+        return add(entry.getKey(), entry.getValue());
+    }
+
+    @Nonnull
+    @Override
+    public AbstractMapBuilder<K, V> add(Cursor<? extends JImmutableMap.Entry<K, V>> source)
+    {
+        for (Cursor<? extends JImmutableMap.Entry<K, V>> cursor = source.start(); cursor.hasValue(); cursor = cursor.next()) {
+            add(cursor.getValue());
+        }
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public AbstractMapBuilder<K, V> add(Iterator<? extends JImmutableMap.Entry<K, V>> source)
+    {
+        while (source.hasNext()) {
+            add(source.next());
+        }
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public AbstractMapBuilder<K, V> add(Collection<? extends JImmutableMap.Entry<K, V>> source)
+    {
+        return add(source.iterator());
+    }
+
+    @Nonnull
+    @Override
+    public <E extends JImmutableMap.Entry<K, V>> AbstractMapBuilder<K, V> add(E... source)
+    {
+        for (JImmutableMap.Entry<K, V> entry : source) {
+            add(entry);
+        }
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public AbstractMapBuilder<K, V> add(Indexed<? extends JImmutableMap.Entry<K, V>> source,
+                                        int offset,
+                                        int limit)
+    {
+        for (int i = offset; i < limit; ++i) {
+            add(source.get(i));
+        }
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public AbstractMapBuilder<K, V> add(Indexed<? extends JImmutableMap.Entry<K, V>> source)
+    {
+        return add(source, 0, source.size());
+    }
+}
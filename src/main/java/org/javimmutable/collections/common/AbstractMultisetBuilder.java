@@ -0,0 +1,167 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.common;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.JImmutableMultiset;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base class for multiset builders.  Occurrences are counted in a mutable scratch map
+ * supplied by the derived class whose iteration order matches the order of the multiset
+ * being built.  build() passes the distinct values and their counts in that order to
+ * create() which builds the final multiset in one pass.
+ */
+public abstract class AbstractMultisetBuilder<T>
+        implements JImmutableMultiset.Builder<T>
+{
+    private final Map<T, Integer> counts;
+    private int occurrences;
+
+    protected AbstractMultisetBuilder(Map<T, Integer> counts)
+    {
+        this.counts = counts;
+    }
+
+    @Nonnull
+    @Override
+    public AbstractMultisetBuilder<T> add(T value)
+    {
+        return add(value, 1);
+    }
+
+    @Nonnull
+    @Override
+    public AbstractMultisetBuilder<T> add(@Nonnull T value,
+                                          int count)
+    {
+        Conditions.stopNull(value);
+        if (count < 0) {
+            throw new IllegalArgumentException();
+        }
+        if (count > 0) {
+            final Integer current = counts.get(value);
+            counts.put(value, (current == null) ? count : (current + count));
+            occurrences += count;
+        }
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableMultiset<T> build()
+    {
+        final List<T> values = new ArrayList<T>(counts.size());
+        final List<Integer> totals = new ArrayList<Integer>(counts.size());
+        for (Map.Entry<T, Integer> entry : counts.entrySet()) {
+            values.add(entry.getKey());
+            totals.add(entry.getValue());
+        }
+        return create(IndexedList.retained(values), IndexedList.retained(totals), occurrences);
+    }
+
+    @Nonnull
+    @Override
+    public AbstractMultisetBuilder<T> add(Cursor<? extends T> source)
+    {
+        for (Cursor<? extends T> cursor = source.start(); cursor.hasValue(); cursor = cursor.next()) {
+            add(cursor.getValue());
+        }
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public AbstractMultisetBuilder<T> add(Iterator<? extends T> source)
+    {
+        while (source.hasNext()) {
+            add(source.next());
+        }
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public AbstractMultisetBuilder<T> add(Collection<? extends T> source)
+    {
+        return add(source.iterator());
+    }
+
+    @Nonnull
+    @Override
+    public <K extends T> AbstractMultisetBuilder<T> add(K... source)
+    {
+        for (T value : source) {
+            add(value);
+        }
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public AbstractMultisetBuilder<T> add(Indexed<? extends T> source,
+                                          int offset,
+                                          int limit)
+    {
+        for (int i = offset; i < limit; ++i) {
+            add(source.get(i));
+        }
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public AbstractMultisetBuilder<T> add(Indexed<? extends T> source)
+    {
+        return add(source, 0, source.size());
+    }
+
+    /**
+     * Creates the multiset from the distinct values and their counts.  Both Indexed
+     * will be empty if no values have been added.
+     */
+    @Nonnull
+    protected abstract JImmutableMultiset<T> create(@Nonnull Indexed<T> values,
+                                                    @Nonnull Indexed<Integer> counts,
+                                                    int occurrences);
+}
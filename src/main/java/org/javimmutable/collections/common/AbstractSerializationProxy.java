@@ -0,0 +1,112 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.common;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Base class for the serialization proxies used by the collection classes.  Collections
+ * replace themselves with a proxy when written to an ObjectOutputStream and the proxy writes
+ * a compact format consisting of a format version number followed by whatever the derived
+ * class writes (normally a size followed by the values in order).  Derived classes rebuild
+ * the collection directly from the values when read and readResolve() replaces the proxy
+ * with the rebuilt collection.
+ * <p>
+ * Derived classes must have a public no argument constructor for use by deserialization.
+ *
+ * @param <C>
+ */
+public abstract class AbstractSerializationProxy<C>
+        implements Externalizable
+{
+    private static final long serialVersionUID = -121805L;
+    private static final int VERSION = 1;
+
+    private C collection;
+
+    protected AbstractSerializationProxy(C collection)
+    {
+        this.collection = collection;
+    }
+
+    @Override
+    public final void writeExternal(ObjectOutput out)
+        throws IOException
+    {
+        out.writeInt(VERSION);
+        writeCollection(out, collection);
+    }
+
+    @Override
+    public final void readExternal(ObjectInput in)
+        throws IOException, ClassNotFoundException
+    {
+        final int version = in.readInt();
+        if (version != VERSION) {
+            throw new InvalidObjectException("unsupported serialization version: " + version);
+        }
+        collection = readCollection(in);
+    }
+
+    protected Object readResolve()
+    {
+        return collection;
+    }
+
+    /**
+     * Reads a size written by writeCollection() and verifies that it is not negative.
+     */
+    protected static int readSize(ObjectInput in)
+        throws IOException
+    {
+        final int size = in.readInt();
+        if (size < 0) {
+            throw new InvalidObjectException("invalid size: " + size);
+        }
+        return size;
+    }
+
+    protected abstract void writeCollection(ObjectOutput out,
+                                            C collection)
+        throws IOException;
+
+    protected abstract C readCollection(ObjectInput in)
+        throws IOException, ClassNotFoundException;
+}
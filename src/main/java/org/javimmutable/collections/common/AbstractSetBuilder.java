@@ -0,0 +1,111 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.common;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.JImmutableSet;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Base class for set builders.  Implements all of the bulk add methods in terms of add(value).
+ */
+public abstract class AbstractSetBuilder<T>
+        implements JImmutableSet.Builder<T>
+{
+    @Nonnull
+    @Override
+    public abstract AbstractSetBuilder<T> add(T value);
+
+    @Nonnull
+    @Override
+    public AbstractSetBuilder<T> add(Cursor<? extends T> source)
+    {
+        for (Cursor<? extends T> cursor = source.start(); cursor.hasValue(); cursor = cursor.next()) {
+            add(cursor.getValue());
+        }
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public AbstractSetBuilder<T> add(Iterator<? extends T> source)
+    {
+        while (source.hasNext()) {
+            add(source.next());
+        }
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public AbstractSetBuilder<T> add(Collection<? extends T> source)
+    {
+        return add(source.iterator());
+    }
+
+    @Nonnull
+    @Override
+    public <K extends T> AbstractSetBuilder<T> add(K... source)
+    {
+        for (T value : source) {
+            add(value);
+        }
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public AbstractSetBuilder<T> add(Indexed<? extends T> source,
+                                     int offset,
+                                     int limit)
+    {
+        for (int i = offset; i < limit; ++i) {
+            add(source.get(i));
+        }
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public AbstractSetBuilder<T> add(Indexed<? extends T> source)
+    {
+        return add(source, 0, source.size());
+    }
+}
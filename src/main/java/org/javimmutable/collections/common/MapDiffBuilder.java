@@ -0,0 +1,133 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.common;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.MapDiffEntry;
+import org.javimmutable.collections.cursors.StandardCursor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mutable object used by map implementations to collect the MapDiffEntry objects
+ * produced while comparing two maps.
+ */
+public class MapDiffBuilder<K, V>
+{
+    private final List<MapDiffEntry<K, V>> entries = new ArrayList<MapDiffEntry<K, V>>();
+    private final boolean firstOnly;
+
+    public MapDiffBuilder()
+    {
+        this(false);
+    }
+
+    private MapDiffBuilder(boolean firstOnly)
+    {
+        this.firstOnly = firstOnly;
+    }
+
+    /**
+     * Creates a builder that is done as soon as one difference has been added.  Used to
+     * test maps for equality without visiting any more nodes than necessary.
+     */
+    public static <K, V> MapDiffBuilder<K, V> firstOnly()
+    {
+        return new MapDiffBuilder<K, V>(true);
+    }
+
+    /**
+     * Diff algorithms check this to stop looking for differences once enough have been found.
+     */
+    public boolean isDone()
+    {
+        return firstOnly && !entries.isEmpty();
+    }
+
+    public boolean isEmpty()
+    {
+        return entries.isEmpty();
+    }
+
+    public void added(K key,
+                      V newValue)
+    {
+        entries.add(MapDiffEntry.added(key, newValue));
+    }
+
+    public void removed(K key,
+                        V oldValue)
+    {
+        entries.add(MapDiffEntry.removed(key, oldValue));
+    }
+
+    public void addedAll(Cursor<JImmutableMap.Entry<K, V>> cursor)
+    {
+        for (Cursor<JImmutableMap.Entry<K, V>> c = cursor.start(); c.hasValue() && !isDone(); c = c.next()) {
+            added(c.getValue().getKey(), c.getValue().getValue());
+        }
+    }
+
+    public void removedAll(Cursor<JImmutableMap.Entry<K, V>> cursor)
+    {
+        for (Cursor<JImmutableMap.Entry<K, V>> c = cursor.start(); c.hasValue() && !isDone(); c = c.next()) {
+            removed(c.getValue().getKey(), c.getValue().getValue());
+        }
+    }
+
+    /**
+     * Adds a CHANGED entry unless the two values are the same object or are equal.
+     */
+    public void compare(K key,
+                        V oldValue,
+                        V newValue)
+    {
+        if (!((oldValue == newValue) || ((oldValue != null) && oldValue.equals(newValue)))) {
+            entries.add(MapDiffEntry.changed(key, oldValue, newValue));
+        }
+    }
+
+    /**
+     * The returned Cursor shares this builder's list so it should only be called after
+     * all differences have been added.
+     */
+    public Cursor<MapDiffEntry<K, V>> cursor()
+    {
+        return StandardCursor.of(IndexedList.retained(entries));
+    }
+}
@@ -0,0 +1,190 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.common;
+
+import org.javimmutable.collections.Func1;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Helper functions used by classes that split work into tasks run by an ExecutorService.
+ * Any RuntimeException or Error thrown by a task is rethrown in the calling thread.
+ * Other exceptions (including interruption of the calling thread) are wrapped in a
+ * ParallelException.
+ */
+public final class ParallelHelper
+{
+    // extra tasks per processor help to balance uneven task sizes
+    private static final int PARTS_PER_PROCESSOR = 4;
+
+    private ParallelHelper()
+    {
+    }
+
+    /**
+     * Exception thrown if a task fails with a checked exception or the calling thread is interrupted.
+     */
+    public static class ParallelException
+            extends RuntimeException
+    {
+        private static final long serialVersionUID = -121805L;
+
+        public ParallelException(Throwable throwable)
+        {
+            super(throwable);
+        }
+    }
+
+    /**
+     * Used by splitNodes() to find the children of a node in a tree.
+     */
+    public interface Splitter<N>
+    {
+        /**
+         * Adds the children of node to dest in order and returns true.  Returns false without
+         * modifying dest if node has no children.
+         */
+        boolean addChildrenTo(N node,
+                              List<N> dest);
+    }
+
+    /**
+     * @return the number of tasks to split work into for the available processors
+     */
+    public static int defaultParts()
+    {
+        return PARTS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Runs all of the tasks using executor and returns their results in the same order as the tasks.
+     */
+    public static <R> List<R> invokeAll(ExecutorService executor,
+                                        List<Callable<R>> tasks)
+    {
+        try {
+            final List<R> answer = new ArrayList<R>(tasks.size());
+            for (Future<R> future : executor.invokeAll(tasks)) {
+                answer.add(future.get());
+            }
+            return answer;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ParallelException(ex);
+        } catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            } else if (cause instanceof Error) {
+                throw (Error)cause;
+            } else {
+                throw new ParallelException(cause);
+            }
+        }
+    }
+
+    /**
+     * Returns a list containing factory.apply(i) for every i from 0 to count - 1.  The values
+     * are created by tasks that each handle a contiguous range of indexes.  If executor is null
+     * the values are all created by the calling thread.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> createAll(@Nullable ExecutorService executor,
+                                        final int count,
+                                        final Func1<Integer, ? extends T> factory)
+    {
+        final Object[] values = new Object[count];
+        final int parts = (executor == null) ? 1 : Math.min(count, defaultParts());
+        if (parts <= 1) {
+            for (int i = 0; i < count; ++i) {
+                values[i] = factory.apply(i);
+            }
+        } else {
+            final List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(parts);
+            for (int part = 0; part < parts; ++part) {
+                final int start = (int)(((long)count * part) / parts);
+                final int limit = (int)(((long)count * (part + 1)) / parts);
+                tasks.add(new Callable<Object>()
+                {
+                    @Override
+                    public Object call()
+                    {
+                        for (int i = start; i < limit; ++i) {
+                            values[i] = factory.apply(i);
+                        }
+                        return null;
+                    }
+                });
+            }
+            invokeAll(executor, tasks);
+        }
+        return (List<T>)new ArrayList<Object>(Arrays.asList(values));
+    }
+
+    /**
+     * Splits root along child boundaries, one level at a time, until there are at least
+     * minParts nodes or none of the nodes have children.  The nodes are returned in the
+     * order produced by splitter and together contain everything in root.
+     */
+    public static <N> List<N> splitNodes(N root,
+                                         int minParts,
+                                         Splitter<N> splitter)
+    {
+        List<N> nodes = new ArrayList<N>();
+        nodes.add(root);
+        boolean split = true;
+        while (split && (nodes.size() < minParts)) {
+            final List<N> children = new ArrayList<N>();
+            split = false;
+            for (N node : nodes) {
+                if (splitter.addChildrenTo(node, children)) {
+                    split = true;
+                } else {
+                    children.add(node);
+                }
+            }
+            nodes = children;
+        }
+        return nodes;
+    }
+}
@@ -39,11 +39,17 @@ import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.Holders;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.SplittableCursorable;
 import org.javimmutable.collections.common.AbstractJImmutableMap;
 import org.javimmutable.collections.cursors.StandardCursor;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Singleton implementation of JImmutableMap that contains no elements.
@@ -56,7 +62,11 @@ import javax.annotation.concurrent.Immutable;
 @Immutable
 public class EmptyHashMap<K, V>
         extends AbstractJImmutableMap<K, V>
+        implements SplittableCursorable<JImmutableMap.Entry<K, V>>,
+                   Serializable
 {
+    private static final long serialVersionUID = -121805L;
+
     static final EmptyHashMap INSTANCE = new EmptyHashMap();
 
     private EmptyHashMap()
@@ -85,6 +95,22 @@ public class EmptyHashMap<K, V>
         return JImmutableHashMap.<K, V>forKey(key).assign(key, value);
     }
 
+    /**
+     * Selects the collision handling strategy using the first key in map just as assign() would
+     * and then lets the resulting empty hash map merge map into itself.
+     */
+    @Nonnull
+    @Override
+    public JImmutableMap<K, V> assignAll(@Nonnull JImmutableMap<? extends K, ? extends V> map)
+    {
+        if (map.isEmpty()) {
+            return this;
+        } else {
+            final K firstKey = map.cursor().start().getValue().getKey();
+            return JImmutableHashMap.<K, V>forKey(firstKey).assignAll(map);
+        }
+    }
+
     @Nonnull
     @Override
     public JImmutableMap<K, V> delete(@Nonnull K key)
@@ -112,6 +138,13 @@ public class EmptyHashMap<K, V>
         return StandardCursor.of();
     }
 
+    @Nonnull
+    @Override
+    public List<Cursor<Entry<K, V>>> splitCursors(int minParts)
+    {
+        return Collections.singletonList(cursor());
+    }
+
     @Override
     public V getValueOr(K key,
                         V defaultValue)
@@ -124,4 +157,15 @@ public class EmptyHashMap<K, V>
     {
         //TODO: fix empty checkInvariants()
     }
+
+    private Object writeReplace()
+    {
+        return new JImmutableHashMap.SerializationProxy<K, V>(this);
+    }
+
+    private void readObject(ObjectInputStream in)
+        throws InvalidObjectException
+    {
+        throw new InvalidObjectException("serialization proxy required");
+    }
 }
@@ -0,0 +1,163 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.hash;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Func1;
+import org.javimmutable.collections.Holder;
+import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.MapEntry;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.array.trie32.Transforms;
+import org.javimmutable.collections.common.MutableDelta;
+import org.javimmutable.collections.cursors.SingleValueCursor;
+import org.javimmutable.collections.cursors.TransformCursor;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Transforms implementation for hash maps that store only keys, used by JImmutableHashSet.
+ * Every value is Boolean.TRUE so no values are stored.  A trie leaf is either the key itself
+ * (the normal case) or a MultiHashKeyNode containing all of the keys sharing a hash code.
+ * This eliminates the key/value node the other transforms create for every key.
+ */
+@Immutable
+class HashKeyTransforms<K>
+        implements Transforms<Object, K, Boolean>
+{
+    private static final Holder<Boolean> PRESENT = Holders.of(Boolean.TRUE);
+
+    private final Func1<Object, JImmutableMap.Entry<K, Boolean>> entryFactory = new Func1<Object, JImmutableMap.Entry<K, Boolean>>()
+    {
+        @Override
+        public JImmutableMap.Entry<K, Boolean> apply(Object key)
+        {
+            return entry(key);
+        }
+    };
+
+    @Override
+    public Object update(Holder<Object> oldLeaf,
+                         K key,
+                         Boolean value,
+                         MutableDelta delta)
+    {
+        assert value == Boolean.TRUE;
+        if (oldLeaf.isEmpty()) {
+            delta.add(1);
+            return key;
+        }
+        final Object leaf = oldLeaf.getValue();
+        if (leaf instanceof MultiHashKeyNode) {
+            return ((MultiHashKeyNode)leaf).insert(key, delta);
+        } else if (leaf.equals(key)) {
+            return leaf;
+        } else {
+            delta.add(1);
+            return new MultiHashKeyNode(leaf, key);
+        }
+    }
+
+    @Override
+    public Holder<Object> delete(Object oldLeaf,
+                                 K key,
+                                 MutableDelta delta)
+    {
+        if (oldLeaf instanceof MultiHashKeyNode) {
+            return Holders.of(((MultiHashKeyNode)oldLeaf).delete(key, delta));
+        } else if (oldLeaf.equals(key)) {
+            delta.subtract(1);
+            return Holders.of();
+        } else {
+            return Holders.of(oldLeaf);
+        }
+    }
+
+    @Override
+    public Holder<Boolean> findValue(Object oldLeaf,
+                                     K key)
+    {
+        return (findKey(oldLeaf, key) != null) ? PRESENT : Holders.<Boolean>of();
+    }
+
+    @Override
+    public Holder<JImmutableMap.Entry<K, Boolean>> findEntry(Object oldLeaf,
+                                                             K key)
+    {
+        final Object found = findKey(oldLeaf, key);
+        return (found != null) ? Holders.of(entry(found)) : Holders.<JImmutableMap.Entry<K, Boolean>>of();
+    }
+
+    @Override
+    public Cursor<JImmutableMap.Entry<K, Boolean>> cursor(Object leaf)
+    {
+        if (leaf instanceof MultiHashKeyNode) {
+            return TransformCursor.of(((MultiHashKeyNode)leaf).cursor(), entryFactory);
+        } else {
+            return SingleValueCursor.of(entry(leaf));
+        }
+    }
+
+    @Override
+    public void forEachEntry(Object leaf,
+                             Proc1<? super JImmutableMap.Entry<K, Boolean>> proc)
+    {
+        if (leaf instanceof MultiHashKeyNode) {
+            for (Object key : ((MultiHashKeyNode)leaf).keys()) {
+                proc.apply(entry(key));
+            }
+        } else {
+            proc.apply(entry(leaf));
+        }
+    }
+
+    private static Object findKey(Object leaf,
+                                  Object key)
+    {
+        if (leaf instanceof MultiHashKeyNode) {
+            return ((MultiHashKeyNode)leaf).find(key);
+        } else {
+            return leaf.equals(key) ? leaf : null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private JImmutableMap.Entry<K, Boolean> entry(Object key)
+    {
+        return MapEntry.of((K)key, Boolean.TRUE);
+    }
+}
@@ -38,6 +38,7 @@ package org.javimmutable.collections.hash;
 import org.javimmutable.collections.Cursorable;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.common.MutableDelta;
 
 public interface HashValueListNode<K, V>
@@ -53,4 +54,6 @@ public interface HashValueListNode<K, V>
 
     HashValueListNode<K, V> deleteValueForKey(K key,
                                               MutableDelta sizeDelta);
+
+    void forEachEntry(Proc1<? super JImmutableMap.Entry<K, V>> proc);
 }
@@ -39,6 +39,7 @@ import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.Holders;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.array.trie32.Transforms;
 import org.javimmutable.collections.common.MutableDelta;
 
@@ -89,4 +90,11 @@ class HashValueListTransforms<K, V>
     {
         return leaf.cursor();
     }
+
+    @Override
+    public void forEachEntry(HashValueListNode<K, V> leaf,
+                             Proc1<? super JImmutableMap.Entry<K, V>> proc)
+    {
+        leaf.forEachEntry(proc);
+    }
 }
@@ -39,6 +39,7 @@ import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.Holders;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.array.trie32.Transforms;
 import org.javimmutable.collections.common.MutableDelta;
 import org.javimmutable.collections.tree.ComparableComparator;
@@ -102,4 +103,11 @@ class HashValueTreeTransforms<K extends Comparable<K>, V>
     {
         return leaf.cursor();
     }
+
+    @Override
+    public void forEachEntry(TreeNode<K, V> leaf,
+                             Proc1<? super JImmutableMap.Entry<K, V>> proc)
+    {
+        leaf.forEachEntry(proc);
+    }
 }
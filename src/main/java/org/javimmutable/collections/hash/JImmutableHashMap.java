@@ -38,26 +38,53 @@ package org.javimmutable.collections.hash;
 import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.Indexed;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.MapDiffEntry;
 import org.javimmutable.collections.MapEntry;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.SplittableCursorable;
+import org.javimmutable.collections.array.trie32.EditToken;
 import org.javimmutable.collections.array.trie32.Transforms;
 import org.javimmutable.collections.array.trie32.TrieNode;
 import org.javimmutable.collections.common.AbstractJImmutableMap;
+import org.javimmutable.collections.common.AbstractMapBuilder;
+import org.javimmutable.collections.common.AbstractSerializationProxy;
+import org.javimmutable.collections.common.Conditions;
+import org.javimmutable.collections.common.IndexedArray;
+import org.javimmutable.collections.common.IndexedList;
+import org.javimmutable.collections.common.MapDiffBuilder;
 import org.javimmutable.collections.common.MutableDelta;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @Immutable
 public class JImmutableHashMap<T, K, V>
         extends AbstractJImmutableMap<K, V>
+        implements SplittableCursorable<JImmutableMap.Entry<K, V>>,
+                   Serializable
 {
+    private static final long serialVersionUID = -121805L;
+
     // we only need one instance of the transformations object
     static final HashValueListTransforms LIST_TRANSFORMS = new HashValueListTransforms();
 
     // we only need one instance of the transformations object
     static final HashValueTreeTransforms TREE_TRANSFORMS = new HashValueTreeTransforms();
 
+    // we only need one instance of the transformations object
+    static final HashKeyTransforms KEY_TRANSFORMS = new HashKeyTransforms();
+
     // this is safe since the transformations object works for any possible K and V
     @SuppressWarnings("unchecked")
     static final JImmutableHashMap LIST_EMPTY = new JImmutableHashMap(TrieNode.of(), 0, LIST_TRANSFORMS);
@@ -66,6 +93,10 @@ public class JImmutableHashMap<T, K, V>
     @SuppressWarnings("unchecked")
     static final JImmutableHashMap TREE_EMPTY = new JImmutableHashMap(TrieNode.of(), 0, TREE_TRANSFORMS);
 
+    // this is safe since the transformations object works for any possible K
+    @SuppressWarnings("unchecked")
+    static final JImmutableHashMap KEY_EMPTY = new JImmutableHashMap(TrieNode.of(), 0, KEY_TRANSFORMS);
+
     private final TrieNode<T> root;
     private final int size;
     private final Transforms<T, K, V> transforms;
@@ -157,6 +188,108 @@ public class JImmutableHashMap<T, K, V>
         return (JImmutableMap<K, V>)TREE_EMPTY;
     }
 
+    /**
+     * Builds a map bottom up from the specified keys and values using a collision handling
+     * strategy selected based on the first key.  Used to rebuild maps from serialized form.
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> JImmutableMap<K, V> fromEntries(@Nonnull Indexed<? extends K> keys,
+                                                  @Nonnull Indexed<? extends V> values)
+    {
+        if (keys.size() == 0) {
+            return of();
+        }
+        final Transforms transforms = (keys.get(0) instanceof Comparable) ? TREE_TRANSFORMS : LIST_TRANSFORMS;
+        return fromEntries((Transforms<Object, K, V>)transforms, keys, values);
+    }
+
+    /**
+     * Builds a map bottom up from the specified keys and values.  Keys are grouped by hash code
+     * and each group's leaf value is built directly using transforms.  The trie is then built
+     * bottom up from the leaves so no intermediate nodes are ever created.  Any duplicate keys
+     * are resolved in favor of the last value for that key.
+     */
+    static <K, V> JImmutableHashMap<Object, K, V> fromEntries(@Nonnull Transforms<Object, K, V> transforms,
+                                                              @Nonnull Indexed<? extends K> keys,
+                                                              @Nonnull Indexed<? extends V> values)
+    {
+        final int count = keys.size();
+        final long[] order = new long[count];
+        for (int i = 0; i < count; ++i) {
+            order[i] = ((long)keys.get(i).hashCode() << 32) | i;
+        }
+        Arrays.sort(order);
+
+        final MutableDelta sizeDelta = new MutableDelta();
+        final int[] hashes = new int[count];
+        final Object[] leaves = new Object[count];
+        int leafCount = 0;
+        int i = 0;
+        while (i < count) {
+            final int hash = (int)(order[i] >> 32);
+            Holder<Object> leaf = Holders.of();
+            while ((i < count) && ((int)(order[i] >> 32) == hash)) {
+                final int position = (int)order[i];
+                leaf = Holders.of(transforms.update(leaf, keys.get(position), values.get(position), sizeDelta));
+                i += 1;
+            }
+            hashes[leafCount] = hash;
+            leaves[leafCount] = leaf.getValue();
+            leafCount += 1;
+        }
+        final TrieNode<Object> root = TrieNode.fromSorted(TrieNode.ROOT_SHIFT, hashes, IndexedArray.retained(leaves), 0, leafCount);
+        return new JImmutableHashMap<Object, K, V>(root, sizeDelta.getValue(), transforms);
+    }
+
+    /**
+     * Returns an empty map that stores only its keys.  Every value in the map must be Boolean.TRUE
+     * so this is only useful for implementing sets.  Keys are stored directly in the trie with no
+     * per key node for the value.
+     */
+    @SuppressWarnings("unchecked")
+    static <K> JImmutableMap<K, Boolean> usingKeysOnly()
+    {
+        return (JImmutableMap<K, Boolean>)KEY_EMPTY;
+    }
+
+    /**
+     * Returns a Builder that collects entries and builds the map bottom up in a single pass.
+     */
+    public static <K, V> Builder<K, V> builder()
+    {
+        return new Builder<K, V>();
+    }
+
+    /**
+     * Returns an Editor that can be used to efficiently build a new hash map by modifying
+     * its nodes in place.  The collision handling strategy is selected based on the first key
+     * assigned to the editor just as for the empty map returned by of().
+     */
+    public static <K, V> Editor<K, V> editor()
+    {
+        return new Editor<K, V>();
+    }
+
+    /**
+     * Returns an Editor whose initial contents are the same as those of the specified map.
+     * If source is a hash map the editor shares its nodes and only copies them as needed
+     * so source itself is never modified.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> Editor<K, V> editor(@Nonnull JImmutableMap<K, V> source)
+    {
+        if (source instanceof JImmutableHashMap) {
+            final JImmutableHashMap<Object, K, V> map = (JImmutableHashMap<Object, K, V>)source;
+            return new Editor<K, V>(map.root, map.size, map.transforms);
+        } else {
+            final Editor<K, V> editor = new Editor<K, V>();
+            for (Entry<K, V> entry : source) {
+                editor.assign(entry.getKey(), entry.getValue());
+            }
+            return editor;
+        }
+    }
+
     @Override
     public V getValueOr(K key,
                         V defaultValue)
@@ -188,12 +321,13 @@ public class JImmutableHashMap<T, K, V>
     public JImmutableMap<K, V> assign(@Nonnull K key,
                                       V value)
     {
+        final int newHashCode = hashCodeAfterAssign(key, value);
         MutableDelta sizeDelta = new MutableDelta();
         TrieNode<T> newRoot = root.assign(TrieNode.ROOT_SHIFT, key.hashCode(), key, value, transforms, sizeDelta);
         if (newRoot == root) {
             return this;
         } else {
-            return new JImmutableHashMap<T, K, V>(newRoot, size + sizeDelta.getValue(), transforms);
+            return withHashCode(new JImmutableHashMap<T, K, V>(newRoot, size + sizeDelta.getValue(), transforms), newHashCode);
         }
     }
 
@@ -201,6 +335,7 @@ public class JImmutableHashMap<T, K, V>
     @Override
     public JImmutableMap<K, V> delete(@Nonnull K key)
     {
+        final int newHashCode = hashCodeAfterDelete(key);
         MutableDelta sizeDelta = new MutableDelta();
         TrieNode<T> newRoot = root.delete(TrieNode.ROOT_SHIFT, key.hashCode(), key, transforms, sizeDelta);
         if (newRoot == root) {
@@ -208,7 +343,66 @@ public class JImmutableHashMap<T, K, V>
         } else if (newRoot.isEmpty()) {
             return of();
         } else {
-            return new JImmutableHashMap<T, K, V>(newRoot, size + sizeDelta.getValue(), transforms);
+            return withHashCode(new JImmutableHashMap<T, K, V>(newRoot, size + sizeDelta.getValue(), transforms), newHashCode);
+        }
+    }
+
+    /**
+     * When map is also a hash map using the same collision handling strategy the two tries
+     * are merged directly.  Branches that only exist in one map or that are shared by both
+     * are reused rather than rebuilt and the new size is computed from the number of keys the
+     * maps have in common so the cost is proportional to the differences between the maps
+     * rather than to the number of keys in map.
+     */
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    public JImmutableMap<K, V> assignAll(@Nonnull JImmutableMap<? extends K, ? extends V> map)
+    {
+        if (!((map instanceof JImmutableHashMap) && (((JImmutableHashMap)map).transforms == transforms))) {
+            return super.assignAll(map);
+        } else if (root.isEmpty()) {
+            return (JImmutableMap<K, V>)map;
+        } else {
+            final TrieNode<T> otherRoot = ((JImmutableHashMap<T, K, V>)map).root;
+            final MutableDelta overlap = new MutableDelta();
+            final TrieNode<T> newRoot = TrieNode.merge(TrieNode.ROOT_SHIFT, root, otherRoot, map.size(), transforms, overlap);
+            if (newRoot == root) {
+                return this;
+            } else {
+                return new JImmutableHashMap<T, K, V>(newRoot, size + map.size() - overlap.getValue(), transforms);
+            }
+        }
+    }
+
+    /**
+     * When newer is also a hash map using the same collision handling strategy the two tries
+     * are compared directly and any branches shared by the two maps are skipped.
+     */
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    public Cursor<MapDiffEntry<K, V>> diff(@Nonnull JImmutableMap<K, V> newer)
+    {
+        if ((newer instanceof JImmutableHashMap) && (((JImmutableHashMap)newer).transforms == transforms)) {
+            final MapDiffBuilder<K, V> diffs = new MapDiffBuilder<K, V>();
+            TrieNode.diff(TrieNode.ROOT_SHIFT, root, ((JImmutableHashMap<T, K, V>)newer).root, transforms, diffs);
+            return diffs.cursor();
+        } else {
+            return super.diff(newer);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected boolean hasSameEntries(@Nonnull JImmutableMap<?, ?> other)
+    {
+        if ((other instanceof JImmutableHashMap) && (((JImmutableHashMap)other).transforms == transforms)) {
+            final MapDiffBuilder<K, V> diffs = MapDiffBuilder.firstOnly();
+            TrieNode.diff(TrieNode.ROOT_SHIFT, root, ((JImmutableHashMap<T, K, V>)other).root, transforms, diffs);
+            return diffs.isEmpty();
+        } else {
+            return super.hasSameEntries(other);
         }
     }
 
@@ -232,6 +426,23 @@ public class JImmutableHashMap<T, K, V>
         return root.anyOrderEntryCursor(transforms);
     }
 
+    @Override
+    public void forEachEntry(@Nonnull Proc1<? super Entry<K, V>> proc)
+    {
+        root.forEachEntry(transforms, proc);
+    }
+
+    @Nonnull
+    @Override
+    public List<Cursor<Entry<K, V>>> splitCursors(int minParts)
+    {
+        final List<Cursor<Entry<K, V>>> cursors = new ArrayList<Cursor<Entry<K, V>>>();
+        for (TrieNode<T> node : root.splitNodes(minParts)) {
+            cursors.add(node.anyOrderEntryCursor(transforms));
+        }
+        return cursors;
+    }
+
     @Override
     public void checkInvariants()
     {
@@ -243,4 +454,230 @@ public class JImmutableHashMap<T, K, V>
     {
         return transforms;
     }
+
+    private Object writeReplace()
+    {
+        return new SerializationProxy<K, V>(this);
+    }
+
+    private void readObject(ObjectInputStream in)
+        throws InvalidObjectException
+    {
+        throw new InvalidObjectException("serialization proxy required");
+    }
+
+    /**
+     * MutableBuilder that collects keys and values into lists and builds the map bottom up
+     * in a single pass when build() is called.  Duplicate keys are resolved in favor of the
+     * last value added for that key.  The builder can continue to be used after calling build().
+     */
+    public static class Builder<K, V>
+            extends AbstractMapBuilder<K, V>
+    {
+        private final List<K> keys = new ArrayList<K>();
+        private final List<V> values = new ArrayList<V>();
+
+        @Nonnull
+        @Override
+        public Builder<K, V> add(@Nonnull K key,
+                                 V value)
+        {
+            Conditions.stopNull(key);
+            keys.add(key);
+            values.add(value);
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public JImmutableMap<K, V> build()
+        {
+            return fromEntries(IndexedList.retained(keys), IndexedList.retained(values));
+        }
+    }
+
+    /**
+     * Transient (mutable) version of a hash map for bulk loading or other large batches of
+     * changes.  Changes are made to nodes in place whenever the editor created those nodes
+     * so very little garbage is created for each assign() or delete().  Nodes shared with
+     * other maps are copied before being modified so those maps are never affected.
+     * Call build() to obtain a normal immutable map containing the current contents.
+     * The editor can continue to be used after calling build() without affecting the
+     * map returned by build().
+     * <p>
+     * Editors are not thread safe and must not be shared between threads.
+     */
+    public static class Editor<K, V>
+    {
+        private EditToken owner;
+        private TrieNode<Object> root;
+        private int size;
+        private Transforms<Object, K, V> transforms;
+
+        private Editor()
+        {
+            this(TrieNode.of(), 0, null);
+        }
+
+        private Editor(TrieNode<Object> root,
+                       int size,
+                       Transforms<Object, K, V> transforms)
+        {
+            this.owner = new EditToken();
+            this.root = root;
+            this.size = size;
+            this.transforms = transforms;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Nonnull
+        public Editor<K, V> assign(@Nonnull K key,
+                                   V value)
+        {
+            if (transforms == null) {
+                transforms = (key instanceof Comparable) ? (Transforms)TREE_TRANSFORMS : (Transforms)LIST_TRANSFORMS;
+            }
+            final MutableDelta sizeDelta = new MutableDelta();
+            root = root.editAssign(owner, TrieNode.ROOT_SHIFT, key.hashCode(), key, value, transforms, sizeDelta);
+            size += sizeDelta.getValue();
+            return this;
+        }
+
+        @Nonnull
+        public Editor<K, V> delete(@Nonnull K key)
+        {
+            if (transforms != null) {
+                final MutableDelta sizeDelta = new MutableDelta();
+                root = root.editDelete(owner, TrieNode.ROOT_SHIFT, key.hashCode(), key, transforms, sizeDelta);
+                size += sizeDelta.getValue();
+            }
+            return this;
+        }
+
+        public V getValueOr(@Nonnull K key,
+                            V defaultValue)
+        {
+            return (transforms == null) ? defaultValue : root.getValueOr(TrieNode.ROOT_SHIFT, key.hashCode(), key, transforms, defaultValue);
+        }
+
+        @Nonnull
+        public Holder<V> find(@Nonnull K key)
+        {
+            return (transforms == null) ? Holders.<V>of() : root.find(TrieNode.ROOT_SHIFT, key.hashCode(), key, transforms);
+        }
+
+        public int size()
+        {
+            return size;
+        }
+
+        public boolean isEmpty()
+        {
+            return size == 0;
+        }
+
+        /**
+         * Creates an immutable map containing the current contents of the editor.  Any nodes
+         * owned by the editor become part of the new map so the editor gives up ownership of them.
+         */
+        @Nonnull
+        public JImmutableMap<K, V> build()
+        {
+            owner = new EditToken();
+            if (size == 0) {
+                return of();
+            } else {
+                return new JImmutableHashMap<Object, K, V>(root, size, transforms);
+            }
+        }
+    }
+
+    /**
+     * Writes the collision handling strategy and size followed by each key and value.  Hash codes
+     * are not written since they need not be the same in the reading JVM.  The map is rebuilt
+     * bottom up from recomputed hash codes when read.
+     */
+    static class SerializationProxy<K, V>
+            extends AbstractSerializationProxy<JImmutableMap<K, V>>
+    {
+        private static final long serialVersionUID = -121805L;
+        private static final byte AUTO_CODE = 0;
+        private static final byte LIST_CODE = 1;
+        private static final byte TREE_CODE = 2;
+        private static final byte KEY_CODE = 3;
+
+        public SerializationProxy()
+        {
+            super(null);
+        }
+
+        SerializationProxy(JImmutableMap<K, V> map)
+        {
+            super(map);
+        }
+
+        @Override
+        protected void writeCollection(ObjectOutput out,
+                                       JImmutableMap<K, V> map)
+            throws IOException
+        {
+            final int size = map.size();
+            if (map instanceof JImmutableHashMap) {
+                out.writeByte(codeFor(((JImmutableHashMap)map).transforms));
+            } else {
+                out.writeByte(AUTO_CODE);
+            }
+            out.writeInt(size);
+            for (Cursor<Entry<K, V>> cursor = map.cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+                out.writeObject(cursor.getValue().getKey());
+                out.writeObject(cursor.getValue().getValue());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected JImmutableMap<K, V> readCollection(ObjectInput in)
+            throws IOException, ClassNotFoundException
+        {
+            final byte code = in.readByte();
+            final int size = readSize(in);
+            final Object[] keys = new Object[size];
+            final Object[] values = new Object[size];
+            for (int i = 0; i < size; ++i) {
+                keys[i] = in.readObject();
+                values[i] = in.readObject();
+            }
+            final Indexed<K> keyList = IndexedArray.retained(SerializationProxy.<K>cast(keys));
+            final Indexed<V> valueList = IndexedArray.retained(SerializationProxy.<V>cast(values));
+            switch (code) {
+            case AUTO_CODE:
+                return fromEntries(keyList, valueList);
+            case LIST_CODE:
+                return (size == 0) ? JImmutableHashMap.<K, V>usingList() : fromEntries(LIST_TRANSFORMS, keyList, valueList);
+            case TREE_CODE:
+                return (size == 0) ? (JImmutableMap<K, V>)TREE_EMPTY : fromEntries(TREE_TRANSFORMS, keyList, valueList);
+            case KEY_CODE:
+                return (size == 0) ? (JImmutableMap<K, V>)KEY_EMPTY : fromEntries(KEY_TRANSFORMS, keyList, valueList);
+            default:
+                throw new InvalidObjectException("unknown collision strategy: " + code);
+            }
+        }
+
+        private static byte codeFor(Transforms transforms)
+        {
+            if (transforms == TREE_TRANSFORMS) {
+                return TREE_CODE;
+            } else if (transforms == KEY_TRANSFORMS) {
+                return KEY_CODE;
+            } else {
+                return LIST_CODE;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T[] cast(Object[] values)
+        {
+            return (T[])values;
+        }
+    }
 }
@@ -35,19 +35,33 @@
 
 package org.javimmutable.collections.hash;
 
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Indexed;
 import org.javimmutable.collections.JImmutableMap;
 import org.javimmutable.collections.JImmutableMultiset;
 import org.javimmutable.collections.common.AbstractJImmutableMultiset;
+import org.javimmutable.collections.common.AbstractMultisetBuilder;
+import org.javimmutable.collections.common.AbstractSerializationProxy;
+import org.javimmutable.collections.common.IndexedArray;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 
 @Immutable
 public class JImmutableHashMultiset<T>
         extends AbstractJImmutableMultiset<T>
+        implements Serializable
 {
+    private static final long serialVersionUID = -121805L;
+
     @SuppressWarnings("unchecked")
     private static final JImmutableHashMultiset EMPTY = new JImmutableHashMultiset(JImmutableHashMap.of(), 0);
 
@@ -70,6 +84,11 @@ public class JImmutableHashMultiset<T>
         return (JImmutableHashMultiset<T>)EMPTY;
     }
 
+    public static <T> Builder<T> builder()
+    {
+        return new Builder<T>();
+    }
+
     @Nonnull
     @Override
     public JImmutableMultiset<T> deleteAll()
@@ -82,4 +101,105 @@ public class JImmutableHashMultiset<T>
     {
         return new HashMap<T, Integer>();
     }
+
+    private Object writeReplace()
+    {
+        return new SerializationProxy<T>(this);
+    }
+
+    private void readObject(ObjectInputStream in)
+        throws InvalidObjectException
+    {
+        throw new InvalidObjectException("serialization proxy required");
+    }
+
+    /**
+     * MutableBuilder that counts occurrences in a HashMap and builds the underlying map
+     * bottom up in a single pass when build() is called.
+     */
+    public static class Builder<T>
+            extends AbstractMultisetBuilder<T>
+    {
+        private Builder()
+        {
+            super(new HashMap<T, Integer>());
+        }
+
+        @Nonnull
+        @Override
+        protected JImmutableMultiset<T> create(@Nonnull Indexed<T> values,
+                                               @Nonnull Indexed<Integer> counts,
+                                               int occurrences)
+        {
+            if (values.size() == 0) {
+                return of();
+            }
+            return new JImmutableHashMultiset<T>(JImmutableHashMap.fromEntries(values, counts), occurrences);
+        }
+    }
+
+    /**
+     * Writes the number of distinct values followed by each value and its count.  The underlying
+     * map is rebuilt bottom up from recomputed hash codes when read.
+     */
+    private static class SerializationProxy<T>
+            extends AbstractSerializationProxy<JImmutableHashMultiset<T>>
+    {
+        private static final long serialVersionUID = -121805L;
+
+        public SerializationProxy()
+        {
+            super(null);
+        }
+
+        private SerializationProxy(JImmutableHashMultiset<T> multiset)
+        {
+            super(multiset);
+        }
+
+        @Override
+        protected void writeCollection(ObjectOutput out,
+                                       JImmutableHashMultiset<T> multiset)
+            throws IOException
+        {
+            out.writeInt(multiset.size());
+            for (Cursor<JImmutableMap.Entry<T, Integer>> cursor = multiset.entryCursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+                out.writeObject(cursor.getValue().getKey());
+                out.writeInt(cursor.getValue().getValue());
+            }
+        }
+
+        @Override
+        protected JImmutableHashMultiset<T> readCollection(ObjectInput in)
+            throws IOException, ClassNotFoundException
+        {
+            final int size = readSize(in);
+            if (size == 0) {
+                return of();
+            }
+            final Object[] values = new Object[size];
+            final Integer[] counts = new Integer[size];
+            int occurrences = 0;
+            for (int i = 0; i < size; ++i) {
+                values[i] = in.readObject();
+                final int count = in.readInt();
+                if (count <= 0) {
+                    throw new InvalidObjectException("invalid count: " + count);
+                }
+                counts[i] = count;
+                occurrences += count;
+            }
+            final JImmutableMap<T, Integer> map = JImmutableHashMap.fromEntries(IndexedArray.retained(SerializationProxy.<T>cast(values)), IndexedArray.retained(counts));
+            if (map.size() != size) {
+                throw new InvalidObjectException("duplicate values");
+            }
+            return new JImmutableHashMultiset<T>(map, occurrences);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T[] cast(Object[] values)
+        {
+            return (T[])values;
+        }
+    }
 }
\ No newline at end of file
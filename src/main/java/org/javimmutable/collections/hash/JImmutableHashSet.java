@@ -35,21 +35,40 @@
 
 package org.javimmutable.collections.hash;
 
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Indexed;
 import org.javimmutable.collections.JImmutableMap;
 import org.javimmutable.collections.JImmutableSet;
 import org.javimmutable.collections.common.AbstractJImmutableSet;
+import org.javimmutable.collections.common.AbstractSerializationProxy;
+import org.javimmutable.collections.common.AbstractSetBuilder;
+import org.javimmutable.collections.common.Conditions;
+import org.javimmutable.collections.common.IndexedArray;
+import org.javimmutable.collections.common.IndexedList;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 @Immutable
 public class JImmutableHashSet<T>
         extends AbstractJImmutableSet<T>
+        implements Serializable
 {
+    private static final long serialVersionUID = -121805L;
+
     @SuppressWarnings("unchecked")
-    private static final JImmutableHashSet EMPTY = new JImmutableHashSet(JImmutableHashMap.of());
+    private static final JImmutableHashSet EMPTY = new JImmutableHashSet(JImmutableHashMap.usingKeysOnly());
 
     private JImmutableHashSet(JImmutableMap<T, Boolean> map)
     {
@@ -62,6 +81,27 @@ public class JImmutableHashSet<T>
         return (JImmutableHashSet<T>)EMPTY;
     }
 
+    public static <T> Builder<T> builder()
+    {
+        return new Builder<T>();
+    }
+
+    /**
+     * Builds a set containing the values bottom up in a single pass.  Duplicate values are ignored.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> JImmutableHashSet<T> fromValues(@Nonnull Indexed<? extends T> values)
+    {
+        final int size = values.size();
+        if (size == 0) {
+            return of();
+        }
+        final Boolean[] flags = new Boolean[size];
+        Arrays.fill(flags, Boolean.TRUE);
+        final JImmutableMap<T, Boolean> map = JImmutableHashMap.fromEntries(JImmutableHashMap.KEY_TRANSFORMS, values, IndexedArray.retained(flags));
+        return new JImmutableHashSet<T>(map);
+    }
+
     @Nonnull
     @Override
     public JImmutableSet<T> deleteAll()
@@ -80,4 +120,93 @@ public class JImmutableHashSet<T>
     {
         return new HashSet<T>();
     }
+
+    private Object writeReplace()
+    {
+        return new SerializationProxy<T>(this);
+    }
+
+    private void readObject(ObjectInputStream in)
+        throws InvalidObjectException
+    {
+        throw new InvalidObjectException("serialization proxy required");
+    }
+
+    /**
+     * MutableBuilder that collects values into a list and builds the set bottom up in a
+     * single pass when build() is called.
+     */
+    public static class Builder<T>
+            extends AbstractSetBuilder<T>
+    {
+        private final List<T> values = new ArrayList<T>();
+
+        @Nonnull
+        @Override
+        public Builder<T> add(T value)
+        {
+            Conditions.stopNull(value);
+            values.add(value);
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public JImmutableHashSet<T> build()
+        {
+            return fromValues(IndexedList.retained(values));
+        }
+    }
+
+    /**
+     * Writes the size followed by each value.  The underlying map is rebuilt bottom up from
+     * recomputed hash codes when read.
+     */
+    private static class SerializationProxy<T>
+            extends AbstractSerializationProxy<JImmutableHashSet<T>>
+    {
+        private static final long serialVersionUID = -121805L;
+
+        public SerializationProxy()
+        {
+            super(null);
+        }
+
+        private SerializationProxy(JImmutableHashSet<T> set)
+        {
+            super(set);
+        }
+
+        @Override
+        protected void writeCollection(ObjectOutput out,
+                                       JImmutableHashSet<T> set)
+            throws IOException
+        {
+            out.writeInt(set.size());
+            for (Cursor<T> cursor = set.cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+                out.writeObject(cursor.getValue());
+            }
+        }
+
+        @Override
+        protected JImmutableHashSet<T> readCollection(ObjectInput in)
+            throws IOException, ClassNotFoundException
+        {
+            final int size = readSize(in);
+            if (size == 0) {
+                return of();
+            }
+            final Object[] values = new Object[size];
+            for (int i = 0; i < size; ++i) {
+                values[i] = in.readObject();
+            }
+            return fromValues(IndexedArray.retained(SerializationProxy.<T>cast(values)));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T[] cast(Object[] values)
+        {
+            return (T[])values;
+        }
+    }
 }
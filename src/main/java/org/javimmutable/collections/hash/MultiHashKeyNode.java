@@ -0,0 +1,127 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.hash;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.common.IndexedArray;
+import org.javimmutable.collections.common.MutableDelta;
+import org.javimmutable.collections.cursors.StandardCursor;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Trie leaf used by HashKeyTransforms to hold two or more keys that share a hash code.
+ * Keys are stored in a simple array since collisions are expected to be rare.
+ */
+@Immutable
+final class MultiHashKeyNode
+{
+    private final Object[] keys;
+
+    MultiHashKeyNode(Object first,
+                     Object second)
+    {
+        this(new Object[]{first, second});
+    }
+
+    private MultiHashKeyNode(Object[] keys)
+    {
+        assert keys.length >= 2;
+        this.keys = keys;
+    }
+
+    /**
+     * @return the stored key equal to key or null if there is none
+     */
+    Object find(Object key)
+    {
+        final int index = indexOf(key);
+        return (index < 0) ? null : keys[index];
+    }
+
+    Object insert(Object key,
+                  MutableDelta delta)
+    {
+        if (indexOf(key) >= 0) {
+            return this;
+        }
+        final Object[] newKeys = new Object[keys.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, keys.length);
+        newKeys[keys.length] = key;
+        delta.add(1);
+        return new MultiHashKeyNode(newKeys);
+    }
+
+    /**
+     * @return this if key is not present, otherwise the remaining key or a smaller node
+     */
+    Object delete(Object key,
+                  MutableDelta delta)
+    {
+        final int index = indexOf(key);
+        if (index < 0) {
+            return this;
+        }
+        delta.subtract(1);
+        if (keys.length == 2) {
+            return keys[1 - index];
+        }
+        final Object[] newKeys = new Object[keys.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, newKeys.length - index);
+        return new MultiHashKeyNode(newKeys);
+    }
+
+    Object[] keys()
+    {
+        return keys;
+    }
+
+    Cursor<Object> cursor()
+    {
+        return StandardCursor.of(IndexedArray.retained(keys));
+    }
+
+    private int indexOf(Object key)
+    {
+        for (int i = 0; i < keys.length; ++i) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
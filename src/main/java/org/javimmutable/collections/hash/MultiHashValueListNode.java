@@ -39,6 +39,7 @@ import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.Holders;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.Sequence;
 import org.javimmutable.collections.common.EmptySequence;
 import org.javimmutable.collections.common.MutableDelta;
@@ -156,6 +157,14 @@ class MultiHashValueListNode<K, V>
         return SequenceCursor.of(this);
     }
 
+    @Override
+    public void forEachEntry(Proc1<? super JImmutableMap.Entry<K, V>> proc)
+    {
+        for (MultiHashValueListNode<K, V> node = this; node != null; node = node.next) {
+            proc.apply(node.entry);
+        }
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -39,6 +39,7 @@ import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.Holders;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.common.MutableDelta;
 import org.javimmutable.collections.cursors.SingleValueCursor;
 
@@ -149,6 +150,12 @@ class SingleHashValueListNode<K, V>
         return SingleValueCursor.<JImmutableMap.Entry<K, V>>of(this);
     }
 
+    @Override
+    public void forEachEntry(Proc1<? super JImmutableMap.Entry<K, V>> proc)
+    {
+        proc.apply(this);
+    }
+
     @Override
     public boolean equals(Object o)
     {
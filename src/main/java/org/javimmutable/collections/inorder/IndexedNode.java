@@ -0,0 +1,115 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.inorder;
+
+import org.javimmutable.collections.Holder;
+import org.javimmutable.collections.MapEntry;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * An Entry implementation used by the ordered maps in this package that also stores the
+ * position of its key in the map's ordering.  Nodes are also Holders so find() can return
+ * them directly.
+ *
+ * @param <K>
+ * @param <V>
+ */
+@Immutable
+class IndexedNode<K, V>
+        extends MapEntry<K, V>
+        implements Holder<V>
+{
+    // number of unused indexes tolerated beyond the size of a map before renumbering
+    private static final int COMPACTION_SLACK = 32;
+
+    final int index;
+
+    IndexedNode(K key,
+                V value,
+                int index)
+    {
+        super(key, value);
+        this.index = index;
+    }
+
+    /**
+     * Maps that leave gaps in their indexes when keys are deleted or moved renumber their
+     * nodes once this returns true so that the gaps never outnumber the entries.
+     *
+     * @param nextIndex index that will be given to the next node added to the map
+     * @param size      number of entries in the map
+     */
+    static boolean needsCompaction(int nextIndex,
+                                   int size)
+    {
+        return nextIndex > (COMPACTION_SLACK + 2 * size);
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return false;
+    }
+
+    @Override
+    public boolean isFilled()
+    {
+        return true;
+    }
+
+    @Override
+    public V getValueOrNull()
+    {
+        return value;
+    }
+
+    @Override
+    public V getValueOr(V defaultValue)
+    {
+        return value;
+    }
+
+    IndexedNode<K, V> withValue(V value)
+    {
+        return new IndexedNode<K, V>(key, value, index);
+    }
+
+    IndexedNode<K, V> withIndex(int index)
+    {
+        return new IndexedNode<K, V>(key, value, index);
+    }
+}
@@ -0,0 +1,333 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.inorder;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Func1;
+import org.javimmutable.collections.Holder;
+import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.JImmutableArray;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.array.trie32.TrieArray;
+import org.javimmutable.collections.common.AbstractJImmutableMap;
+import org.javimmutable.collections.cursors.TransformCursor;
+import org.javimmutable.collections.hash.JImmutableHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * JImmutableMap implementation that allows iteration over members in the order in which they
+ * were last accessed, from least recently to most recently accessed.  Similar to a LinkedHashMap
+ * constructed with accessOrder set to true.  Since the map is immutable reading a value with get()
+ * or find() cannot change the order.  Instead touch() returns a new map with the key moved to
+ * the end.  Assigning a value to a key also moves it to the end.
+ * <p>
+ * A map can be given a capacity when it is created.  Once the map is full assigning a new key
+ * evicts the least recently accessed key so the map can be used as a persistent LRU cache.
+ * The evictOldest() method can be used to trim entries explicitly.
+ * <p>
+ * Uses the same pair of structures as JImmutableInsertOrderMap.  A TrieArray of nodes indexed
+ * by access order makes the oldest entry the first one in the array.  A hash map from key to
+ * node makes lookups as fast as a hash map.  Each touch gives the node a new index.  Once the
+ * unused indexes outnumber the entries, the nodes are renumbered in a single pass.
+ *
+ * @param <K>
+ * @param <V>
+ */
+@Immutable
+public class JImmutableAccessOrderMap<K, V>
+        extends AbstractJImmutableMap<K, V>
+{
+    @SuppressWarnings("unchecked")
+    public static final JImmutableAccessOrderMap EMPTY = new JImmutableAccessOrderMap(TrieArray.of(), JImmutableHashMap.of(), 0, Integer.MAX_VALUE);
+
+    private final JImmutableArray<IndexedNode<K, V>> sortedNodes;
+    private final JImmutableMap<K, IndexedNode<K, V>> hashedNodes;
+    private final int nextIndex;
+    private final int capacity;
+
+    private JImmutableAccessOrderMap(JImmutableArray<IndexedNode<K, V>> sortedNodes,
+                                     JImmutableMap<K, IndexedNode<K, V>> hashedNodes,
+                                     int nextIndex,
+                                     int capacity)
+    {
+        assert sortedNodes.size() == hashedNodes.size();
+        this.sortedNodes = sortedNodes;
+        this.hashedNodes = hashedNodes;
+        this.nextIndex = nextIndex;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns an empty map with no limit on its size.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> JImmutableAccessOrderMap<K, V> of()
+    {
+        return (JImmutableAccessOrderMap<K, V>)EMPTY;
+    }
+
+    /**
+     * Returns an empty map that will never contain more than capacity entries.  Assigning a
+     * new key to a full map evicts the least recently accessed key.
+     *
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    public static <K, V> JImmutableAccessOrderMap<K, V> of(int capacity)
+    {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(String.format("capacity must be positive (%d)", capacity));
+        }
+        if (capacity == Integer.MAX_VALUE) {
+            return of();
+        }
+        return new JImmutableAccessOrderMap<K, V>(TrieArray.<IndexedNode<K, V>>of(), JImmutableHashMap.<K, IndexedNode<K, V>>of(), 0, capacity);
+    }
+
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    @Override
+    public V getValueOr(K key,
+                        V defaultValue)
+    {
+        final IndexedNode<K, V> current = hashedNodes.get(key);
+        return (current != null) ? current.getValue() : defaultValue;
+    }
+
+    @Nonnull
+    @Override
+    public Holder<V> find(@Nonnull K key)
+    {
+        final IndexedNode<K, V> current = hashedNodes.get(key);
+        return (current != null) ? current : Holders.<V>of();
+    }
+
+    @Nonnull
+    @Override
+    public Holder<Entry<K, V>> findEntry(@Nonnull K key)
+    {
+        final IndexedNode<K, V> current = hashedNodes.get(key);
+        return (current != null) ? Holders.<Entry<K, V>>of(current) : Holders.<Entry<K, V>>of();
+    }
+
+    /**
+     * Assigns the value to the key and makes the key the most recently accessed one.  If the
+     * key is new and the map is already at its capacity the least recently accessed key is
+     * evicted.
+     */
+    @Nonnull
+    @Override
+    public JImmutableAccessOrderMap<K, V> assign(@Nonnull K key,
+                                                 V value)
+    {
+        final IndexedNode<K, V> current = hashedNodes.get(key);
+        if (current == null) {
+            JImmutableArray<IndexedNode<K, V>> newSorted = sortedNodes;
+            JImmutableMap<K, IndexedNode<K, V>> newHashed = hashedNodes;
+            int newHashCode = 0;
+            if (hashedNodes.size() >= capacity) {
+                final IndexedNode<K, V> oldest = sortedNodes.valuesCursor().start().getValue();
+                newSorted = newSorted.delete(oldest.index);
+                newHashed = newHashed.delete(oldest.getKey());
+            } else {
+                newHashCode = hashCodeAfterAssign(key, value);
+            }
+            final IndexedNode<K, V> newNode = new IndexedNode<K, V>(key, value, nextIndex);
+            return withHashCode(create(newSorted.assign(newNode.index, newNode), newHashed.assign(key, newNode), nextIndex + 1, capacity),
+                                newHashCode);
+        } else if (current.index == (nextIndex - 1)) {
+            if (current.getValue() == value) {
+                return this;
+            }
+            final IndexedNode<K, V> newNode = current.withValue(value);
+            return withHashCode(new JImmutableAccessOrderMap<K, V>(sortedNodes.assign(newNode.index, newNode), hashedNodes.assign(key, newNode), nextIndex, capacity),
+                                hashCodeAfterAssign(key, value));
+        } else {
+            return withHashCode(moveToEnd(current, value), hashCodeAfterAssign(key, value));
+        }
+    }
+
+    /**
+     * Returns a map in which key is the most recently accessed key.  Returns this map if the
+     * key is not in the map or is already the most recently accessed key.
+     */
+    @Nonnull
+    public JImmutableAccessOrderMap<K, V> touch(@Nonnull K key)
+    {
+        final IndexedNode<K, V> current = hashedNodes.get(key);
+        if ((current == null) || (current.index == (nextIndex - 1))) {
+            return this;
+        } else {
+            return withHashCode(moveToEnd(current, current.getValue()), hashCodeAfterAssign(key, current.getValue()));
+        }
+    }
+
+    /**
+     * Returns a map with the count least recently accessed keys removed.  Returns an empty
+     * map with the same capacity as this one if count is at least as large as size().
+     *
+     * @throws IllegalArgumentException if count is negative
+     */
+    @Nonnull
+    public JImmutableAccessOrderMap<K, V> evictOldest(int count)
+    {
+        if (count < 0) {
+            throw new IllegalArgumentException(String.format("count must not be negative (%d)", count));
+        } else if (count == 0) {
+            return this;
+        } else if (count >= hashedNodes.size()) {
+            return deleteAll();
+        }
+        JImmutableArray<IndexedNode<K, V>> newSorted = sortedNodes;
+        JImmutableMap<K, IndexedNode<K, V>> newHashed = hashedNodes;
+        Cursor<IndexedNode<K, V>> cursor = sortedNodes.valuesCursor().start();
+        for (int i = 0; i < count; ++i) {
+            final IndexedNode<K, V> node = cursor.getValue();
+            newSorted = newSorted.delete(node.index);
+            newHashed = newHashed.delete(node.getKey());
+            cursor = cursor.next();
+        }
+        return create(newSorted, newHashed, nextIndex, capacity);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableAccessOrderMap<K, V> delete(@Nonnull K key)
+    {
+        final IndexedNode<K, V> current = hashedNodes.get(key);
+        if (current == null) {
+            return this;
+        } else if (hashedNodes.size() == 1) {
+            return deleteAll();
+        } else {
+            return withHashCode(create(sortedNodes.delete(current.index), hashedNodes.delete(key), nextIndex, capacity),
+                                hashCodeAfterDelete(key));
+        }
+    }
+
+    @Override
+    public int size()
+    {
+        return hashedNodes.size();
+    }
+
+    /**
+     * Returns an empty map with the same capacity as this one.
+     */
+    @Nonnull
+    @Override
+    public JImmutableAccessOrderMap<K, V> deleteAll()
+    {
+        return of(capacity);
+    }
+
+    /**
+     * Cursor visits entries from least recently to most recently accessed.
+     */
+    @Override
+    @Nonnull
+    public Cursor<Entry<K, V>> cursor()
+    {
+        return TransformCursor.of(sortedNodes.valuesCursor(), new Func1<IndexedNode<K, V>, Entry<K, V>>()
+        {
+            @Override
+            public Entry<K, V> apply(IndexedNode<K, V> node)
+            {
+                return node;
+            }
+        });
+    }
+
+    @Override
+    public void checkInvariants()
+    {
+        sortedNodes.checkInvariants();
+        hashedNodes.checkInvariants();
+        if (sortedNodes.size() != hashedNodes.size()) {
+            throw new IllegalStateException(String.format("size mismatch: sorted=%d hashed=%d", sortedNodes.size(), hashedNodes.size()));
+        }
+        if (hashedNodes.size() > capacity) {
+            throw new IllegalStateException(String.format("size exceeds capacity: size=%d capacity=%d", hashedNodes.size(), capacity));
+        }
+        if (IndexedNode.needsCompaction(nextIndex, hashedNodes.size())) {
+            throw new IllegalStateException(String.format("too many unused indexes: nextIndex=%d size=%d", nextIndex, hashedNodes.size()));
+        }
+        for (Cursor<IndexedNode<K, V>> c = hashedNodes.valuesCursor().start(); c.hasValue(); c = c.next()) {
+            final IndexedNode<K, V> node = c.getValue();
+            if ((node.index >= nextIndex) || (sortedNodes.get(node.index) != node)) {
+                throw new IllegalStateException(String.format("node mismatch: key=%s index=%d", node.getKey(), node.index));
+            }
+        }
+    }
+
+    private JImmutableAccessOrderMap<K, V> moveToEnd(IndexedNode<K, V> current,
+                                                     V value)
+    {
+        final IndexedNode<K, V> newNode = new IndexedNode<K, V>(current.getKey(), value, nextIndex);
+        return create(sortedNodes.delete(current.index).assign(newNode.index, newNode),
+                      hashedNodes.assign(newNode.getKey(), newNode),
+                      nextIndex + 1,
+                      capacity);
+    }
+
+    /**
+     * Creates a new map from the structures or, if too many indexes have gone unused,
+     * rebuilds both structures with the nodes renumbered from zero in their current order.
+     */
+    private static <K, V> JImmutableAccessOrderMap<K, V> create(JImmutableArray<IndexedNode<K, V>> sortedNodes,
+                                                                JImmutableMap<K, IndexedNode<K, V>> hashedNodes,
+                                                                int nextIndex,
+                                                                int capacity)
+    {
+        if (!IndexedNode.needsCompaction(nextIndex, hashedNodes.size())) {
+            return new JImmutableAccessOrderMap<K, V>(sortedNodes, hashedNodes, nextIndex, capacity);
+        }
+        final TrieArray.Builder<IndexedNode<K, V>> sorted = TrieArray.builder();
+        final JImmutableHashMap.Builder<K, IndexedNode<K, V>> hashed = JImmutableHashMap.builder();
+        int index = 0;
+        for (Cursor<IndexedNode<K, V>> c = sortedNodes.valuesCursor().start(); c.hasValue(); c = c.next()) {
+            final IndexedNode<K, V> node = c.getValue().withIndex(index);
+            sorted.add(node);
+            hashed.add(node.getKey(), node);
+            index += 1;
+        }
+        return new JImmutableAccessOrderMap<K, V>(sorted.build(), hashed.build(), index, capacity);
+    }
+}
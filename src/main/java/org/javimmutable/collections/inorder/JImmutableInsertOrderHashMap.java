@@ -0,0 +1,281 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.inorder;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Func0;
+import org.javimmutable.collections.Holder;
+import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.common.AbstractJImmutableMap;
+import org.javimmutable.collections.common.AbstractMapBuilder;
+import org.javimmutable.collections.common.Conditions;
+import org.javimmutable.collections.common.IndexedList;
+import org.javimmutable.collections.cursors.LazyCursor;
+import org.javimmutable.collections.cursors.StandardCursor;
+import org.javimmutable.collections.hash.JImmutableHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JImmutableMap implementation that allows iteration over members in the order in which they
+ * were inserted into the map.  Unlike JImmutableInsertOrderMap only a single hash trie is
+ * maintained.  Each entry in the trie records the order in which its key was inserted so
+ * assign() and delete() copy only one path through one trie.
+ * <p>
+ * Deleting keys leaves gaps in the insertion order numbers.  Once the gaps outnumber the
+ * entries the map renumbers its entries in a single pass so iteration is always linear in
+ * the size of the map.  Cursors place the entries into order when they are started so
+ * iteration requires a temporary array but no sorting.
+ * <p>
+ * Prefer this class over JImmutableInsertOrderMap when updates are frequent relative
+ * to iteration.
+ *
+ * @param <K>
+ * @param <V>
+ */
+@Immutable
+public class JImmutableInsertOrderHashMap<K, V>
+        extends AbstractJImmutableMap<K, V>
+{
+    @SuppressWarnings("unchecked")
+    public static final JImmutableInsertOrderHashMap EMPTY = new JImmutableInsertOrderHashMap(JImmutableHashMap.of(), 0);
+
+    private final JImmutableMap<K, IndexedNode<K, V>> nodes;
+    private final int nextIndex;
+
+    private JImmutableInsertOrderHashMap(JImmutableMap<K, IndexedNode<K, V>> nodes,
+                                         int nextIndex)
+    {
+        this.nodes = nodes;
+        this.nextIndex = nextIndex;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> JImmutableInsertOrderHashMap<K, V> of()
+    {
+        return (JImmutableInsertOrderHashMap<K, V>)EMPTY;
+    }
+
+    public static <K, V> Builder<K, V> builder()
+    {
+        return new Builder<K, V>();
+    }
+
+    @Override
+    public V getValueOr(K key,
+                        V defaultValue)
+    {
+        final IndexedNode<K, V> current = nodes.get(key);
+        return (current != null) ? current.getValue() : defaultValue;
+    }
+
+    @Nonnull
+    @Override
+    public Holder<V> find(@Nonnull K key)
+    {
+        final IndexedNode<K, V> current = nodes.get(key);
+        return (current != null) ? current : Holders.<V>of();
+    }
+
+    @Nonnull
+    @Override
+    public Holder<Entry<K, V>> findEntry(@Nonnull K key)
+    {
+        final IndexedNode<K, V> current = nodes.get(key);
+        return (current != null) ? Holders.<Entry<K, V>>of(current) : Holders.<Entry<K, V>>of();
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableInsertOrderHashMap<K, V> assign(@Nonnull K key,
+                                                     V value)
+    {
+        final IndexedNode<K, V> current = nodes.get(key);
+        if (current == null) {
+            return withHashCode(new JImmutableInsertOrderHashMap<K, V>(nodes.assign(key, new IndexedNode<K, V>(key, value, nextIndex)), nextIndex + 1),
+                                hashCodeAfterAssign(key, value));
+        } else if (current.getValue() == value) {
+            return this;
+        } else {
+            return withHashCode(new JImmutableInsertOrderHashMap<K, V>(nodes.assign(key, current.withValue(value)), nextIndex),
+                                hashCodeAfterAssign(key, value));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableInsertOrderHashMap<K, V> delete(@Nonnull K key)
+    {
+        final IndexedNode<K, V> current = nodes.get(key);
+        if (current == null) {
+            return this;
+        }
+        final JImmutableMap<K, IndexedNode<K, V>> newNodes = nodes.delete(key);
+        if (newNodes.isEmpty()) {
+            return of();
+        } else if (IndexedNode.needsCompaction(nextIndex, newNodes.size())) {
+            return withHashCode(compact(newNodes, nextIndex), hashCodeAfterDelete(key));
+        } else {
+            return withHashCode(new JImmutableInsertOrderHashMap<K, V>(newNodes, nextIndex), hashCodeAfterDelete(key));
+        }
+    }
+
+    @Override
+    public int size()
+    {
+        return nodes.size();
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableInsertOrderHashMap<K, V> deleteAll()
+    {
+        return of();
+    }
+
+    @Override
+    @Nonnull
+    public Cursor<Entry<K, V>> cursor()
+    {
+        if (nodes.isEmpty()) {
+            return StandardCursor.of();
+        }
+        return LazyCursor.of(new Func0<Cursor<Entry<K, V>>>()
+        {
+            @Override
+            public Cursor<Entry<K, V>> apply()
+            {
+                return StandardCursor.<Entry<K, V>>of(IndexedList.<Entry<K, V>>retained(orderedNodes(nodes, nextIndex)));
+            }
+        });
+    }
+
+    @Override
+    public void checkInvariants()
+    {
+        nodes.checkInvariants();
+        if (IndexedNode.needsCompaction(nextIndex, nodes.size())) {
+            throw new IllegalStateException(String.format("too many unused indexes: nextIndex=%d size=%d", nextIndex, nodes.size()));
+        }
+        final boolean[] used = new boolean[nextIndex];
+        for (Cursor<IndexedNode<K, V>> c = nodes.valuesCursor().start(); c.hasValue(); c = c.next()) {
+            final int index = c.getValue().index;
+            if ((index < 0) || (index >= nextIndex) || used[index]) {
+                throw new IllegalStateException(String.format("invalid node index: index=%d nextIndex=%d", index, nextIndex));
+            }
+            used[index] = true;
+        }
+    }
+
+    /**
+     * Places the nodes into a list in order of their indexes.  Since the indexes are
+     * distinct and less than nextIndex this is done with a single array rather than a sort.
+     */
+    private static <K, V> List<IndexedNode<K, V>> orderedNodes(JImmutableMap<K, IndexedNode<K, V>> nodes,
+                                                               int nextIndex)
+    {
+        @SuppressWarnings("unchecked") final IndexedNode<K, V>[] slots = (IndexedNode<K, V>[])new IndexedNode[nextIndex];
+        for (Cursor<IndexedNode<K, V>> c = nodes.valuesCursor().start(); c.hasValue(); c = c.next()) {
+            final IndexedNode<K, V> node = c.getValue();
+            slots[node.index] = node;
+        }
+        final List<IndexedNode<K, V>> answer = new ArrayList<IndexedNode<K, V>>(nodes.size());
+        for (IndexedNode<K, V> node : slots) {
+            if (node != null) {
+                answer.add(node);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Builds a new trie in which the nodes are renumbered from zero without gaps.
+     */
+    private static <K, V> JImmutableInsertOrderHashMap<K, V> compact(JImmutableMap<K, IndexedNode<K, V>> nodes,
+                                                                     int nextIndex)
+    {
+        final JImmutableHashMap.Builder<K, IndexedNode<K, V>> builder = JImmutableHashMap.builder();
+        int index = 0;
+        for (IndexedNode<K, V> node : orderedNodes(nodes, nextIndex)) {
+            builder.add(node.getKey(), node.withIndex(index));
+            index += 1;
+        }
+        return new JImmutableInsertOrderHashMap<K, V>(builder.build(), index);
+    }
+
+    /**
+     * MutableBuilder that collects entries in a LinkedHashMap and builds the trie bottom up
+     * when build() is called.  Assigning a new value to a key that was already added keeps the
+     * key in its original position just as assign() does.
+     */
+    public static class Builder<K, V>
+            extends AbstractMapBuilder<K, V>
+    {
+        private final Map<K, V> entries = new LinkedHashMap<K, V>();
+
+        @Nonnull
+        @Override
+        public Builder<K, V> add(@Nonnull K key,
+                                 V value)
+        {
+            Conditions.stopNull(key);
+            entries.put(key, value);
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public JImmutableInsertOrderHashMap<K, V> build()
+        {
+            if (entries.isEmpty()) {
+                return of();
+            }
+            final JImmutableHashMap.Builder<K, IndexedNode<K, V>> builder = JImmutableHashMap.builder();
+            int index = 0;
+            for (Map.Entry<K, V> entry : entries.entrySet()) {
+                builder.add(entry.getKey(), new IndexedNode<K, V>(entry.getKey(), entry.getValue(), index));
+                index += 1;
+            }
+            return new JImmutableInsertOrderHashMap<K, V>(builder.build(), index);
+        }
+    }
+}
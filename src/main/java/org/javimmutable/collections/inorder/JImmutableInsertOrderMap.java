@@ -35,15 +35,22 @@
 
 package org.javimmutable.collections.inorder;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Func1;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.Indexed;
 import org.javimmutable.collections.JImmutableArray;
 import org.javimmutable.collections.JImmutableMap;
-import org.javimmutable.collections.MapEntry;
 import org.javimmutable.collections.array.trie32.TrieArray;
 import org.javimmutable.collections.common.AbstractJImmutableMap;
+import org.javimmutable.collections.common.AbstractMapBuilder;
+import org.javimmutable.collections.common.Conditions;
+import org.javimmutable.collections.common.IndexedList;
 import org.javimmutable.collections.cursors.TransformCursor;
 import org.javimmutable.collections.hash.JImmutableHashMap;
 
@@ -69,12 +76,12 @@ public class JImmutableInsertOrderMap<K, V>
     @SuppressWarnings("unchecked")
     public static final JImmutableInsertOrderMap EMPTY = new JImmutableInsertOrderMap(TrieArray.of(), JImmutableHashMap.of(), 1);
 
-    private final JImmutableArray<Node<K, V>> sortedNodes;
-    private final JImmutableMap<K, Node<K, V>> hashedNodes;
+    private final JImmutableArray<IndexedNode<K, V>> sortedNodes;
+    private final JImmutableMap<K, IndexedNode<K, V>> hashedNodes;
     private final int nextIndex;
 
-    private JImmutableInsertOrderMap(JImmutableArray<Node<K, V>> sortedNodes,
-                                     JImmutableMap<K, Node<K, V>> hashedNodes,
+    private JImmutableInsertOrderMap(JImmutableArray<IndexedNode<K, V>> sortedNodes,
+                                     JImmutableMap<K, IndexedNode<K, V>> hashedNodes,
                                      int nextIndex)
     {
         assert sortedNodes.size() == hashedNodes.size();
@@ -89,11 +96,37 @@ public class JImmutableInsertOrderMap<K, V>
         return (JImmutableInsertOrderMap<K, V>)EMPTY;
     }
 
+    public static <K, V> Builder<K, V> builder()
+    {
+        return new Builder<K, V>();
+    }
+
+    /**
+     * Builds a map containing the keys in the order given.  Keys must be distinct.  Both
+     * underlying structures are built bottom up in a single pass.
+     */
+    static <K, V> JImmutableInsertOrderMap<K, V> fromOrdered(@Nonnull Indexed<? extends K> keys,
+                                                             @Nonnull Indexed<? extends V> values)
+    {
+        final int size = keys.size();
+        if (size == 0) {
+            return of();
+        }
+        final TrieArray.Builder<IndexedNode<K, V>> sorted = TrieArray.builder();
+        final JImmutableHashMap.Builder<K, IndexedNode<K, V>> hashed = JImmutableHashMap.builder();
+        for (int index = 0; index < size; ++index) {
+            final IndexedNode<K, V> node = new IndexedNode<K, V>(keys.get(index), values.get(index), index);
+            sorted.add(node);
+            hashed.add(node.getKey(), node);
+        }
+        return new JImmutableInsertOrderMap<K, V>(sorted.build(), hashed.build(), size);
+    }
+
     @Override
     public V getValueOr(K key,
                         V defaultValue)
     {
-        final Node<K, V> current = hashedNodes.get(key);
+        final IndexedNode<K, V> current = hashedNodes.get(key);
         return (current != null) ? current.getValue() : defaultValue;
     }
 
@@ -101,7 +134,7 @@ public class JImmutableInsertOrderMap<K, V>
     @Override
     public Holder<V> find(@Nonnull K key)
     {
-        final Node<K, V> current = hashedNodes.get(key);
+        final IndexedNode<K, V> current = hashedNodes.get(key);
         return (current != null) ? current : Holders.<V>of();
     }
 
@@ -109,7 +142,7 @@ public class JImmutableInsertOrderMap<K, V>
     @Override
     public Holder<Entry<K, V>> findEntry(@Nonnull K key)
     {
-        final Node<K, V> current = hashedNodes.get(key);
+        final IndexedNode<K, V> current = hashedNodes.get(key);
         return (current != null) ? Holders.<Entry<K, V>>of(current) : Holders.<Entry<K, V>>of();
     }
 
@@ -118,19 +151,21 @@ public class JImmutableInsertOrderMap<K, V>
     public JImmutableInsertOrderMap<K, V> assign(@Nonnull K key,
                                                  V value)
     {
-        final Node<K, V> current = hashedNodes.get(key);
+        final IndexedNode<K, V> current = hashedNodes.get(key);
         if (current == null) {
-            final Node<K, V> newNode = new Node<K, V>(key, value, nextIndex);
-            return new JImmutableInsertOrderMap<K, V>(sortedNodes.assign(newNode.index, newNode),
-                                                      hashedNodes.assign(key, newNode),
-                                                      nextIndex + 1);
+            final IndexedNode<K, V> newNode = new IndexedNode<K, V>(key, value, nextIndex);
+            return withHashCode(new JImmutableInsertOrderMap<K, V>(sortedNodes.assign(newNode.index, newNode),
+                                                                   hashedNodes.assign(key, newNode),
+                                                                   nextIndex + 1),
+                                hashCodeAfterAssign(key, value));
         } else if (current.getValue() == value) {
             return this;
         } else {
-            final Node<K, V> newNode = current.withValue(value);
-            return new JImmutableInsertOrderMap<K, V>(sortedNodes.assign(newNode.index, newNode),
-                                                      hashedNodes.assign(key, newNode),
-                                                      nextIndex);
+            final IndexedNode<K, V> newNode = current.withValue(value);
+            return withHashCode(new JImmutableInsertOrderMap<K, V>(sortedNodes.assign(newNode.index, newNode),
+                                                                   hashedNodes.assign(key, newNode),
+                                                                   nextIndex),
+                                hashCodeAfterAssign(key, value));
         }
     }
 
@@ -138,11 +173,12 @@ public class JImmutableInsertOrderMap<K, V>
     @Override
     public JImmutableInsertOrderMap<K, V> delete(@Nonnull K key)
     {
-        final Node<K, V> current = hashedNodes.get(key);
+        final IndexedNode<K, V> current = hashedNodes.get(key);
         if (current != null) {
-            return new JImmutableInsertOrderMap<K, V>(sortedNodes.delete(current.index),
-                                                      hashedNodes.delete(key),
-                                                      nextIndex);
+            return withHashCode(new JImmutableInsertOrderMap<K, V>(sortedNodes.delete(current.index),
+                                                                   hashedNodes.delete(key),
+                                                                   nextIndex),
+                                hashCodeAfterDelete(key));
         } else {
             return this;
         }
@@ -165,10 +201,10 @@ public class JImmutableInsertOrderMap<K, V>
     @Nonnull
     public Cursor<Entry<K, V>> cursor()
     {
-        return TransformCursor.of(sortedNodes.valuesCursor(), new Func1<Node<K, V>, Entry<K, V>>()
+        return TransformCursor.of(sortedNodes.valuesCursor(), new Func1<IndexedNode<K, V>, Entry<K, V>>()
         {
             @Override
-            public Entry<K, V> apply(Node<K, V> node)
+            public Entry<K, V> apply(IndexedNode<K, V> node)
             {
                 return node;
             }
@@ -182,53 +218,36 @@ public class JImmutableInsertOrderMap<K, V>
     }
 
     /**
-     * An Entry implementation that also stores the sortedKeys index corresponding to this node's key.
-     *
-     * @param <K>
-     * @param <V>
+     * MutableBuilder that collects entries in a LinkedHashMap and builds both underlying
+     * structures bottom up when build() is called.  Assigning a new value to a key that was
+     * already added keeps the key in its original position just as assign() does.
      */
-    @Immutable
-    private static class Node<K, V>
-            extends MapEntry<K, V>
-            implements Holder<V>
+    public static class Builder<K, V>
+            extends AbstractMapBuilder<K, V>
     {
-        private final int index;
-
-        private Node(K key,
-                     V value,
-                     int index)
-        {
-            super(key, value);
-            this.index = index;
-        }
+        private final Map<K, V> entries = new LinkedHashMap<K, V>();
 
+        @Nonnull
         @Override
-        public boolean isEmpty()
+        public Builder<K, V> add(@Nonnull K key,
+                                 V value)
         {
-            return false;
-        }
-
-        @Override
-        public boolean isFilled()
-        {
-            return true;
-        }
-
-        @Override
-        public V getValueOrNull()
-        {
-            return value;
+            Conditions.stopNull(key);
+            entries.put(key, value);
+            return this;
         }
 
+        @Nonnull
         @Override
-        public V getValueOr(V defaultValue)
-        {
-            return value;
-        }
-
-        private Node<K, V> withValue(V value)
+        public JImmutableInsertOrderMap<K, V> build()
         {
-            return new Node<K, V>(key, value, index);
+            final List<K> keys = new ArrayList<K>(entries.size());
+            final List<V> values = new ArrayList<V>(entries.size());
+            for (Map.Entry<K, V> entry : entries.entrySet()) {
+                keys.add(entry.getKey());
+                values.add(entry.getValue());
+            }
+            return fromOrdered(IndexedList.retained(keys), IndexedList.retained(values));
         }
     }
 }
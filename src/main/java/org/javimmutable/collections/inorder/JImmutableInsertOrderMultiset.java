@@ -35,8 +35,11 @@
 
 package org.javimmutable.collections.inorder;
 
+import org.javimmutable.collections.Indexed;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.JImmutableMultiset;
 import org.javimmutable.collections.common.AbstractJImmutableMultiset;
+import org.javimmutable.collections.common.AbstractMultisetBuilder;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
@@ -67,6 +70,11 @@ public class JImmutableInsertOrderMultiset<T>
         return (JImmutableInsertOrderMultiset<T>)EMPTY;
     }
 
+    public static <T> Builder<T> builder()
+    {
+        return new Builder<T>();
+    }
+
     @Nonnull
     @Override
     public JImmutableInsertOrderMultiset<T> deleteAll()
@@ -86,4 +94,29 @@ public class JImmutableInsertOrderMultiset<T>
     {
         return new LinkedHashMap<T, Integer>();
     }
+
+    /**
+     * MutableBuilder that counts occurrences in a LinkedHashMap and builds the underlying
+     * map in a single pass when build() is called.
+     */
+    public static class Builder<T>
+            extends AbstractMultisetBuilder<T>
+    {
+        private Builder()
+        {
+            super(new LinkedHashMap<T, Integer>());
+        }
+
+        @Nonnull
+        @Override
+        protected JImmutableMultiset<T> create(@Nonnull Indexed<T> values,
+                                               @Nonnull Indexed<Integer> counts,
+                                               int occurrences)
+        {
+            if (values.size() == 0) {
+                return of();
+            }
+            return new JImmutableInsertOrderMultiset<T>(JImmutableInsertOrderMap.fromOrdered(values, counts), occurrences);
+        }
+    }
 }
\ No newline at end of file
@@ -38,6 +38,7 @@ package org.javimmutable.collections.inorder;
 import org.javimmutable.collections.JImmutableMap;
 import org.javimmutable.collections.JImmutableSet;
 import org.javimmutable.collections.common.AbstractJImmutableSet;
+import org.javimmutable.collections.common.AbstractSetBuilder;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
@@ -68,6 +69,11 @@ public class JImmutableInsertOrderSet<T>
         return (JImmutableInsertOrderSet<T>)EMPTY;
     }
 
+    public static <T> Builder<T> builder()
+    {
+        return new Builder<T>();
+    }
+
     @Nonnull
     @Override
     public JImmutableSet<T> deleteAll()
@@ -86,4 +92,29 @@ public class JImmutableInsertOrderSet<T>
     {
         return new LinkedHashSet<T>();
     }
+
+    /**
+     * MutableBuilder that collects values in insertion order and builds the set in a single
+     * pass when build() is called.
+     */
+    public static class Builder<T>
+            extends AbstractSetBuilder<T>
+    {
+        private final JImmutableInsertOrderMap.Builder<T, Boolean> map = JImmutableInsertOrderMap.builder();
+
+        @Nonnull
+        @Override
+        public Builder<T> add(T value)
+        {
+            map.add(value, Boolean.TRUE);
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public JImmutableInsertOrderSet<T> build()
+        {
+            return new JImmutableInsertOrderSet<T>(map.build());
+        }
+    }
 }
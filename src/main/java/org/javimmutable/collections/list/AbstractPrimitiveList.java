@@ -0,0 +1,282 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.list;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Cursorable;
+import org.javimmutable.collections.InvariantCheckable;
+import org.javimmutable.collections.common.IteratorAdaptor;
+import org.javimmutable.collections.cursors.Cursors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Base class for the primitive lists (JImmutableLongList etc).  Contains everything that
+ * does not depend on the primitive type.  Derived classes add the typed get(), assign() and
+ * insert methods and supply the array allocation used by toArray().
+ *
+ * @param <T> boxed type of the values
+ * @param <A> array type used to store the values
+ * @param <L> type of the derived list class
+ */
+@Immutable
+abstract class AbstractPrimitiveList<T, A, L extends AbstractPrimitiveList<T, A, L>>
+        implements Cursorable<T>,
+                   Iterable<T>,
+                   InvariantCheckable,
+                   Serializable
+{
+    private static final long serialVersionUID = -121805L;
+
+    final Node<T> root;
+
+    AbstractPrimitiveList(Node<T> root)
+    {
+        this.root = root;
+    }
+
+    public int size()
+    {
+        return root.size();
+    }
+
+    public boolean isEmpty()
+    {
+        return root.isEmpty();
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if the list is empty
+     */
+    @Nonnull
+    public L deleteFirst()
+    {
+        if (root.isEmpty()) {
+            throw new IndexOutOfBoundsException();
+        }
+        return forRoot(root.deleteFirst());
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if the list is empty
+     */
+    @Nonnull
+    public L deleteLast()
+    {
+        if (root.isEmpty()) {
+            throw new IndexOutOfBoundsException();
+        }
+        return forRoot(root.deleteLast());
+    }
+
+    @Nonnull
+    public L deleteAll()
+    {
+        return forRoot(root.emptyNode());
+    }
+
+    /**
+     * @return a new array containing the values in the list
+     */
+    @Nonnull
+    public A toArray()
+    {
+        final A answer = allocateArray(root.size());
+        int offset = 0;
+        for (PrimitiveLeafNode<T, A> leaf : leaves()) {
+            leaf.copyTo(answer, offset);
+            offset += leaf.size();
+        }
+        return answer;
+    }
+
+    @Nonnull
+    @Override
+    public Cursor<T> cursor()
+    {
+        return root.cursor();
+    }
+
+    @Override
+    public Iterator<T> iterator()
+    {
+        return IteratorAdaptor.of(cursor());
+    }
+
+    @Override
+    public void checkInvariants()
+    {
+        root.checkInvariants();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean equals(Object o)
+    {
+        if (o == this) {
+            return true;
+        }
+        if ((o == null) || (o.getClass() != getClass())) {
+            return false;
+        }
+        final L other = (L)o;
+        return (other.size() == size()) && leavesEqual(leaves(), other.leaves());
+    }
+
+    /**
+     * Same value as computed for a List of the equivalent boxed objects.
+     */
+    @Override
+    public int hashCode()
+    {
+        int answer = 1;
+        for (PrimitiveLeafNode<T, A> leaf : leaves()) {
+            answer = leaf.hashValues(answer);
+        }
+        return answer;
+    }
+
+    @Override
+    public String toString()
+    {
+        return Cursors.makeString(cursor());
+    }
+
+    /**
+     * Returns a list using root or the empty list if root is empty.
+     */
+    abstract L forRoot(Node<T> root);
+
+    abstract A allocateArray(int size);
+
+    /**
+     * @return the non-empty leaves of the tree in list order
+     */
+    @SuppressWarnings("unchecked")
+    List<PrimitiveLeafNode<T, A>> leaves()
+    {
+        final List<Node<T>> leaves = new ArrayList<Node<T>>();
+        BranchNode.addLeavesTo(root, leaves);
+        return (List<PrimitiveLeafNode<T, A>>)(List<?>)leaves;
+    }
+
+    /**
+     * Compares two lists of leaves containing the same number of values.  Leaves in the two
+     * lists can have different sizes so each step compares the values up to the end of
+     * whichever leaf ends first.
+     */
+    private static <T, A> boolean leavesEqual(List<PrimitiveLeafNode<T, A>> a,
+                                              List<PrimitiveLeafNode<T, A>> b)
+    {
+        int aIndex = 0;
+        int aOffset = 0;
+        int bIndex = 0;
+        int bOffset = 0;
+        while (aIndex < a.size()) {
+            final PrimitiveLeafNode<T, A> aLeaf = a.get(aIndex);
+            final PrimitiveLeafNode<T, A> bLeaf = b.get(bIndex);
+            final int count = Math.min(aLeaf.size() - aOffset, bLeaf.size() - bOffset);
+            if (!aLeaf.valuesEqual(aOffset, bLeaf, bOffset, count)) {
+                return false;
+            }
+            aOffset += count;
+            if (aOffset == aLeaf.size()) {
+                aIndex += 1;
+                aOffset = 0;
+            }
+            bOffset += count;
+            if (bOffset == bLeaf.size()) {
+                bIndex += 1;
+                bOffset = 0;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collects values into leaf arrays and builds the tree bottom up in build().  Derived
+     * classes store each value into the array passed to the constructor at the index returned
+     * by nextIndex().
+     */
+    abstract static class AbstractBuilder<T, A, L extends AbstractPrimitiveList<T, A, L>>
+    {
+        private final List<Node<T>> leaves = new ArrayList<Node<T>>();
+        private final A values;
+        private int count;
+
+        AbstractBuilder(A values)
+        {
+            this.values = values;
+        }
+
+        /**
+         * Creates a list containing all of the values added so far.  The builder can
+         * continue to be used after calling this method.
+         */
+        @Nonnull
+        public L build()
+        {
+            final List<Node<T>> nodes = new ArrayList<Node<T>>(leaves);
+            if ((count > 0) || nodes.isEmpty()) {
+                nodes.add(createLeaf(values, count));
+            }
+            return forRoot(BranchNode.fromLeaves(nodes));
+        }
+
+        /**
+         * Returns the index at which the next value should be stored.  Moves the values
+         * into a new leaf first if the array is full.
+         */
+        int nextIndex()
+        {
+            if (count == 32) {
+                leaves.add(createLeaf(values, count));
+                count = 0;
+            }
+            return count++;
+        }
+
+        abstract Node<T> createLeaf(A values,
+                                    int count);
+
+        abstract L forRoot(Node<T> root);
+    }
+}
@@ -36,18 +36,24 @@
 package org.javimmutable.collections.list;
 
 import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Func1;
 import org.javimmutable.collections.Indexed;
 import org.javimmutable.collections.MutableBuilder;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.common.IndexedArray;
 import org.javimmutable.collections.common.IndexedList;
+import org.javimmutable.collections.common.ParallelHelper;
 import org.javimmutable.collections.cursors.LazyMultiCursor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Node implementation containing other nodes.  Prefix and suffix nodes can contain nodes
@@ -83,31 +89,55 @@ class BranchNode<T>
         this.suffix = suffix;
     }
 
-    BranchNode(T prefixValue,
-               Node<T> node)
+    private BranchNode(Node<T> prefix,
+                       Node<T> node,
+                       Node<T> suffix)
     {
         this(node.getDepth() + 1,
-             node.size() + 1,
-             new LeafNode<T>(prefixValue),
+             prefix.size() + node.size() + suffix.size(),
+             prefix,
              ListHelper.allocateSingleNode(node),
-             EmptyNode.<T>of());
+             suffix);
         assert node.isFull();
     }
 
+    BranchNode(T prefixValue,
+               Node<T> node)
+    {
+        this(node.emptyNode().insertFirst(prefixValue), node, node.emptyNode());
+    }
+
     BranchNode(Node<T> node,
                T suffixValue)
     {
-        this(node.getDepth() + 1,
-             node.size() + 1,
-             EmptyNode.<T>of(),
-             ListHelper.allocateSingleNode(node),
-             new LeafNode<T>(suffixValue));
-        assert node.isFull();
+        this(node.emptyNode(), node, node.emptyNode().insertLast(suffixValue));
+    }
+
+    /**
+     * Creates a node one level deeper than node, which must be full, with the given prefix
+     * and suffix leaves.
+     */
+    static <T> Node<T> forFullNode(Node<T> prefix,
+                                   Node<T> node,
+                                   Node<T> suffix)
+    {
+        return new BranchNode<T>(prefix, node, suffix);
     }
 
     static <T> Node<T> of(Indexed<? extends T> leaves)
     {
-        int nodeCount = leaves.size();
+        return of(leaves, null);
+    }
+
+    /**
+     * Builds a tree containing all of the values in leaves.  If executor is not null the
+     * leaf nodes are created in parallel by tasks run using the executor.  The resulting
+     * tree is the same in either case.
+     */
+    static <T> Node<T> of(final Indexed<? extends T> leaves,
+                          @Nullable ExecutorService executor)
+    {
+        final int nodeCount = leaves.size();
         if (nodeCount == 0) {
             return EmptyNode.of();
         }
@@ -116,13 +146,31 @@ class BranchNode<T>
             return LeafNode.fromList(leaves, 0, nodeCount);
         }
 
-        List<Node<T>> nodes = new ArrayList<Node<T>>();
-        int offset = 0;
-        while (offset < nodeCount) {
-            nodes.add(LeafNode.fromList(leaves, offset, Math.min(offset + 32, nodeCount)));
-            offset += 32;
+        final int leafCount = (nodeCount + 31) / 32;
+        final List<Node<T>> nodes = ParallelHelper.createAll(executor, leafCount, new Func1<Integer, Node<T>>()
+        {
+            @Override
+            public Node<T> apply(Integer leafIndex)
+            {
+                final int offset = 32 * leafIndex;
+                return LeafNode.fromList(leaves, offset, Math.min(offset + 32, nodeCount));
+            }
+        });
+        return fromLeaves(nodes);
+    }
+
+    /**
+     * Builds a tree from a list of leaf nodes.  All of the leaves except the last one
+     * must be full.  The list is modified during construction.
+     */
+    static <T> Node<T> fromLeaves(List<Node<T>> nodes)
+    {
+        int nodeCount = nodes.size();
+        if (nodeCount == 1) {
+            return nodes.get(0);
         }
-        nodeCount = nodes.size();
+
+        final Node<T> empty = nodes.get(0).emptyNode();
 
         // loop invariant - all nodes except last one are always full
         // last one is possibly full
@@ -136,7 +184,7 @@ class BranchNode<T>
                 for (int i = 0; i < 32; ++i) {
                     newNodes[i] = nodes.get(srcOffset++);
                 }
-                nodes.set(dstOffset++, new BranchNode<T>(depth, ListHelper.sizeForDepth(depth), EmptyNode.<T>of(), newNodes, EmptyNode.<T>of()));
+                nodes.set(dstOffset++, new BranchNode<T>(depth, ListHelper.sizeForDepth(depth), empty, newNodes, empty));
                 nodeCount -= 32;
             }
             // collect remaining nodes
@@ -147,14 +195,14 @@ class BranchNode<T>
                 for (int i = 0; i < newNodes.length; ++i) {
                     newNodes[i] = nodes.get(srcOffset++);
                 }
-                nodes.set(dstOffset++, new BranchNode<T>(depth, ListHelper.sizeForDepth(depth - 1) * newNodes.length, EmptyNode.<T>of(), newNodes, EmptyNode.<T>of()));
+                nodes.set(dstOffset++, new BranchNode<T>(depth, ListHelper.sizeForDepth(depth - 1) * newNodes.length, empty, newNodes, empty));
             } else {
                 // all but last remaining nodes are full
                 Node<T>[] newNodes = ListHelper.allocateNodes(nodeCount - 1);
                 for (int i = 0; i < newNodes.length; ++i) {
                     newNodes[i] = nodes.get(srcOffset++);
                 }
-                nodes.set(dstOffset++, new BranchNode<T>(depth, (ListHelper.sizeForDepth(depth - 1) * newNodes.length) + lastNode.size(), EmptyNode.<T>of(), newNodes, lastNode));
+                nodes.set(dstOffset++, new BranchNode<T>(depth, (ListHelper.sizeForDepth(depth - 1) * newNodes.length) + lastNode.size(), empty, newNodes, lastNode));
             }
             nodeCount = dstOffset;
             depth += 1;
@@ -163,6 +211,26 @@ class BranchNode<T>
         return nodes.get(0);
     }
 
+    /**
+     * Creates a node containing the values of leaf followed by those of fullLeaf.  A partially
+     * filled leaf becomes the prefix of the new node so neither leaf needs to be copied.
+     */
+    static <T> Node<T> forLeaves(Node<T> leaf,
+                                 Node<T> fullLeaf)
+    {
+        assert (leaf.getDepth() == 1) && !leaf.isEmpty() && fullLeaf.isFull();
+        final Node<T> empty = leaf.emptyNode();
+        final int size = leaf.size() + fullLeaf.size();
+        if (leaf.isFull()) {
+            final Node<T>[] nodes = ListHelper.allocateNodes(2);
+            nodes[0] = leaf;
+            nodes[1] = fullLeaf;
+            return new BranchNode<T>(2, size, empty, nodes, empty);
+        } else {
+            return new BranchNode<T>(2, size, leaf, ListHelper.allocateSingleNode(fullLeaf), empty);
+        }
+    }
+
     static <T> Builder<T> builder()
     {
         return new Builder<T>();
@@ -264,22 +332,29 @@ class BranchNode<T>
 
     @Override
     public Node<T> insertFirst(T value)
+    {
+        final Node<T> leaf = leafForInsertFirst(this);
+        return withFirstLeaf(leaf.isFull() ? leaf.emptyNode().insertFirst(value) : leaf.insertFirst(value));
+    }
+
+    @Override
+    public Node<T> withFirstLeaf(Node<T> leaf)
     {
         if (isFull()) {
-            return new BranchNode<T>(value, this);
+            return new BranchNode<T>(leaf, this, emptyNode());
         }
         if (prefix.getDepth() < (depth - 1)) {
-            return new BranchNode<T>(depth, size + 1, prefix.insertFirst(value), nodes, suffix);
+            return new BranchNode<T>(depth, size + 1, prefix.withFirstLeaf(leaf), nodes, suffix);
         }
         assert prefix.getDepth() == (depth - 1);
         assert !prefix.isFull();
         Node<T>[] newNodes;
-        Node<T> newPrefix = prefix.insertFirst(value);
+        Node<T> newPrefix = prefix.withFirstLeaf(leaf);
         if (newPrefix.isFull()) {
             newNodes = ListHelper.allocateNodes(nodes.length + 1);
             System.arraycopy(nodes, 0, newNodes, 1, nodes.length);
             newNodes[0] = newPrefix;
-            newPrefix = EmptyNode.of();
+            newPrefix = newPrefix.emptyNode();
         } else {
             newNodes = nodes;
         }
@@ -288,28 +363,103 @@ class BranchNode<T>
 
     @Override
     public Node<T> insertLast(T value)
+    {
+        final Node<T> leaf = leafForInsertLast(this);
+        return withLastLeaf(leaf.isFull() ? leaf.emptyNode().insertLast(value) : leaf.insertLast(value));
+    }
+
+    @Override
+    public Node<T> withLastLeaf(Node<T> leaf)
     {
         if (isFull()) {
-            return new BranchNode<T>(this, value);
+            return new BranchNode<T>(emptyNode(), this, leaf);
         }
         if (suffix.getDepth() < (depth - 1)) {
-            return new BranchNode<T>(depth, size + 1, prefix, nodes, suffix.insertLast(value));
+            return new BranchNode<T>(depth, size + 1, prefix, nodes, suffix.withLastLeaf(leaf));
         }
         assert suffix.getDepth() == (depth - 1);
         assert !suffix.isFull();
         Node<T>[] newNodes;
-        Node<T> newSuffix = suffix.insertLast(value);
+        Node<T> newSuffix = suffix.withLastLeaf(leaf);
         if (newSuffix.isFull()) {
             newNodes = ListHelper.allocateNodes(nodes.length + 1);
             System.arraycopy(nodes, 0, newNodes, 0, nodes.length);
             newNodes[nodes.length] = newSuffix;
-            newSuffix = EmptyNode.of();
+            newSuffix = newSuffix.emptyNode();
         } else {
             newNodes = nodes;
         }
         return new BranchNode<T>(depth, size + 1, prefix, newNodes, newSuffix);
     }
 
+    /**
+     * A node without room for the whole leaf becomes the first child (if full) or the prefix
+     * (if not) of a new parent whose suffix is the leaf.  Otherwise the leaf is added to the
+     * suffix just as insertLast() adds a single value.  Callers must only use this on trees
+     * whose leaves are all full except possibly the first one (JImmutableArrayList keeps its
+     * root that way) so the suffix always has room for a whole leaf.
+     */
+    @Override
+    public Node<T> insertLastLeaf(Node<T> leaf)
+    {
+        assert (leaf.getDepth() == 1) && leaf.isFull();
+        final int newSize = size + leaf.size();
+        if (newSize > ListHelper.sizeForDepth(depth)) {
+            if (isFull()) {
+                return new BranchNode<T>(depth + 1, newSize, emptyNode(), ListHelper.allocateSingleNode(this), leaf);
+            } else {
+                return new BranchNode<T>(depth + 1, newSize, this, ListHelper.<T>allocateNodes(0), leaf);
+            }
+        }
+        if (suffix.getDepth() < (depth - 1)) {
+            return new BranchNode<T>(depth, newSize, prefix, nodes, suffix.insertLastLeaf(leaf));
+        }
+        assert suffix.getDepth() == (depth - 1);
+        assert (suffix.size() + leaf.size()) <= ListHelper.sizeForDepth(depth - 1);
+        Node<T>[] newNodes;
+        Node<T> newSuffix = suffix.insertLastLeaf(leaf);
+        if (newSuffix.isFull()) {
+            newNodes = ListHelper.allocateNodes(nodes.length + 1);
+            System.arraycopy(nodes, 0, newNodes, 0, nodes.length);
+            newNodes[nodes.length] = newSuffix;
+            newSuffix = newSuffix.emptyNode();
+        } else {
+            newNodes = nodes;
+        }
+        return new BranchNode<T>(depth, newSize, prefix, newNodes, newSuffix);
+    }
+
+    /**
+     * @return the leaf node holding the last values of this node
+     */
+    Node<T> lastLeaf()
+    {
+        final Node<T> last = !suffix.isEmpty() ? suffix : ((nodes.length > 0) ? nodes[nodes.length - 1] : prefix);
+        return (last instanceof BranchNode) ? ((BranchNode<T>)last).lastLeaf() : last;
+    }
+
+    /**
+     * @return node containing all of the values of this node except those in lastLeaf()
+     */
+    Node<T> deleteLastLeaf()
+    {
+        final int newSize = size - lastLeaf().size();
+        if (!suffix.isEmpty()) {
+            return forDelete(newSize, prefix, nodes, deleteLastLeaf(suffix));
+        }
+        if (nodes.length > 0) {
+            Node<T>[] newNodes = ListHelper.allocateNodes(nodes.length - 1);
+            System.arraycopy(nodes, 0, newNodes, 0, newNodes.length);
+            return forDelete(newSize, prefix, newNodes, deleteLastLeaf(nodes[nodes.length - 1]));
+        }
+        return deleteLastLeaf(prefix);
+    }
+
+    private static <T> Node<T> deleteLastLeaf(Node<T> node)
+    {
+        return (node instanceof BranchNode) ? ((BranchNode<T>)node).deleteLastLeaf() : node.emptyNode();
+    }
+
     @Override
     public boolean containsIndex(int index)
     {
@@ -357,6 +507,94 @@ class BranchNode<T>
         throw new IndexOutOfBoundsException();
     }
 
+    @Override
+    public Node<T> withLeaf(int index,
+                            Node<T> leaf)
+    {
+        if (prefix.containsIndex(index)) {
+            return new BranchNode<T>(depth, size, prefix.withLeaf(index, leaf), nodes, suffix);
+        }
+        index -= prefix.size();
+        final int fullNodeSize = ListHelper.sizeForDepth(depth - 1);
+        int arrayIndex = index / fullNodeSize;
+        if (arrayIndex < nodes.length) {
+            Node<T>[] newNodes = nodes.clone();
+            newNodes[arrayIndex] = nodes[arrayIndex].withLeaf(index - (arrayIndex * fullNodeSize), leaf);
+            return new BranchNode<T>(depth, size, prefix, newNodes, suffix);
+        }
+        index -= nodes.length * fullNodeSize;
+        if (suffix.containsIndex(index)) {
+            return new BranchNode<T>(depth, size, prefix, nodes, suffix.withLeaf(index, leaf));
+        }
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public Node<T> emptyNode()
+    {
+        return prefix.emptyNode();
+    }
+
+    /**
+     * Returns the leaf that insertFirst() adds a value to.  This is the deepest node along
+     * the chain of prefixes and is possibly empty or full.  A full branch has no such leaf
+     * since the value goes into a new leaf so an empty leaf is returned instead.
+     */
+    static <T> Node<T> leafForInsertFirst(Node<T> node)
+    {
+        while (node instanceof BranchNode) {
+            if (node.isFull()) {
+                return node.emptyNode();
+            }
+            node = ((BranchNode<T>)node).prefix;
+        }
+        return node;
+    }
+
+    /**
+     * Returns the leaf that insertLast() adds a value to.  This is the deepest node along
+     * the chain of suffixes and is possibly empty or full.  A full branch has no such leaf
+     * since the value goes into a new leaf so an empty leaf is returned instead.
+     */
+    static <T> Node<T> leafForInsertLast(Node<T> node)
+    {
+        while (node instanceof BranchNode) {
+            if (node.isFull()) {
+                return node.emptyNode();
+            }
+            node = ((BranchNode<T>)node).suffix;
+        }
+        return node;
+    }
+
+    /**
+     * Returns the child node containing the value at index.  Used along with indexInChild()
+     * by the primitive leaf classes to find a value without boxing it.
+     */
+    Node<T> childFor(int index)
+    {
+        if (index < prefix.size()) {
+            return prefix;
+        }
+        index -= prefix.size();
+        final int arrayIndex = index / ListHelper.sizeForDepth(depth - 1);
+        return (arrayIndex < nodes.length) ? nodes[arrayIndex] : suffix;
+    }
+
+    /**
+     * Returns index adjusted to be relative to the start of the child returned by childFor().
+     */
+    int indexInChild(int index)
+    {
+        if (index < prefix.size()) {
+            return index;
+        }
+        index -= prefix.size();
+        final int fullNodeSize = ListHelper.sizeForDepth(depth - 1);
+        final int arrayIndex = Math.min(index / fullNodeSize, nodes.length);
+        return index - (arrayIndex * fullNodeSize);
+    }
+
     @Nonnull
     @Override
     public Cursor<T> cursor()
@@ -368,6 +606,45 @@ class BranchNode<T>
             .cursor();
     }
 
+    @Override
+    public void forEachValue(Proc1<? super T> proc)
+    {
+        prefix.forEachValue(proc);
+        for (Node<T> node : nodes) {
+            node.forEachValue(proc);
+        }
+        suffix.forEachValue(proc);
+    }
+
+    /**
+     * Adds every non-empty leaf of node to dest in list order.
+     */
+    static <T> void addLeavesTo(Node<T> node,
+                                List<Node<T>> dest)
+    {
+        if (node instanceof BranchNode) {
+            final BranchNode<T> branch = (BranchNode<T>)node;
+            addLeavesTo(branch.prefix, dest);
+            for (Node<T> child : branch.nodes) {
+                addLeavesTo(child, dest);
+            }
+            addLeavesTo(branch.suffix, dest);
+        } else if (!node.isEmpty()) {
+            dest.add(node);
+        }
+    }
+
+    void addChildrenTo(List<Node<T>> dest)
+    {
+        if (!prefix.isEmpty()) {
+            dest.add(prefix);
+        }
+        Collections.addAll(dest, nodes);
+        if (!suffix.isEmpty()) {
+            dest.add(suffix);
+        }
+    }
+
     @Override
     public void checkInvariants()
     {
@@ -424,6 +701,15 @@ class BranchNode<T>
             return of(IndexedList.retained(leaves));
         }
 
+        /**
+         * @return the values added so far in the order they were added
+         */
+        @Nonnull
+        Indexed<T> values()
+        {
+            return IndexedList.retained(leaves);
+        }
+
         @Nonnull
         @Override
         public Builder<T> add(Cursor<? extends T> source)
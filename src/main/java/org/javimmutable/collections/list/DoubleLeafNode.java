@@ -0,0 +1,343 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.list;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.cursors.StandardCursor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Node that forms the bottom of the 32-way tree used by JImmutableDoubleList.  Values are
+ * stored in a double[] rather than as Double objects.  Unlike LeafNode an instance with no values
+ * is used as the empty node so that BranchNode creates DoubleLeafNodes for new values.
+ */
+@Immutable
+final class DoubleLeafNode
+        implements PrimitiveLeafNode<Double, double[]>
+{
+    static final DoubleLeafNode EMPTY = new DoubleLeafNode(new double[0]);
+
+    @Nonnull
+    private final double[] values;
+
+    private DoubleLeafNode(@Nonnull double[] values)
+    {
+        assert values.length <= 32;
+        this.values = values;
+    }
+
+    static DoubleLeafNode fromArray(double[] values,
+                                  int offset,
+                                  int limit)
+    {
+        final double[] array = new double[limit - offset];
+        System.arraycopy(values, offset, array, 0, array.length);
+        return new DoubleLeafNode(array);
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return values.length == 0;
+    }
+
+    @Override
+    public boolean isFull()
+    {
+        return values.length == 32;
+    }
+
+    @Override
+    public int size()
+    {
+        return values.length;
+    }
+
+    @Override
+    public int getDepth()
+    {
+        return 1;
+    }
+
+    @Override
+    public Node<Double> deleteFirst()
+    {
+        if (values.length == 0) {
+            throw new IllegalStateException();
+        }
+        final double[] newValues = new double[values.length - 1];
+        System.arraycopy(values, 1, newValues, 0, newValues.length);
+        return forValues(newValues);
+    }
+
+    @Override
+    public Node<Double> deleteLast()
+    {
+        if (values.length == 0) {
+            throw new IllegalStateException();
+        }
+        final double[] newValues = new double[values.length - 1];
+        System.arraycopy(values, 0, newValues, 0, newValues.length);
+        return forValues(newValues);
+    }
+
+    @Override
+    public Node<Double> insertFirst(Double value)
+    {
+        if (isFull()) {
+            return new BranchNode<Double>(value, this);
+        }
+        final double[] newValues = new double[values.length + 1];
+        System.arraycopy(values, 0, newValues, 1, values.length);
+        newValues[0] = value;
+        return new DoubleLeafNode(newValues);
+    }
+
+    @Override
+    public Node<Double> insertLast(Double value)
+    {
+        if (isFull()) {
+            return new BranchNode<Double>(this, value);
+        }
+        final double[] newValues = new double[values.length + 1];
+        System.arraycopy(values, 0, newValues, 0, values.length);
+        newValues[values.length] = value;
+        return new DoubleLeafNode(newValues);
+    }
+
+    @Override
+    public Node<Double> insertLastLeaf(Node<Double> leaf)
+    {
+        return isEmpty() ? leaf : BranchNode.forLeaves(this, leaf);
+    }
+
+    @Override
+    public boolean containsIndex(int index)
+    {
+        return (index >= 0) && (index < values.length);
+    }
+
+    @Override
+    public Double get(int index)
+    {
+        return values[index];
+    }
+
+    @Override
+    public Node<Double> assign(int index,
+                               Double value)
+    {
+        final double[] newValues = values.clone();
+        newValues[index] = value;
+        return new DoubleLeafNode(newValues);
+    }
+
+    @Override
+    public Node<Double> withFirstLeaf(Node<Double> leaf)
+    {
+        return isFull() ? BranchNode.forFullNode(leaf, this, EMPTY) : leaf;
+    }
+
+    @Override
+    public Node<Double> withLastLeaf(Node<Double> leaf)
+    {
+        return isFull() ? BranchNode.forFullNode(EMPTY, this, leaf) : leaf;
+    }
+
+    @Override
+    public Node<Double> withLeaf(int index,
+                                 Node<Double> leaf)
+    {
+        assert leaf.size() == values.length;
+        return leaf;
+    }
+
+    @Override
+    public Node<Double> emptyNode()
+    {
+        return EMPTY;
+    }
+
+    @Override
+    public void copyTo(double[] dest,
+                       int offset)
+    {
+        System.arraycopy(values, 0, dest, offset, values.length);
+    }
+
+    @Override
+    public boolean valuesEqual(int offset,
+                               PrimitiveLeafNode<Double, double[]> other,
+                               int otherOffset,
+                               int count)
+    {
+        final double[] otherValues = ((DoubleLeafNode)other).values;
+        for (int i = 0; i < count; ++i) {
+            if (Double.doubleToLongBits(values[offset + i]) != Double.doubleToLongBits(otherValues[otherOffset + i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashValues(int hash)
+    {
+        for (double value : values) {
+            final long bits = Double.doubleToLongBits(value);
+            hash = (31 * hash) + (int)(bits ^ (bits >>> 32));
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the value at index in a tree of DoubleLeafNodes without boxing it.
+     *
+     * @throws IndexOutOfBoundsException if index is not in the tree
+     */
+    static double get(Node<Double> node,
+                      int index)
+    {
+        while (node instanceof BranchNode) {
+            final BranchNode<Double> branch = (BranchNode<Double>)node;
+            node = branch.childFor(index);
+            index = branch.indexInChild(index);
+        }
+        return ((DoubleLeafNode)node).values[index];
+    }
+
+    /**
+     * Replaces the value at index in a tree of DoubleLeafNodes without boxing value.
+     *
+     * @throws IndexOutOfBoundsException if index is not in the tree
+     */
+    static Node<Double> assign(Node<Double> root,
+                               int index,
+                               double value)
+    {
+        Node<Double> node = root;
+        int leafIndex = index;
+        while (node instanceof BranchNode) {
+            final BranchNode<Double> branch = (BranchNode<Double>)node;
+            node = branch.childFor(leafIndex);
+            leafIndex = branch.indexInChild(leafIndex);
+        }
+        final double[] newValues = ((DoubleLeafNode)node).values.clone();
+        newValues[leafIndex] = value;
+        return root.withLeaf(index, new DoubleLeafNode(newValues));
+    }
+
+    /**
+     * Adds value to the front of a tree of DoubleLeafNodes without boxing it.
+     */
+    static Node<Double> insertFirst(Node<Double> root,
+                                    double value)
+    {
+        final double[] values = ((DoubleLeafNode)BranchNode.leafForInsertFirst(root)).values;
+        final double[] newValues;
+        if (values.length == 32) {
+            newValues = new double[]{value};
+        } else {
+            newValues = new double[values.length + 1];
+            System.arraycopy(values, 0, newValues, 1, values.length);
+            newValues[0] = value;
+        }
+        return root.withFirstLeaf(new DoubleLeafNode(newValues));
+    }
+
+    /**
+     * Adds value to the end of a tree of DoubleLeafNodes without boxing it.
+     */
+    static Node<Double> insertLast(Node<Double> root,
+                                   double value)
+    {
+        final double[] values = ((DoubleLeafNode)BranchNode.leafForInsertLast(root)).values;
+        final double[] newValues;
+        if (values.length == 32) {
+            newValues = new double[]{value};
+        } else {
+            newValues = new double[values.length + 1];
+            System.arraycopy(values, 0, newValues, 0, values.length);
+            newValues[values.length] = value;
+        }
+        return root.withLastLeaf(new DoubleLeafNode(newValues));
+    }
+
+    @Nonnull
+    @Override
+    public Cursor<Double> cursor()
+    {
+        return StandardCursor.of(new Indexed<Double>()
+        {
+            @Override
+            public Double get(int index)
+            {
+                return values[index];
+            }
+
+            @Override
+            public int size()
+            {
+                return values.length;
+            }
+        });
+    }
+
+    @Override
+    public void forEachValue(Proc1<? super Double> proc)
+    {
+        for (double value : values) {
+            proc.apply(value);
+        }
+    }
+
+    @Override
+    public void checkInvariants()
+    {
+        if (values.length > 32) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static DoubleLeafNode forValues(double[] values)
+    {
+        return (values.length == 0) ? EMPTY : new DoubleLeafNode(values);
+    }
+}
@@ -36,6 +36,7 @@
 package org.javimmutable.collections.list;
 
 import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.cursors.StandardCursor;
 
 import javax.annotation.Nonnull;
@@ -110,6 +111,12 @@ final class EmptyNode<T>
         return new LeafNode<T>(value);
     }
 
+    @Override
+    public Node<T> insertLastLeaf(Node<T> leaf)
+    {
+        return leaf;
+    }
+
     @Override
     public boolean containsIndex(int index)
     {
@@ -129,6 +136,31 @@ final class EmptyNode<T>
         throw new IndexOutOfBoundsException();
     }
 
+    @Override
+    public Node<T> withFirstLeaf(Node<T> leaf)
+    {
+        return leaf;
+    }
+
+    @Override
+    public Node<T> withLastLeaf(Node<T> leaf)
+    {
+        return leaf;
+    }
+
+    @Override
+    public Node<T> withLeaf(int index,
+                            Node<T> leaf)
+    {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public Node<T> emptyNode()
+    {
+        return this;
+    }
+
     @Nonnull
     @Override
     public Cursor<T> cursor()
@@ -136,6 +168,11 @@ final class EmptyNode<T>
         return StandardCursor.of();
     }
 
+    @Override
+    public void forEachValue(Proc1<? super T> proc)
+    {
+    }
+
     @Override
     public void checkInvariants()
     {
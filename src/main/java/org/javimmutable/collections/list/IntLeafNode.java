@@ -0,0 +1,342 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.list;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.cursors.StandardCursor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Node that forms the bottom of the 32-way tree used by JImmutableIntList.  Values are
+ * stored in an int[] rather than as Integer objects.  Unlike LeafNode an instance with no values
+ * is used as the empty node so that BranchNode creates IntLeafNodes for new values.
+ */
+@Immutable
+final class IntLeafNode
+        implements PrimitiveLeafNode<Integer, int[]>
+{
+    static final IntLeafNode EMPTY = new IntLeafNode(new int[0]);
+
+    @Nonnull
+    private final int[] values;
+
+    private IntLeafNode(@Nonnull int[] values)
+    {
+        assert values.length <= 32;
+        this.values = values;
+    }
+
+    static IntLeafNode fromArray(int[] values,
+                                  int offset,
+                                  int limit)
+    {
+        final int[] array = new int[limit - offset];
+        System.arraycopy(values, offset, array, 0, array.length);
+        return new IntLeafNode(array);
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return values.length == 0;
+    }
+
+    @Override
+    public boolean isFull()
+    {
+        return values.length == 32;
+    }
+
+    @Override
+    public int size()
+    {
+        return values.length;
+    }
+
+    @Override
+    public int getDepth()
+    {
+        return 1;
+    }
+
+    @Override
+    public Node<Integer> deleteFirst()
+    {
+        if (values.length == 0) {
+            throw new IllegalStateException();
+        }
+        final int[] newValues = new int[values.length - 1];
+        System.arraycopy(values, 1, newValues, 0, newValues.length);
+        return forValues(newValues);
+    }
+
+    @Override
+    public Node<Integer> deleteLast()
+    {
+        if (values.length == 0) {
+            throw new IllegalStateException();
+        }
+        final int[] newValues = new int[values.length - 1];
+        System.arraycopy(values, 0, newValues, 0, newValues.length);
+        return forValues(newValues);
+    }
+
+    @Override
+    public Node<Integer> insertFirst(Integer value)
+    {
+        if (isFull()) {
+            return new BranchNode<Integer>(value, this);
+        }
+        final int[] newValues = new int[values.length + 1];
+        System.arraycopy(values, 0, newValues, 1, values.length);
+        newValues[0] = value;
+        return new IntLeafNode(newValues);
+    }
+
+    @Override
+    public Node<Integer> insertLast(Integer value)
+    {
+        if (isFull()) {
+            return new BranchNode<Integer>(this, value);
+        }
+        final int[] newValues = new int[values.length + 1];
+        System.arraycopy(values, 0, newValues, 0, values.length);
+        newValues[values.length] = value;
+        return new IntLeafNode(newValues);
+    }
+
+    @Override
+    public Node<Integer> insertLastLeaf(Node<Integer> leaf)
+    {
+        return isEmpty() ? leaf : BranchNode.forLeaves(this, leaf);
+    }
+
+    @Override
+    public boolean containsIndex(int index)
+    {
+        return (index >= 0) && (index < values.length);
+    }
+
+    @Override
+    public Integer get(int index)
+    {
+        return values[index];
+    }
+
+    @Override
+    public Node<Integer> assign(int index,
+                                Integer value)
+    {
+        final int[] newValues = values.clone();
+        newValues[index] = value;
+        return new IntLeafNode(newValues);
+    }
+
+    @Override
+    public Node<Integer> withFirstLeaf(Node<Integer> leaf)
+    {
+        return isFull() ? BranchNode.forFullNode(leaf, this, EMPTY) : leaf;
+    }
+
+    @Override
+    public Node<Integer> withLastLeaf(Node<Integer> leaf)
+    {
+        return isFull() ? BranchNode.forFullNode(EMPTY, this, leaf) : leaf;
+    }
+
+    @Override
+    public Node<Integer> withLeaf(int index,
+                                  Node<Integer> leaf)
+    {
+        assert leaf.size() == values.length;
+        return leaf;
+    }
+
+    @Override
+    public Node<Integer> emptyNode()
+    {
+        return EMPTY;
+    }
+
+    @Override
+    public void copyTo(int[] dest,
+                       int offset)
+    {
+        System.arraycopy(values, 0, dest, offset, values.length);
+    }
+
+    @Override
+    public boolean valuesEqual(int offset,
+                               PrimitiveLeafNode<Integer, int[]> other,
+                               int otherOffset,
+                               int count)
+    {
+        final int[] otherValues = ((IntLeafNode)other).values;
+        for (int i = 0; i < count; ++i) {
+            if (values[offset + i] != otherValues[otherOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashValues(int hash)
+    {
+        for (int value : values) {
+            hash = (31 * hash) + value;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the value at index in a tree of IntLeafNodes without boxing it.
+     *
+     * @throws IndexOutOfBoundsException if index is not in the tree
+     */
+    static int get(Node<Integer> node,
+                   int index)
+    {
+        while (node instanceof BranchNode) {
+            final BranchNode<Integer> branch = (BranchNode<Integer>)node;
+            node = branch.childFor(index);
+            index = branch.indexInChild(index);
+        }
+        return ((IntLeafNode)node).values[index];
+    }
+
+    /**
+     * Replaces the value at index in a tree of IntLeafNodes without boxing value.
+     *
+     * @throws IndexOutOfBoundsException if index is not in the tree
+     */
+    static Node<Integer> assign(Node<Integer> root,
+                                int index,
+                                int value)
+    {
+        Node<Integer> node = root;
+        int leafIndex = index;
+        while (node instanceof BranchNode) {
+            final BranchNode<Integer> branch = (BranchNode<Integer>)node;
+            node = branch.childFor(leafIndex);
+            leafIndex = branch.indexInChild(leafIndex);
+        }
+        final int[] newValues = ((IntLeafNode)node).values.clone();
+        newValues[leafIndex] = value;
+        return root.withLeaf(index, new IntLeafNode(newValues));
+    }
+
+    /**
+     * Adds value to the front of a tree of IntLeafNodes without boxing it.
+     */
+    static Node<Integer> insertFirst(Node<Integer> root,
+                                     int value)
+    {
+        final int[] values = ((IntLeafNode)BranchNode.leafForInsertFirst(root)).values;
+        final int[] newValues;
+        if (values.length == 32) {
+            newValues = new int[]{value};
+        } else {
+            newValues = new int[values.length + 1];
+            System.arraycopy(values, 0, newValues, 1, values.length);
+            newValues[0] = value;
+        }
+        return root.withFirstLeaf(new IntLeafNode(newValues));
+    }
+
+    /**
+     * Adds value to the end of a tree of IntLeafNodes without boxing it.
+     */
+    static Node<Integer> insertLast(Node<Integer> root,
+                                    int value)
+    {
+        final int[] values = ((IntLeafNode)BranchNode.leafForInsertLast(root)).values;
+        final int[] newValues;
+        if (values.length == 32) {
+            newValues = new int[]{value};
+        } else {
+            newValues = new int[values.length + 1];
+            System.arraycopy(values, 0, newValues, 0, values.length);
+            newValues[values.length] = value;
+        }
+        return root.withLastLeaf(new IntLeafNode(newValues));
+    }
+
+    @Nonnull
+    @Override
+    public Cursor<Integer> cursor()
+    {
+        return StandardCursor.of(new Indexed<Integer>()
+        {
+            @Override
+            public Integer get(int index)
+            {
+                return values[index];
+            }
+
+            @Override
+            public int size()
+            {
+                return values.length;
+            }
+        });
+    }
+
+    @Override
+    public void forEachValue(Proc1<? super Integer> proc)
+    {
+        for (int value : values) {
+            proc.apply(value);
+        }
+    }
+
+    @Override
+    public void checkInvariants()
+    {
+        if (values.length > 32) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static IntLeafNode forValues(int[] values)
+    {
+        return (values.length == 0) ? EMPTY : new IntLeafNode(values);
+    }
+}
@@ -36,35 +36,77 @@
 package org.javimmutable.collections.list;
 
 import org.javimmutable.collections.*;
+import org.javimmutable.collections.common.AbstractSerializationProxy;
+import org.javimmutable.collections.common.IndexedArray;
 import org.javimmutable.collections.common.IteratorAdaptor;
 import org.javimmutable.collections.common.ListAdaptor;
 import org.javimmutable.collections.common.Subindexed;
 import org.javimmutable.collections.cursors.Cursors;
+import org.javimmutable.collections.cursors.LazyMultiCursor;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 /**
  * JImmutableList implementation using 32-way trees.  The underlying trees, like the JImmutableList,
  * only allow values to be inserted or deleted from the head or tail of the list.
+ * <p>
+ * Values appended to the list are first collected in a separate tail leaf holding fewer than 32
+ * values.  Appending a value normally copies only that small leaf.  Once the tail fills it is
+ * added to the tree as a whole leaf so the path from the root is copied once per 32 appends
+ * rather than once per value.  To make that possible every leaf of the tree except the first
+ * one is always full.  Lists created by of() or a Builder keep any partial last leaf in the
+ * tail and deleteLast() moves the last leaf of the tree into the tail once the tail is empty.
  *
  * @param <T>
  */
 public class JImmutableArrayList<T>
-        implements JImmutableList<T>
+        implements JImmutableList<T>,
+                   SplittableCursorable<T>,
+                   Serializable
 {
+    private static final long serialVersionUID = -121805L;
+
     @SuppressWarnings("unchecked")
     private static final JImmutableArrayList EMPTY = new JImmutableArrayList(EmptyNode.of());
 
-    private final Node<T> root;
+    private final Node<T> root; // all leaves but the first are full
+    private final Node<T> tail; // never full, all of its values follow those of root
 
     private JImmutableArrayList(Node<T> root)
+    {
+        this(root, EmptyNode.<T>of());
+    }
+
+    private JImmutableArrayList(Node<T> root,
+                                Node<T> tail)
     {
         this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> JImmutableArrayList<T> create(Node<T> root,
+                                                     Node<T> tail)
+    {
+        if (tail.isFull()) {
+            return new JImmutableArrayList<T>(root.insertLastLeaf(tail), EmptyNode.<T>of());
+        } else if (root.isEmpty() && tail.isEmpty()) {
+            return (JImmutableArrayList<T>)EMPTY;
+        } else {
+            return new JImmutableArrayList<T>(root, tail);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -82,12 +124,32 @@ public class JImmutableArrayList<T>
         return of(Subindexed.of(source, offset, limit));
     }
 
-    @SuppressWarnings("unchecked")
     @Nonnull
     public static <T> JImmutableArrayList<T> of(Indexed<? extends T> source)
     {
-        final Node<T> root = BranchNode.of(source);
-        return root.isEmpty() ? (JImmutableArrayList<T>)EMPTY : new JImmutableArrayList<T>(root);
+        return forValues(source, null);
+    }
+
+    /**
+     * Same as of(Indexed) but the leaf nodes of the list are created in parallel by tasks
+     * run using executor.  Produces the same list as of(Indexed).
+     */
+    @Nonnull
+    public static <T> JImmutableArrayList<T> of(@Nonnull Indexed<? extends T> source,
+                                                @Nonnull ExecutorService executor)
+    {
+        return forValues(source, executor);
+    }
+
+    // only whole leaves go into the root, any remaining values become the tail
+    private static <T> JImmutableArrayList<T> forValues(@Nonnull Indexed<? extends T> source,
+                                                        @Nullable ExecutorService executor)
+    {
+        final int size = source.size();
+        final int rootSize = size - (size % 32);
+        final Node<T> root = BranchNode.of(Subindexed.of(source, 0, rootSize), executor);
+        final Node<T> tail = (rootSize == size) ? EmptyNode.<T>of() : LeafNode.fromList(source, rootSize, size);
+        return create(root, tail);
     }
 
     @Nonnull
@@ -99,13 +161,20 @@ public class JImmutableArrayList<T>
     @Override
     public int size()
     {
-        return root.size();
+        return root.size() + tail.size();
     }
 
     @Override
     public T get(int index)
     {
-        return root.get(index);
+        final int rootSize = root.size();
+        if (index < rootSize) {
+            return root.get(index);
+        } else if (tail.containsIndex(index - rootSize)) {
+            return tail.get(index - rootSize);
+        } else {
+            throw new IndexOutOfBoundsException();
+        }
     }
 
     @Nonnull
@@ -113,39 +182,42 @@ public class JImmutableArrayList<T>
     public JImmutableArrayList<T> assign(int index,
                                          @Nullable T value)
     {
-        return new JImmutableArrayList<T>(root.assign(index, value));
+        final int rootSize = root.size();
+        if (index < rootSize) {
+            return new JImmutableArrayList<T>(root.assign(index, value), tail);
+        } else if (tail.containsIndex(index - rootSize)) {
+            return new JImmutableArrayList<T>(root, tail.assign(index - rootSize, value));
+        } else {
+            throw new IndexOutOfBoundsException();
+        }
     }
 
     @Nonnull
     @Override
     public JImmutableArrayList<T> insert(@Nullable T value)
     {
-        return new JImmutableArrayList<T>(root.insertLast(value));
+        return insertLast(value);
     }
 
     @Nonnull
     @Override
     public JImmutableArrayList<T> insert(@Nonnull Iterable<? extends T> values)
     {
-        Node<T> newRoot = root;
-        for (T value : values) {
-            newRoot = newRoot.insertLast(value);
-        }
-        return new JImmutableArrayList<T>(newRoot);
+        return insertAllLast(values.iterator());
     }
 
     @Nonnull
     @Override
     public JImmutableArrayList<T> insertFirst(@Nullable T value)
     {
-        return new JImmutableArrayList<T>(root.insertFirst(value));
+        return new JImmutableArrayList<T>(root.insertFirst(value), tail);
     }
 
     @Nonnull
     @Override
     public JImmutableArrayList<T> insertLast(@Nullable T value)
     {
-        return new JImmutableArrayList<T>(root.insertLast(value));
+        return create(root, tail.insertLast(value));
     }
 
     @Nonnull
@@ -216,7 +288,7 @@ public class JImmutableArrayList<T>
         for (int x = temp.size() - 1; x >= 0; x--) {
             newRoot = newRoot.insertFirst(temp.get(x));
         }
-        return new JImmutableArrayList<T>(newRoot);
+        return new JImmutableArrayList<T>(newRoot, tail);
     }
 
     @Nonnull
@@ -245,37 +317,51 @@ public class JImmutableArrayList<T>
     public JImmutableArrayList<T> insertAllLast(@Nonnull Iterator<? extends T> values)
     {
         Node<T> newRoot = root;
+        Node<T> newTail = tail;
         while (values.hasNext()) {
-            newRoot = newRoot.insertLast(values.next());
+            newTail = newTail.insertLast(values.next());
+            if (newTail.isFull()) {
+                newRoot = newRoot.insertLastLeaf(newTail);
+                newTail = EmptyNode.of();
+            }
         }
-        return new JImmutableArrayList<T>(newRoot);
+        return create(newRoot, newTail);
     }
 
-
     @Nonnull
     @Override
     public JImmutableArrayList<T> deleteFirst()
     {
-        if (root.isEmpty()) {
+        if (!root.isEmpty()) {
+            return create(root.deleteFirst(), tail);
+        } else if (!tail.isEmpty()) {
+            return create(root, tail.deleteFirst());
+        } else {
             throw new IndexOutOfBoundsException();
         }
-        return new JImmutableArrayList<T>(root.deleteFirst());
     }
 
     @Nonnull
     @Override
     public JImmutableArrayList<T> deleteLast()
     {
-        if (root.isEmpty()) {
+        if (!tail.isEmpty()) {
+            return create(root, tail.deleteLast());
+        } else if (root instanceof BranchNode) {
+            // move the last leaf into the tail so the last leaf of the root stays full
+            final BranchNode<T> branch = (BranchNode<T>)root;
+            return create(branch.deleteLastLeaf(), branch.lastLeaf().deleteLast());
+        } else if (!root.isEmpty()) {
+            return create(root.deleteLast(), tail);
+        } else {
             throw new IndexOutOfBoundsException();
         }
-        return new JImmutableArrayList<T>(root.deleteLast());
     }
 
     @Override
     public boolean isEmpty()
     {
-        return root.isEmpty();
+        return root.isEmpty() && tail.isEmpty();
     }
 
     @Nonnull
@@ -296,7 +382,18 @@ public class JImmutableArrayList<T>
     @Override
     public Cursor<T> cursor()
     {
-        return root.cursor();
+        if (tail.isEmpty()) {
+            return root.cursor();
+        } else {
+            return LazyMultiCursor.<T>builder(2).insert(root).insert(tail).cursor();
+        }
+    }
+
+    @Override
+    public void forEachValue(@Nonnull Proc1<? super T> proc)
+    {
+        root.forEachValue(proc);
+        tail.forEachValue(proc);
     }
 
     @Override
@@ -305,10 +402,35 @@ public class JImmutableArrayList<T>
         return IteratorAdaptor.of(cursor());
     }
 
+    @Nonnull
+    @Override
+    public List<Cursor<T>> splitCursors(int minParts)
+    {
+        final List<Cursor<T>> cursors = new ArrayList<Cursor<T>>();
+        for (Node<T> node : ListHelper.splitNodes(root, minParts)) {
+            cursors.add(node.cursor());
+        }
+        if (!tail.isEmpty()) {
+            cursors.add(tail.cursor());
+        }
+        return cursors;
+    }
+
     @Override
     public void checkInvariants()
     {
+        if (tail.isFull() || (tail.getDepth() != 1)) {
+            throw new IllegalStateException();
+        }
+        final List<Node<T>> leaves = new ArrayList<Node<T>>();
+        BranchNode.addLeavesTo(root, leaves);
+        for (int i = 1; i < leaves.size(); ++i) {
+            if (!leaves.get(i).isFull()) {
+                throw new IllegalStateException();
+            }
+        }
         root.checkInvariants();
+        tail.checkInvariants();
     }
 
     @Override
@@ -329,6 +451,17 @@ public class JImmutableArrayList<T>
         return Cursors.makeString(cursor());
     }
 
+    private Object writeReplace()
+    {
+        return new SerializationProxy<T>(this);
+    }
+
+    private void readObject(ObjectInputStream in)
+        throws InvalidObjectException
+    {
+        throw new InvalidObjectException("serialization proxy required");
+    }
+
     public static class Builder<T>
             implements JImmutableList.Builder<T>
     {
@@ -351,8 +484,17 @@ public class JImmutableArrayList<T>
         @Override
         public JImmutableArrayList<T> build()
         {
-            final Node<T> node = builder.build();
-            return node.isEmpty() ? JImmutableArrayList.<T>of() : new JImmutableArrayList<T>(builder.build());
+            return forValues(builder.values(), null);
+        }
+
+        /**
+         * Same as build() but the leaf nodes of the list are created in parallel by tasks
+         * run using executor.  Produces the same list as build().
+         */
+        @Nonnull
+        public JImmutableArrayList<T> build(@Nonnull ExecutorService executor)
+        {
+            return forValues(builder.values(), executor);
         }
 
         @Nonnull
@@ -405,4 +547,55 @@ public class JImmutableArrayList<T>
             return this;
         }
     }
+
+    /**
+     * Writes the size followed by each value in order.  The list is rebuilt bottom up when read.
+     */
+    private static class SerializationProxy<T>
+            extends AbstractSerializationProxy<JImmutableArrayList<T>>
+    {
+        private static final long serialVersionUID = -121805L;
+
+        public SerializationProxy()
+        {
+            super(null);
+        }
+
+        private SerializationProxy(JImmutableArrayList<T> list)
+        {
+            super(list);
+        }
+
+        @Override
+        protected void writeCollection(ObjectOutput out,
+                                       JImmutableArrayList<T> list)
+            throws IOException
+        {
+            out.writeInt(list.size());
+            for (Cursor<T> cursor = list.cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+                out.writeObject(cursor.getValue());
+            }
+        }
+
+        @Override
+        protected JImmutableArrayList<T> readCollection(ObjectInput in)
+            throws IOException, ClassNotFoundException
+        {
+            final int size = readSize(in);
+            if (size == 0) {
+                return of();
+            }
+            final Object[] values = new Object[size];
+            for (int i = 0; i < size; ++i) {
+                values[i] = in.readObject();
+            }
+            return of(IndexedArray.<T>retained(SerializationProxy.<T>cast(values)));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T[] cast(Object[] values)
+        {
+            return (T[])values;
+        }
+    }
 }
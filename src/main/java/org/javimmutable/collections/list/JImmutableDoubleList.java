@@ -0,0 +1,238 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.list;
+
+import org.javimmutable.collections.common.AbstractSerializationProxy;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+
+/**
+ * Immutable list of double values using the same 32-way trees as JImmutableArrayList
+ * but with values stored in double[] leaves rather than as Double objects.  This uses a
+ * fraction of the memory of a JImmutableArrayList&lt;Double&gt; and get() does not create
+ * any objects.  Like JImmutableArrayList values can only be inserted or deleted at the
+ * head or tail of the list but can be replaced at any index.
+ * <p>
+ * Cursors and iterators return boxed values for compatibility with other collections.  Values are compared
+ * using Double.equals() semantics so NaN is equal to itself and 0.0 is not equal to -0.0.
+ */
+@Immutable
+public class JImmutableDoubleList
+        extends AbstractPrimitiveList<Double, double[], JImmutableDoubleList>
+{
+    private static final long serialVersionUID = -121805L;
+
+    private static final JImmutableDoubleList EMPTY = new JImmutableDoubleList(DoubleLeafNode.EMPTY);
+
+    private JImmutableDoubleList(Node<Double> root)
+    {
+        super(root);
+    }
+
+    @Nonnull
+    public static JImmutableDoubleList of()
+    {
+        return EMPTY;
+    }
+
+    @Nonnull
+    public static JImmutableDoubleList of(double... values)
+    {
+        return builder().add(values).build();
+    }
+
+    @Nonnull
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if index is not in the list
+     */
+    public double get(int index)
+    {
+        return DoubleLeafNode.get(root, index);
+    }
+
+    /**
+     * Replaces the value at index with value.
+     *
+     * @throws IndexOutOfBoundsException if index is not in the list
+     */
+    @Nonnull
+    public JImmutableDoubleList assign(int index,
+                                       double value)
+    {
+        return new JImmutableDoubleList(DoubleLeafNode.assign(root, index, value));
+    }
+
+    @Nonnull
+    public JImmutableDoubleList insertFirst(double value)
+    {
+        return new JImmutableDoubleList(DoubleLeafNode.insertFirst(root, value));
+    }
+
+    @Nonnull
+    public JImmutableDoubleList insertLast(double value)
+    {
+        return new JImmutableDoubleList(DoubleLeafNode.insertLast(root, value));
+    }
+
+    @Override
+    JImmutableDoubleList forRoot(Node<Double> root)
+    {
+        return root.isEmpty() ? EMPTY : new JImmutableDoubleList(root);
+    }
+
+    @Override
+    double[] allocateArray(int size)
+    {
+        return new double[size];
+    }
+
+    private Object writeReplace()
+    {
+        return new SerializationProxy(this);
+    }
+
+    private void readObject(ObjectInputStream in)
+        throws InvalidObjectException
+    {
+        throw new InvalidObjectException("serialization proxy required");
+    }
+
+    /**
+     * Collects values into leaf arrays and builds the tree bottom up in build().
+     */
+    public static class Builder
+            extends AbstractBuilder<Double, double[], JImmutableDoubleList>
+    {
+        private final double[] values;
+
+        public Builder()
+        {
+            this(new double[32]);
+        }
+
+        private Builder(double[] values)
+        {
+            super(values);
+            this.values = values;
+        }
+
+        @Nonnull
+        public Builder add(double value)
+        {
+            values[nextIndex()] = value;
+            return this;
+        }
+
+        @Nonnull
+        public Builder add(double... source)
+        {
+            for (double value : source) {
+                add(value);
+            }
+            return this;
+        }
+
+        @Override
+        Node<Double> createLeaf(double[] values,
+                                int count)
+        {
+            return DoubleLeafNode.fromArray(values, 0, count);
+        }
+
+        @Override
+        JImmutableDoubleList forRoot(Node<Double> root)
+        {
+            return root.isEmpty() ? EMPTY : new JImmutableDoubleList(root);
+        }
+    }
+
+    /**
+     * Writes the size followed by each value in order as a raw double.
+     */
+    private static class SerializationProxy
+            extends AbstractSerializationProxy<JImmutableDoubleList>
+    {
+        private static final long serialVersionUID = -121805L;
+
+        public SerializationProxy()
+        {
+            super(null);
+        }
+
+        private SerializationProxy(JImmutableDoubleList list)
+        {
+            super(list);
+        }
+
+        @Override
+        protected void writeCollection(ObjectOutput out,
+                                       JImmutableDoubleList list)
+            throws IOException
+        {
+            final double[] values = list.toArray();
+            out.writeInt(values.length);
+            for (double value : values) {
+                out.writeDouble(value);
+            }
+        }
+
+        @Override
+        protected JImmutableDoubleList readCollection(ObjectInput in)
+            throws IOException, ClassNotFoundException
+        {
+            final int size = readSize(in);
+            if (size == 0) {
+                return of();
+            }
+            final double[] values = new double[size];
+            for (int i = 0; i < size; ++i) {
+                values[i] = in.readDouble();
+            }
+            return of(values);
+        }
+    }
+}
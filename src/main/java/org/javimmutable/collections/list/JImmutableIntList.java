@@ -0,0 +1,237 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.list;
+
+import org.javimmutable.collections.common.AbstractSerializationProxy;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+
+/**
+ * Immutable list of int values using the same 32-way trees as JImmutableArrayList
+ * but with values stored in int[] leaves rather than as Integer objects.  This uses a
+ * fraction of the memory of a JImmutableArrayList&lt;Integer&gt; and get() does not create
+ * any objects.  Like JImmutableArrayList values can only be inserted or deleted at the
+ * head or tail of the list but can be replaced at any index.
+ * <p>
+ * Cursors and iterators return boxed values for compatibility with other collections.
+ */
+@Immutable
+public class JImmutableIntList
+        extends AbstractPrimitiveList<Integer, int[], JImmutableIntList>
+{
+    private static final long serialVersionUID = -121805L;
+
+    private static final JImmutableIntList EMPTY = new JImmutableIntList(IntLeafNode.EMPTY);
+
+    private JImmutableIntList(Node<Integer> root)
+    {
+        super(root);
+    }
+
+    @Nonnull
+    public static JImmutableIntList of()
+    {
+        return EMPTY;
+    }
+
+    @Nonnull
+    public static JImmutableIntList of(int... values)
+    {
+        return builder().add(values).build();
+    }
+
+    @Nonnull
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if index is not in the list
+     */
+    public int get(int index)
+    {
+        return IntLeafNode.get(root, index);
+    }
+
+    /**
+     * Replaces the value at index with value.
+     *
+     * @throws IndexOutOfBoundsException if index is not in the list
+     */
+    @Nonnull
+    public JImmutableIntList assign(int index,
+                                    int value)
+    {
+        return new JImmutableIntList(IntLeafNode.assign(root, index, value));
+    }
+
+    @Nonnull
+    public JImmutableIntList insertFirst(int value)
+    {
+        return new JImmutableIntList(IntLeafNode.insertFirst(root, value));
+    }
+
+    @Nonnull
+    public JImmutableIntList insertLast(int value)
+    {
+        return new JImmutableIntList(IntLeafNode.insertLast(root, value));
+    }
+
+    @Override
+    JImmutableIntList forRoot(Node<Integer> root)
+    {
+        return root.isEmpty() ? EMPTY : new JImmutableIntList(root);
+    }
+
+    @Override
+    int[] allocateArray(int size)
+    {
+        return new int[size];
+    }
+
+    private Object writeReplace()
+    {
+        return new SerializationProxy(this);
+    }
+
+    private void readObject(ObjectInputStream in)
+        throws InvalidObjectException
+    {
+        throw new InvalidObjectException("serialization proxy required");
+    }
+
+    /**
+     * Collects values into leaf arrays and builds the tree bottom up in build().
+     */
+    public static class Builder
+            extends AbstractBuilder<Integer, int[], JImmutableIntList>
+    {
+        private final int[] values;
+
+        public Builder()
+        {
+            this(new int[32]);
+        }
+
+        private Builder(int[] values)
+        {
+            super(values);
+            this.values = values;
+        }
+
+        @Nonnull
+        public Builder add(int value)
+        {
+            values[nextIndex()] = value;
+            return this;
+        }
+
+        @Nonnull
+        public Builder add(int... source)
+        {
+            for (int value : source) {
+                add(value);
+            }
+            return this;
+        }
+
+        @Override
+        Node<Integer> createLeaf(int[] values,
+                                 int count)
+        {
+            return IntLeafNode.fromArray(values, 0, count);
+        }
+
+        @Override
+        JImmutableIntList forRoot(Node<Integer> root)
+        {
+            return root.isEmpty() ? EMPTY : new JImmutableIntList(root);
+        }
+    }
+
+    /**
+     * Writes the size followed by each value in order as a raw int.
+     */
+    private static class SerializationProxy
+            extends AbstractSerializationProxy<JImmutableIntList>
+    {
+        private static final long serialVersionUID = -121805L;
+
+        public SerializationProxy()
+        {
+            super(null);
+        }
+
+        private SerializationProxy(JImmutableIntList list)
+        {
+            super(list);
+        }
+
+        @Override
+        protected void writeCollection(ObjectOutput out,
+                                       JImmutableIntList list)
+            throws IOException
+        {
+            final int[] values = list.toArray();
+            out.writeInt(values.length);
+            for (int value : values) {
+                out.writeInt(value);
+            }
+        }
+
+        @Override
+        protected JImmutableIntList readCollection(ObjectInput in)
+            throws IOException, ClassNotFoundException
+        {
+            final int size = readSize(in);
+            if (size == 0) {
+                return of();
+            }
+            final int[] values = new int[size];
+            for (int i = 0; i < size; ++i) {
+                values[i] = in.readInt();
+            }
+            return of(values);
+        }
+    }
+}
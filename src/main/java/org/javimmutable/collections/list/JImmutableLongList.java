@@ -0,0 +1,237 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.list;
+
+import org.javimmutable.collections.common.AbstractSerializationProxy;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+
+/**
+ * Immutable list of long values using the same 32-way trees as JImmutableArrayList
+ * but with values stored in long[] leaves rather than as Long objects.  This uses a
+ * fraction of the memory of a JImmutableArrayList&lt;Long&gt; and get() does not create
+ * any objects.  Like JImmutableArrayList values can only be inserted or deleted at the
+ * head or tail of the list but can be replaced at any index.
+ * <p>
+ * Cursors and iterators return boxed values for compatibility with other collections.
+ */
+@Immutable
+public class JImmutableLongList
+        extends AbstractPrimitiveList<Long, long[], JImmutableLongList>
+{
+    private static final long serialVersionUID = -121805L;
+
+    private static final JImmutableLongList EMPTY = new JImmutableLongList(LongLeafNode.EMPTY);
+
+    private JImmutableLongList(Node<Long> root)
+    {
+        super(root);
+    }
+
+    @Nonnull
+    public static JImmutableLongList of()
+    {
+        return EMPTY;
+    }
+
+    @Nonnull
+    public static JImmutableLongList of(long... values)
+    {
+        return builder().add(values).build();
+    }
+
+    @Nonnull
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if index is not in the list
+     */
+    public long get(int index)
+    {
+        return LongLeafNode.get(root, index);
+    }
+
+    /**
+     * Replaces the value at index with value.
+     *
+     * @throws IndexOutOfBoundsException if index is not in the list
+     */
+    @Nonnull
+    public JImmutableLongList assign(int index,
+                                     long value)
+    {
+        return new JImmutableLongList(LongLeafNode.assign(root, index, value));
+    }
+
+    @Nonnull
+    public JImmutableLongList insertFirst(long value)
+    {
+        return new JImmutableLongList(LongLeafNode.insertFirst(root, value));
+    }
+
+    @Nonnull
+    public JImmutableLongList insertLast(long value)
+    {
+        return new JImmutableLongList(LongLeafNode.insertLast(root, value));
+    }
+
+    @Override
+    JImmutableLongList forRoot(Node<Long> root)
+    {
+        return root.isEmpty() ? EMPTY : new JImmutableLongList(root);
+    }
+
+    @Override
+    long[] allocateArray(int size)
+    {
+        return new long[size];
+    }
+
+    private Object writeReplace()
+    {
+        return new SerializationProxy(this);
+    }
+
+    private void readObject(ObjectInputStream in)
+        throws InvalidObjectException
+    {
+        throw new InvalidObjectException("serialization proxy required");
+    }
+
+    /**
+     * Collects values into leaf arrays and builds the tree bottom up in build().
+     */
+    public static class Builder
+            extends AbstractBuilder<Long, long[], JImmutableLongList>
+    {
+        private final long[] values;
+
+        public Builder()
+        {
+            this(new long[32]);
+        }
+
+        private Builder(long[] values)
+        {
+            super(values);
+            this.values = values;
+        }
+
+        @Nonnull
+        public Builder add(long value)
+        {
+            values[nextIndex()] = value;
+            return this;
+        }
+
+        @Nonnull
+        public Builder add(long... source)
+        {
+            for (long value : source) {
+                add(value);
+            }
+            return this;
+        }
+
+        @Override
+        Node<Long> createLeaf(long[] values,
+                              int count)
+        {
+            return LongLeafNode.fromArray(values, 0, count);
+        }
+
+        @Override
+        JImmutableLongList forRoot(Node<Long> root)
+        {
+            return root.isEmpty() ? EMPTY : new JImmutableLongList(root);
+        }
+    }
+
+    /**
+     * Writes the size followed by each value in order as a raw long.
+     */
+    private static class SerializationProxy
+            extends AbstractSerializationProxy<JImmutableLongList>
+    {
+        private static final long serialVersionUID = -121805L;
+
+        public SerializationProxy()
+        {
+            super(null);
+        }
+
+        private SerializationProxy(JImmutableLongList list)
+        {
+            super(list);
+        }
+
+        @Override
+        protected void writeCollection(ObjectOutput out,
+                                       JImmutableLongList list)
+            throws IOException
+        {
+            final long[] values = list.toArray();
+            out.writeInt(values.length);
+            for (long value : values) {
+                out.writeLong(value);
+            }
+        }
+
+        @Override
+        protected JImmutableLongList readCollection(ObjectInput in)
+            throws IOException, ClassNotFoundException
+        {
+            final int size = readSize(in);
+            if (size == 0) {
+                return of();
+            }
+            final long[] values = new long[size];
+            for (int i = 0; i < size; ++i) {
+                values[i] = in.readLong();
+            }
+            return of(values);
+        }
+    }
+}
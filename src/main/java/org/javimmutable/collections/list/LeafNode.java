@@ -37,6 +37,7 @@ package org.javimmutable.collections.list;
 
 import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.common.IndexedArray;
 import org.javimmutable.collections.common.IndexedList;
 import org.javimmutable.collections.cursors.StandardCursor;
@@ -163,6 +164,12 @@ class LeafNode<T>
         return new LeafNode<T>(newValues);
     }
 
+    @Override
+    public Node<T> insertLastLeaf(Node<T> leaf)
+    {
+        return BranchNode.forLeaves(this, leaf);
+    }
+
     @Override
     public boolean containsIndex(int index)
     {
@@ -184,6 +191,31 @@ class LeafNode<T>
         return new LeafNode<T>(newValues);
     }
 
+    @Override
+    public Node<T> withFirstLeaf(Node<T> leaf)
+    {
+        return isFull() ? BranchNode.forFullNode(leaf, this, emptyNode()) : leaf;
+    }
+
+    @Override
+    public Node<T> withLastLeaf(Node<T> leaf)
+    {
+        return isFull() ? BranchNode.forFullNode(emptyNode(), this, leaf) : leaf;
+    }
+    @Override
+    public Node<T> withLeaf(int index,
+                            Node<T> leaf)
+    {
+        assert leaf.size() == values.length;
+        return leaf;
+    }
+
+    @Override
+    public Node<T> emptyNode()
+    {
+        return EmptyNode.of();
+    }
+
     @Nonnull
     @Override
     public Cursor<T> cursor()
@@ -191,6 +223,14 @@ class LeafNode<T>
         return StandardCursor.of(IndexedArray.retained(values));
     }
 
+    @Override
+    public void forEachValue(Proc1<? super T> proc)
+    {
+        for (T value : values) {
+            proc.apply(value);
+        }
+    }
+
     @Override
     public void checkInvariants()
     {
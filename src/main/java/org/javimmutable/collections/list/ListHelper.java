@@ -35,6 +35,10 @@
 
 package org.javimmutable.collections.list;
 
+import org.javimmutable.collections.common.ParallelHelper;
+
+import java.util.List;
+
 final class ListHelper
 {
     private static final Object[] EMPTY_VALUES = new Object[0];
@@ -63,4 +67,28 @@ final class ListHelper
     {
         return 1 << (5 * depth);
     }
+
+    /**
+     * Splits root along BranchNode child boundaries, one level at a time, until there are
+     * at least minParts nodes or there are no more branches to split.  The nodes are returned
+     * in list order.
+     */
+    static <T> List<Node<T>> splitNodes(Node<T> root,
+                                        int minParts)
+    {
+        return ParallelHelper.splitNodes(root, minParts, new ParallelHelper.Splitter<Node<T>>()
+        {
+            @Override
+            public boolean addChildrenTo(Node<T> node,
+                                         List<Node<T>> dest)
+            {
+                if (node instanceof BranchNode) {
+                    ((BranchNode<T>)node).addChildrenTo(dest);
+                    return true;
+                } else {
+                    return false;
+                }
+            }
+        });
+    }
 }
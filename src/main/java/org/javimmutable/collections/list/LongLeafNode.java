@@ -0,0 +1,342 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.list;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.cursors.StandardCursor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Node that forms the bottom of the 32-way tree used by JImmutableLongList.  Values are
+ * stored in a long[] rather than as Long objects.  Unlike LeafNode an instance with no values
+ * is used as the empty node so that BranchNode creates LongLeafNodes for new values.
+ */
+@Immutable
+final class LongLeafNode
+        implements PrimitiveLeafNode<Long, long[]>
+{
+    static final LongLeafNode EMPTY = new LongLeafNode(new long[0]);
+
+    @Nonnull
+    private final long[] values;
+
+    private LongLeafNode(@Nonnull long[] values)
+    {
+        assert values.length <= 32;
+        this.values = values;
+    }
+
+    static LongLeafNode fromArray(long[] values,
+                                  int offset,
+                                  int limit)
+    {
+        final long[] array = new long[limit - offset];
+        System.arraycopy(values, offset, array, 0, array.length);
+        return new LongLeafNode(array);
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return values.length == 0;
+    }
+
+    @Override
+    public boolean isFull()
+    {
+        return values.length == 32;
+    }
+
+    @Override
+    public int size()
+    {
+        return values.length;
+    }
+
+    @Override
+    public int getDepth()
+    {
+        return 1;
+    }
+
+    @Override
+    public Node<Long> deleteFirst()
+    {
+        if (values.length == 0) {
+            throw new IllegalStateException();
+        }
+        final long[] newValues = new long[values.length - 1];
+        System.arraycopy(values, 1, newValues, 0, newValues.length);
+        return forValues(newValues);
+    }
+
+    @Override
+    public Node<Long> deleteLast()
+    {
+        if (values.length == 0) {
+            throw new IllegalStateException();
+        }
+        final long[] newValues = new long[values.length - 1];
+        System.arraycopy(values, 0, newValues, 0, newValues.length);
+        return forValues(newValues);
+    }
+
+    @Override
+    public Node<Long> insertFirst(Long value)
+    {
+        if (isFull()) {
+            return new BranchNode<Long>(value, this);
+        }
+        final long[] newValues = new long[values.length + 1];
+        System.arraycopy(values, 0, newValues, 1, values.length);
+        newValues[0] = value;
+        return new LongLeafNode(newValues);
+    }
+
+    @Override
+    public Node<Long> insertLast(Long value)
+    {
+        if (isFull()) {
+            return new BranchNode<Long>(this, value);
+        }
+        final long[] newValues = new long[values.length + 1];
+        System.arraycopy(values, 0, newValues, 0, values.length);
+        newValues[values.length] = value;
+        return new LongLeafNode(newValues);
+    }
+
+    @Override
+    public Node<Long> insertLastLeaf(Node<Long> leaf)
+    {
+        return isEmpty() ? leaf : BranchNode.forLeaves(this, leaf);
+    }
+
+    @Override
+    public boolean containsIndex(int index)
+    {
+        return (index >= 0) && (index < values.length);
+    }
+
+    @Override
+    public Long get(int index)
+    {
+        return values[index];
+    }
+
+    @Override
+    public Node<Long> assign(int index,
+                             Long value)
+    {
+        final long[] newValues = values.clone();
+        newValues[index] = value;
+        return new LongLeafNode(newValues);
+    }
+
+    @Override
+    public Node<Long> withFirstLeaf(Node<Long> leaf)
+    {
+        return isFull() ? BranchNode.forFullNode(leaf, this, EMPTY) : leaf;
+    }
+
+    @Override
+    public Node<Long> withLastLeaf(Node<Long> leaf)
+    {
+        return isFull() ? BranchNode.forFullNode(EMPTY, this, leaf) : leaf;
+    }
+
+    @Override
+    public Node<Long> withLeaf(int index,
+                               Node<Long> leaf)
+    {
+        assert leaf.size() == values.length;
+        return leaf;
+    }
+
+    @Override
+    public Node<Long> emptyNode()
+    {
+        return EMPTY;
+    }
+
+    @Override
+    public void copyTo(long[] dest,
+                       int offset)
+    {
+        System.arraycopy(values, 0, dest, offset, values.length);
+    }
+
+    @Override
+    public boolean valuesEqual(int offset,
+                               PrimitiveLeafNode<Long, long[]> other,
+                               int otherOffset,
+                               int count)
+    {
+        final long[] otherValues = ((LongLeafNode)other).values;
+        for (int i = 0; i < count; ++i) {
+            if (values[offset + i] != otherValues[otherOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashValues(int hash)
+    {
+        for (long value : values) {
+            hash = (31 * hash) + (int)(value ^ (value >>> 32));
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the value at index in a tree of LongLeafNodes without boxing it.
+     *
+     * @throws IndexOutOfBoundsException if index is not in the tree
+     */
+    static long get(Node<Long> node,
+                    int index)
+    {
+        while (node instanceof BranchNode) {
+            final BranchNode<Long> branch = (BranchNode<Long>)node;
+            node = branch.childFor(index);
+            index = branch.indexInChild(index);
+        }
+        return ((LongLeafNode)node).values[index];
+    }
+
+    /**
+     * Replaces the value at index in a tree of LongLeafNodes without boxing value.
+     *
+     * @throws IndexOutOfBoundsException if index is not in the tree
+     */
+    static Node<Long> assign(Node<Long> root,
+                             int index,
+                             long value)
+    {
+        Node<Long> node = root;
+        int leafIndex = index;
+        while (node instanceof BranchNode) {
+            final BranchNode<Long> branch = (BranchNode<Long>)node;
+            node = branch.childFor(leafIndex);
+            leafIndex = branch.indexInChild(leafIndex);
+        }
+        final long[] newValues = ((LongLeafNode)node).values.clone();
+        newValues[leafIndex] = value;
+        return root.withLeaf(index, new LongLeafNode(newValues));
+    }
+
+    /**
+     * Adds value to the front of a tree of LongLeafNodes without boxing it.
+     */
+    static Node<Long> insertFirst(Node<Long> root,
+                                  long value)
+    {
+        final long[] values = ((LongLeafNode)BranchNode.leafForInsertFirst(root)).values;
+        final long[] newValues;
+        if (values.length == 32) {
+            newValues = new long[]{value};
+        } else {
+            newValues = new long[values.length + 1];
+            System.arraycopy(values, 0, newValues, 1, values.length);
+            newValues[0] = value;
+        }
+        return root.withFirstLeaf(new LongLeafNode(newValues));
+    }
+
+    /**
+     * Adds value to the end of a tree of LongLeafNodes without boxing it.
+     */
+    static Node<Long> insertLast(Node<Long> root,
+                                 long value)
+    {
+        final long[] values = ((LongLeafNode)BranchNode.leafForInsertLast(root)).values;
+        final long[] newValues;
+        if (values.length == 32) {
+            newValues = new long[]{value};
+        } else {
+            newValues = new long[values.length + 1];
+            System.arraycopy(values, 0, newValues, 0, values.length);
+            newValues[values.length] = value;
+        }
+        return root.withLastLeaf(new LongLeafNode(newValues));
+    }
+
+    @Nonnull
+    @Override
+    public Cursor<Long> cursor()
+    {
+        return StandardCursor.of(new Indexed<Long>()
+        {
+            @Override
+            public Long get(int index)
+            {
+                return values[index];
+            }
+
+            @Override
+            public int size()
+            {
+                return values.length;
+            }
+        });
+    }
+
+    @Override
+    public void forEachValue(Proc1<? super Long> proc)
+    {
+        for (long value : values) {
+            proc.apply(value);
+        }
+    }
+
+    @Override
+    public void checkInvariants()
+    {
+        if (values.length > 32) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static LongLeafNode forValues(long[] values)
+    {
+        return (values.length == 0) ? EMPTY : new LongLeafNode(values);
+    }
+}
@@ -37,6 +37,7 @@ package org.javimmutable.collections.list;
 
 import org.javimmutable.collections.Cursorable;
 import org.javimmutable.collections.InvariantCheckable;
+import org.javimmutable.collections.Proc1;
 
 /**
  * Interface for classes used to implement 32-way trees that restrict inserts and deletions
@@ -64,10 +65,52 @@ interface Node<T>
 
     Node<T> insertLast(T value);
 
+    /**
+     * Adds all of the values in leaf, which must be a full leaf node, to the end of this node.
+     * Normally only a single path through the tree is copied.  Used by JImmutableArrayList to
+     * move its tail buffer into the tree.
+     */
+    Node<T> insertLastLeaf(Node<T> leaf);
+
     boolean containsIndex(int index);
 
     T get(int index);
 
     Node<T> assign(int index,
                    T value);
+
+    /**
+     * Finishes an insertFirst() whose leaf level work was done by the caller.  leaf must be
+     * BranchNode.leafForInsertFirst(this) with one value added at its front or, if that
+     * leaf is full, a new leaf containing only that value.  Lets the primitive lists add
+     * values without boxing them.
+     */
+    Node<T> withFirstLeaf(Node<T> leaf);
+
+    /**
+     * Finishes an insertLast() whose leaf level work was done by the caller.  leaf must be
+     * BranchNode.leafForInsertLast(this) with one value added at its end or, if that
+     * leaf is full, a new leaf containing only that value.
+     */
+    Node<T> withLastLeaf(Node<T> leaf);
+
+    /**
+     * Replaces the leaf containing index with leaf, which must be the same size.  Used
+     * by the primitive lists to assign values without boxing them.
+     */
+    Node<T> withLeaf(int index,
+                     Node<T> leaf);
+
+    /**
+     * Passes every value in this node to proc in list order.  Unlike cursor() no
+     * objects are created while visiting the values.
+     */
+    void forEachValue(Proc1<? super T> proc);
+
+    /**
+     * Returns an empty node whose insert methods create leaves of the same type as the
+     * leaves of this node.  Allows BranchNode to build trees of primitive leaves
+     * (see LongLeafNode etc) without knowing their type.
+     */
+    Node<T> emptyNode();
 }
@@ -0,0 +1,68 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.list;
+
+/**
+ * Interface for the leaf nodes of the primitive lists (JImmutableLongList etc).  Values
+ * are stored in an array of type A rather than as objects.
+ *
+ * @param <T> boxed type of the values
+ * @param <A> array type used to store the values
+ */
+interface PrimitiveLeafNode<T, A>
+        extends Node<T>
+{
+    /**
+     * Copies all of the values in this leaf into dest starting at offset.
+     */
+    void copyTo(A dest,
+                int offset);
+
+    /**
+     * Returns true if count values starting at offset in this leaf are equal to those starting
+     * at otherOffset in other.  Values are compared the same way as by the boxed type's equals().
+     */
+    boolean valuesEqual(int offset,
+                        PrimitiveLeafNode<T, A> other,
+                        int otherOffset,
+                        int count);
+
+    /**
+     * Combines hash with the values in this leaf the same way List.hashCode() combines
+     * the hash codes of the boxed values.
+     */
+    int hashValues(int hash);
+}
@@ -0,0 +1,685 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.rrb_list;
+
+import org.javimmutable.collections.*;
+import org.javimmutable.collections.common.AbstractSerializationProxy;
+import org.javimmutable.collections.common.IndexedArray;
+import org.javimmutable.collections.common.IndexedList;
+import org.javimmutable.collections.common.IteratorAdaptor;
+import org.javimmutable.collections.common.ListAdaptor;
+import org.javimmutable.collections.common.ParallelHelper;
+import org.javimmutable.collections.cursors.Cursors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Implementation of JImmutableRandomAccessList that uses a relaxed radix balanced (RRB) tree.
+ * Lists built by appending values are perfectly balanced and values are located using
+ * shifts and masks like a plain radix trie.  Inserting values in the middle of the list,
+ * concatenating lists or taking a sublist only relaxes the nodes along the affected paths,
+ * which record the sizes of their children so they can be searched in O(log n) time.
+ * Concatenation, splitting and sublists all run in O(log n) time and share all nodes away
+ * from their seams.
+ *
+ * @param <T>
+ */
+@Immutable
+public class JImmutableRrbList<T>
+        implements JImmutableRandomAccessList<T>,
+                   SplittableCursorable<T>,
+                   Serializable
+{
+    private static final long serialVersionUID = -121805L;
+
+    private static final JImmutableRrbList<Object> EMPTY = new JImmutableRrbList<Object>(RrbEmptyNode.of());
+
+    private final RrbNode<T> root;
+
+    @SuppressWarnings("unchecked")
+    public static <T> JImmutableRrbList<T> of()
+    {
+        return (JImmutableRrbList<T>)EMPTY;
+    }
+
+    public static <T> Builder<T> builder()
+    {
+        return new Builder<T>();
+    }
+
+    /**
+     * Builds a perfectly balanced tree bottom up in O(n) time.  Every node other than the last
+     * one on each level is completely full so all indexing uses the radix path.
+     */
+    @Nonnull
+    public static <T> JImmutableRrbList<T> of(@Nonnull Indexed<? extends T> values)
+    {
+        final int valueCount = values.size();
+        if (valueCount == 0) {
+            return of();
+        }
+        List<RrbNode<T>> nodes = new ArrayList<RrbNode<T>>();
+        for (int offset = 0; offset < valueCount; offset += RrbNode.MAX_CHILDREN) {
+            nodes.add(RrbLeafNode.<T>of(values, offset, Math.min(valueCount, offset + RrbNode.MAX_CHILDREN)));
+        }
+        while (nodes.size() > 1) {
+            final Indexed<RrbNode<T>> children = IndexedList.retained(nodes);
+            final int nodeCount = children.size();
+            nodes = new ArrayList<RrbNode<T>>();
+            for (int offset = 0; offset < nodeCount; offset += RrbNode.MAX_CHILDREN) {
+                nodes.add(RrbBranchNode.of(children, offset, Math.min(nodeCount, offset + RrbNode.MAX_CHILDREN)));
+            }
+        }
+        return new JImmutableRrbList<T>(nodes.get(0));
+    }
+
+    private JImmutableRrbList(RrbNode<T> root)
+    {
+        this.root = root;
+    }
+
+    private JImmutableRrbList<T> create(RrbInsertResult<T> insertResult)
+    {
+        if (insertResult.type == RrbInsertResult.Type.INPLACE) {
+            return new JImmutableRrbList<T>(insertResult.newNode);
+        } else {
+            return new JImmutableRrbList<T>(new RrbBranchNode<T>(insertResult.newNode, insertResult.extraNode));
+        }
+    }
+
+    private JImmutableRrbList<T> createForDelete(@Nonnull RrbNode<T> newRoot)
+    {
+        if (newRoot == root) {
+            return this;
+        } else if (newRoot.valueCount() == 0) {
+            return of();
+        }
+        while (newRoot.childCount() == 1) {
+            RrbNode<T> child = newRoot.firstChild();
+            if (child == newRoot) {
+                break;
+            }
+            newRoot = child;
+        }
+        return new JImmutableRrbList<T>(newRoot);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> assign(int index,
+                                       @Nullable T value)
+    {
+        checkIndex(index, size());
+        final RrbNode<T> newRoot = root.assign(index, value);
+        return (newRoot == root) ? this : new JImmutableRrbList<T>(newRoot);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insert(@Nullable T value)
+    {
+        return create(root.insertAt(root.valueCount(), value));
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insert(int index,
+                                       @Nullable T value)
+    {
+        checkIndex(index, size() + 1);
+        return create(root.insertAt(index, value));
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertFirst(@Nullable T value)
+    {
+        return create(root.insertAt(0, value));
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertLast(@Nullable T value)
+    {
+        return create(root.insertAt(root.valueCount(), value));
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertAll(@Nonnull Cursorable<? extends T> values)
+    {
+        return insertAllLast(values);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertAll(@Nonnull Collection<? extends T> values)
+    {
+        return insertAllLast(values);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertAll(@Nonnull Cursor<? extends T> values)
+    {
+        return insertAllLast(values);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertAll(@Nonnull Iterator<? extends T> values)
+    {
+        return insertAllLast(values);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertAll(int index,
+                                          @Nonnull Cursorable<? extends T> values)
+    {
+        if (values instanceof JImmutableRrbList) {
+            return splice(index, (JImmutableRrbList<? extends T>)values);
+        }
+        return insertAll(index, values.cursor());
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertAll(int index,
+                                          @Nonnull Collection<? extends T> values)
+    {
+        return insertAll(index, values.iterator());
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertAll(int index,
+                                          @Nonnull Cursor<? extends T> values)
+    {
+        return insertAll(index, values.iterator());
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertAll(int index,
+                                          @Nonnull Iterator<? extends T> values)
+    {
+        if ((index < 0) || (index > size())) {
+            throw new IndexOutOfBoundsException();
+        }
+        int i = index;
+        RrbNode<T> newRoot = root;
+        while (values.hasNext()) {
+            RrbInsertResult<T> insertResult = newRoot.insertAt(i, values.next());
+            if (insertResult.type == RrbInsertResult.Type.INPLACE) {
+                newRoot = insertResult.newNode;
+            } else {
+                newRoot = new RrbBranchNode<T>(insertResult.newNode, insertResult.extraNode);
+            }
+            i++;
+        }
+        return new JImmutableRrbList<T>(newRoot);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertAllFirst(@Nonnull Cursorable<? extends T> values)
+    {
+        return insertAll(0, values);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertAllFirst(@Nonnull Collection<? extends T> values)
+    {
+        return insertAll(0, values);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertAllFirst(@Nonnull Cursor<? extends T> values)
+    {
+        return insertAll(0, values);
+
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertAllFirst(@Nonnull Iterator<? extends T> values)
+    {
+        return insertAll(0, values);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertAllLast(@Nonnull Cursorable<? extends T> values)
+    {
+        return insertAll(size(), values);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertAllLast(@Nonnull Collection<? extends T> values)
+    {
+        return insertAll(size(), values);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertAllLast(@Nonnull Cursor<? extends T> values)
+    {
+        return insertAll(size(), values);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> insertAllLast(@Nonnull Iterator<? extends T> values)
+    {
+        return insertAll(size(), values);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> deleteFirst()
+    {
+        return createForDelete(root.delete(0));
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> deleteLast()
+    {
+        return createForDelete(root.delete(root.valueCount() - 1));
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> delete(int index)
+    {
+        checkIndex(index, size());
+        return createForDelete(root.delete(index));
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRrbList<T> deleteAll()
+    {
+        return of();
+    }
+
+    /**
+     * Returns a list containing the values of this list followed by the values of other.
+     * The two trees are joined along their edges in O(log n) time and all nodes away from
+     * the seam are shared with the original lists.
+     */
+    @Nonnull
+    public JImmutableRrbList<T> concat(@Nonnull JImmutableRrbList<? extends T> other)
+    {
+        return createForDelete(RrbBranchNode.concat(root, nodeOf(other)));
+    }
+
+    /**
+     * Splits this list into a list of the values before index and a list of the values
+     * starting at index.  Runs in O(log n) time and shares all nodes away from the split
+     * point with this list.
+     *
+     * @throws IndexOutOfBoundsException if index is negative or greater than size()
+     */
+    @Nonnull
+    public Tuple2<JImmutableRrbList<T>, JImmutableRrbList<T>> split(int index)
+    {
+        if ((index < 0) || (index > size())) {
+            throw new IndexOutOfBoundsException();
+        }
+        return Tuple2.of(createForDelete(root.prefix(index)), createForDelete(root.suffix(index)));
+    }
+
+    /**
+     * Returns a list containing the values with indexes in the range [fromIndex,toIndex).
+     * Runs in O(log n) time and shares all nodes away from the ends of the range with this list.
+     *
+     * @throws IndexOutOfBoundsException if the indexes are out of range or fromIndex is greater than toIndex
+     */
+    @Nonnull
+    public JImmutableRrbList<T> subList(int fromIndex,
+                                        int toIndex)
+    {
+        if ((fromIndex < 0) || (toIndex > size()) || (fromIndex > toIndex)) {
+            throw new IndexOutOfBoundsException();
+        }
+        return createForDelete(root.prefix(toIndex).suffix(fromIndex));
+    }
+
+    private JImmutableRrbList<T> splice(int index,
+                                        @Nonnull JImmutableRrbList<? extends T> values)
+    {
+        if ((index < 0) || (index > size())) {
+            throw new IndexOutOfBoundsException();
+        }
+        final RrbNode<T> inserted = nodeOf(values);
+        final RrbNode<T> newRoot = RrbBranchNode.concat(RrbBranchNode.concat(root.prefix(index), inserted), root.suffix(index));
+        return createForDelete(newRoot);
+    }
+
+    // nodes are never modified so a tree of a subtype can be safely shared
+    @SuppressWarnings("unchecked")
+    private static <T> RrbNode<T> nodeOf(JImmutableRrbList<? extends T> list)
+    {
+        return (RrbNode<T>)list.root;
+    }
+
+    @Override
+    public int size()
+    {
+        return root.valueCount();
+    }
+
+    @Override
+    public T get(int index)
+    {
+        checkIndex(index, size());
+        return root.get(index);
+    }
+
+    @Nonnull
+    @Override
+    public JImmutableRandomAccessList<T> insert(@Nonnull Iterable<? extends T> values)
+    {
+        JImmutableRandomAccessList<T> answer = this;
+        for (T value : values) {
+            answer = answer.insertLast(value);
+        }
+        return answer;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return root.valueCount() == 0;
+    }
+
+    @Nonnull
+    @Override
+    public List<T> getList()
+    {
+        return new ListAdaptor<T>(this);
+    }
+
+    @Nonnull
+    @Override
+    public Cursor<T> cursor()
+    {
+        return root.cursor();
+    }
+
+    @Override
+    public void forEachValue(@Nonnull Proc1<? super T> proc)
+    {
+        root.forEachValue(proc);
+    }
+
+    @Override
+    public Iterator<T> iterator()
+    {
+        return IteratorAdaptor.of(cursor());
+    }
+
+    /**
+     * Splits the tree along RrbBranchNode child boundaries, one level at a time.
+     */
+    @Nonnull
+    @Override
+    public List<Cursor<T>> splitCursors(int minParts)
+    {
+        final List<RrbNode<T>> nodes = ParallelHelper.splitNodes(root, minParts, new ParallelHelper.Splitter<RrbNode<T>>()
+        {
+            @Override
+            public boolean addChildrenTo(RrbNode<T> node,
+                                         List<RrbNode<T>> dest)
+            {
+                if (node instanceof RrbBranchNode) {
+                    ((RrbBranchNode<T>)node).addChildrenTo(dest);
+                    return true;
+                } else {
+                    return false;
+                }
+            }
+        });
+        final List<Cursor<T>> cursors = new ArrayList<Cursor<T>>();
+        for (RrbNode<T> node : nodes) {
+            cursors.add(node.cursor());
+        }
+        return cursors;
+    }
+
+    @Override
+    public void checkInvariants()
+    {
+        root.checkInvariants();
+        RrbBranchNode.checkMinimumFill(root, true, true);
+    }
+
+    // true if all values can be located using the radix path without searching size tables
+    boolean isBalanced()
+    {
+        return root.isBalanced();
+    }
+
+    // height of the tree with a leaf or empty root being height 0, used by unit tests
+    int height()
+    {
+        return root.height();
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        return (o == this) || ((o instanceof JImmutableList) && Cursors.areEqual(cursor(), ((JImmutableList)o).cursor()));
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Cursors.computeHashCode(cursor());
+    }
+
+    @Override
+    public String toString()
+    {
+        return Cursors.makeString(cursor());
+    }
+
+    // the radix path through balanced nodes does not range check indexes itself
+    private static void checkIndex(int index,
+                                   int limit)
+    {
+        if ((index < 0) || (index >= limit)) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private Object writeReplace()
+    {
+        return new SerializationProxy<T>(this);
+    }
+
+    private void readObject(ObjectInputStream in)
+        throws InvalidObjectException
+    {
+        throw new InvalidObjectException("serialization proxy required");
+    }
+
+    public static class Builder<T>
+            implements JImmutableRandomAccessList.Builder<T>
+    {
+        private final List<T> values = new ArrayList<T>();
+
+        @Nonnull
+        @Override
+        public Builder<T> add(T value)
+        {
+            values.add(value);
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public JImmutableRrbList<T> build()
+        {
+            return of(IndexedList.retained(values));
+        }
+
+        @Nonnull
+        @Override
+        public Builder<T> add(Cursor<? extends T> source)
+        {
+            for (Cursor<? extends T> cursor = source.start(); cursor.hasValue(); cursor = cursor.next()) {
+                add(cursor.getValue());
+            }
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public Builder<T> add(Iterator<? extends T> source)
+        {
+            while (source.hasNext()) {
+                add(source.next());
+            }
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public Builder<T> add(Collection<? extends T> source)
+        {
+            add(source.iterator());
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public <K extends T> Builder<T> add(K... source)
+        {
+            for (T value : source) {
+                add(value);
+            }
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public Builder<T> add(Indexed<? extends T> source)
+        {
+            return add(source, 0, source.size());
+        }
+
+        @Nonnull
+        @Override
+        public Builder<T> add(Indexed<? extends T> source,
+                              int offset,
+                              int limit)
+        {
+            for (int i = offset; i < limit; ++i) {
+                add(source.get(i));
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Writes the size followed by each value in order.  The list is rebuilt bottom up when read.
+     */
+    private static class SerializationProxy<T>
+            extends AbstractSerializationProxy<JImmutableRrbList<T>>
+    {
+        private static final long serialVersionUID = -121805L;
+
+        public SerializationProxy()
+        {
+            super(null);
+        }
+
+        private SerializationProxy(JImmutableRrbList<T> list)
+        {
+            super(list);
+        }
+
+        @Override
+        protected void writeCollection(ObjectOutput out,
+                                       JImmutableRrbList<T> list)
+            throws IOException
+        {
+            out.writeInt(list.size());
+            for (Cursor<T> cursor = list.cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+                out.writeObject(cursor.getValue());
+            }
+        }
+
+        @Override
+        protected JImmutableRrbList<T> readCollection(ObjectInput in)
+            throws IOException, ClassNotFoundException
+        {
+            final int size = readSize(in);
+            if (size == 0) {
+                return of();
+            }
+            final Object[] values = new Object[size];
+            for (int i = 0; i < size; ++i) {
+                values[i] = in.readObject();
+            }
+            return of(IndexedArray.<T>retained(SerializationProxy.<T>cast(values)));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T[] cast(Object[] values)
+        {
+            return (T[])values;
+        }
+    }
+}
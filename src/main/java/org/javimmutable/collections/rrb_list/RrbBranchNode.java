@@ -0,0 +1,595 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.rrb_list;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.common.ArrayHelper;
+import org.javimmutable.collections.common.IndexedArray;
+import org.javimmutable.collections.cursors.LazyMultiCursor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Branch node of a relaxed radix balanced tree.  Balanced branches locate the child
+ * holding an index with a shift and mask just like a plain radix trie.  Branches whose
+ * children are not all full (as a result of inserts, deletes, concatenation or slicing)
+ * also store the cumulative value counts of their children and locate the child with
+ * a binary search of those counts.
+ * <p>
+ * Concatenation and slicing follow the same outline as BtreeBranchNode but are kept separate
+ * because the two trees use different fill rules.  A btree splits nodes evenly and requires
+ * every node below the root to be half full.  This tree keeps nodes full wherever possible so
+ * that radix indexing stays available, and only the nodes on the left and right edges of the
+ * whole tree may be less than half full.  When two trees are joined their edge nodes end up
+ * inside the new tree, so fillSeam() merges any that are too small with a neighbor.
+ */
+@Immutable
+class RrbBranchNode<T>
+        implements RrbNode<T>,
+                   ArrayHelper.Allocator<RrbNode<T>>
+{
+    private final int height;
+    private final RrbNode<T>[] children;
+    @Nullable
+    private final int[] sizes;
+    private final int valueCount;
+
+    RrbBranchNode(@Nonnull RrbNode<T> child1,
+                  @Nonnull RrbNode<T> child2)
+    {
+        this(createChildren(child1, child2));
+    }
+
+    private RrbBranchNode(@Nonnull RrbNode<T>[] children)
+    {
+        final int height = children[0].height() + 1;
+        this.height = height;
+        this.children = children;
+        this.sizes = isBalanced(height, children) ? null : computeSizes(children);
+        this.valueCount = countValues(children);
+    }
+
+    private RrbBranchNode(int height,
+                          @Nonnull RrbNode<T>[] children,
+                          @Nullable int[] sizes,
+                          int valueCount)
+    {
+        this.height = height;
+        this.children = children;
+        this.sizes = sizes;
+        this.valueCount = valueCount;
+    }
+
+    static <T> RrbBranchNode<T> of(Indexed<RrbNode<T>> source,
+                                   int offset,
+                                   int limit)
+    {
+        final int length = limit - offset;
+        assert (length > 0) && (length <= MAX_CHILDREN);
+        assert limit <= source.size();
+        final RrbNode<T>[] children = allocateNodes(length);
+        for (int i = 0; i < length; ++i) {
+            children[i] = source.get(offset + i);
+        }
+        return new RrbBranchNode<T>(children);
+    }
+
+    /**
+     * Joins two nodes of any height into a single node containing the values of first
+     * followed by the values of second.  Runs in time proportional to the height of the
+     * taller node and shares all nodes not along the seam between the two.
+     */
+    @Nonnull
+    static <T> RrbNode<T> concat(@Nonnull RrbNode<T> first,
+                                 @Nonnull RrbNode<T> second)
+    {
+        if (first.valueCount() == 0) {
+            return second;
+        } else if (second.valueCount() == 0) {
+            return first;
+        } else if ((first.height() == second.height()) && first.isFull() && hasFilledLeftEdgeBelow(second)) {
+            // second stays on the right edge so it can be partially filled
+            return new RrbBranchNode<T>(first, second);
+        } else if (first.height() >= second.height()) {
+            return join(first.appendNode(second));
+        } else {
+            return join(second.prependNode(first));
+        }
+    }
+
+    @Nonnull
+    static <T> RrbNode<T> join(@Nonnull RrbInsertResult<T> result)
+    {
+        if (result.type == RrbInsertResult.Type.INPLACE) {
+            return result.newNode;
+        } else {
+            return new RrbBranchNode<T>(result.newNode, result.extraNode);
+        }
+    }
+
+    /**
+     * Number of children to keep in the first of two nodes when total children (no more
+     * than 2 * MAX_CHILDREN) must be split between them.  The first node is packed as full
+     * as possible to keep radix indexing available while the second node is still left
+     * with at least MIN_CHILDREN children.
+     */
+    static int splitIndex(int total)
+    {
+        assert (total > MAX_CHILDREN) && (total <= (2 * MAX_CHILDREN));
+        return Math.min(MAX_CHILDREN, total - MIN_CHILDREN);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    private static <T> RrbNode<T>[] allocateNodes(int size)
+    {
+        return (RrbNode<T>[])new RrbNode[size];
+    }
+
+    @Override
+    public int childCount()
+    {
+        return children.length;
+    }
+
+    @Override
+    public int valueCount()
+    {
+        return valueCount;
+    }
+
+    @Override
+    public int height()
+    {
+        return height;
+    }
+
+    @Override
+    public boolean isBalanced()
+    {
+        return sizes == null;
+    }
+
+    @Override
+    public boolean isFull()
+    {
+        return (height <= MAX_RADIX_HEIGHT) && (valueCount == (1 << (SHIFT * (height + 1))));
+    }
+
+    @Override
+    public T get(int index)
+    {
+        if (sizes == null) {
+            final int shift = SHIFT * height;
+            return children[index >>> shift].get(index & ((1 << shift) - 1));
+        } else {
+            final int childIndex = findChildIndex(index);
+            return children[childIndex].get(index - childOffset(childIndex));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public RrbNode<T> assign(int index,
+                             T value)
+    {
+        final int childIndex = findChildIndex(index);
+        final RrbNode<T> child = children[childIndex];
+        final RrbNode<T> newChild = child.assign(index - childOffset(childIndex), value);
+        if (newChild == child) {
+            return this;
+        } else {
+            return new RrbBranchNode<T>(height, ArrayHelper.assign(children, childIndex, newChild), sizes, valueCount);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public RrbInsertResult<T> insertAt(int index,
+                                       T value)
+    {
+        final int childIndex = (index == valueCount) ? (children.length - 1) : findChildIndex(index);
+        final RrbInsertResult<T> result = children[childIndex].insertAt(index - childOffset(childIndex), value);
+        if (result.type == RrbInsertResult.Type.INPLACE) {
+            return RrbInsertResult.<T>createInPlace(new RrbBranchNode<T>(ArrayHelper.assign(children, childIndex, result.newNode)));
+        }
+        final RrbNode<T>[] newChildren = ArrayHelper.assignInsert(this, children, childIndex, result.newNode, result.extraNode);
+        if (newChildren.length <= MAX_CHILDREN) {
+            return RrbInsertResult.<T>createInPlace(new RrbBranchNode<T>(newChildren));
+        } else if (index == valueCount) {
+            // appending keeps this node full so the tree remains balanced
+            return createSplit(newChildren, MAX_CHILDREN);
+        } else {
+            return createSplit(newChildren, splitIndex(newChildren.length));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public RrbNode<T> delete(int index)
+    {
+        final int childIndex = findChildIndex(index);
+        final RrbNode<T> newChild = children[childIndex].delete(index - childOffset(childIndex));
+        if (newChild.valueCount() == 0) {
+            if (children.length == 1) {
+                return RrbEmptyNode.of();
+            } else {
+                return new RrbBranchNode<T>(ArrayHelper.delete(this, children, childIndex));
+            }
+        } else {
+            return new RrbBranchNode<T>(fillSeam(ArrayHelper.assign(children, childIndex, newChild), childIndex, childIndex + 1));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public RrbInsertResult<T> appendNode(@Nonnull RrbNode<T> node)
+    {
+        if (node.valueCount() == 0) {
+            return RrbInsertResult.<T>createInPlace(this);
+        }
+        final int lastIndex = children.length - 1;
+        if (node.height() == height) {
+            if (isFull() && (node.childCount() >= MIN_CHILDREN) && hasFilledLeftEdgeBelow(node)) {
+                return RrbInsertResult.createSplit(this, node);
+            }
+            // merge our last child with its first child and keep all the others
+            final RrbBranchNode<T> branch = (RrbBranchNode<T>)node;
+            final RrbInsertResult<T> seam = children[lastIndex].appendNode(branch.children[0]);
+            final RrbNode<T>[] joined = ArrayHelper.concat(this, children, branch.children);
+            if (seam.type == RrbInsertResult.Type.INPLACE) {
+                return createBalanced(fillSeam(ArrayHelper.assignDelete(this, joined, lastIndex, seam.newNode), lastIndex, lastIndex + 1));
+            } else {
+                return createBalanced(fillSeam(ArrayHelper.assignTwo(joined, lastIndex, seam.newNode, seam.extraNode), lastIndex, lastIndex + 2));
+            }
+        }
+        final RrbNode<T> lastChild = children[lastIndex];
+        final RrbInsertResult<T> result;
+        if ((node.height() == lastChild.height()) && lastChild.isFull() && hasFilledLeftEdgeBelow(node)) {
+            // node stays on the right edge so it can be partially filled
+            result = RrbInsertResult.createSplit(lastChild, node);
+        } else {
+            result = lastChild.appendNode(node);
+        }
+        if (result.type == RrbInsertResult.Type.INPLACE) {
+            return createBalanced(ArrayHelper.assign(children, lastIndex, result.newNode));
+        }
+        final RrbNode<T>[] newChildren = ArrayHelper.assignAppend(this, children, result.newNode, result.extraNode);
+        if (newChildren.length <= MAX_CHILDREN) {
+            return RrbInsertResult.<T>createInPlace(new RrbBranchNode<T>(newChildren));
+        } else {
+            // like an append, keep this node full so it remains balanced
+            return createSplit(newChildren, MAX_CHILDREN);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public RrbInsertResult<T> prependNode(@Nonnull RrbNode<T> node)
+    {
+        if (node.valueCount() == 0) {
+            return RrbInsertResult.<T>createInPlace(this);
+        } else if (node.height() == height) {
+            return node.appendNode(this);
+        }
+        final RrbInsertResult<T> result = children[0].prependNode(node);
+        if (result.type == RrbInsertResult.Type.INPLACE) {
+            return createBalanced(ArrayHelper.assign(children, 0, result.newNode));
+        }
+        final RrbNode<T>[] newChildren = ArrayHelper.assignInsert(this, children, 0, result.newNode, result.extraNode);
+        if (newChildren.length <= MAX_CHILDREN) {
+            return RrbInsertResult.<T>createInPlace(new RrbBranchNode<T>(newChildren));
+        } else {
+            return createSplit(newChildren, 1);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public RrbNode<T> prefix(int limit)
+    {
+        if (limit == valueCount) {
+            return this;
+        } else if (limit == 0) {
+            return RrbEmptyNode.of();
+        }
+        final int childIndex = findChildIndex(limit);
+        final RrbNode<T> childPrefix = children[childIndex].prefix(limit - childOffset(childIndex));
+        if (childIndex == 0) {
+            return childPrefix;
+        }
+        final RrbNode<T> before;
+        if (childIndex == 1) {
+            before = children[0];
+        } else {
+            before = new RrbBranchNode<T>(ArrayHelper.subArray(this, children, 0, childIndex));
+        }
+        return join(before.appendNode(childPrefix));
+    }
+
+    @Nonnull
+    @Override
+    public RrbNode<T> suffix(int offset)
+    {
+        if (offset == 0) {
+            return this;
+        } else if (offset == valueCount) {
+            return RrbEmptyNode.of();
+        }
+        final int childIndex = findChildIndex(offset);
+        final RrbNode<T> childSuffix = children[childIndex].suffix(offset - childOffset(childIndex));
+        final int lastIndex = children.length - 1;
+        if (childIndex == lastIndex) {
+            return childSuffix;
+        }
+        final RrbNode<T> after;
+        if (childIndex == (lastIndex - 1)) {
+            after = children[lastIndex];
+        } else {
+            after = new RrbBranchNode<T>(ArrayHelper.subArray(this, children, childIndex + 1, children.length));
+        }
+        return join(after.prependNode(childSuffix));
+    }
+
+    void addChildrenTo(List<RrbNode<T>> dest)
+    {
+        Collections.addAll(dest, children);
+    }
+
+    @Nonnull
+    @Override
+    public RrbNode<T> firstChild()
+    {
+        return children[0];
+    }
+
+    @Override
+    public void checkInvariants()
+    {
+        if ((children.length == 0) || (children.length > MAX_CHILDREN)) {
+            throw new IllegalStateException();
+        }
+        for (RrbNode<T> child : children) {
+            if (child.height() != (height - 1)) {
+                throw new IllegalStateException();
+            }
+            child.checkInvariants();
+        }
+        if (valueCount != countValues(children)) {
+            throw new IllegalStateException();
+        }
+        if (isBalanced(height, children)) {
+            if (sizes != null) {
+                throw new IllegalStateException();
+            }
+        } else if ((sizes == null) || !Arrays.equals(sizes, computeSizes(children))) {
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Verifies that every child of node holds at least MIN_CHILDREN children unless it lies on
+     * the left or right edge of the whole tree.  Edge nodes are exempt so that appends can leave
+     * every node but the last one full and keep the tree radix indexable, just like the partial
+     * tail of a plain vector.  leftEdge and rightEdge indicate whether node is on those edges.
+     */
+    static <T> void checkMinimumFill(@Nonnull RrbNode<T> node,
+                                     boolean leftEdge,
+                                     boolean rightEdge)
+    {
+        if (node instanceof RrbBranchNode) {
+            final RrbNode<T>[] children = ((RrbBranchNode<T>)node).children;
+            final int lastIndex = children.length - 1;
+            for (int i = 0; i <= lastIndex; ++i) {
+                final boolean childLeftEdge = leftEdge && (i == 0);
+                final boolean childRightEdge = rightEdge && (i == lastIndex);
+                if ((children[i].childCount() < MIN_CHILDREN) && !(childLeftEdge || childRightEdge)) {
+                    throw new IllegalStateException();
+                }
+                checkMinimumFill(children[i], childLeftEdge, childRightEdge);
+            }
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Cursor<T> cursor()
+    {
+        return LazyMultiCursor.cursor(IndexedArray.retained(children));
+    }
+
+    @Override
+    public void forEachValue(@Nonnull Proc1<? super T> proc)
+    {
+        for (RrbNode<T> child : children) {
+            child.forEachValue(proc);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public RrbNode<T>[] allocate(int size)
+    {
+        return allocateNodes(size);
+    }
+
+    private int findChildIndex(int index)
+    {
+        if (sizes == null) {
+            return index >>> (SHIFT * height);
+        }
+        int low = 0;
+        int high = sizes.length - 1;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (sizes[mid] <= index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int childOffset(int childIndex)
+    {
+        if (sizes == null) {
+            return childIndex << (SHIFT * height);
+        } else {
+            return (childIndex == 0) ? 0 : sizes[childIndex - 1];
+        }
+    }
+
+    /**
+     * Merges any node in the range [offset,limit) of nodes that has fewer than MIN_CHILDREN
+     * children with one of its neighbors.  Used wherever nodes that were on the edge of a
+     * tree (or that just lost values) can end up in its interior.  A node is only left partially
+     * filled if it is the only node in the array, in which case our own parent merges us instead.
+     */
+    private RrbNode<T>[] fillSeam(RrbNode<T>[] nodes,
+                                  int offset,
+                                  int limit)
+    {
+        int index = offset;
+        while ((index < limit) && (nodes.length > 1)) {
+            if (nodes[index].childCount() >= MIN_CHILDREN) {
+                index += 1;
+                continue;
+            }
+            int mergeIndex = index;
+            if (mergeIndex > 0) {
+                if (mergeIndex == (nodes.length - 1)) {
+                    mergeIndex -= 1;
+                } else if (nodes[mergeIndex - 1].childCount() < nodes[mergeIndex + 1].childCount()) {
+                    // merge with the smaller neighbor to make a single node more likely
+                    mergeIndex -= 1;
+                }
+            }
+            final RrbInsertResult<T> merged = nodes[mergeIndex].appendNode(nodes[mergeIndex + 1]);
+            if (merged.type == RrbInsertResult.Type.INPLACE) {
+                nodes = ArrayHelper.assignDelete(this, nodes, mergeIndex, merged.newNode);
+                limit -= 1;
+            } else {
+                // a split always leaves both nodes at least half full
+                assert (merged.newNode.childCount() >= MIN_CHILDREN) && (merged.extraNode.childCount() >= MIN_CHILDREN);
+                nodes = ArrayHelper.assignTwo(nodes, mergeIndex, merged.newNode, merged.extraNode);
+                limit = Math.max(limit, mergeIndex + 2);
+            }
+            index = mergeIndex;
+        }
+        return nodes;
+    }
+
+    // true if every first child below node is at least half full so that node's left edge can be interior
+    private static <T> boolean hasFilledLeftEdgeBelow(RrbNode<T> node)
+    {
+        while (node.height() > 0) {
+            node = node.firstChild();
+            if (node.childCount() < MIN_CHILDREN) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // splits children into two nodes if there are too many for one
+    private RrbInsertResult<T> createBalanced(RrbNode<T>[] newChildren)
+    {
+        if (newChildren.length <= MAX_CHILDREN) {
+            return RrbInsertResult.<T>createInPlace(new RrbBranchNode<T>(newChildren));
+        } else {
+            return createSplit(newChildren, splitIndex(newChildren.length));
+        }
+    }
+
+    private RrbInsertResult<T> createSplit(RrbNode<T>[] newChildren,
+                                           int splitIndex)
+    {
+        return RrbInsertResult.<T>createSplit(new RrbBranchNode<T>(ArrayHelper.subArray(this, newChildren, 0, splitIndex)),
+                                              new RrbBranchNode<T>(ArrayHelper.subArray(this, newChildren, splitIndex, newChildren.length)));
+    }
+
+    private static <T> boolean isBalanced(int height,
+                                          RrbNode<T>[] children)
+    {
+        if (height > MAX_RADIX_HEIGHT) {
+            return false;
+        }
+        final int lastIndex = children.length - 1;
+        for (int i = 0; i < lastIndex; ++i) {
+            if (!children[i].isFull()) {
+                return false;
+            }
+        }
+        return children[lastIndex].isBalanced();
+    }
+
+    private static <T> int[] computeSizes(RrbNode<T>[] children)
+    {
+        final int[] sizes = new int[children.length];
+        int total = 0;
+        for (int i = 0; i < children.length; ++i) {
+            total += children[i].valueCount();
+            sizes[i] = total;
+        }
+        return sizes;
+    }
+
+    private static <T> int countValues(RrbNode<T>[] children)
+    {
+        int answer = 0;
+        for (RrbNode<T> child : children) {
+            answer += child.valueCount();
+        }
+        return answer;
+    }
+
+    private static <T> RrbNode<T>[] createChildren(RrbNode<T> child1,
+                                                   RrbNode<T> child2)
+    {
+        final RrbNode<T>[] children = allocateNodes(2);
+        children[0] = child1;
+        children[1] = child2;
+        return children;
+    }
+}
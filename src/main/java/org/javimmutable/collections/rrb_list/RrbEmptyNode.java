@@ -0,0 +1,172 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.rrb_list;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.cursors.StandardCursor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+@Immutable
+class RrbEmptyNode<T>
+        implements RrbNode<T>
+{
+    private static final RrbEmptyNode EMPTY = new RrbEmptyNode();
+
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    static <T> RrbEmptyNode<T> of()
+    {
+        return (RrbEmptyNode<T>)EMPTY;
+    }
+
+    @Override
+    public int childCount()
+    {
+        return 0;
+    }
+
+    @Override
+    public int valueCount()
+    {
+        return 0;
+    }
+
+    @Override
+    public int height()
+    {
+        return 0;
+    }
+
+    @Override
+    public boolean isBalanced()
+    {
+        return true;
+    }
+
+    @Override
+    public boolean isFull()
+    {
+        return false;
+    }
+
+    @Override
+    public T get(int index)
+    {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Nonnull
+    @Override
+    public RrbNode<T> assign(int index,
+                             T value)
+    {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Nonnull
+    @Override
+    public RrbInsertResult<T> insertAt(int index,
+                                       T value)
+    {
+        if (index == 0) {
+            return RrbInsertResult.<T>createInPlace(new RrbLeafNode<T>(value));
+        } else {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public RrbNode<T> delete(int index)
+    {
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Nonnull
+    @Override
+    public RrbInsertResult<T> appendNode(@Nonnull RrbNode<T> node)
+    {
+        return RrbInsertResult.createInPlace(node);
+    }
+
+    @Nonnull
+    @Override
+    public RrbInsertResult<T> prependNode(@Nonnull RrbNode<T> node)
+    {
+        return RrbInsertResult.createInPlace(node);
+    }
+
+    @Nonnull
+    @Override
+    public RrbNode<T> prefix(int limit)
+    {
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public RrbNode<T> suffix(int offset)
+    {
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public RrbNode<T> firstChild()
+    {
+        return this;
+    }
+
+    @Override
+    public void checkInvariants()
+    {
+    }
+
+    @Nonnull
+    @Override
+    public Cursor<T> cursor()
+    {
+        return StandardCursor.of();
+    }
+
+    @Override
+    public void forEachValue(@Nonnull Proc1<? super T> proc)
+    {
+    }
+}
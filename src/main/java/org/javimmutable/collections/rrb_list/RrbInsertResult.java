@@ -0,0 +1,75 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.rrb_list;
+
+class RrbInsertResult<T>
+{
+    enum Type
+    {
+        INPLACE,
+        SPLIT
+    }
+
+    final Type type;
+    final RrbNode<T> newNode;
+    final RrbNode<T> extraNode;
+
+    private RrbInsertResult(Type type,
+                            RrbNode<T> newNode,
+                            RrbNode<T> extraNode)
+    {
+        this.type = type;
+        this.newNode = newNode;
+        this.extraNode = extraNode;
+    }
+
+    static <T> RrbInsertResult<T> createInPlace(RrbNode<T> newNode)
+    {
+        return new RrbInsertResult<T>(Type.INPLACE, newNode, null);
+    }
+
+    static <T> RrbInsertResult<T> createSplit(RrbNode<T> newNode,
+                                              RrbNode<T> extraNode)
+    {
+        return new RrbInsertResult<T>(Type.SPLIT, newNode, extraNode);
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("<%s,%s,%s>", type, newNode, extraNode);
+    }
+}
@@ -0,0 +1,252 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.rrb_list;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.common.ArrayHelper;
+import org.javimmutable.collections.common.IndexedArray;
+import org.javimmutable.collections.cursors.StandardCursor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+@Immutable
+class RrbLeafNode<T>
+        implements RrbNode<T>,
+                   ArrayHelper.Allocator<T>
+{
+    private final T[] values;
+
+    @SuppressWarnings("unchecked")
+    RrbLeafNode(T value)
+    {
+        this.values = (T[])(new Object[]{value});
+    }
+
+    private RrbLeafNode(T[] values)
+    {
+        this.values = values;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> RrbLeafNode<T> of(Indexed<? extends T> source,
+                                 int offset,
+                                 int limit)
+    {
+        final int length = limit - offset;
+        assert (length > 0) && (length <= MAX_CHILDREN);
+        assert limit <= source.size();
+        final T[] values = (T[])new Object[length];
+        for (int i = 0; i < length; ++i) {
+            values[i] = source.get(offset + i);
+        }
+        return new RrbLeafNode<T>(values);
+    }
+
+    @Override
+    public int childCount()
+    {
+        return values.length;
+    }
+
+    @Override
+    public int valueCount()
+    {
+        return values.length;
+    }
+
+    @Override
+    public int height()
+    {
+        return 0;
+    }
+
+    @Override
+    public boolean isBalanced()
+    {
+        return true;
+    }
+
+    @Override
+    public boolean isFull()
+    {
+        return values.length == MAX_CHILDREN;
+    }
+
+    @Override
+    public T get(int index)
+    {
+        return values[index];
+    }
+
+    @Nonnull
+    @Override
+    public RrbNode<T> assign(int index,
+                             T value)
+    {
+        if (values[index] == value) {
+            return this;
+        } else {
+            return new RrbLeafNode<T>(ArrayHelper.assign(values, index, value));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public RrbInsertResult<T> insertAt(int index,
+                                       T value)
+    {
+        if (values.length < MAX_CHILDREN) {
+            return RrbInsertResult.<T>createInPlace(new RrbLeafNode<T>(ArrayHelper.insert(this, values, index, value)));
+        } else if (index == values.length) {
+            // appending keeps this leaf full so the tree remains balanced
+            return RrbInsertResult.<T>createSplit(this, new RrbLeafNode<T>(value));
+        } else {
+            final T[] newValues = ArrayHelper.insert(this, values, index, value);
+            final int splitIndex = RrbBranchNode.splitIndex(newValues.length);
+            return RrbInsertResult.<T>createSplit(new RrbLeafNode<T>(ArrayHelper.subArray(this, newValues, 0, splitIndex)),
+                                                  new RrbLeafNode<T>(ArrayHelper.subArray(this, newValues, splitIndex, newValues.length)));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public RrbNode<T> delete(int index)
+    {
+        if (values.length == 1) {
+            return RrbEmptyNode.of();
+        } else {
+            return new RrbLeafNode<T>(ArrayHelper.delete(this, values, index));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public RrbInsertResult<T> appendNode(@Nonnull RrbNode<T> node)
+    {
+        if (node.valueCount() == 0) {
+            return RrbInsertResult.<T>createInPlace(this);
+        }
+        final RrbLeafNode<T> leaf = (RrbLeafNode<T>)node;
+        final int length = values.length + leaf.values.length;
+        if (length <= MAX_CHILDREN) {
+            return RrbInsertResult.<T>createInPlace(new RrbLeafNode<T>(ArrayHelper.concat(this, values, leaf.values)));
+        } else if ((values.length >= MIN_CHILDREN) && (leaf.values.length >= MIN_CHILDREN)) {
+            return RrbInsertResult.<T>createSplit(this, leaf);
+        } else {
+            final int splitIndex = RrbBranchNode.splitIndex(length);
+            return RrbInsertResult.<T>createSplit(new RrbLeafNode<T>(ArrayHelper.subArray(this, values, leaf.values, 0, splitIndex)),
+                                                  new RrbLeafNode<T>(ArrayHelper.subArray(this, values, leaf.values, splitIndex, length)));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public RrbInsertResult<T> prependNode(@Nonnull RrbNode<T> node)
+    {
+        if (node.valueCount() == 0) {
+            return RrbInsertResult.<T>createInPlace(this);
+        } else {
+            return node.appendNode(this);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public RrbNode<T> prefix(int limit)
+    {
+        if (limit == 0) {
+            return RrbEmptyNode.of();
+        } else if (limit == values.length) {
+            return this;
+        } else {
+            return new RrbLeafNode<T>(ArrayHelper.subArray(this, values, 0, limit));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public RrbNode<T> suffix(int offset)
+    {
+        if (offset == values.length) {
+            return RrbEmptyNode.of();
+        } else if (offset == 0) {
+            return this;
+        } else {
+            return new RrbLeafNode<T>(ArrayHelper.subArray(this, values, offset, values.length));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public RrbNode<T> firstChild()
+    {
+        return this;
+    }
+
+    @Override
+    public void checkInvariants()
+    {
+        if ((values.length == 0) || (values.length > MAX_CHILDREN)) {
+            throw new IllegalStateException();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Cursor<T> cursor()
+    {
+        return StandardCursor.of(IndexedArray.retained(values));
+    }
+
+    @Override
+    public void forEachValue(@Nonnull Proc1<? super T> proc)
+    {
+        for (T value : values) {
+            proc.apply(value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    @Override
+    public T[] allocate(int size)
+    {
+        return (T[])(new Object[size]);
+    }
+}
@@ -0,0 +1,136 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.rrb_list;
+
+import org.javimmutable.collections.Cursorable;
+import org.javimmutable.collections.InvariantCheckable;
+import org.javimmutable.collections.Proc1;
+
+import javax.annotation.Nonnull;
+
+interface RrbNode<T>
+    extends InvariantCheckable,
+            Cursorable<T>
+{
+    int SHIFT = 5;
+    int MAX_CHILDREN = 1 << SHIFT;
+    int MIN_CHILDREN = MAX_CHILDREN / 2;
+
+    /**
+     * Height of the tallest node that can still be radix indexed without its
+     * capacity overflowing an int.
+     */
+    int MAX_RADIX_HEIGHT = 5;
+
+    /**
+     * @return number of direct children (or values for leaves) of this node
+     */
+    int childCount();
+
+    /**
+     * @return number of values in this node and its descendants
+     */
+    int valueCount();
+
+    /**
+     * @return zero for leaves, otherwise one more than the height of the children
+     */
+    int height();
+
+    /**
+     * A node is balanced if a value's index alone determines which child holds the value.
+     * That is true for leaves and for branches whose children are all completely full
+     * except possibly the last one, which must itself be balanced.
+     */
+    boolean isBalanced();
+
+    /**
+     * @return true if this node holds as many values as a node of its height can hold
+     */
+    boolean isFull();
+
+    T get(int index);
+
+    @Nonnull
+    RrbNode<T> assign(int index,
+                      T value);
+
+    @Nonnull
+    RrbInsertResult<T> insertAt(int index,
+                                T value);
+
+    /**
+     * Returns a node that may have fewer than MIN_CHILDREN children.  The parent
+     * is responsible for merging it with a sibling if necessary.
+     */
+    @Nonnull
+    RrbNode<T> delete(int index);
+
+    /**
+     * Joins node to the end of this node.  The height of node must not be greater than
+     * the height of this node.  Nodes along the seam between the two trees are merged or
+     * redistributed so the result stays shallow.
+     */
+    @Nonnull
+    RrbInsertResult<T> appendNode(@Nonnull RrbNode<T> node);
+
+    /**
+     * Joins node to the start of this node.  The height of node must not be greater
+     * than the height of this node.
+     */
+    @Nonnull
+    RrbInsertResult<T> prependNode(@Nonnull RrbNode<T> node);
+
+    /**
+     * @return node containing the values with indexes in the range [0,limit)
+     */
+    @Nonnull
+    RrbNode<T> prefix(int limit);
+
+    /**
+     * @return node containing the values with indexes in the range [offset,valueCount())
+     */
+    @Nonnull
+    RrbNode<T> suffix(int offset);
+
+    @Nonnull
+    RrbNode<T> firstChild();
+
+    /**
+     * Passes every value in this node to proc in list order without creating any cursors.
+     */
+    void forEachValue(@Nonnull Proc1<? super T> proc);
+}
@@ -36,6 +36,7 @@
 package org.javimmutable.collections.tree;
 
 import javax.annotation.concurrent.Immutable;
+import java.io.Serializable;
 import java.util.Comparator;
 
 /**
@@ -46,8 +47,10 @@ import java.util.Comparator;
  */
 @Immutable
 public final class ComparableComparator<V extends Comparable<V>>
-        implements Comparator<V>
+        implements Comparator<V>,
+                   Serializable
 {
+    private static final long serialVersionUID = -121805L;
     private static final ComparableComparator INSTANCE = new ComparableComparator();
 
     /**
@@ -86,4 +89,9 @@ public final class ComparableComparator<V extends Comparable<V>>
     {
         return (o == this) || (o.getClass() == this.getClass());
     }
+
+    private Object readResolve()
+    {
+        return INSTANCE;
+    }
 }
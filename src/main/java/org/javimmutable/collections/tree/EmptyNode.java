@@ -39,6 +39,7 @@ import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.Holders;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.cursors.StandardCursor;
 
 import javax.annotation.Nonnull;
@@ -50,10 +51,14 @@ import java.util.Comparator;
 public class EmptyNode<K, V>
         extends TreeNode<K, V>
 {
-    static final EmptyNode INSTANCE = new EmptyNode();
+    static final EmptyNode INSTANCE = new EmptyNode(false);
+    private static final EmptyNode<Object, Object> KEYS_ONLY = new EmptyNode<Object, Object>(true);
 
-    private EmptyNode()
+    private final boolean keysOnly;
+
+    private EmptyNode(boolean keysOnly)
     {
+        this.keysOnly = keysOnly;
     }
 
     @SuppressWarnings("unchecked")
@@ -62,6 +67,16 @@ public class EmptyNode<K, V>
         return (EmptyNode<K, V>)INSTANCE;
     }
 
+    /**
+     * Returns the empty root of a tree that only stores keys.  Leaves added to it with the
+     * value Boolean.TRUE are KeyLeafNodes.
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> EmptyNode<K, V> keysOnly()
+    {
+        return (EmptyNode<K, V>)KEYS_ONLY;
+    }
+
     @Override
     public V getValueOr(Comparator<K> props,
                         K key,
@@ -96,12 +111,35 @@ public class EmptyNode<K, V>
         return StandardCursor.of();
     }
 
+    @Override
+    public void forEachEntry(@Nonnull Proc1<? super JImmutableMap.Entry<K, V>> proc)
+    {
+    }
+
     @Override
     public boolean isEmpty()
     {
         return true;
     }
 
+    @Override
+    public int size()
+    {
+        return 0;
+    }
+
+    @Override
+    int getChildCount()
+    {
+        return 0;
+    }
+
+    @Override
+    TreeNode<K, V> getChild(int position)
+    {
+        throw new IndexOutOfBoundsException();
+    }
+
     @Override
     int verifyDepthsMatch()
     {
@@ -119,7 +157,11 @@ public class EmptyNode<K, V>
                                   K key,
                                   V value)
     {
-        return UpdateResult.createInPlace(new LeafNode<K, V>(key, value), 1);
+        if (keysOnly) {
+            return UpdateResult.createInPlace(KeyLeafNode.keyLeaf(key, value), 1);
+        } else {
+            return UpdateResult.createInPlace(new LeafNode<K, V>(key, value), 1);
+        }
     }
 
     @Override
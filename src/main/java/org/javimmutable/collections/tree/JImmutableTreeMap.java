@@ -37,22 +37,43 @@ package org.javimmutable.collections.tree;
 
 import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
+import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.MapDiffEntry;
+import org.javimmutable.collections.MapEntry;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.common.AbstractJImmutableMap;
+import org.javimmutable.collections.common.AbstractMapBuilder;
+import org.javimmutable.collections.common.AbstractSerializationProxy;
 import org.javimmutable.collections.common.Conditions;
+import org.javimmutable.collections.common.IndexedArray;
+import org.javimmutable.collections.common.IndexedList;
+import org.javimmutable.collections.common.MapDiffBuilder;
 import org.javimmutable.collections.common.MutableDelta;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
 
 @Immutable
 public class JImmutableTreeMap<K, V>
         extends AbstractJImmutableMap<K, V>
+        implements Serializable
 {
+    private static final long serialVersionUID = -121805L;
+
     @SuppressWarnings("unchecked")
     private static final JImmutableTreeMap EMPTY = new JImmutableTreeMap(new ComparableComparator());
 
@@ -101,11 +122,154 @@ public class JImmutableTreeMap<K, V>
      */
     public static <K extends Comparable<K>, V> JImmutableTreeMap<K, V> of(Map<K, V> map)
     {
-        JImmutableTreeMap<K, V> answer = of();
+        if ((map instanceof SortedMap) && (((SortedMap)map).comparator() == null)) {
+            return fromSorted((SortedMap<K, V>)map);
+        }
+        return fromUnsorted(ComparableComparator.<K>of(), new ArrayList<Map.Entry<K, V>>(map.entrySet()));
+    }
+
+    /**
+     * Sorts entries in place and builds a map from them bottom up.  The sort is stable so
+     * duplicate keys are resolved in favor of the last entry for that key.
+     */
+    private static <K, V> JImmutableTreeMap<K, V> fromUnsorted(final Comparator<K> comparator,
+                                                               List<Map.Entry<K, V>> entries)
+    {
+        Collections.sort(entries, new Comparator<Map.Entry<K, V>>()
+        {
+            @Override
+            public int compare(Map.Entry<K, V> a,
+                               Map.Entry<K, V> b)
+            {
+                return comparator.compare(a.getKey(), b.getKey());
+            }
+        });
+        final List<K> keys = new ArrayList<K>(entries.size());
+        final List<V> values = new ArrayList<V>(entries.size());
+        for (Map.Entry<K, V> entry : entries) {
+            final int last = keys.size() - 1;
+            if ((last >= 0) && (comparator.compare(keys.get(last), entry.getKey()) == 0)) {
+                values.set(last, entry.getValue());
+            } else {
+                keys.add(entry.getKey());
+                values.add(entry.getValue());
+            }
+        }
+        return create(comparator, IndexedList.retained(keys), IndexedList.retained(values));
+    }
+
+    /**
+     * Constructs a new map containing the same key/value pairs as map and using the same
+     * ordering.  Since the keys are already sorted the tree is built bottom up in O(n) time.
+     * Uses a ComparableComparator if map uses the natural ordering of its keys.  Otherwise
+     * the map's Comparator is used and, like any Comparator passed to a JImmutableTreeMap,
+     * it MUST BE IMMUTABLE.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> JImmutableTreeMap<K, V> fromSorted(@Nonnull SortedMap<K, V> map)
+    {
+        final Comparator<K> comparator = (map.comparator() == null) ? new ComparableComparator() : (Comparator<K>)map.comparator();
+        final List<K> keys = new ArrayList<K>(map.size());
+        final List<V> values = new ArrayList<V>(map.size());
         for (Map.Entry<K, V> entry : map.entrySet()) {
-            answer = answer.assign(entry.getKey(), entry.getValue());
+            keys.add(entry.getKey());
+            values.add(entry.getValue());
         }
-        return answer;
+        return create(comparator, IndexedList.retained(keys), IndexedList.retained(values));
+    }
+
+    /**
+     * Builds a map bottom up in O(n) time from keys that are in strictly ascending order
+     * according to comparator.  values must contain the value for each key at the same index.
+     *
+     * @throws IllegalArgumentException if the keys are not in strictly ascending order or
+     *                                  keys and values have different sizes
+     */
+    public static <K, V> JImmutableTreeMap<K, V> fromSorted(@Nonnull Comparator<K> comparator,
+                                                            @Nonnull Indexed<? extends K> keys,
+                                                            @Nonnull Indexed<? extends V> values)
+    {
+        if (values.size() != keys.size()) {
+            throw new IllegalArgumentException("keys and values have different sizes");
+        }
+        checkAscending(comparator, keys);
+        return create(comparator, keys, values);
+    }
+
+    /**
+     * Creates an empty map whose tree only stores keys for entries with the value Boolean.TRUE.
+     * Used by JImmutableTreeSet to avoid storing a value in every leaf.
+     */
+    static <K> JImmutableTreeMap<K, Boolean> usingKeysOnly(@Nonnull Comparator<K> comparator)
+    {
+        return new JImmutableTreeMap<K, Boolean>(comparator, EmptyNode.<K, Boolean>keysOnly(), 0);
+    }
+
+    /**
+     * Builds a map whose tree only stores keys bottom up in O(n) time from keys that are
+     * in strictly ascending order according to comparator.  Every key has the value
+     * Boolean.TRUE.
+     *
+     * @throws IllegalArgumentException if the keys are not in strictly ascending order
+     */
+    static <K> JImmutableTreeMap<K, Boolean> keysOnlyFromSorted(@Nonnull Comparator<K> comparator,
+                                                               @Nonnull Indexed<? extends K> keys)
+    {
+        checkAscending(comparator, keys);
+        return new JImmutableTreeMap<K, Boolean>(comparator, TreeNode.<K>fromSortedKeys(keys), keys.size());
+    }
+
+    private static <K> void checkAscending(Comparator<K> comparator,
+                                           Indexed<? extends K> keys)
+    {
+        for (int i = 1; i < keys.size(); ++i) {
+            if (comparator.compare(keys.get(i - 1), keys.get(i)) >= 0) {
+                throw new IllegalArgumentException("keys are not in ascending order");
+            }
+        }
+    }
+
+    /**
+     * Creates a Builder for maps whose keys are compared using a ComparableComparator.
+     * Entries can be added in any order.
+     */
+    public static <K extends Comparable<K>, V> Builder<K, V> builder()
+    {
+        return new Builder<K, V>(ComparableComparator.<K>of());
+    }
+
+    /**
+     * Creates a Builder for maps whose keys are compared using comparator.  Entries can be
+     * added in any order.
+     */
+    public static <K, V> Builder<K, V> builder(@Nonnull Comparator<K> comparator)
+    {
+        return new Builder<K, V>(comparator);
+    }
+
+    /**
+     * Creates a Builder for maps whose keys are compared using a ComparableComparator.
+     * Entries must be added to the builder in strictly ascending order of their keys.
+     */
+    public static <K extends Comparable<K>, V> SortedBuilder<K, V> sortedBuilder()
+    {
+        return new SortedBuilder<K, V>(ComparableComparator.<K>of());
+    }
+
+    /**
+     * Creates a Builder for maps whose keys are compared using comparator.  Entries must
+     * be added to the builder in strictly ascending order of their keys.
+     */
+    public static <K, V> SortedBuilder<K, V> sortedBuilder(@Nonnull Comparator<K> comparator)
+    {
+        return new SortedBuilder<K, V>(comparator);
+    }
+
+    private static <K, V> JImmutableTreeMap<K, V> create(Comparator<K> comparator,
+                                                         Indexed<? extends K> keys,
+                                                         Indexed<? extends V> values)
+    {
+        return new JImmutableTreeMap<K, V>(comparator, TreeNode.<K, V>fromSorted(keys, values), keys.size());
     }
 
     private JImmutableTreeMap(Comparator<K> comparator,
@@ -149,12 +313,13 @@ public class JImmutableTreeMap<K, V>
                                           V value)
     {
         Conditions.stopNull(key);
+        final int newHashCode = hashCodeAfterAssign(key, value);
         MutableDelta sizeDelta = new MutableDelta();
         TreeNode<K, V> newRoot = root.assign(comparator, key, value, sizeDelta);
         if (newRoot == root) {
             return this;
         } else {
-            return create(newRoot, sizeDelta.getValue());
+            return withHashCode(create(newRoot, sizeDelta.getValue()), newHashCode);
         }
     }
 
@@ -163,12 +328,13 @@ public class JImmutableTreeMap<K, V>
     public JImmutableTreeMap<K, V> delete(@Nonnull K key)
     {
         Conditions.stopNull(key);
+        final int newHashCode = hashCodeAfterDelete(key);
         MutableDelta sizeDelta = new MutableDelta();
         TreeNode<K, V> newRoot = root.delete(comparator, key, sizeDelta);
         if (newRoot == root) {
             return this;
         } else {
-            return create(newRoot, sizeDelta.getValue());
+            return withHashCode(create(newRoot, sizeDelta.getValue()), newHashCode);
         }
     }
 
@@ -192,6 +358,216 @@ public class JImmutableTreeMap<K, V>
         return root.cursor();
     }
 
+    @Override
+    public void forEachEntry(@Nonnull Proc1<? super Entry<K, V>> proc)
+    {
+        root.forEachEntry(proc);
+    }
+
+    /**
+     * When newer is also a tree map using an equal Comparator the two trees are walked
+     * in parallel and any subtrees shared by the two maps are skipped.  Entries are visited
+     * in key order.
+     */
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    public Cursor<MapDiffEntry<K, V>> diff(@Nonnull JImmutableMap<K, V> newer)
+    {
+        if ((newer instanceof JImmutableTreeMap) && comparator.equals(((JImmutableTreeMap)newer).comparator)) {
+            final MapDiffBuilder<K, V> diffs = new MapDiffBuilder<K, V>();
+            TreeNode.diff(comparator, root, ((JImmutableTreeMap<K, V>)newer).root, diffs);
+            return diffs.cursor();
+        } else {
+            return super.diff(newer);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected boolean hasSameEntries(@Nonnull JImmutableMap<?, ?> other)
+    {
+        if ((other instanceof JImmutableTreeMap) && comparator.equals(((JImmutableTreeMap)other).comparator)) {
+            final MapDiffBuilder<K, V> diffs = MapDiffBuilder.firstOnly();
+            TreeNode.diff(comparator, root, ((JImmutableTreeMap<K, V>)other).root, diffs);
+            return diffs.isEmpty();
+        } else {
+            return super.hasSameEntries(other);
+        }
+    }
+
+    /**
+     * When map is also a tree map using an equal Comparator the two trees are merged using
+     * split and join operations rather than assigning each entry individually.  Subtrees
+     * covering key ranges that only one of the maps contains are reused intact.
+     */
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    public JImmutableMap<K, V> assignAll(@Nonnull JImmutableMap<? extends K, ? extends V> map)
+    {
+        if ((map instanceof JImmutableTreeMap) && comparator.equals(((JImmutableTreeMap)map).comparator)) {
+            return createRange(TreeNode.union(comparator, root, ((JImmutableTreeMap<K, V>)map).root));
+        } else {
+            return super.assignAll(map);
+        }
+    }
+
+    /**
+     * Returns a map containing the entries of this map whose keys are also keys of other.
+     * When other uses an equal Comparator the trees are combined using split and join
+     * operations so untouched subtrees are shared with this map.
+     */
+    @Nonnull
+    public JImmutableTreeMap<K, V> intersection(@Nonnull JImmutableTreeMap<K, ?> other)
+    {
+        if (comparator.equals(other.comparator)) {
+            return createRange(TreeNode.intersection(comparator, root, other.root));
+        }
+        JImmutableTreeMap<K, V> answer = this;
+        for (Cursor<Entry<K, V>> cursor = cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+            if (other.find(cursor.getValue().getKey()).isEmpty()) {
+                answer = answer.delete(cursor.getValue().getKey());
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Returns a map containing the entries of this map whose keys are not keys of other.
+     * When other uses an equal Comparator the trees are combined using split and join
+     * operations so untouched subtrees are shared with this map.
+     */
+    @Nonnull
+    public JImmutableTreeMap<K, V> difference(@Nonnull JImmutableTreeMap<K, ?> other)
+    {
+        if (comparator.equals(other.comparator)) {
+            return createRange(TreeNode.difference(comparator, root, other.root));
+        }
+        JImmutableTreeMap<K, V> answer = this;
+        for (Cursor<? extends Entry<K, ?>> cursor = other.cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+            answer = answer.delete(cursor.getValue().getKey());
+        }
+        return answer;
+    }
+
+    /**
+     * Finds the entry with the greatest key less than or equal to key.
+     */
+    @Nonnull
+    public Holder<Entry<K, V>> findFloorEntry(@Nonnull K key)
+    {
+        Conditions.stopNull(key);
+        return root.findFloorEntry(comparator, key);
+    }
+
+    /**
+     * Finds the entry with the smallest key greater than or equal to key.
+     */
+    @Nonnull
+    public Holder<Entry<K, V>> findCeilingEntry(@Nonnull K key)
+    {
+        Conditions.stopNull(key);
+        return root.findCeilingEntry(comparator, key);
+    }
+
+    /**
+     * Returns a cursor over the entries whose keys are greater than or equal to fromKey
+     * in key order.  The cursor seeks directly to its first entry in O(log n) time.
+     */
+    @Nonnull
+    public Cursor<Entry<K, V>> cursor(@Nonnull K fromKey)
+    {
+        Conditions.stopNull(fromKey);
+        return root.cursor(comparator, fromKey, null);
+    }
+
+    /**
+     * Returns a cursor over the entries whose keys are greater than or equal to fromKey
+     * and less than toKey in key order.  The cursor seeks directly to its first entry in
+     * O(log n) time and never visits entries beyond the range.
+     *
+     * @throws IllegalArgumentException if fromKey is greater than toKey
+     */
+    @Nonnull
+    public Cursor<Entry<K, V>> cursor(@Nonnull K fromKey,
+                                      @Nonnull K toKey)
+    {
+        checkRange(fromKey, toKey);
+        return root.cursor(comparator, fromKey, toKey);
+    }
+
+    /**
+     * Returns a map containing the entries whose keys are greater than or equal to fromKey
+     * and less than toKey.  The new map shares all of its structure except the edges of the
+     * range with this map.
+     *
+     * @throws IllegalArgumentException if fromKey is greater than toKey
+     */
+    @Nonnull
+    public JImmutableTreeMap<K, V> subMap(@Nonnull K fromKey,
+                                          @Nonnull K toKey)
+    {
+        checkRange(fromKey, toKey);
+        return createRange(root.headNode(comparator, toKey).tailNode(comparator, fromKey));
+    }
+
+    /**
+     * Returns a map containing the entries whose keys are less than toKey.  The new map
+     * shares all of its structure except the edge of the range with this map.
+     */
+    @Nonnull
+    public JImmutableTreeMap<K, V> headMap(@Nonnull K toKey)
+    {
+        Conditions.stopNull(toKey);
+        return createRange(root.headNode(comparator, toKey));
+    }
+
+    /**
+     * Returns a map containing the entries whose keys are greater than or equal to fromKey.
+     * The new map shares all of its structure except the edge of the range with this map.
+     */
+    @Nonnull
+    public JImmutableTreeMap<K, V> tailMap(@Nonnull K fromKey)
+    {
+        Conditions.stopNull(fromKey);
+        return createRange(root.tailNode(comparator, fromKey));
+    }
+
+    /**
+     * Returns the number of keys in the map that are less than key.  Runs in O(log n) time.
+     */
+    public int rank(@Nonnull K key)
+    {
+        Conditions.stopNull(key);
+        return root.rank(comparator, key);
+    }
+
+    /**
+     * Returns the entry at the specified position in key order.  Runs in O(log n) time.
+     *
+     * @throws IndexOutOfBoundsException if index is negative or not less than size()
+     */
+    @Nonnull
+    public Entry<K, V> select(int index)
+    {
+        return root.select(index);
+    }
+
+    /**
+     * Returns a cursor over the entries whose positions in key order are greater than or
+     * equal to fromIndex and less than toIndex.  The cursor seeks directly to its first
+     * entry in O(log n) time.
+     *
+     * @throws IndexOutOfBoundsException if the indexes are out of range or fromIndex is greater than toIndex
+     */
+    @Nonnull
+    public Cursor<Entry<K, V>> indexCursor(int fromIndex,
+                                           int toIndex)
+    {
+        return root.indexCursor(comparator, fromIndex, toIndex);
+    }
+
     public List<K> getKeysList()
     {
         List<K> keys = new LinkedList<K>();
@@ -210,7 +586,9 @@ public class JImmutableTreeMap<K, V>
     public void checkInvariants()
     {
         verifyDepthsMatch();
-        //TODO: add more than verifyDepthsMatch?
+        if (root.size() != size) {
+            throw new IllegalStateException(String.format("size mismatch %d  %d", root.size(), size));
+        }
     }
 
     public Comparator<K> getComparator()
@@ -223,4 +601,166 @@ public class JImmutableTreeMap<K, V>
     {
         return new JImmutableTreeMap<K, V>(comparator, root, size + sizeDelta);
     }
+
+    private JImmutableTreeMap<K, V> createRange(TreeNode<K, V> newRoot)
+    {
+        return (newRoot == root) ? this : new JImmutableTreeMap<K, V>(comparator, newRoot, newRoot.size());
+    }
+
+    private void checkRange(K fromKey,
+                            K toKey)
+    {
+        Conditions.stopNull(fromKey, toKey);
+        if (comparator.compare(fromKey, toKey) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+    }
+
+    /**
+     * MutableBuilder that collects entries in any order and builds the map bottom up after
+     * sorting them when build() is called.  Duplicate keys are resolved in favor of the last
+     * value added for that key.  Supports multiple calls to build().
+     */
+    public static class Builder<K, V>
+            extends AbstractMapBuilder<K, V>
+    {
+        private final Comparator<K> comparator;
+        private final List<Map.Entry<K, V>> entries = new ArrayList<Map.Entry<K, V>>();
+
+        private Builder(Comparator<K> comparator)
+        {
+            this.comparator = comparator;
+        }
+
+        @Nonnull
+        @Override
+        public Builder<K, V> add(@Nonnull K key,
+                                 V value)
+        {
+            Conditions.stopNull(key);
+            entries.add(new MapEntry<K, V>(key, value));
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public JImmutableTreeMap<K, V> build()
+        {
+            return fromUnsorted(comparator, entries);
+        }
+    }
+
+    /**
+     * MutableBuilder that builds a map bottom up in O(n) time from entries added in strictly
+     * ascending order of their keys.  An IllegalArgumentException is thrown as soon as an
+     * entry is added whose key is not greater than that of the previous entry.  Supports
+     * multiple calls to build().
+     */
+    public static class SortedBuilder<K, V>
+            extends AbstractMapBuilder<K, V>
+    {
+        private final Comparator<K> comparator;
+        private final List<K> keys = new ArrayList<K>();
+        private final List<V> values = new ArrayList<V>();
+
+        private SortedBuilder(Comparator<K> comparator)
+        {
+            this.comparator = comparator;
+        }
+
+        @Nonnull
+        @Override
+        public SortedBuilder<K, V> add(@Nonnull K key,
+                                       V value)
+        {
+            Conditions.stopNull(key);
+            final int last = keys.size() - 1;
+            if ((last >= 0) && (comparator.compare(keys.get(last), key) >= 0)) {
+                throw new IllegalArgumentException("keys are not in ascending order");
+            }
+            keys.add(key);
+            values.add(value);
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public JImmutableTreeMap<K, V> build()
+        {
+            return create(comparator, IndexedList.retained(keys), IndexedList.retained(values));
+        }
+    }
+
+    private Object writeReplace()
+    {
+        return new SerializationProxy<K, V>(this);
+    }
+
+    private void readObject(ObjectInputStream in)
+        throws InvalidObjectException
+    {
+        throw new InvalidObjectException("serialization proxy required");
+    }
+
+    /**
+     * Writes the comparator and size followed by each key and value in sorted order.  The
+     * comparator must be Serializable.  The tree is rebuilt bottom up when read.
+     */
+    private static class SerializationProxy<K, V>
+            extends AbstractSerializationProxy<JImmutableTreeMap<K, V>>
+    {
+        private static final long serialVersionUID = -121805L;
+
+        public SerializationProxy()
+        {
+            super(null);
+        }
+
+        private SerializationProxy(JImmutableTreeMap<K, V> map)
+        {
+            super(map);
+        }
+
+        @Override
+        protected void writeCollection(ObjectOutput out,
+                                       JImmutableTreeMap<K, V> map)
+            throws IOException
+        {
+            out.writeObject(map.comparator);
+            out.writeInt(map.size);
+            for (Cursor<Entry<K, V>> cursor = map.cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+                out.writeObject(cursor.getValue().getKey());
+                out.writeObject(cursor.getValue().getValue());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected JImmutableTreeMap<K, V> readCollection(ObjectInput in)
+            throws IOException, ClassNotFoundException
+        {
+            final Comparator<K> comparator = (Comparator<K>)in.readObject();
+            final int size = readSize(in);
+            if (size == 0) {
+                return (comparator instanceof ComparableComparator) ? (JImmutableTreeMap<K, V>)EMPTY : JImmutableTreeMap.<K, V>of(comparator);
+            }
+            final Object[] keys = new Object[size];
+            final Object[] values = new Object[size];
+            for (int i = 0; i < size; ++i) {
+                keys[i] = in.readObject();
+                values[i] = in.readObject();
+            }
+            try {
+                return fromSorted(comparator, IndexedArray.retained(SerializationProxy.<K>cast(keys)), IndexedArray.retained(SerializationProxy.<V>cast(values)));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidObjectException(ex.getMessage());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T[] cast(Object[] values)
+        {
+            return (T[])values;
+        }
+    }
 }
@@ -35,11 +35,23 @@
 
 package org.javimmutable.collections.tree;
 
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Indexed;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.JImmutableMultiset;
 import org.javimmutable.collections.common.AbstractJImmutableMultiset;
+import org.javimmutable.collections.common.AbstractMultisetBuilder;
+import org.javimmutable.collections.common.AbstractSerializationProxy;
+import org.javimmutable.collections.common.IndexedArray;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.Serializable;
 import java.util.Comparator;
 import java.util.Map;
 import java.util.TreeMap;
@@ -47,7 +59,10 @@ import java.util.TreeMap;
 @Immutable
 public class JImmutableTreeMultiset<T>
         extends AbstractJImmutableMultiset<T>
+        implements Serializable
 {
+    private static final long serialVersionUID = -121805L;
+
     @SuppressWarnings("unchecked")
     private static final JImmutableTreeMultiset EMPTY = new JImmutableTreeMultiset(new ComparableComparator());
 
@@ -89,6 +104,16 @@ public class JImmutableTreeMultiset<T>
         return new JImmutableTreeMultiset<T>(comparator);
     }
 
+    public static <T extends Comparable<T>> Builder<T> builder()
+    {
+        return new Builder<T>(ComparableComparator.<T>of());
+    }
+
+    public static <T> Builder<T> builder(@Nonnull Comparator<T> comparator)
+    {
+        return new Builder<T>(comparator);
+    }
+
     @Override
     protected JImmutableTreeMultiset<T> create(JImmutableMap<T, Integer> map,
                                                int occurrences)
@@ -101,4 +126,110 @@ public class JImmutableTreeMultiset<T>
     {
         return new TreeMap<T, Integer>(comparator);
     }
+
+    private Object writeReplace()
+    {
+        return new SerializationProxy<T>(this);
+    }
+
+    private void readObject(ObjectInputStream in)
+        throws InvalidObjectException
+    {
+        throw new InvalidObjectException("serialization proxy required");
+    }
+
+    /**
+     * MutableBuilder that counts occurrences in a TreeMap and builds the underlying map
+     * bottom up from its already sorted keys when build() is called.
+     */
+    public static class Builder<T>
+            extends AbstractMultisetBuilder<T>
+    {
+        private final Comparator<T> comparator;
+
+        private Builder(Comparator<T> comparator)
+        {
+            super(new TreeMap<T, Integer>(comparator));
+            this.comparator = comparator;
+        }
+
+        @Nonnull
+        @Override
+        protected JImmutableMultiset<T> create(@Nonnull Indexed<T> values,
+                                               @Nonnull Indexed<Integer> counts,
+                                               int occurrences)
+        {
+            return new JImmutableTreeMultiset<T>(JImmutableTreeMap.fromSorted(comparator, values, counts), occurrences, comparator);
+        }
+    }
+
+    /**
+     * Writes the comparator and number of distinct values followed by each value and its count
+     * in sorted order.  The comparator must be Serializable.  The underlying tree is rebuilt
+     * bottom up when read.
+     */
+    private static class SerializationProxy<T>
+            extends AbstractSerializationProxy<JImmutableTreeMultiset<T>>
+    {
+        private static final long serialVersionUID = -121805L;
+
+        public SerializationProxy()
+        {
+            super(null);
+        }
+
+        private SerializationProxy(JImmutableTreeMultiset<T> multiset)
+        {
+            super(multiset);
+        }
+
+        @Override
+        protected void writeCollection(ObjectOutput out,
+                                       JImmutableTreeMultiset<T> multiset)
+            throws IOException
+        {
+            out.writeObject(multiset.comparator);
+            out.writeInt(multiset.size());
+            for (Cursor<JImmutableMap.Entry<T, Integer>> cursor = multiset.entryCursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+                out.writeObject(cursor.getValue().getKey());
+                out.writeInt(cursor.getValue().getValue());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected JImmutableTreeMultiset<T> readCollection(ObjectInput in)
+            throws IOException, ClassNotFoundException
+        {
+            final Comparator<T> comparator = (Comparator<T>)in.readObject();
+            final int size = readSize(in);
+            if (size == 0) {
+                return (comparator instanceof ComparableComparator) ? (JImmutableTreeMultiset<T>)EMPTY : of(comparator);
+            }
+            final Object[] values = new Object[size];
+            final Integer[] counts = new Integer[size];
+            int occurrences = 0;
+            for (int i = 0; i < size; ++i) {
+                values[i] = in.readObject();
+                final int count = in.readInt();
+                if (count <= 0) {
+                    throw new InvalidObjectException("invalid count: " + count);
+                }
+                counts[i] = count;
+                occurrences += count;
+            }
+            try {
+                final JImmutableMap<T, Integer> map = JImmutableTreeMap.fromSorted(comparator, IndexedArray.retained(SerializationProxy.<T>cast(values)), IndexedArray.retained(counts));
+                return new JImmutableTreeMultiset<T>(map, occurrences, comparator);
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidObjectException(ex.getMessage());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T[] cast(Object[] values)
+        {
+            return (T[])values;
+        }
+    }
 }
\ No newline at end of file
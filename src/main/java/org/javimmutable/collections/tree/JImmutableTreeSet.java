@@ -35,20 +35,43 @@
 
 package org.javimmutable.collections.tree;
 
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Cursorable;
+import org.javimmutable.collections.Holder;
+import org.javimmutable.collections.Holders;
 import org.javimmutable.collections.JImmutableMap;
 import org.javimmutable.collections.JImmutableSet;
 import org.javimmutable.collections.common.AbstractJImmutableSet;
+import org.javimmutable.collections.common.AbstractSerializationProxy;
+import org.javimmutable.collections.common.AbstractSetBuilder;
+import org.javimmutable.collections.common.Conditions;
+import org.javimmutable.collections.common.IndexedArray;
+import org.javimmutable.collections.common.IndexedList;
+import org.javimmutable.collections.cursors.TransformCursor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
 @Immutable
 public class JImmutableTreeSet<T>
         extends AbstractJImmutableSet<T>
+        implements Serializable
 {
+    private static final long serialVersionUID = -121805L;
+
     @SuppressWarnings("unchecked")
     private static final JImmutableTreeSet EMPTY = new JImmutableTreeSet(new ComparableComparator());
 
@@ -56,7 +79,7 @@ public class JImmutableTreeSet<T>
 
     private JImmutableTreeSet(Comparator<T> comparator)
     {
-        this(JImmutableTreeMap.<T, Boolean>of(comparator), comparator);
+        this(JImmutableTreeMap.usingKeysOnly(comparator), comparator);
     }
 
     private JImmutableTreeSet(JImmutableMap<T, Boolean> map,
@@ -78,6 +101,160 @@ public class JImmutableTreeSet<T>
         return comparator;
     }
 
+    /**
+     * When other is also a tree set using an equal Comparator the two trees are merged
+     * using split and join operations so untouched subtrees are shared with the result.
+     */
+    @Nonnull
+    @Override
+    public JImmutableSet<T> union(@Nonnull Cursorable<? extends T> other)
+    {
+        final JImmutableTreeMap<T, Boolean> otherMap = compatibleTreeMap(other);
+        return (otherMap == null) ? super.union(other) : createMerged(treeMap().assignAll(otherMap));
+    }
+
+    /**
+     * When other is also a tree set using an equal Comparator the two trees are merged
+     * using split and join operations so untouched subtrees are shared with the result.
+     */
+    @Nonnull
+    @Override
+    public JImmutableSet<T> intersection(@Nonnull Cursorable<? extends T> other)
+    {
+        final JImmutableTreeMap<T, Boolean> otherMap = compatibleTreeMap(other);
+        return (otherMap == null) ? super.intersection(other) : createMerged(treeMap().intersection(otherMap));
+    }
+
+    /**
+     * When other is also a tree set using an equal Comparator the two trees are merged
+     * using split and join operations so untouched subtrees are shared with the result.
+     */
+    @Nonnull
+    @Override
+    public JImmutableSet<T> intersection(@Nonnull JImmutableSet<? extends T> other)
+    {
+        final JImmutableTreeMap<T, Boolean> otherMap = compatibleTreeMap(other);
+        return (otherMap == null) ? super.intersection(other) : createMerged(treeMap().intersection(otherMap));
+    }
+
+    /**
+     * When other is also a tree set using an equal Comparator the two trees are merged
+     * using split and join operations so untouched subtrees are shared with the result.
+     */
+    @Nonnull
+    @Override
+    public JImmutableSet<T> deleteAll(@Nonnull Cursorable<? extends T> other)
+    {
+        final JImmutableTreeMap<T, Boolean> otherMap = compatibleTreeMap(other);
+        return (otherMap == null) ? super.deleteAll(other) : createMerged(treeMap().difference(otherMap));
+    }
+
+    /**
+     * Finds the greatest value less than or equal to value.
+     */
+    @Nonnull
+    public Holder<T> findFloor(@Nonnull T value)
+    {
+        return keyHolder(treeMap().findFloorEntry(value));
+    }
+
+    /**
+     * Finds the smallest value greater than or equal to value.
+     */
+    @Nonnull
+    public Holder<T> findCeiling(@Nonnull T value)
+    {
+        return keyHolder(treeMap().findCeilingEntry(value));
+    }
+
+    /**
+     * Returns a cursor over the values greater than or equal to fromValue in sorted order.
+     * The cursor seeks directly to its first value in O(log n) time.
+     */
+    @Nonnull
+    public Cursor<T> cursor(@Nonnull T fromValue)
+    {
+        return TransformCursor.ofKeys(treeMap().cursor(fromValue));
+    }
+
+    /**
+     * Returns a cursor over the values greater than or equal to fromValue and less than
+     * toValue in sorted order.
+     *
+     * @throws IllegalArgumentException if fromValue is greater than toValue
+     */
+    @Nonnull
+    public Cursor<T> cursor(@Nonnull T fromValue,
+                            @Nonnull T toValue)
+    {
+        return TransformCursor.ofKeys(treeMap().cursor(fromValue, toValue));
+    }
+
+    /**
+     * Returns the number of values in the set that are less than value.  Runs in O(log n) time.
+     */
+    public int rank(@Nonnull T value)
+    {
+        return treeMap().rank(value);
+    }
+
+    /**
+     * Returns the value at the specified position in sorted order.  Runs in O(log n) time.
+     *
+     * @throws IndexOutOfBoundsException if index is negative or not less than size()
+     */
+    @Nonnull
+    public T select(int index)
+    {
+        return treeMap().select(index).getKey();
+    }
+
+    /**
+     * Returns a cursor over the values whose positions in sorted order are greater than or
+     * equal to fromIndex and less than toIndex.
+     *
+     * @throws IndexOutOfBoundsException if the indexes are out of range or fromIndex is greater than toIndex
+     */
+    @Nonnull
+    public Cursor<T> indexCursor(int fromIndex,
+                                 int toIndex)
+    {
+        return TransformCursor.ofKeys(treeMap().indexCursor(fromIndex, toIndex));
+    }
+
+    /**
+     * Returns a set containing the values greater than or equal to fromValue and less
+     * than toValue.  The new set shares most of its structure with this set.
+     *
+     * @throws IllegalArgumentException if fromValue is greater than toValue
+     */
+    @Nonnull
+    public JImmutableTreeSet<T> subSet(@Nonnull T fromValue,
+                                       @Nonnull T toValue)
+    {
+        return createRange(treeMap().subMap(fromValue, toValue));
+    }
+
+    /**
+     * Returns a set containing the values less than toValue.  The new set shares most
+     * of its structure with this set.
+     */
+    @Nonnull
+    public JImmutableTreeSet<T> headSet(@Nonnull T toValue)
+    {
+        return createRange(treeMap().headMap(toValue));
+    }
+
+    /**
+     * Returns a set containing the values greater than or equal to fromValue.  The new
+     * set shares most of its structure with this set.
+     */
+    @Nonnull
+    public JImmutableTreeSet<T> tailSet(@Nonnull T fromValue)
+    {
+        return createRange(treeMap().tailMap(fromValue));
+    }
+
     @SuppressWarnings("unchecked")
     public static <T extends Comparable<T>> JImmutableTreeSet<T> of()
     {
@@ -89,10 +266,20 @@ public class JImmutableTreeSet<T>
         return new JImmutableTreeSet<T>(comparator);
     }
 
+    public static <T extends Comparable<T>> Builder<T> builder()
+    {
+        return new Builder<T>(ComparableComparator.<T>of());
+    }
+
+    public static <T> Builder<T> builder(@Nonnull Comparator<T> comparator)
+    {
+        return new Builder<T>(comparator);
+    }
+
     @Override
     protected JImmutableSet<T> create(JImmutableMap<T, Boolean> map)
     {
-        return new JImmutableTreeSet<T>(map, comparator);
+        return map.isEmpty() ? deleteAll() : new JImmutableTreeSet<T>(map, comparator);
     }
 
     @Override
@@ -100,4 +287,159 @@ public class JImmutableTreeSet<T>
     {
         return new TreeSet<T>(comparator);
     }
+
+    private JImmutableTreeMap<T, Boolean> treeMap()
+    {
+        return (JImmutableTreeMap<T, Boolean>)getMap();
+    }
+
+    // an empty map may no longer have a key only root so empty results start over from deleteAll()
+    private JImmutableTreeSet<T> createRange(JImmutableTreeMap<T, Boolean> map)
+    {
+        if (map == getMap()) {
+            return this;
+        } else if (map.isEmpty()) {
+            return deleteAll();
+        } else {
+            return new JImmutableTreeSet<T>(map, comparator);
+        }
+    }
+
+    // result of union, intersection or difference is only equal to this set if the sizes match
+    private JImmutableSet<T> createMerged(JImmutableMap<T, Boolean> map)
+    {
+        return (map.size() == size()) ? this : create(map);
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private JImmutableTreeMap<T, Boolean> compatibleTreeMap(Object other)
+    {
+        if ((other instanceof JImmutableTreeSet) && comparator.equals(((JImmutableTreeSet)other).comparator)) {
+            return ((JImmutableTreeSet<T>)other).treeMap();
+        } else {
+            return null;
+        }
+    }
+
+    private static <T> Holder<T> keyHolder(Holder<JImmutableMap.Entry<T, Boolean>> entry)
+    {
+        return entry.isEmpty() ? Holders.<T>of() : Holders.of(entry.getValue().getKey());
+    }
+
+    private Object writeReplace()
+    {
+        return new SerializationProxy<T>(this);
+    }
+
+    private void readObject(ObjectInputStream in)
+        throws InvalidObjectException
+    {
+        throw new InvalidObjectException("serialization proxy required");
+    }
+
+    /**
+     * MutableBuilder that collects values in any order and builds the set bottom up after
+     * sorting them when build() is called.
+     */
+    public static class Builder<T>
+            extends AbstractSetBuilder<T>
+    {
+        private final Comparator<T> comparator;
+        private final List<T> values = new ArrayList<T>();
+
+        private Builder(Comparator<T> comparator)
+        {
+            this.comparator = comparator;
+        }
+
+        @Nonnull
+        @Override
+        public Builder<T> add(T value)
+        {
+            Conditions.stopNull(value);
+            values.add(value);
+            return this;
+        }
+
+        /**
+         * Sorts a copy of the values and builds the set bottom up.  The sort is stable so
+         * duplicate values are resolved in favor of the first one added.
+         */
+        @Nonnull
+        @Override
+        public JImmutableTreeSet<T> build()
+        {
+            final List<T> sorted = new ArrayList<T>(values);
+            Collections.sort(sorted, comparator);
+            final List<T> keys = new ArrayList<T>(sorted.size());
+            for (T value : sorted) {
+                final int last = keys.size() - 1;
+                if ((last < 0) || (comparator.compare(keys.get(last), value) != 0)) {
+                    keys.add(value);
+                }
+            }
+            return new JImmutableTreeSet<T>(JImmutableTreeMap.keysOnlyFromSorted(comparator, IndexedList.retained(keys)), comparator);
+        }
+    }
+
+    /**
+     * Writes the comparator and size followed by each value in sorted order.  The comparator
+     * must be Serializable.  The underlying tree is rebuilt bottom up when read.
+     */
+    private static class SerializationProxy<T>
+            extends AbstractSerializationProxy<JImmutableTreeSet<T>>
+    {
+        private static final long serialVersionUID = -121805L;
+
+        public SerializationProxy()
+        {
+            super(null);
+        }
+
+        private SerializationProxy(JImmutableTreeSet<T> set)
+        {
+            super(set);
+        }
+
+        @Override
+        protected void writeCollection(ObjectOutput out,
+                                       JImmutableTreeSet<T> set)
+            throws IOException
+        {
+            out.writeObject(set.comparator);
+            out.writeInt(set.size());
+            for (Cursor<T> cursor = set.cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+                out.writeObject(cursor.getValue());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected JImmutableTreeSet<T> readCollection(ObjectInput in)
+            throws IOException, ClassNotFoundException
+        {
+            final Comparator<T> comparator = (Comparator<T>)in.readObject();
+            final int size = readSize(in);
+            if (size == 0) {
+                return (comparator instanceof ComparableComparator) ? (JImmutableTreeSet<T>)EMPTY : of(comparator);
+            }
+            final Object[] values = new Object[size];
+            for (int i = 0; i < size; ++i) {
+                values[i] = in.readObject();
+            }
+            try {
+                final JImmutableMap<T, Boolean> map = JImmutableTreeMap.keysOnlyFromSorted(comparator, IndexedArray.retained(SerializationProxy.<T>cast(values)));
+                return new JImmutableTreeSet<T>(map, comparator);
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidObjectException(ex.getMessage());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T[] cast(Object[] values)
+        {
+            return (T[])values;
+        }
+    }
 }
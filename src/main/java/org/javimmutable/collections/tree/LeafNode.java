@@ -39,6 +39,7 @@ import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.Holders;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.cursors.SingleValueCursor;
 
 import javax.annotation.Nonnull;
@@ -146,6 +147,24 @@ public class LeafNode<K, V>
         collection.add(this);
     }
 
+    @Override
+    public int size()
+    {
+        return 1;
+    }
+
+    @Override
+    int getChildCount()
+    {
+        return 0;
+    }
+
+    @Override
+    TreeNode<K, V> getChild(int position)
+    {
+        throw new IndexOutOfBoundsException();
+    }
+
     @Override
     public int verifyDepthsMatch()
     {
@@ -194,6 +213,12 @@ public class LeafNode<K, V>
         return SingleValueCursor.<JImmutableMap.Entry<K, V>>of(this);
     }
 
+    @Override
+    public void forEachEntry(@Nonnull Proc1<? super JImmutableMap.Entry<K, V>> proc)
+    {
+        proc.apply(this);
+    }
+
     @SuppressWarnings("RedundantIfStatement")
     @Override
     public boolean equals(Object o)
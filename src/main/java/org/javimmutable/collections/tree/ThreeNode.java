@@ -38,6 +38,7 @@ package org.javimmutable.collections.tree;
 import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.cursors.LazyMultiCursor;
 
 import javax.annotation.Nonnull;
@@ -55,6 +56,7 @@ public class ThreeNode<K, V>
     private final K leftMaxKey;
     private final K middleMaxKey;
     private final K rightMaxKey;
+    private final int size;
 
     public ThreeNode(TreeNode<K, V> left,
                      TreeNode<K, V> middle,
@@ -69,6 +71,7 @@ public class ThreeNode<K, V>
         this.leftMaxKey = leftMaxKey;
         this.middleMaxKey = middleMaxKey;
         this.rightMaxKey = rightMaxKey;
+        this.size = left.size() + middle.size() + right.size();
     }
 
     @Override
@@ -213,6 +216,33 @@ public class ThreeNode<K, V>
         right.addEntriesTo(collection);
     }
 
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    int getChildCount()
+    {
+        return 3;
+    }
+
+    @Override
+    TreeNode<K, V> getChild(int position)
+    {
+        switch (position) {
+        case 0:
+            return left;
+        case 1:
+            return middle;
+        case 2:
+            return right;
+        default:
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
     @Override
     public int verifyDepthsMatch()
     {
@@ -392,6 +422,14 @@ public class ThreeNode<K, V>
             .cursor();
     }
 
+    @Override
+    public void forEachEntry(@Nonnull Proc1<? super JImmutableMap.Entry<K, V>> proc)
+    {
+        left.forEachEntry(proc);
+        middle.forEachEntry(proc);
+        right.forEachEntry(proc);
+    }
+
     @SuppressWarnings("RedundantIfStatement")
     @Override
     public boolean equals(Object o)
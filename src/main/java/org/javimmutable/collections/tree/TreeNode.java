@@ -38,13 +38,25 @@ package org.javimmutable.collections.tree;
 import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Cursorable;
 import org.javimmutable.collections.Holder;
+import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.Indexed;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.common.Conditions;
+import org.javimmutable.collections.common.MapDiffBuilder;
 import org.javimmutable.collections.common.MutableDelta;
+import org.javimmutable.collections.cursors.LazyMultiCursor;
+import org.javimmutable.collections.cursors.StandardCursor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
 
 /**
  * Abstract base class for 2-3 tree nodes.  Provides public methods for searching and modifying
@@ -112,6 +124,14 @@ public abstract class TreeNode<K, V>
     @Nonnull
     public abstract Cursor<JImmutableMap.Entry<K, V>> cursor();
 
+    /**
+     * Passes every entry to proc in sorted order.  Unlike cursor() no objects are
+     * created while visiting the entries since leaf nodes are themselves entries.
+     *
+     * @param proc
+     */
+    public abstract void forEachEntry(@Nonnull Proc1<? super JImmutableMap.Entry<K, V>> proc);
+
     /**
      * Assign the specified value to the specified key.  Returns a node (possibly this same node)
      * reflecting the assignment and updates sizeDelta with the change in size (if any).
@@ -170,6 +190,411 @@ public abstract class TreeNode<K, V>
         }
     }
 
+    /**
+     * Builds a tree bottom up from keys that are already in strictly ascending order.  Each
+     * level is built by grouping the nodes of the level below into TwoNodes and ThreeNodes
+     * so the resulting tree is balanced and no intermediate trees are created.  Caller is
+     * responsible for ensuring the keys are sorted and unique.
+     *
+     * @param keys   keys in ascending order
+     * @param values value for each key
+     */
+    public static <K, V> TreeNode<K, V> fromSorted(@Nonnull Indexed<? extends K> keys,
+                                                   @Nonnull Indexed<? extends V> values)
+    {
+        final int count = keys.size();
+        if (count == 0) {
+            return of();
+        }
+        final List<TreeNode<K, V>> leaves = new ArrayList<TreeNode<K, V>>(count);
+        for (int i = 0; i < count; ++i) {
+            final K key = keys.get(i);
+            Conditions.stopNull(key);
+            leaves.add(new LeafNode<K, V>(key, values.get(i)));
+        }
+        return fromSortedLeaves(leaves);
+    }
+
+    /**
+     * Builds a key only tree bottom up from keys that are already in strictly ascending order.
+     * Every leaf is a KeyLeafNode so the value of every key is Boolean.TRUE.  Caller is
+     * responsible for ensuring the keys are sorted and unique.
+     *
+     * @param keys keys in ascending order
+     */
+    static <K> TreeNode<K, Boolean> fromSortedKeys(@Nonnull Indexed<? extends K> keys)
+    {
+        final int count = keys.size();
+        if (count == 0) {
+            return EmptyNode.keysOnly();
+        }
+        final List<TreeNode<K, Boolean>> leaves = new ArrayList<TreeNode<K, Boolean>>(count);
+        for (int i = 0; i < count; ++i) {
+            final K key = keys.get(i);
+            Conditions.stopNull(key);
+            leaves.add(new KeyLeafNode<K, Boolean>(key));
+        }
+        return fromSortedLeaves(leaves);
+    }
+
+    private static <K, V> TreeNode<K, V> fromSortedLeaves(List<TreeNode<K, V>> leaves)
+    {
+        List<TreeNode<K, V>> nodes = leaves;
+        while (nodes.size() > 1) {
+            final List<TreeNode<K, V>> parents = new ArrayList<TreeNode<K, V>>((nodes.size() + 1) / 2);
+            int i = 0;
+            while (i < nodes.size()) {
+                final int remaining = nodes.size() - i;
+                if ((remaining == 2) || (remaining == 4)) {
+                    final TreeNode<K, V> left = nodes.get(i);
+                    final TreeNode<K, V> right = nodes.get(i + 1);
+                    parents.add(new TwoNode<K, V>(left, right, left.getMaxKey(), right.getMaxKey()));
+                    i += 2;
+                } else {
+                    final TreeNode<K, V> left = nodes.get(i);
+                    final TreeNode<K, V> middle = nodes.get(i + 1);
+                    final TreeNode<K, V> right = nodes.get(i + 2);
+                    parents.add(new ThreeNode<K, V>(left, middle, right, left.getMaxKey(), middle.getMaxKey(), right.getMaxKey()));
+                    i += 3;
+                }
+            }
+            nodes = parents;
+        }
+        return nodes.get(0);
+    }
+
+    /**
+     * Adds a MapDiffEntry to diffs for every key that differs between oldNode and newNode.
+     * Both trees are walked in key order in parallel and whenever the next unvisited subtree
+     * is the same object in both trees it is skipped without being visited.  Since subtrees
+     * can only be shared at the same height the walk always expands the taller subtree first.
+     */
+    public static <K, V> void diff(Comparator<K> comparator,
+                                   TreeNode<K, V> oldNode,
+                                   TreeNode<K, V> newNode,
+                                   MapDiffBuilder<K, V> diffs)
+    {
+        final Deque<TreeNode<K, V>> oldNodes = new ArrayDeque<TreeNode<K, V>>();
+        final Deque<Integer> oldHeights = new ArrayDeque<Integer>();
+        final Deque<TreeNode<K, V>> newNodes = new ArrayDeque<TreeNode<K, V>>();
+        final Deque<Integer> newHeights = new ArrayDeque<Integer>();
+        if (!oldNode.isEmpty()) {
+            oldNodes.push(oldNode);
+            oldHeights.push(height(oldNode));
+        }
+        if (!newNode.isEmpty()) {
+            newNodes.push(newNode);
+            newHeights.push(height(newNode));
+        }
+        while (!(oldNodes.isEmpty() || newNodes.isEmpty() || diffs.isDone())) {
+            final TreeNode<K, V> oldTop = oldNodes.peek();
+            final TreeNode<K, V> newTop = newNodes.peek();
+            final int oldHeight = oldHeights.peek();
+            final int newHeight = newHeights.peek();
+            if (oldTop == newTop) {
+                oldNodes.pop();
+                oldHeights.pop();
+                newNodes.pop();
+                newHeights.pop();
+            } else if (oldHeight > newHeight) {
+                expandTop(oldNodes, oldHeights);
+            } else if (newHeight > oldHeight) {
+                expandTop(newNodes, newHeights);
+            } else if (oldHeight > 0) {
+                expandTop(oldNodes, oldHeights);
+                expandTop(newNodes, newHeights);
+            } else {
+                final JImmutableMap.Entry<K, V> oldLeaf = asEntry(oldTop);
+                final JImmutableMap.Entry<K, V> newLeaf = asEntry(newTop);
+                final int diff = comparator.compare(oldLeaf.getKey(), newLeaf.getKey());
+                if (diff < 0) {
+                    diffs.removed(oldLeaf.getKey(), oldLeaf.getValue());
+                    oldNodes.pop();
+                    oldHeights.pop();
+                } else if (diff > 0) {
+                    diffs.added(newLeaf.getKey(), newLeaf.getValue());
+                    newNodes.pop();
+                    newHeights.pop();
+                } else {
+                    diffs.compare(oldLeaf.getKey(), oldLeaf.getValue(), newLeaf.getValue());
+                    oldNodes.pop();
+                    oldHeights.pop();
+                    newNodes.pop();
+                    newHeights.pop();
+                }
+            }
+        }
+        for (TreeNode<K, V> node : oldNodes) {
+            diffs.removedAll(node.cursor());
+        }
+        for (TreeNode<K, V> node : newNodes) {
+            diffs.addedAll(node.cursor());
+        }
+    }
+
+    /**
+     * Finds the entry with the greatest key less than or equal to key.
+     */
+    public Holder<JImmutableMap.Entry<K, V>> findFloorEntry(Comparator<K> comparator,
+                                                             K key)
+    {
+        return entryHolder(floorLeaf(comparator, this, key));
+    }
+
+    /**
+     * Finds the entry with the smallest key greater than or equal to key.
+     */
+    public Holder<JImmutableMap.Entry<K, V>> findCeilingEntry(Comparator<K> comparator,
+                                                               K key)
+    {
+        TreeNode<K, V> node = this;
+        while (node.getChildCount() > 0) {
+            TreeNode<K, V> next = null;
+            for (int i = 0; i < node.getChildCount(); ++i) {
+                final TreeNode<K, V> child = node.getChild(i);
+                if (comparator.compare(key, child.getMaxKey()) <= 0) {
+                    next = child;
+                    break;
+                }
+            }
+            if (next == null) {
+                return entryHolder(null);
+            }
+            node = next;
+        }
+        return entryHolder((node.isEmpty() || (comparator.compare(key, node.getMaxKey()) > 0)) ? null : node);
+    }
+
+    /**
+     * Returns a cursor that visits, in key order, every entry whose key is greater than or equal
+     * to lowKey and less than highKey.  Either bound can be null to leave that end of the range
+     * open.  Subtrees lying entirely outside of the range are never visited so the cursor
+     * reaches its first entry in O(log n) time.
+     */
+    public Cursor<JImmutableMap.Entry<K, V>> cursor(Comparator<K> comparator,
+                                                    @Nullable K lowKey,
+                                                    @Nullable K highKey)
+    {
+        return rangeCursorable(comparator, this, lowKey, highKey).cursor();
+    }
+
+    /**
+     * Returns a tree containing only the entries whose keys are less than key.  Subtrees
+     * lying entirely below key are shared with this tree and the new tree is built in
+     * O(log n) time.
+     */
+    public TreeNode<K, V> headNode(Comparator<K> comparator,
+                                   K key)
+    {
+        final int count = getChildCount();
+        if (count == 0) {
+            return (isEmpty() || (comparator.compare(getMaxKey(), key) < 0)) ? this : TreeNode.<K, V>of();
+        }
+        for (int i = 0; i < count; ++i) {
+            final TreeNode<K, V> child = getChild(i);
+            if (comparator.compare(key, child.getMaxKey()) <= 0) {
+                final TreeNode<K, V> head = child.headNode(comparator, key);
+                return ((head == child) && (i == count - 1)) ? this : join(siblings(this, 0, i), head);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns a tree containing only the entries whose keys are greater than or equal to key.
+     * Subtrees lying entirely above key are shared with this tree and the new tree is built
+     * in O(log n) time.
+     */
+    public TreeNode<K, V> tailNode(Comparator<K> comparator,
+                                   K key)
+    {
+        final int count = getChildCount();
+        if (count == 0) {
+            return (isEmpty() || (comparator.compare(getMaxKey(), key) >= 0)) ? this : TreeNode.<K, V>of();
+        }
+        for (int i = 0; i < count; ++i) {
+            final TreeNode<K, V> child = getChild(i);
+            if (comparator.compare(key, child.getMaxKey()) <= 0) {
+                final TreeNode<K, V> tail = child.tailNode(comparator, key);
+                return ((tail == child) && (i == 0)) ? this : join(tail, siblings(this, i + 1, count));
+            }
+        }
+        return of();
+    }
+
+    /**
+     * Returns the number of entries whose keys are less than key.  Uses the sizes stored
+     * in each node so only a single path from root to leaf is visited.
+     */
+    public int rank(Comparator<K> comparator,
+                    K key)
+    {
+        int answer = 0;
+        TreeNode<K, V> node = this;
+        while (node.getChildCount() > 0) {
+            TreeNode<K, V> next = null;
+            for (int i = 0; i < node.getChildCount(); ++i) {
+                final TreeNode<K, V> child = node.getChild(i);
+                if (comparator.compare(key, child.getMaxKey()) <= 0) {
+                    next = child;
+                    break;
+                }
+                answer += child.size();
+            }
+            if (next == null) {
+                return answer;
+            }
+            node = next;
+        }
+        if (!node.isEmpty() && (comparator.compare(node.getMaxKey(), key) < 0)) {
+            answer += 1;
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the entry at the specified position in key order.  Uses the sizes stored
+     * in each node so only a single path from root to leaf is visited.
+     *
+     * @throws IndexOutOfBoundsException if index is negative or not less than size()
+     */
+    public JImmutableMap.Entry<K, V> select(int index)
+    {
+        if ((index < 0) || (index >= size())) {
+            throw new IndexOutOfBoundsException();
+        }
+        TreeNode<K, V> node = this;
+        while (node.getChildCount() > 0) {
+            for (int i = 0; i < node.getChildCount(); ++i) {
+                final TreeNode<K, V> child = node.getChild(i);
+                if (index < child.size()) {
+                    node = child;
+                    break;
+                }
+                index -= child.size();
+            }
+        }
+        return asEntry(node);
+    }
+
+    /**
+     * Returns a cursor that visits, in key order, the entries whose positions are greater than
+     * or equal to fromIndex and less than toIndex.
+     *
+     * @throws IndexOutOfBoundsException if the indexes are out of range or fromIndex is greater than toIndex
+     */
+    public Cursor<JImmutableMap.Entry<K, V>> indexCursor(Comparator<K> comparator,
+                                                         int fromIndex,
+                                                         int toIndex)
+    {
+        if ((fromIndex < 0) || (toIndex > size()) || (fromIndex > toIndex)) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (fromIndex == toIndex) {
+            return StandardCursor.of();
+        }
+        final K lowKey = select(fromIndex).getKey();
+        final K highKey = (toIndex == size()) ? null : select(toIndex).getKey();
+        return cursor(comparator, lowKey, highKey);
+    }
+
+    /**
+     * Splits this tree into the entries whose keys are less than key, the entry for key
+     * itself (if any) and the entries whose keys are greater than key.  Subtrees that do
+     * not contain key are shared with this tree and the split is performed in O(log n) time.
+     */
+    public SplitResult<K, V> split(Comparator<K> comparator,
+                                   K key)
+    {
+        final int count = getChildCount();
+        if (count == 0) {
+            if (isEmpty()) {
+                return new SplitResult<K, V>(this, null, this);
+            }
+            final int diff = comparator.compare(getMaxKey(), key);
+            if (diff < 0) {
+                return new SplitResult<K, V>(this, null, TreeNode.<K, V>of());
+            } else if (diff > 0) {
+                return new SplitResult<K, V>(TreeNode.<K, V>of(), null, this);
+            } else {
+                return new SplitResult<K, V>(TreeNode.<K, V>of(), this, TreeNode.<K, V>of());
+            }
+        }
+        for (int i = 0; i < count; ++i) {
+            final TreeNode<K, V> child = getChild(i);
+            if (comparator.compare(key, child.getMaxKey()) <= 0) {
+                final SplitResult<K, V> split = child.split(comparator, key);
+                return new SplitResult<K, V>(join(siblings(this, 0, i), split.less),
+                                             split.match,
+                                             join(split.greater, siblings(this, i + 1, count)));
+            }
+        }
+        return new SplitResult<K, V>(this, null, TreeNode.<K, V>of());
+    }
+
+    /**
+     * Returns a tree containing every entry in either tree.  When both contain the same key
+     * the entry from newer is used.  The trees are combined by splitting older at the
+     * boundaries of newer's children and merging the pieces recursively, so subtrees shared
+     * by both trees or covering key ranges the other tree lacks are reused without being
+     * visited.
+     */
+    public static <K, V> TreeNode<K, V> union(Comparator<K> comparator,
+                                              TreeNode<K, V> older,
+                                              TreeNode<K, V> newer)
+    {
+        final TreeNode<K, V> answer = unionImpl(comparator, older, newer);
+        return (answer.size() == newer.size()) ? newer : answer;
+    }
+
+    /**
+     * Returns a tree containing the entries of node whose keys are also present in other.
+     * Uses the same split and join strategy as union().
+     */
+    public static <K, V, U> TreeNode<K, V> intersection(Comparator<K> comparator,
+                                                        TreeNode<K, V> node,
+                                                        TreeNode<K, U> other)
+    {
+        final TreeNode<K, V> answer = intersectionImpl(comparator, node, other);
+        return (answer.size() == node.size()) ? node : answer;
+    }
+
+    /**
+     * Returns a tree containing the entries of node whose keys are not present in other.
+     * Uses the same split and join strategy as union().
+     */
+    public static <K, V, U> TreeNode<K, V> difference(Comparator<K> comparator,
+                                                      TreeNode<K, V> node,
+                                                      TreeNode<K, U> other)
+    {
+        final TreeNode<K, V> answer = differenceImpl(comparator, node, other);
+        return (answer.size() == node.size()) ? node : answer;
+    }
+
+    /**
+     * Concatenates two trees.  Every key in left must be less than every key in right.  The
+     * shorter tree is attached to the facing edge of the taller one so the cost is proportional
+     * to the difference in their heights and all other subtrees are shared with the originals.
+     */
+    public static <K, V> TreeNode<K, V> join(TreeNode<K, V> left,
+                                             TreeNode<K, V> right)
+    {
+        if (left.isEmpty()) {
+            return right;
+        } else if (right.isEmpty()) {
+            return left;
+        }
+        final int leftHeight = height(left);
+        final int rightHeight = height(right);
+        final List<TreeNode<K, V>> nodes;
+        if (leftHeight >= rightHeight) {
+            nodes = joinRight(left, leftHeight, right, rightHeight);
+        } else {
+            nodes = joinLeft(left, leftHeight, right, rightHeight);
+        }
+        return (nodes.size() == 1) ? nodes.get(0) : branch(nodes, 0, nodes.size());
+    }
+
     /**
      * Return true if this node contains no children or value.
      *
@@ -180,8 +605,19 @@ public abstract class TreeNode<K, V>
         return false;
     }
 
+    /**
+     * Number of entries contained in this node and all of its descendants.
+     */
+    public abstract int size();
+
     abstract int verifyDepthsMatch();
 
+    // number of children of this node, zero for leaves
+    abstract int getChildCount();
+
+    // child at the specified position in key order
+    abstract TreeNode<K, V> getChild(int position);
+
     abstract K getMaxKey();
 
     abstract UpdateResult<K, V> assignImpl(Comparator<K> comparator,
@@ -194,4 +630,329 @@ public abstract class TreeNode<K, V>
     abstract DeleteMergeResult<K, V> leftDeleteMerge(TreeNode<K, V> node);
 
     abstract DeleteMergeResult<K, V> rightDeleteMerge(TreeNode<K, V> node);
+
+    private static <K, V> int height(TreeNode<K, V> node)
+    {
+        int answer = 0;
+        while (node.getChildCount() > 0) {
+            node = node.getChild(0);
+            answer += 1;
+        }
+        return answer;
+    }
+
+    private static <K, V> TreeNode<K, V> unionImpl(Comparator<K> comparator,
+                                                   TreeNode<K, V> older,
+                                                   TreeNode<K, V> newer)
+    {
+        if (older.isEmpty() || (older == newer)) {
+            return newer;
+        } else if (newer.isEmpty()) {
+            return older;
+        } else if (comparator.compare(older.getMaxKey(), firstLeaf(newer).getMaxKey()) < 0) {
+            return join(older, newer);
+        } else if (comparator.compare(newer.getMaxKey(), firstLeaf(older).getMaxKey()) < 0) {
+            return join(newer, older);
+        }
+        final int count = newer.getChildCount();
+        if (count == 0) {
+            final SplitResult<K, V> split = older.split(comparator, newer.getMaxKey());
+            return join(join(split.less, newer), split.greater);
+        } else if (older.getChildCount() == 0) {
+            final SplitResult<K, V> split = newer.split(comparator, older.getMaxKey());
+            return (split.match != null) ? newer : join(join(split.less, older), split.greater);
+        }
+        TreeNode<K, V> answer = of();
+        TreeNode<K, V> rest = older;
+        for (int i = 0; i < count - 1; ++i) {
+            final TreeNode<K, V> child = newer.getChild(i);
+            final SplitResult<K, V> split = splitAfter(comparator, rest, child.getMaxKey());
+            answer = join(answer, unionImpl(comparator, split.less, child));
+            rest = split.greater;
+        }
+        return join(answer, unionImpl(comparator, rest, newer.getChild(count - 1)));
+    }
+
+    private static <K, V, U> TreeNode<K, V> intersectionImpl(Comparator<K> comparator,
+                                                             TreeNode<K, V> node,
+                                                             TreeNode<K, U> other)
+    {
+        if (node.isEmpty() || other.isEmpty() || isDisjoint(comparator, node, other)) {
+            return of();
+        } else if (node == (Object)other) {
+            return node;
+        }
+        final int count = other.getChildCount();
+        if (count == 0) {
+            final TreeNode<K, V> match = node.split(comparator, other.getMaxKey()).match;
+            return (match == null) ? TreeNode.<K, V>of() : match;
+        } else if (node.getChildCount() == 0) {
+            return (other.split(comparator, node.getMaxKey()).match == null) ? TreeNode.<K, V>of() : node;
+        }
+        TreeNode<K, V> answer = of();
+        TreeNode<K, V> rest = node;
+        for (int i = 0; i < count - 1; ++i) {
+            final TreeNode<K, U> child = other.getChild(i);
+            final SplitResult<K, V> split = splitAfter(comparator, rest, child.getMaxKey());
+            answer = join(answer, intersectionImpl(comparator, split.less, child));
+            rest = split.greater;
+        }
+        return join(answer, intersectionImpl(comparator, rest, other.getChild(count - 1)));
+    }
+
+    private static <K, V, U> TreeNode<K, V> differenceImpl(Comparator<K> comparator,
+                                                           TreeNode<K, V> node,
+                                                           TreeNode<K, U> other)
+    {
+        if (node.isEmpty() || other.isEmpty() || isDisjoint(comparator, node, other)) {
+            return node;
+        } else if (node == (Object)other) {
+            return of();
+        }
+        final int count = other.getChildCount();
+        if (count == 0) {
+            final SplitResult<K, V> split = node.split(comparator, other.getMaxKey());
+            return (split.match == null) ? node : join(split.less, split.greater);
+        } else if (node.getChildCount() == 0) {
+            return (other.split(comparator, node.getMaxKey()).match == null) ? node : TreeNode.<K, V>of();
+        }
+        TreeNode<K, V> answer = of();
+        TreeNode<K, V> rest = node;
+        for (int i = 0; i < count - 1; ++i) {
+            final TreeNode<K, U> child = other.getChild(i);
+            final SplitResult<K, V> split = splitAfter(comparator, rest, child.getMaxKey());
+            answer = join(answer, differenceImpl(comparator, split.less, child));
+            rest = split.greater;
+        }
+        return join(answer, differenceImpl(comparator, rest, other.getChild(count - 1)));
+    }
+
+    // true if every key in one tree is less than every key in the other, both must be non-empty
+    private static <K> boolean isDisjoint(Comparator<K> comparator,
+                                          TreeNode<K, ?> a,
+                                          TreeNode<K, ?> b)
+    {
+        return (comparator.compare(a.getMaxKey(), firstLeaf(b).getMaxKey()) < 0) ||
+               (comparator.compare(b.getMaxKey(), firstLeaf(a).getMaxKey()) < 0);
+    }
+
+    // like split() but the entry for key (if any) is included in less and match is always null.
+    // when key is the maximum key of a child the split falls between children so no new nodes are needed
+    private static <K, V> SplitResult<K, V> splitAfter(Comparator<K> comparator,
+                                                       TreeNode<K, V> node,
+                                                       K key)
+    {
+        final int count = node.getChildCount();
+        if (count == 0) {
+            if (node.isEmpty() || (comparator.compare(node.getMaxKey(), key) <= 0)) {
+                return new SplitResult<K, V>(node, null, TreeNode.<K, V>of());
+            } else {
+                return new SplitResult<K, V>(TreeNode.<K, V>of(), null, node);
+            }
+        }
+        for (int i = 0; i < count; ++i) {
+            final TreeNode<K, V> child = node.getChild(i);
+            final int diff = comparator.compare(key, child.getMaxKey());
+            if (diff == 0) {
+                return new SplitResult<K, V>((i == count - 1) ? node : siblings(node, 0, i + 1), null, siblings(node, i + 1, count));
+            } else if (diff < 0) {
+                final SplitResult<K, V> split = splitAfter(comparator, child, key);
+                return new SplitResult<K, V>(join(siblings(node, 0, i), split.less),
+                                             null,
+                                             join(split.greater, siblings(node, i + 1, count)));
+            }
+        }
+        return new SplitResult<K, V>(node, null, TreeNode.<K, V>of());
+    }
+
+    private static <K, V> TreeNode<K, V> firstLeaf(TreeNode<K, V> node)
+    {
+        while (node.getChildCount() > 0) {
+            node = node.getChild(0);
+        }
+        return node;
+    }
+
+    private static <K, V> Holder<JImmutableMap.Entry<K, V>> entryHolder(@Nullable TreeNode<K, V> leaf)
+    {
+        return (leaf == null) ? Holders.<JImmutableMap.Entry<K, V>>of() : Holders.of(asEntry(leaf));
+    }
+
+    /**
+     * Every leaf node implements JImmutableMap.Entry for its own key and value types.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> JImmutableMap.Entry<K, V> asEntry(@Nonnull TreeNode<K, V> leaf)
+    {
+        return (JImmutableMap.Entry<K, V>)leaf;
+    }
+
+    @Nullable
+    private static <K, V> TreeNode<K, V> floorLeaf(Comparator<K> comparator,
+                                                   TreeNode<K, V> node,
+                                                   K key)
+    {
+        final int count = node.getChildCount();
+        if (count == 0) {
+            return (node.isEmpty() || (comparator.compare(node.getMaxKey(), key) > 0)) ? null : node;
+        }
+        for (int i = 0; i < count; ++i) {
+            final TreeNode<K, V> child = node.getChild(i);
+            if (comparator.compare(key, child.getMaxKey()) <= 0) {
+                final TreeNode<K, V> answer = floorLeaf(comparator, child, key);
+                return ((answer == null) && (i > 0)) ? lastLeaf(node.getChild(i - 1)) : answer;
+            }
+        }
+        return lastLeaf(node);
+    }
+
+    private static <K, V> TreeNode<K, V> lastLeaf(TreeNode<K, V> node)
+    {
+        while (node.getChildCount() > 0) {
+            node = node.getChild(node.getChildCount() - 1);
+        }
+        return node;
+    }
+
+    private static <K, V> Cursorable<JImmutableMap.Entry<K, V>> rangeCursorable(final Comparator<K> comparator,
+                                                                               final TreeNode<K, V> node,
+                                                                               @Nullable final K lowKey,
+                                                                               @Nullable final K highKey)
+    {
+        final int count = node.getChildCount();
+        if (count == 0) {
+            if (node.isEmpty() ||
+                ((lowKey != null) && (comparator.compare(node.getMaxKey(), lowKey) < 0)) ||
+                ((highKey != null) && (comparator.compare(node.getMaxKey(), highKey) >= 0))) {
+                return StandardCursor.emptyCursorable();
+            }
+            return node;
+        }
+        final LazyMultiCursor.Builder<JImmutableMap.Entry<K, V>> builder = LazyMultiCursor.builder(count);
+        K previousMaxKey = null;
+        for (int i = 0; i < count; ++i) {
+            final TreeNode<K, V> child = node.getChild(i);
+            final K maxKey = child.getMaxKey();
+            if ((highKey != null) && (previousMaxKey != null) && (comparator.compare(previousMaxKey, highKey) >= 0)) {
+                break;
+            }
+            if ((lowKey == null) || (comparator.compare(maxKey, lowKey) >= 0)) {
+                final boolean crossesLow = (lowKey != null) && ((previousMaxKey == null) || (comparator.compare(previousMaxKey, lowKey) < 0));
+                final boolean crossesHigh = (highKey != null) && (comparator.compare(maxKey, highKey) >= 0);
+                if (crossesLow || crossesHigh) {
+                    final K childLowKey = crossesLow ? lowKey : null;
+                    final K childHighKey = crossesHigh ? highKey : null;
+                    builder.insert(new Cursorable<JImmutableMap.Entry<K, V>>()
+                    {
+                        @Nonnull
+                        @Override
+                        public Cursor<JImmutableMap.Entry<K, V>> cursor()
+                        {
+                            return rangeCursorable(comparator, child, childLowKey, childHighKey).cursor();
+                        }
+                    });
+                } else {
+                    builder.insert(child);
+                }
+            }
+            previousMaxKey = maxKey;
+        }
+        return builder.cursorable();
+    }
+
+    // tree containing the children of node in positions [offset, limit), possibly empty
+    private static <K, V> TreeNode<K, V> siblings(TreeNode<K, V> node,
+                                                  int offset,
+                                                  int limit)
+    {
+        switch (limit - offset) {
+        case 0:
+            return of();
+        case 1:
+            return node.getChild(offset);
+        default:
+            final List<TreeNode<K, V>> children = new ArrayList<TreeNode<K, V>>(3);
+            for (int i = offset; i < limit; ++i) {
+                children.add(node.getChild(i));
+            }
+            return branch(children, 0, children.size());
+        }
+    }
+
+    // attaches right to the right edge of left returning one or two nodes as tall as left
+    private static <K, V> List<TreeNode<K, V>> joinRight(TreeNode<K, V> left,
+                                                         int leftHeight,
+                                                         TreeNode<K, V> right,
+                                                         int rightHeight)
+    {
+        final List<TreeNode<K, V>> children = new ArrayList<TreeNode<K, V>>(4);
+        if (leftHeight == rightHeight) {
+            children.add(left);
+            children.add(right);
+            return children;
+        }
+        final int last = left.getChildCount() - 1;
+        for (int i = 0; i < last; ++i) {
+            children.add(left.getChild(i));
+        }
+        children.addAll(joinRight(left.getChild(last), leftHeight - 1, right, rightHeight));
+        return pack(children);
+    }
+
+    // attaches left to the left edge of right returning one or two nodes as tall as right
+    private static <K, V> List<TreeNode<K, V>> joinLeft(TreeNode<K, V> left,
+                                                        int leftHeight,
+                                                        TreeNode<K, V> right,
+                                                        int rightHeight)
+    {
+        final List<TreeNode<K, V>> children = new ArrayList<TreeNode<K, V>>(4);
+        if (leftHeight == rightHeight) {
+            children.add(left);
+            children.add(right);
+            return children;
+        }
+        children.addAll(joinLeft(left, leftHeight, right.getChild(0), rightHeight - 1));
+        for (int i = 1; i < right.getChildCount(); ++i) {
+            children.add(right.getChild(i));
+        }
+        return pack(children);
+    }
+
+    // groups two to four siblings into one or two parent nodes
+    private static <K, V> List<TreeNode<K, V>> pack(List<TreeNode<K, V>> children)
+    {
+        final List<TreeNode<K, V>> answer = new ArrayList<TreeNode<K, V>>(2);
+        if (children.size() == 4) {
+            answer.add(branch(children, 0, 2));
+            answer.add(branch(children, 2, 4));
+        } else {
+            answer.add(branch(children, 0, children.size()));
+        }
+        return answer;
+    }
+
+    private static <K, V> TreeNode<K, V> branch(List<TreeNode<K, V>> children,
+                                                int offset,
+                                                int limit)
+    {
+        final TreeNode<K, V> left = children.get(offset);
+        final TreeNode<K, V> middle = children.get(offset + 1);
+        if ((limit - offset) == 2) {
+            return new TwoNode<K, V>(left, middle, left.getMaxKey(), middle.getMaxKey());
+        } else {
+            final TreeNode<K, V> right = children.get(offset + 2);
+            return new ThreeNode<K, V>(left, middle, right, left.getMaxKey(), middle.getMaxKey(), right.getMaxKey());
+        }
+    }
+
+    private static <K, V> void expandTop(Deque<TreeNode<K, V>> nodes,
+                                         Deque<Integer> heights)
+    {
+        final TreeNode<K, V> node = nodes.pop();
+        final int childHeight = heights.pop() - 1;
+        for (int i = node.getChildCount() - 1; i >= 0; --i) {
+            nodes.push(node.getChild(i));
+            heights.push(childHeight);
+        }
+    }
 }
@@ -38,6 +38,7 @@ package org.javimmutable.collections.tree;
 import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.cursors.LazyMultiCursor;
 
 import javax.annotation.Nonnull;
@@ -53,6 +54,7 @@ public class TwoNode<K, V>
     private final TreeNode<K, V> right;
     private final K leftMaxKey;
     private final K rightMaxKey;
+    private final int size;
 
     public TwoNode(TreeNode<K, V> left,
                    TreeNode<K, V> right,
@@ -63,6 +65,7 @@ public class TwoNode<K, V>
         this.right = right;
         this.leftMaxKey = leftMaxKey;
         this.rightMaxKey = rightMaxKey;
+        this.size = left.size() + right.size();
     }
 
     @Override
@@ -145,6 +148,31 @@ public class TwoNode<K, V>
         right.addEntriesTo(collection);
     }
 
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    int getChildCount()
+    {
+        return 2;
+    }
+
+    @Override
+    TreeNode<K, V> getChild(int position)
+    {
+        switch (position) {
+        case 0:
+            return left;
+        case 1:
+            return right;
+        default:
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
     @Override
     public int verifyDepthsMatch()
     {
@@ -268,6 +296,13 @@ public class TwoNode<K, V>
             .cursor();
     }
 
+    @Override
+    public void forEachEntry(@Nonnull Proc1<? super JImmutableMap.Entry<K, V>> proc)
+    {
+        left.forEachEntry(proc);
+        right.forEachEntry(proc);
+    }
+
     @SuppressWarnings("RedundantIfStatement")
     @Override
     public boolean equals(Object o)
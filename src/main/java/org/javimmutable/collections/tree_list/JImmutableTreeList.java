@@ -435,6 +435,14 @@ public class JImmutableTreeList<T>
         return (size == 0) ? StandardCursor.<T>of() : root.cursor();
     }
 
+    @Override
+    public void forEachValue(@Nonnull Proc1<? super T> proc)
+    {
+        for (Cursor<T> cursor = cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+            proc.apply(cursor.getValue());
+        }
+    }
+
     public void verifyDepthsMatch()
     {
         if (root != null) {
@@ -0,0 +1,309 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.util;
+
+import org.javimmutable.collections.Func1;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Thread safe holder for the current version of an immutable value such as a JImmutableMap.
+ * Readers simply call get() and never block.  Writers provide a Func1 that computes a new
+ * version from the current one and the result is published using compare and set.
+ * <p>
+ * Two ways of applying updates are provided.  update() applies the function in the calling
+ * thread and retries if another thread published a new version in the meantime.  Retries
+ * are separated by a randomized exponential backoff so that heavily contended cells do not
+ * waste all of their time recomputing updates that will fail again.
+ * <p>
+ * combiningUpdate() uses flat combining.  Each calling thread adds its function to a shared
+ * queue and one thread at a time (the combiner) removes every queued function, applies them
+ * in the order they were queued to the current version, and publishes the result with a single
+ * compare and set.  Under heavy contention many updates are applied as a single new version
+ * while the waiting threads sleep instead of retrying.  Each caller returns only after its own
+ * function has been applied.
+ * <p>
+ * In both cases functions may be called more than once if a compare and set fails so they
+ * must not have side effects.  A RuntimeException or Error thrown by a function is rethrown
+ * to the thread that provided the function.  A failed function does not prevent the other
+ * functions in the same batch from being applied.
+ * <p>
+ * Neither method can be interrupted.  A thread that is interrupted while it waits keeps
+ * waiting until its update has been published and returns with its interrupt flag still set.
+ */
+@ThreadSafe
+public class JImmutableAtomicReference<T>
+{
+    private static final long MIN_BACKOFF_NANOS = 1000L;
+    private static final long MAX_BACKOFF_NANOS = 1000000L;
+
+    private final AtomicReference<T> value;
+    private final AtomicReference<Request<T>> pending;
+    private final AtomicBoolean combining;
+
+    public JImmutableAtomicReference(T initialValue)
+    {
+        value = new AtomicReference<T>(initialValue);
+        pending = new AtomicReference<Request<T>>();
+        combining = new AtomicBoolean();
+    }
+
+    public static <T> JImmutableAtomicReference<T> of(T initialValue)
+    {
+        return new JImmutableAtomicReference<T>(initialValue);
+    }
+
+    /**
+     * Returns the most recently published version.
+     */
+    public T get()
+    {
+        return value.get();
+    }
+
+    /**
+     * Unconditionally publishes newValue as the current version.
+     */
+    public void set(T newValue)
+    {
+        value.set(newValue);
+    }
+
+    /**
+     * Publishes newValue only if the current version is (by identity) expected.
+     *
+     * @return true if newValue was published
+     */
+    public boolean compareAndSet(T expected,
+                                 T newValue)
+    {
+        return value.compareAndSet(expected, newValue);
+    }
+
+    /**
+     * Applies func to the current version and publishes the result.  If another thread publishes
+     * a version first the calling thread backs off for a random interval and then applies func
+     * again to the newer version.
+     *
+     * @return the version published by this call
+     */
+    public T update(Func1<? super T, ? extends T> func)
+    {
+        Backoff backoff = null;
+        try {
+            for (; ; ) {
+                final T current = value.get();
+                final T next = func.apply(current);
+                if (value.compareAndSet(current, next)) {
+                    return next;
+                }
+                if (backoff == null) {
+                    backoff = new Backoff();
+                }
+                backoff.pause();
+            }
+        } finally {
+            if (backoff != null) {
+                backoff.done();
+            }
+        }
+    }
+
+    /**
+     * Queues func to be applied along with any other functions queued by concurrent callers
+     * and waits until it has been applied.  The calling thread either applies the whole batch
+     * itself or sleeps while another thread does so.
+     *
+     * @return the version published by the batch that contained func
+     */
+    public T combiningUpdate(Func1<? super T, ? extends T> func)
+    {
+        final Request<T> request = new Request<T>(func, Thread.currentThread());
+        Request<T> head;
+        do {
+            head = pending.get();
+            request.next = head;
+        } while (!pending.compareAndSet(head, request));
+
+        long delay = MIN_BACKOFF_NANOS;
+        boolean interrupted = false;
+        try {
+            while (!request.done) {
+                if (combining.compareAndSet(false, true)) {
+                    try {
+                        combine();
+                    } finally {
+                        combining.set(false);
+                    }
+                } else {
+                    // the combiner unparks us when our request is done but we wake up on our own
+                    // in case it took the queue just before our request was added
+                    LockSupport.parkNanos(this, delay);
+                    // parkNanos() returns immediately while the interrupt flag is set so clear it
+                    // to keep sleeping and restore it once our request is done
+                    if (Thread.interrupted()) {
+                        interrupted = true;
+                    }
+                    delay = Math.min(2 * delay, MAX_BACKOFF_NANOS);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (request.error instanceof RuntimeException) {
+            throw (RuntimeException)request.error;
+        } else if (request.error instanceof Error) {
+            throw (Error)request.error;
+        }
+        return request.result;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.valueOf(value.get());
+    }
+
+    /**
+     * Called only by the thread holding the combining flag.  Takes every queued request,
+     * applies them in queued order and publishes the result.  Retries the whole batch if
+     * a thread calling update() or set() publishes a version first.
+     */
+    private void combine()
+    {
+        Request<T> batch = null;
+        for (Request<T> r = pending.getAndSet(null); r != null; ) {
+            final Request<T> next = r.next;
+            r.next = batch;
+            batch = r;
+            r = next;
+        }
+        if (batch == null) {
+            return;
+        }
+
+        Backoff backoff = null;
+        T next;
+        try {
+            for (; ; ) {
+                final T current = value.get();
+                next = current;
+                for (Request<T> r = batch; r != null; r = r.next) {
+                    r.error = null;
+                    try {
+                        next = r.func.apply(next);
+                    } catch (RuntimeException ex) {
+                        r.error = ex;
+                    } catch (Error ex) {
+                        r.error = ex;
+                    }
+                }
+                if (value.compareAndSet(current, next)) {
+                    break;
+                }
+                if (backoff == null) {
+                    backoff = new Backoff();
+                }
+                backoff.pause();
+            }
+        } finally {
+            if (backoff != null) {
+                backoff.done();
+            }
+        }
+
+        for (Request<T> r = batch; r != null; ) {
+            final Request<T> following = r.next;
+            final Thread thread = r.thread;
+            r.result = next;
+            r.done = true;
+            LockSupport.unpark(thread);
+            r = following;
+        }
+    }
+
+    private static class Request<T>
+    {
+        private final Func1<? super T, ? extends T> func;
+        private final Thread thread;
+        private Request<T> next;
+        private T result;
+        private Throwable error;
+        private volatile boolean done;
+
+        private Request(Func1<? super T, ? extends T> func,
+                        Thread thread)
+        {
+            this.func = func;
+            this.thread = thread;
+        }
+    }
+
+    /**
+     * Randomized exponential backoff.  Only created once a compare and set has failed.
+     * parkNanos() returns immediately while the interrupt flag is set so pause() clears
+     * the flag and done() restores it once the caller has stopped retrying.
+     */
+    private static class Backoff
+    {
+        private final Random random = new Random();
+        private long limit = MIN_BACKOFF_NANOS;
+        private boolean interrupted;
+
+        private void pause()
+        {
+            LockSupport.parkNanos(1L + (long)(random.nextDouble() * limit));
+            if (Thread.interrupted()) {
+                interrupted = true;
+            }
+            limit = Math.min(2 * limit, MAX_BACKOFF_NANOS);
+        }
+
+        private void done()
+        {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
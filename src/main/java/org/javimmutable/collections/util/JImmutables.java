@@ -54,6 +54,7 @@ import org.javimmutable.collections.common.IndexedList;
 import org.javimmutable.collections.hash.JImmutableHashMap;
 import org.javimmutable.collections.hash.JImmutableHashMultiset;
 import org.javimmutable.collections.hash.JImmutableHashSet;
+import org.javimmutable.collections.inorder.JImmutableInsertOrderHashMap;
 import org.javimmutable.collections.inorder.JImmutableInsertOrderMap;
 import org.javimmutable.collections.inorder.JImmutableInsertOrderMultiset;
 import org.javimmutable.collections.inorder.JImmutableInsertOrderSet;
@@ -426,6 +427,16 @@ public final class JImmutables
         return JImmutableHashMap.of();
     }
 
+    /**
+     * Produces a MutableBuilder for efficiently constructing an unsorted map.  Entries are collected
+     * and the map is built bottom up in a single pass when build() is called.  Later entries replace
+     * earlier entries with the same key.
+     */
+    public static <K, V> JImmutableMap.Builder<K, V> mapBuilder()
+    {
+        return JImmutableHashMap.builder();
+    }
+
     /**
      * Constructs an unsorted map.
      * All key/value pairs from source are copied into the newly created map.
@@ -479,6 +490,15 @@ public final class JImmutables
         return JImmutableTreeMap.of();
     }
 
+    /**
+     * Produces a MutableBuilder for efficiently constructing a map that sorts keys in their natural
+     * sort order (using ComparableComparator).  Entries can be added in any order.
+     */
+    public static <K extends Comparable<K>, V> JImmutableMap.Builder<K, V> sortedMapBuilder()
+    {
+        return JImmutableTreeMap.builder();
+    }
+
     /**
      * Constructs a map that sorts keys in their natural sort order (using ComparableComparator).
      * All key/value pairs from source are copied into the newly created map.
@@ -517,6 +537,19 @@ public final class JImmutables
         return JImmutableTreeMap.of(comparator);
     }
 
+    /**
+     * Produces a MutableBuilder for efficiently constructing a map that sorts keys using comparator.
+     * Entries can be added in any order.
+     * <p>
+     * Note that the Comparator MUST BE IMMUTABLE.
+     * The Comparator will be retained and used throughout the life of the map and its offspring and will
+     * be aggressively shared so it is imperative that the Comparator be completely immutable.
+     */
+    public static <K, V> JImmutableMap.Builder<K, V> sortedMapBuilder(Comparator<K> comparator)
+    {
+        return JImmutableTreeMap.builder(comparator);
+    }
+
     /**
      * Constructs a map that sorts keys using the specified Comparator.
      * <p>
@@ -578,6 +611,46 @@ public final class JImmutables
         return JImmutableInsertOrderMap.of();
     }
 
+    /**
+     * Produces a MutableBuilder for efficiently constructing a map whose cursors traverse elements
+     * in the same order that they were originally added to the builder.
+     */
+    public static <K, V> JImmutableMap.Builder<K, V> insertOrderMapBuilder()
+    {
+        return JImmutableInsertOrderMap.builder();
+    }
+
+    /**
+     * Constructs an empty map whose cursors traverse elements in the same order that they
+     * were originally added to the map.  Unlike insertOrderMap() the map stores its entries
+     * in a single hash trie so updates are nearly as fast as for a hash map but starting a
+     * cursor requires a linear pass over the entries.
+     * <p>
+     * The map will adopt a hash code collision strategy based on
+     * the first key assigned to the map.  All keys in the map must either implement Comparable (and
+     * be comparable to all other keys in the map) or not implement Comparable.  Attempting to use keys
+     * some of which implement Comparable and some of which do not will lead to runtime errors.  It is
+     * always safest to use homogeneous keys in any map.
+     *
+     * @param <K>
+     * @param <V>
+     * @return
+     */
+    public static <K, V> JImmutableMap<K, V> insertOrderHashMap()
+    {
+        return JImmutableInsertOrderHashMap.of();
+    }
+
+    /**
+     * Produces a MutableBuilder for efficiently constructing a map like those produced by
+     * insertOrderHashMap() whose cursors traverse elements in the same order that they were
+     * originally added to the builder.
+     */
+    public static <K, V> JImmutableMap.Builder<K, V> insertOrderHashMapBuilder()
+    {
+        return JImmutableInsertOrderHashMap.builder();
+    }
+
     /**
      * Constructs a map whose cursors traverse elements in the same order that they
      * were originally added to the map.  Similar to LinkedHapMap.
@@ -644,6 +717,15 @@ public final class JImmutables
         return JImmutableHashSet.of();
     }
 
+    /**
+     * Produces a MutableBuilder for efficiently constructing an unsorted set.  Values are collected
+     * and the set is built bottom up in a single pass when build() is called.
+     */
+    public static <T> JImmutableSet.Builder<T> setBuilder()
+    {
+        return JImmutableHashSet.builder();
+    }
+
     /**
      * Constructs an unsorted set containing the values from source.
      * <p>
@@ -737,6 +819,15 @@ public final class JImmutables
         return JImmutableTreeSet.of();
     }
 
+    /**
+     * Produces a MutableBuilder for efficiently constructing a set that sorts values in their natural
+     * sort order (using ComparableComparator).  Values can be added in any order.
+     */
+    public static <T extends Comparable<T>> JImmutableSet.Builder<T> sortedSetBuilder()
+    {
+        return JImmutableTreeSet.builder();
+    }
+
     /**
      * Constructs a set containing all of the values in source that sorts values in their
      * natural sort order (using ComparableComparator).
@@ -794,6 +885,19 @@ public final class JImmutables
         return JImmutableTreeSet.of(comparator);
     }
 
+    /**
+     * Produces a MutableBuilder for efficiently constructing a set that sorts values using comparator.
+     * Values can be added in any order.
+     * <p>
+     * Note that the Comparator MUST BE IMMUTABLE.
+     * The Comparator will be retained and used throughout the life of the map and its offspring and will
+     * be aggressively shared so it is imperative that the Comparator be completely immutable.
+     */
+    public static <T> JImmutableSet.Builder<T> sortedSetBuilder(Comparator<T> comparator)
+    {
+        return JImmutableTreeSet.builder(comparator);
+    }
+
     /**
      * Constructs a set containing all of the values in source that sorts values using comparator.
      * <p>
@@ -870,6 +974,15 @@ public final class JImmutables
         return JImmutableInsertOrderSet.of();
     }
 
+    /**
+     * Produces a MutableBuilder for efficiently constructing a set that iterates over values in the
+     * order they were originally added to the builder.
+     */
+    public static <T> JImmutableSet.Builder<T> insertOrderSetBuilder()
+    {
+        return JImmutableInsertOrderSet.builder();
+    }
+
     /**
      * Constructs a set containing all of the values in source that sorts values based on
      * the order they were originally added to the set.
@@ -947,6 +1060,15 @@ public final class JImmutables
         return JImmutableHashMultiset.of();
     }
 
+    /**
+     * Produces a MutableBuilder for efficiently constructing an unsorted multiset.  Occurrences are
+     * counted as values are added and the multiset is built in a single pass when build() is called.
+     */
+    public static <T> JImmutableMultiset.Builder<T> multisetBuilder()
+    {
+        return JImmutableHashMultiset.builder();
+    }
+
     /**
      * Constructs an unsorted multiset containing the values from source.
      * <p>
@@ -1040,6 +1162,15 @@ public final class JImmutables
         return JImmutableTreeMultiset.of();
     }
 
+    /**
+     * Produces a MutableBuilder for efficiently constructing a multiset that sorts values in their
+     * natural sort order (using ComparableComparator).  Values can be added in any order.
+     */
+    public static <T extends Comparable<T>> JImmutableMultiset.Builder<T> sortedMultisetBuilder()
+    {
+        return JImmutableTreeMultiset.builder();
+    }
+
     /**
      * Constructs a multiset containing all of the values in source that sorts values in their
      * natural sort order (using ComparableComparator).
@@ -1097,6 +1228,19 @@ public final class JImmutables
         return JImmutableTreeMultiset.of(comparator);
     }
 
+    /**
+     * Produces a MutableBuilder for efficiently constructing a multiset that sorts values using
+     * comparator.  Values can be added in any order.
+     * <p>
+     * Note that the Comparator MUST BE IMMUTABLE.
+     * The Comparator will be retained and used throughout the life of the map and its offspring and will
+     * be aggressively shared so it is imperative that the Comparator be completely immutable.
+     */
+    public static <T> JImmutableMultiset.Builder<T> sortedMultisetBuilder(Comparator<T> comparator)
+    {
+        return JImmutableTreeMultiset.builder(comparator);
+    }
+
     /**
      * Constructs a multiset containing all of the values in source that sorts values using comparator.
      * <p>
@@ -1174,6 +1318,15 @@ public final class JImmutables
         return JImmutableInsertOrderMultiset.of();
     }
 
+    /**
+     * Produces a MutableBuilder for efficiently constructing a multiset that iterates over values in
+     * the order they were originally added to the builder.
+     */
+    public static <T> JImmutableMultiset.Builder<T> insertOrderMultisetBuilder()
+    {
+        return JImmutableInsertOrderMultiset.builder();
+    }
+
     /**
      * Constructs a multiset containing all of the values in source that sorts values based on
      * the order they were originally added to the multiset.
@@ -0,0 +1,141 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.util;
+
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Func0;
+import org.javimmutable.collections.Func2;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.SplittableCursorable;
+import org.javimmutable.collections.common.ParallelHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Library of static functions that process the values of a SplittableCursorable in parallel.
+ * The collection is split along its internal node boundaries into independent Cursors and
+ * each Cursor is processed as a separate task by the provided ExecutorService.  The calling
+ * thread waits for all of the tasks to complete before returning.
+ * <p>
+ * Any RuntimeException or Error thrown by a task is rethrown in the calling thread.
+ * Other exceptions (including interruption of the calling thread) are wrapped in a
+ * ParallelHelper.ParallelException.
+ */
+public final class ParallelFunctions
+{
+    private ParallelFunctions()
+    {
+    }
+
+    /**
+     * Calls proc for every value in source.  Values are visited concurrently so proc must be thread safe.
+     */
+    public static <T> void forEach(ExecutorService executor,
+                                   SplittableCursorable<T> source,
+                                   final Proc1<? super T> proc)
+    {
+        final List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        for (final Cursor<T> cursor : source.splitCursors(ParallelHelper.defaultParts())) {
+            tasks.add(new Callable<Object>()
+            {
+                @Override
+                public Object call()
+                {
+                    for (Cursor<T> c = cursor.start(); c.hasValue(); c = c.next()) {
+                        proc.apply(c.getValue());
+                    }
+                    return null;
+                }
+            });
+        }
+        ParallelHelper.invokeAll(executor, tasks);
+    }
+
+    /**
+     * Folds the values of each part of source into a result starting from identity and then
+     * combines the results of the parts in order using combiner.  Since identity is used as the
+     * starting value for every part it must be immutable and combining it with any result must
+     * produce that same result.
+     */
+    public static <T, R> R reduce(ExecutorService executor,
+                                  SplittableCursorable<T> source,
+                                  final R identity,
+                                  Func2<R, ? super T, R> accumulator,
+                                  Func2<R, R, R> combiner)
+    {
+        return collect(executor, source, new Func0<R>()
+        {
+            @Override
+            public R apply()
+            {
+                return identity;
+            }
+        }, accumulator, combiner);
+    }
+
+    /**
+     * Creates a new container for each part of source using supplier, folds the values of the part
+     * into the container using accumulator, and then combines the containers of the parts in order
+     * using combiner.  Each container is only used by a single task so it can be a mutable object.
+     */
+    public static <T, A> A collect(ExecutorService executor,
+                                   SplittableCursorable<T> source,
+                                   final Func0<A> supplier,
+                                   final Func2<A, ? super T, A> accumulator,
+                                   Func2<A, A, A> combiner)
+    {
+        final List<Callable<A>> tasks = new ArrayList<Callable<A>>();
+        for (final Cursor<T> cursor : source.splitCursors(ParallelHelper.defaultParts())) {
+            tasks.add(new Callable<A>()
+            {
+                @Override
+                public A call()
+                {
+                    return Functions.foldLeft(supplier.apply(), cursor, accumulator);
+                }
+            });
+        }
+        final List<A> results = ParallelHelper.invokeAll(executor, tasks);
+        A answer = results.get(0);
+        for (int i = 1; i < results.size(); ++i) {
+            answer = combiner.apply(answer, results.get(i));
+        }
+        return answer;
+    }
+}
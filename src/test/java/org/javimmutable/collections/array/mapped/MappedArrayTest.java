@@ -0,0 +1,257 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.array.mapped;
+
+import junit.framework.TestCase;
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.IntEntryProc;
+import org.javimmutable.collections.JImmutableArray;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.MapEntry;
+import org.javimmutable.collections.array.trie32.TrieArray;
+import org.javimmutable.collections.cursors.StandardCursor;
+import org.javimmutable.collections.cursors.StandardCursorTest;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class MappedArrayTest
+        extends TestCase
+{
+    private File file;
+
+    @Override
+    public void setUp()
+        throws Exception
+    {
+        file = File.createTempFile("MappedArrayTest", ".dat");
+    }
+
+    @Override
+    public void tearDown()
+        throws Exception
+    {
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    public void testEmpty()
+        throws IOException
+    {
+        MappedArray<Long> array = MappedArray.of(RecordCodecs.longs());
+        assertEquals(0, array.size());
+        assertEquals(true, array.isEmpty());
+        assertEquals(null, array.get(0));
+        assertEquals(Holders.<Long>of(), array.find(-1));
+        StandardCursorTest.emptyCursorTest(array.cursor());
+        assertSame(array, array.delete(10));
+
+        MappedArray.write(file, RecordCodecs.longs(), array);
+        array = MappedArray.open(file, RecordCodecs.longs());
+        assertEquals(0, array.size());
+        assertEquals(null, array.get(0));
+        StandardCursorTest.emptyCursorTest(array.cursor());
+        array.checkInvariants();
+    }
+
+    public void testRandom()
+        throws IOException
+    {
+        final Random r = new Random(600L);
+        JImmutableArray<Long> expected = TrieArray.of();
+        for (int i = 0; i < 20000; ++i) {
+            final int index = r.nextInt(30000) - 5000;
+            expected = expected.assign(index, r.nextLong());
+        }
+        for (int i = 0; i < 2000; ++i) {
+            expected = expected.delete(r.nextInt(30000) - 5000);
+        }
+
+        MappedArray.write(file, RecordCodecs.longs(), expected);
+        MappedArray<Long> array = MappedArray.open(file, RecordCodecs.longs(), 1000);
+        assertEquals(true, array.isUnchanged());
+        verifyContents(expected, array);
+
+        for (int i = 0; i < 5000; ++i) {
+            final int index = r.nextInt(40000) - 10000;
+            if (r.nextInt(3) == 0) {
+                expected = expected.delete(index);
+                array = array.delete(index);
+            } else {
+                final long value = r.nextLong();
+                expected = expected.assign(index, value);
+                array = array.assign(index, value);
+            }
+            assertEquals(expected.size(), array.size());
+        }
+        assertEquals(false, array.isUnchanged());
+        verifyContents(expected, array);
+
+        // delete everything to verify empty pages are skipped
+        JImmutableArray<Long> empty = array;
+        for (Cursor<JImmutableMap.Entry<Integer, Long>> cursor = array.cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+            empty = empty.delete(cursor.getValue().getKey());
+        }
+        assertEquals(0, empty.size());
+        StandardCursorTest.emptyCursorTest(empty.cursor());
+        empty.checkInvariants();
+
+        final File other = File.createTempFile("MappedArrayTest", ".dat");
+        try {
+            MappedArray.write(other, RecordCodecs.longs(), array);
+            verifyContents(expected, MappedArray.open(other, RecordCodecs.longs()));
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            other.delete();
+        }
+    }
+
+    public void testOldVersionsUnchanged()
+        throws IOException
+    {
+        JImmutableArray<Integer> source = TrieArray.of();
+        for (int i = 0; i < 100; ++i) {
+            source = source.assign(i, i);
+        }
+        MappedArray.write(file, RecordCodecs.ints(), source);
+        final MappedArray<Integer> original = MappedArray.open(file, RecordCodecs.ints());
+        final MappedArray<Integer> changed = original.assign(50, -50).delete(51).assign(500, 500);
+        assertEquals(Integer.valueOf(50), original.get(50));
+        assertEquals(Integer.valueOf(51), original.get(51));
+        assertEquals(null, original.get(500));
+        assertEquals(100, original.size());
+        assertEquals(Integer.valueOf(-50), changed.get(50));
+        assertEquals(null, changed.get(51));
+        assertEquals(Integer.valueOf(500), changed.get(500));
+        assertEquals(100, changed.size());
+        changed.checkInvariants();
+    }
+
+    public void testCodecs()
+        throws IOException
+    {
+        JImmutableArray<Double> doubles = TrieArray.<Double>of().assign(-1, -1.5).assign(0, 0.0).assign(31, Double.MAX_VALUE);
+        MappedArray.write(file, RecordCodecs.doubles(), doubles);
+        verifyContents(doubles, MappedArray.open(file, RecordCodecs.doubles()));
+
+        try {
+            MappedArray.open(file, RecordCodecs.ints());
+            fail();
+        } catch (IOException ignored) {
+            // expected
+        }
+
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[]{1, 2, 3});
+        } finally {
+            out.close();
+        }
+        try {
+            MappedArray.open(file, RecordCodecs.doubles());
+            fail();
+        } catch (IOException ignored) {
+            // expected
+        }
+    }
+
+    public void testCorruptHeader()
+        throws IOException
+    {
+        final JImmutableArray<Long> longs = TrieArray.<Long>of().assign(-40, -40L).assign(0, 0L).assign(100, 100L);
+        verifyCorruptHeader(longs, 16, -1);
+        verifyCorruptHeader(longs, 16, Integer.MAX_VALUE);
+        verifyCorruptHeader(longs, 20, -1);
+        verifyCorruptHeader(longs, 20, Integer.MAX_VALUE);
+        verifyCorruptHeader(longs, 12, MappedPages.MIN_PAGE - 1);
+        verifyCorruptHeader(longs, 12, MappedPages.MAX_PAGE);
+
+        MappedArray.write(file, RecordCodecs.longs(), longs);
+        verifyContents(longs, MappedArray.open(file, RecordCodecs.longs()));
+    }
+
+    private void verifyCorruptHeader(JImmutableArray<Long> array,
+                                     int offset,
+                                     int value)
+        throws IOException
+    {
+        MappedArray.write(file, RecordCodecs.longs(), array);
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(offset);
+            raf.writeInt(value);
+        } finally {
+            raf.close();
+        }
+        try {
+            MappedArray.open(file, RecordCodecs.longs());
+            fail();
+        } catch (IOException ignored) {
+            // expected
+        }
+    }
+
+    private <T> void verifyContents(JImmutableArray<T> expected,
+                                    MappedArray<T> array)
+    {
+        array.checkInvariants();
+        assertEquals(expected.size(), array.size());
+        final List<JImmutableMap.Entry<Integer, T>> entries = StandardCursor.makeList(expected.cursor());
+        for (JImmutableMap.Entry<Integer, T> entry : entries) {
+            assertEquals(entry.getValue(), array.get(entry.getKey()));
+            assertEquals(Holders.of(entry.getValue()), array.find(entry.getKey()));
+        }
+        StandardCursorTest.listCursorTest(entries, array.cursor());
+
+        final List<JImmutableMap.Entry<Integer, T>> visited = new ArrayList<JImmutableMap.Entry<Integer, T>>();
+        array.forEach(new IntEntryProc<T>()
+        {
+            @Override
+            public void apply(int key,
+                              T value)
+            {
+                visited.add(MapEntry.of(key, value));
+            }
+        });
+        assertEquals(entries, visited);
+    }
+}
@@ -40,6 +40,7 @@ import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.Holders;
 import org.javimmutable.collections.JImmutableMap;
 import org.javimmutable.collections.MapEntry;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.common.MutableDelta;
 import org.javimmutable.collections.cursors.IterableCursor;
 
@@ -128,4 +129,13 @@ class TestOnlyTransforms<K, V>
         }
         return IterableCursor.of(entries);
     }
+
+    @Override
+    public void forEachEntry(Map<K, V> leaf,
+                             Proc1<? super JImmutableMap.Entry<K, V>> proc)
+    {
+        for (Map.Entry<K, V> entry : leaf.entrySet()) {
+            proc.apply(MapEntry.of(entry));
+        }
+    }
 }
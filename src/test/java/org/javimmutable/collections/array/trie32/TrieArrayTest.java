@@ -39,12 +39,14 @@ import junit.framework.TestCase;
 import org.javimmutable.collections.Func0;
 import org.javimmutable.collections.Func2;
 import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.IntEntryProc;
 import org.javimmutable.collections.JImmutableArray;
 import org.javimmutable.collections.JImmutableMap;
 import org.javimmutable.collections.MapEntry;
 import org.javimmutable.collections.MutableBuilder;
 import org.javimmutable.collections.common.IndexedList;
 import org.javimmutable.collections.common.StandardMutableBuilderTests;
+import org.javimmutable.collections.common.StandardSerializableTests;
 import org.javimmutable.collections.cursors.StandardCursorTest;
 
 import java.util.ArrayList;
@@ -181,6 +183,60 @@ public class TrieArrayTest
         StandardCursorTest.listCursorTest(entries, array.cursor());
     }
 
+    public void testForEachAndIntEntryIterator()
+    {
+        final Random r = new Random(10L);
+        for (int loop = 0; loop < 50; ++loop) {
+            TrieArray<Integer> array = TrieArray.of();
+            final int size = r.nextInt(2000);
+            for (int i = 0; i < size; ++i) {
+                final int index = (loop % 2 == 0) ? r.nextInt() : r.nextInt(5000);
+                array = array.assign(index, i);
+            }
+
+            final List<JImmutableMap.Entry<Integer, Integer>> expected = new ArrayList<JImmutableMap.Entry<Integer, Integer>>();
+            for (JImmutableMap.Entry<Integer, Integer> entry : array) {
+                expected.add(entry);
+            }
+
+            final List<JImmutableMap.Entry<Integer, Integer>> visited = new ArrayList<JImmutableMap.Entry<Integer, Integer>>();
+            array.forEach(new IntEntryProc<Integer>()
+            {
+                @Override
+                public void apply(int key,
+                                  Integer value)
+                {
+                    visited.add(MapEntry.of(key, value));
+                }
+            });
+            assertEquals(expected, visited);
+
+            final List<JImmutableMap.Entry<Integer, Integer>> iterated = new ArrayList<JImmutableMap.Entry<Integer, Integer>>();
+            final IntEntryIterator<Integer> iterator = array.intEntryIterator();
+            while (iterator.next()) {
+                iterated.add(MapEntry.of(iterator.getKey(), iterator.getValue()));
+            }
+            assertEquals(false, iterator.next());
+            assertEquals(expected, iterated);
+
+            final List<Integer> values = new ArrayList<Integer>();
+            for (Integer value : array.valuesCursor()) {
+                values.add(value);
+            }
+            assertEquals(expected.size(), values.size());
+            for (int i = 0; i < values.size(); ++i) {
+                assertEquals(expected.get(i).getValue(), values.get(i));
+            }
+        }
+
+        assertEquals(false, TrieArray.<Integer>of().intEntryIterator().next());
+        final IntEntryIterator<String> single = TrieArray.<String>of().assign(-5, "a").intEntryIterator();
+        assertEquals(true, single.next());
+        assertEquals(-5, single.getKey());
+        assertEquals("a", single.getValue());
+        assertEquals(false, single.next());
+    }
+
     public void testVarious()
     {
         List<Integer> indexes = createBranchIndexes();
@@ -315,4 +371,43 @@ public class TrieArrayTest
         Collections.sort(answer);
         return answer;
     }
+
+    public void testSerialization()
+        throws Exception
+    {
+        StandardSerializableTests.verifySerializableSingleton(TrieArray.of());
+
+        final Random random = new Random(100L);
+        final Map<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+        JImmutableArray<Integer> array = TrieArray.of();
+        for (int i = -500; i < 500; ++i) {
+            expected.put(i, i);
+            array = array.assign(i, i);
+        }
+        for (int i = 0; i < 2000; ++i) {
+            final int index = random.nextInt();
+            expected.put(index, i);
+            array = array.assign(index, i);
+        }
+
+        JImmutableArray<Integer> copy = StandardSerializableTests.serializedCopy(array);
+        copy.checkInvariants();
+        assertEquals(expected.size(), copy.size());
+        final List<Integer> keys = new ArrayList<Integer>();
+        for (JImmutableMap.Entry<Integer, Integer> entry : copy) {
+            keys.add(entry.getKey());
+            assertEquals(expected.get(entry.getKey()), entry.getValue());
+        }
+        assertEquals(new ArrayList<Integer>(expected.keySet()), keys);
+
+        for (Integer key : expected.keySet()) {
+            copy = copy.delete(key);
+        }
+        assertEquals(0, copy.size());
+
+        copy = StandardSerializableTests.serializedCopy(TrieArray.<Integer>of().assign(1000, 1000));
+        assertEquals(1, copy.size());
+        assertEquals(Integer.valueOf(1000), copy.get(1000));
+        assertEquals(2, copy.assign(-1000, -1000).size());
+    }
 }
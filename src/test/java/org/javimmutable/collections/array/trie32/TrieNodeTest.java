@@ -41,6 +41,7 @@ import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.Holders;
 import org.javimmutable.collections.JImmutableMap;
 import org.javimmutable.collections.MapEntry;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.common.MutableDelta;
 import org.javimmutable.collections.cursors.SingleValueCursor;
 
@@ -200,5 +201,13 @@ public class TrieNodeTest
         {
             return SingleValueCursor.of(findEntry(leaf, leaf).getValue());
         }
+
+        // this is wrong since its guessing the key but ok for unit tests
+        @Override
+        public void forEachEntry(Integer leaf,
+                                 Proc1<? super JImmutableMap.Entry<Integer, Integer>> proc)
+        {
+            proc.apply(findEntry(leaf, leaf).getValue());
+        }
     }
 }
@@ -42,11 +42,17 @@ import org.javimmutable.collections.Func2;
 import org.javimmutable.collections.JImmutableList;
 import org.javimmutable.collections.JImmutableRandomAccessList;
 import org.javimmutable.collections.MutableBuilder;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.Tuple2;
+import org.javimmutable.collections.common.IndexedList;
 import org.javimmutable.collections.common.StandardMutableBuilderTests;
+import org.javimmutable.collections.common.StandardSerializableTests;
 import org.javimmutable.collections.cursors.IterableCursorable;
 import org.javimmutable.collections.cursors.StandardCursorTest;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class JImmutableBtreeListTest
         extends TestCase
@@ -1195,6 +1201,58 @@ public class JImmutableBtreeListTest
         StandardMutableBuilderTests.verifyBuilder(source, factory, (comparator));
     }
 
+    public void testForEach()
+    {
+        for (int size : new int[]{0, 1, 18, 19, 163, 40000}) {
+            final List<Integer> expected = new ArrayList<Integer>();
+            for (int i = 0; i < size; ++i) {
+                expected.add(i);
+            }
+            // insert at both ends so branch nodes have prefix and suffix values
+            JImmutableBtreeList<Integer> list = JImmutableBtreeList.of();
+            for (int i = size / 2; i < size; ++i) {
+                list = list.insertLast(i);
+            }
+            for (int i = (size / 2) - 1; i >= 0; --i) {
+                list = list.insertFirst(i);
+            }
+            final List<Integer> visited = new ArrayList<Integer>();
+            list.forEachValue(new Proc1<Integer>()
+            {
+                @Override
+                public void apply(Integer value)
+                {
+                    visited.add(value);
+                }
+            });
+            assertEquals(expected, visited);
+        }
+    }
+
+    public void testParallelBuild()
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int size : new int[]{0, 1, 18, 19, 27, 28, 162, 163, 11842, 100000}) {
+                final List<Integer> source = new ArrayList<Integer>();
+                for (int i = 0; i < size; ++i) {
+                    source.add(i);
+                }
+                final JImmutableBtreeList<Integer> expected = JImmutableBtreeList.of(IndexedList.retained(source));
+                final JImmutableBtreeList<Integer> list = JImmutableBtreeList.of(IndexedList.retained(source), executor);
+                list.checkInvariants();
+                assertEquals(expected, list);
+                assertEquals(source, list.getList());
+
+                final JImmutableBtreeList<Integer> built = JImmutableBtreeList.<Integer>builder().add(source).build(executor);
+                built.checkInvariants();
+                assertEquals(expected, built);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private List<Integer> makeValues(Random random,
                                      int size)
     {
@@ -1214,4 +1272,129 @@ public class JImmutableBtreeListTest
     {
         return IterableCursorable.of(values).cursor();
     }
+
+    public void testConcatSplitSubList()
+    {
+        final Random random = new Random(1900L);
+        List<Integer> expected = new ArrayList<Integer>();
+        JImmutableBtreeList<Integer> list = JImmutableBtreeList.of();
+        for (int loop = 0; loop < 400; ++loop) {
+            final int size = random.nextInt(3) == 0 ? random.nextInt(20) : random.nextInt(2500);
+            final List<Integer> values = new ArrayList<Integer>();
+            for (int i = 0; i < size; ++i) {
+                values.add(random.nextInt());
+            }
+            final JImmutableBtreeList<Integer> other = JImmutableBtreeList.of(IndexedList.retained(values));
+            switch (random.nextInt(4)) {
+            case 0:
+                list = list.concat(other);
+                expected.addAll(values);
+                break;
+            case 1:
+                list = other.concat(list);
+                expected.addAll(0, values);
+                break;
+            case 2: {
+                final int index = random.nextInt(expected.size() + 1);
+                list = list.insertAll(index, other);
+                expected.addAll(index, values);
+                break;
+            }
+            default: {
+                final int from = random.nextInt(expected.size() + 1);
+                final int to = from + random.nextInt(expected.size() - from + 1);
+                final Tuple2<JImmutableBtreeList<Integer>, JImmutableBtreeList<Integer>> split = list.split(from);
+                split.getFirst().checkInvariants();
+                split.getSecond().checkInvariants();
+                assertEquals(expected.subList(0, from), split.getFirst().getList());
+                assertEquals(expected.subList(from, expected.size()), split.getSecond().getList());
+                list = list.subList(from, to);
+                expected = new ArrayList<Integer>(expected.subList(from, to));
+                break;
+            }
+            }
+            list.checkInvariants();
+            assertEquals(expected.size(), list.size());
+            assertEquals(expected, list.getList());
+        }
+
+        try {
+            list.split(list.size() + 1);
+            fail();
+        } catch (IndexOutOfBoundsException ignored) {
+            // expected
+        }
+        try {
+            list.subList(1, 0);
+            fail();
+        } catch (IndexOutOfBoundsException ignored) {
+            // expected
+        }
+    }
+
+    public void testConcatKeepsMinimumFill()
+    {
+        final Random random = new Random(1901L);
+        final List<Integer> expected = new ArrayList<Integer>();
+        JImmutableBtreeList<Integer> list = JImmutableBtreeList.of();
+        for (int loop = 0; loop < 5000; ++loop) {
+            final List<Integer> values = new ArrayList<Integer>();
+            for (int i = 1 + random.nextInt(4); i > 0; --i) {
+                values.add(random.nextInt());
+            }
+            final JImmutableBtreeList<Integer> other = JImmutableBtreeList.of(IndexedList.retained(values));
+            if (random.nextBoolean()) {
+                list = list.concat(other);
+                expected.addAll(values);
+            } else {
+                list = other.concat(list);
+                expected.addAll(0, values);
+            }
+            list.checkInvariants();
+            // root has at least two children and every other node is at least half full
+            final int depth = list.depth();
+            int minSize = (depth == 1) ? 1 : 2;
+            for (int i = 1; i < depth; ++i) {
+                minSize *= BtreeNode.MIN_CHILDREN;
+            }
+            assertTrue(list.size() >= minSize);
+        }
+        assertEquals(expected, list.getList());
+        assertEquals(4, list.depth());
+    }
+
+    public void testSplitSharesStructure()
+    {
+        final List<Integer> values = new ArrayList<Integer>();
+        for (int i = 0; i < 100000; ++i) {
+            values.add(i);
+        }
+        final JImmutableBtreeList<Integer> list = JImmutableBtreeList.of(IndexedList.retained(values));
+        assertSame(list, list.subList(0, list.size()));
+        final Tuple2<JImmutableBtreeList<Integer>, JImmutableBtreeList<Integer>> split = list.split(54321);
+        assertEquals(values.subList(0, 54321), split.getFirst().getList());
+        assertEquals(values.subList(54321, values.size()), split.getSecond().getList());
+        final JImmutableBtreeList<Integer> joined = split.getFirst().concat(split.getSecond());
+        joined.checkInvariants();
+        assertEquals(list, joined);
+        assertEquals(100000, joined.deleteFirst().insertFirst(0).size());
+    }
+
+    public void testSerialization()
+        throws Exception
+    {
+        StandardSerializableTests.verifySerializableSingleton(JImmutableBtreeList.of());
+
+        final List<Integer> values = new ArrayList<Integer>();
+        for (int length = 1; length <= 20000; length *= 7) {
+            while (values.size() < length) {
+                values.add(values.size());
+            }
+            final JImmutableBtreeList<Integer> list = JImmutableBtreeList.of(IndexedList.retained(values));
+            final JImmutableBtreeList<Integer> copy = StandardSerializableTests.verifySerializable(list);
+            copy.checkInvariants();
+            assertEquals(values, copy.getList());
+            assertEquals(list.insert(-1), copy.insert(-1));
+        }
+    }
 }
@@ -0,0 +1,208 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.btree_map;
+
+import junit.framework.TestCase;
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.MapEntry;
+import org.javimmutable.collections.common.IndexedList;
+import org.javimmutable.collections.common.StandardSerializableTests;
+import org.javimmutable.collections.cursors.StandardCursorTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class JImmutableBtreeMapTest
+        extends TestCase
+{
+    public void testEmpty()
+    {
+        JImmutableBtreeMap<Integer, Integer> map = JImmutableBtreeMap.of();
+        assertEquals(0, map.size());
+        assertEquals(true, map.isEmpty());
+        assertEquals(null, map.get(1));
+        assertEquals(Integer.valueOf(-1), map.getValueOr(1, -1));
+        assertEquals(true, map.find(1).isEmpty());
+        assertSame(map, map.delete(1));
+        StandardCursorTest.emptyCursorTest(map.cursor());
+        map.checkInvariants();
+    }
+
+    public void testRandom()
+    {
+        final Random random = new Random(1000L);
+        for (int loop = 0; loop < 10; ++loop) {
+            final int maxKey = 100 + random.nextInt(5000);
+            final Map<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+            JImmutableBtreeMap<Integer, Integer> map = JImmutableBtreeMap.of();
+            for (int i = 0; i < 4 * maxKey; ++i) {
+                final Integer key = random.nextInt(maxKey);
+                if (random.nextInt(3) == 0) {
+                    expected.remove(key);
+                    map = map.delete(key);
+                    assertEquals(true, map.find(key).isEmpty());
+                } else {
+                    final Integer value = random.nextInt();
+                    expected.put(key, value);
+                    map = map.assign(key, value);
+                    assertEquals(value, map.get(key));
+                    assertEquals(value, map.findEntry(key).getValue().getValue());
+                }
+                assertEquals(expected.size(), map.size());
+            }
+            map.checkInvariants();
+            assertEquals(expected, map.getMap());
+            assertEquals(new TreeMap<Integer, Integer>(expected).hashCode(), map.hashCode());
+            StandardCursorTest.listCursorTest(entries(expected), map.cursor());
+
+            // assigning an existing value returns the same map
+            for (JImmutableMap.Entry<Integer, Integer> entry : map) {
+                assertSame(map, map.assign(entry.getKey(), entry.getValue()));
+            }
+
+            final List<Integer> keys = new ArrayList<Integer>(expected.keySet());
+            Collections.shuffle(keys, random);
+            for (Integer key : keys) {
+                map = map.delete(key);
+                expected.remove(key);
+                assertEquals(expected.size(), map.size());
+                if (random.nextInt(100) == 0) {
+                    map.checkInvariants();
+                }
+            }
+            map.checkInvariants();
+            assertEquals(0, map.size());
+        }
+    }
+
+    public void testSequentialInsertion()
+    {
+        JImmutableBtreeMap<Integer, Integer> map = JImmutableBtreeMap.of();
+        for (int i = 0; i < 10000; ++i) {
+            map = map.assign(i, i);
+        }
+        map.checkInvariants();
+        assertEquals(10000, map.size());
+        for (int i = 9999; i >= 0; --i) {
+            assertEquals(Integer.valueOf(i), map.get(i));
+            map = map.delete(i);
+        }
+        map.checkInvariants();
+        assertEquals(0, map.size());
+    }
+
+    public void testComparator()
+    {
+        final Comparator<Integer> reverse = Collections.reverseOrder();
+        JImmutableBtreeMap<Integer, String> map = JImmutableBtreeMap.of(reverse);
+        final Map<Integer, String> expected = new TreeMap<Integer, String>(reverse);
+        for (int i = 0; i < 500; ++i) {
+            map = map.assign(i, String.valueOf(i));
+            expected.put(i, String.valueOf(i));
+        }
+        map.checkInvariants();
+        StandardCursorTest.listCursorTest(entries(expected), map.cursor());
+        assertSame(reverse, map.deleteAll().getComparator());
+        assertEquals(0, map.deleteAll().size());
+    }
+
+    public void testFromSorted()
+    {
+        for (int size : new int[]{0, 1, 31, 32, 33, 1023, 1024, 1025, 40000}) {
+            final List<Integer> keys = new ArrayList<Integer>();
+            final List<String> values = new ArrayList<String>();
+            final Map<Integer, String> expected = new TreeMap<Integer, String>();
+            for (int i = 0; i < size; ++i) {
+                keys.add(2 * i);
+                values.add(String.valueOf(i));
+                expected.put(2 * i, String.valueOf(i));
+            }
+            JImmutableBtreeMap<Integer, String> map = JImmutableBtreeMap.fromSorted(JImmutableBtreeMap.<Integer, String>of().getComparator(),
+                                                                                    IndexedList.retained(keys),
+                                                                                    IndexedList.retained(values));
+            map.checkInvariants();
+            assertEquals(expected, map.getMap());
+            map = map.assign(-1, "x").assign(2 * size + 1, "y").delete(0);
+            expected.put(-1, "x");
+            expected.put(2 * size + 1, "y");
+            expected.remove(0);
+            map.checkInvariants();
+            assertEquals(expected, map.getMap());
+        }
+        try {
+            JImmutableBtreeMap.fromSorted(JImmutableBtreeMap.<Integer, String>of().getComparator(),
+                                          IndexedList.retained(Arrays.asList(2, 1)),
+                                          IndexedList.retained(Arrays.asList("a", "b")));
+            fail();
+        } catch (IllegalArgumentException ignored) {
+            // expected
+        }
+    }
+
+    public void testSerialization()
+        throws Exception
+    {
+        StandardSerializableTests.verifySerializableSingleton(JImmutableBtreeMap.of());
+
+        final Comparator<Integer> reverse = Collections.reverseOrder();
+        for (JImmutableBtreeMap<Integer, Integer> map : Arrays.asList(JImmutableBtreeMap.<Integer, Integer>of(), JImmutableBtreeMap.<Integer, Integer>of(reverse))) {
+            for (int i = -1000; i <= 1000; i += 3) {
+                map = map.assign(i, -i);
+            }
+            final JImmutableBtreeMap<Integer, Integer> copy = StandardSerializableTests.verifySerializable(map);
+            copy.checkInvariants();
+            assertEquals(map.getComparator(), copy.getComparator());
+            assertEquals(map.getMap(), copy.getMap());
+            assertEquals(map.size() + 1, copy.assign(1, 1).size());
+        }
+    }
+
+    private static <K, V> List<JImmutableMap.Entry<K, V>> entries(Map<K, V> map)
+    {
+        final List<JImmutableMap.Entry<K, V>> answer = new ArrayList<JImmutableMap.Entry<K, V>>();
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            answer.add(MapEntry.of(entry));
+        }
+        return answer;
+    }
+}
@@ -0,0 +1,99 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.btree_map;
+
+import junit.framework.TestCase;
+import org.javimmutable.collections.JImmutableSet;
+import org.javimmutable.collections.common.StandardJImmutableSetTests;
+import org.javimmutable.collections.common.StandardSerializableTests;
+import org.javimmutable.collections.cursors.StandardCursorTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class JImmutableBtreeSetTest
+        extends TestCase
+{
+    public void testStandard()
+    {
+        StandardJImmutableSetTests.verifySet(JImmutableBtreeSet.<Integer>of());
+        StandardCursorTest.emptyCursorTest(JImmutableBtreeSet.<Integer>of().cursor());
+        StandardCursorTest.listCursorTest(Arrays.asList(1, 2, 3), JImmutableBtreeSet.<Integer>of().union(Arrays.asList(3, 1, 2)).cursor());
+    }
+
+    public void testRandom()
+    {
+        final Random random = new Random(2000L);
+        final TreeSet<Integer> expected = new TreeSet<Integer>();
+        JImmutableSet<Integer> set = JImmutableBtreeSet.of();
+        for (int i = 0; i < 20000; ++i) {
+            final int value = random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(value);
+                set = set.delete(value);
+            } else {
+                expected.add(value);
+                set = set.insert(value);
+            }
+        }
+        set.checkInvariants();
+        assertEquals(expected, set.getSet());
+        assertEquals(expected.hashCode(), set.hashCode());
+        StandardCursorTest.listCursorTest(new ArrayList<Integer>(expected), set.cursor());
+    }
+
+    public void testSerialization()
+        throws Exception
+    {
+        StandardSerializableTests.verifySerializableSingleton(JImmutableBtreeSet.of());
+
+        final Comparator<Integer> reverse = Collections.reverseOrder();
+        for (JImmutableSet<Integer> set : Arrays.<JImmutableSet<Integer>>asList(JImmutableBtreeSet.<Integer>of(), JImmutableBtreeSet.of(reverse))) {
+            for (int i = -1000; i <= 1000; i += 3) {
+                set = set.insert(i);
+            }
+            final JImmutableBtreeSet<Integer> copy = StandardSerializableTests.verifySerializable((JImmutableBtreeSet<Integer>)set);
+            copy.checkInvariants();
+            assertEquals(((JImmutableBtreeSet<Integer>)set).getComparator(), copy.getComparator());
+            assertEquals(new ArrayList<Integer>(set.getSet()), new ArrayList<Integer>(copy.getSet()));
+            assertEquals(set.size() + 1, copy.insert(1).size());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.hash;
+
+import junit.framework.TestCase;
+import org.javimmutable.collections.Holder;
+import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.MapEntry;
+import org.javimmutable.collections.common.MutableDelta;
+import org.javimmutable.collections.cursors.StandardCursorTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class HashKeyTransformsTest
+        extends TestCase
+{
+    private JImmutableMap.Entry<Integer, Boolean> entry(int key)
+    {
+        return MapEntry.of(key, Boolean.TRUE);
+    }
+
+    public void testUpdateDelete()
+    {
+        HashKeyTransforms<Integer> transforms = new HashKeyTransforms<Integer>();
+        MutableDelta delta = new MutableDelta();
+        Object value = transforms.update(Holders.of(), 10, Boolean.TRUE, delta);
+        assertEquals(1, delta.getValue());
+        assertEquals(10, value);
+
+        delta = new MutableDelta();
+        assertSame(value, transforms.update(Holders.of(value), 10, Boolean.TRUE, delta));
+        assertEquals(0, delta.getValue());
+
+        delta = new MutableDelta();
+        value = transforms.update(Holders.of(value), 12, Boolean.TRUE, delta);
+        assertEquals(1, delta.getValue());
+        assertTrue(value instanceof MultiHashKeyNode);
+
+        delta = new MutableDelta();
+        assertSame(value, transforms.update(Holders.of(value), 12, Boolean.TRUE, delta));
+        assertEquals(0, delta.getValue());
+
+        delta = new MutableDelta();
+        value = transforms.update(Holders.of(value), 14, Boolean.TRUE, delta);
+        assertEquals(1, delta.getValue());
+
+        delta = new MutableDelta();
+        Holder<Object> deleted = transforms.delete(value, 87, delta);
+        assertEquals(0, delta.getValue());
+        assertSame(value, deleted.getValue());
+
+        delta = new MutableDelta();
+        deleted = transforms.delete(deleted.getValue(), 12, delta);
+        assertEquals(-1, delta.getValue());
+        assertTrue(deleted.getValue() instanceof MultiHashKeyNode);
+
+        delta = new MutableDelta();
+        deleted = transforms.delete(deleted.getValue(), 10, delta);
+        assertEquals(-1, delta.getValue());
+        assertEquals(14, deleted.getValue());
+
+        delta = new MutableDelta();
+        deleted = transforms.delete(deleted.getValue(), 40, delta);
+        assertEquals(0, delta.getValue());
+        assertEquals(14, deleted.getValue());
+
+        delta = new MutableDelta();
+        deleted = transforms.delete(deleted.getValue(), 14, delta);
+        assertEquals(-1, delta.getValue());
+        assertEquals(true, deleted.isEmpty());
+    }
+
+    public void testFindGet()
+    {
+        HashKeyTransforms<Integer> transforms = new HashKeyTransforms<Integer>();
+        MutableDelta delta = new MutableDelta();
+        Object value = transforms.update(Holders.of(), 10, Boolean.TRUE, delta);
+        assertEquals(Holders.of(Boolean.TRUE), transforms.findValue(value, 10));
+        assertEquals(Holders.<Boolean>of(), transforms.findValue(value, 11));
+        assertEquals(Holders.of(entry(10)), transforms.findEntry(value, 10));
+        StandardCursorTest.listCursorTest(Collections.singletonList(entry(10)), transforms.cursor(value));
+
+        value = transforms.update(Holders.of(value), 18, Boolean.TRUE, delta);
+        value = transforms.update(Holders.of(value), 12, Boolean.TRUE, delta);
+        value = transforms.update(Holders.of(value), -6, Boolean.TRUE, delta);
+        value = transforms.update(Holders.of(value), 12, Boolean.TRUE, delta);
+        assertEquals(4, delta.getValue());
+
+        assertEquals(Holders.of(Boolean.TRUE), transforms.findValue(value, 10));
+        assertEquals(Holders.of(Boolean.TRUE), transforms.findValue(value, 12));
+        assertEquals(Holders.of(Boolean.TRUE), transforms.findValue(value, 18));
+        assertEquals(Holders.of(Boolean.TRUE), transforms.findValue(value, -6));
+        assertEquals(Holders.<Boolean>of(), transforms.findValue(value, 11));
+
+        assertEquals(Holders.of(entry(10)), transforms.findEntry(value, 10));
+        assertEquals(Holders.of(entry(-6)), transforms.findEntry(value, -6));
+        assertEquals(Holders.<JImmutableMap.Entry<Integer, Boolean>>of(), transforms.findEntry(value, 11));
+
+        List<JImmutableMap.Entry<Integer, Boolean>> expected = new ArrayList<JImmutableMap.Entry<Integer, Boolean>>();
+        expected.add(entry(10));
+        expected.add(entry(18));
+        expected.add(entry(12));
+        expected.add(entry(-6));
+        StandardCursorTest.listCursorTest(expected, transforms.cursor(value));
+    }
+}
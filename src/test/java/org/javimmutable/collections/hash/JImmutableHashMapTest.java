@@ -36,17 +36,30 @@
 package org.javimmutable.collections.hash;
 
 import junit.framework.TestCase;
+import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Func1;
 import org.javimmutable.collections.Holder;
+import org.javimmutable.collections.Indexed;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.MapDiffEntry;
+import org.javimmutable.collections.MapEntry;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.common.AbstractJImmutableMap;
+import org.javimmutable.collections.common.IndexedList;
+import org.javimmutable.collections.common.StandardSerializableTests;
+import org.javimmutable.collections.cursors.StandardCursor;
 import org.javimmutable.collections.cursors.StandardCursorTest;
+import org.javimmutable.collections.inorder.JImmutableInsertOrderMap;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 
 public class JImmutableHashMapTest
         extends TestCase
@@ -194,6 +207,77 @@ public class JImmutableHashMapTest
         }
     }
 
+    public void testEditor()
+    {
+        final int maxKey = 999999999;
+        Random random = new Random(200L);
+        for (int loop = 0; loop < 100; ++loop) {
+            final Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+            final List<Map<Integer, Integer>> expectedSnapshots = new ArrayList<Map<Integer, Integer>>();
+            final List<JImmutableMap<Integer, Integer>> snapshots = new ArrayList<JImmutableMap<Integer, Integer>>();
+            final JImmutableHashMap.Editor<Integer, Integer> editor = JImmutableHashMap.editor();
+            final List<Integer> keys = new ArrayList<Integer>();
+            final int size = 500 + random.nextInt(2000);
+            for (int i = 1; i <= size; ++i) {
+                final int command = random.nextInt(10);
+                if (command <= 5) {
+                    final Integer key = random.nextInt(maxKey);
+                    final Integer value = random.nextInt(1000000);
+                    expected.put(key, value);
+                    editor.assign(key, value);
+                    keys.add(key);
+                } else if (command <= 7 && keys.size() > 0) {
+                    final Integer key = keys.get(random.nextInt(keys.size()));
+                    expected.remove(key);
+                    editor.delete(key);
+                } else if (command == 8 && keys.size() > 0) {
+                    final Integer key = keys.get(random.nextInt(keys.size()));
+                    assertEquals(expected.get(key), editor.find(key).getValueOrNull());
+                    assertEquals(expected.get(key), editor.getValueOr(key, null));
+                } else {
+                    expectedSnapshots.add(new HashMap<Integer, Integer>(expected));
+                    snapshots.add(editor.build());
+                }
+                assertEquals(expected.size(), editor.size());
+            }
+            assertEquals(expected, editor.build().getMap());
+            for (int i = 0; i < snapshots.size(); ++i) {
+                assertEquals(expectedSnapshots.get(i), snapshots.get(i).getMap());
+                assertEquals(expectedSnapshots.get(i).size(), snapshots.get(i).size());
+            }
+
+            // editing a published map must not change it
+            final JImmutableMap<Integer, Integer> original = editor.build();
+            final JImmutableHashMap.Editor<Integer, Integer> second = JImmutableHashMap.editor(original);
+            for (Integer key : keys) {
+                if (random.nextBoolean()) {
+                    second.delete(key);
+                } else {
+                    second.assign(key, -1);
+                }
+            }
+            assertEquals(expected, original.getMap());
+            for (Integer key : keys) {
+                assertEquals(expected.get(key), original.find(key).getValueOrNull());
+            }
+        }
+    }
+
+    public void testEditorTransformSelection()
+    {
+        JImmutableHashMap.Editor<Integer, Integer> comparableEditor = JImmutableHashMap.editor();
+        assertSame(JImmutableHashMap.of(), comparableEditor.build());
+        comparableEditor.assign(10, 100);
+        assertSame(JImmutableHashMap.TREE_TRANSFORMS, ((JImmutableHashMap)comparableEditor.build()).getTransforms());
+        comparableEditor.delete(10);
+        assertEquals(true, comparableEditor.isEmpty());
+        assertSame(JImmutableHashMap.of(), comparableEditor.build());
+
+        JImmutableHashMap.Editor<Object, Integer> otherEditor = JImmutableHashMap.editor();
+        otherEditor.assign(new Object(), 100);
+        assertSame(JImmutableHashMap.LIST_TRANSFORMS, ((JImmutableHashMap)otherEditor.build()).getTransforms());
+    }
+
     public void testEquals()
     {
         JImmutableMap<Integer, Integer> map1 = JImmutableHashMap.<Integer, Integer>usingList().assign(1, 3).assign(2, 4).assign(3, 5);
@@ -202,6 +286,43 @@ public class JImmutableHashMapTest
         assertEquals(map1, map2);
     }
 
+    public void testIncrementalHashCode()
+    {
+        final Random random = new Random(100L);
+        final Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        JImmutableMap<Integer, Integer> map = JImmutableHashMap.of();
+        assertEquals(expected.hashCode(), map.hashCode());
+        for (int loop = 0; loop < 5000; ++loop) {
+            final Integer key = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.delete(key);
+            } else {
+                final Integer value = random.nextInt(100);
+                expected.put(key, value);
+                map = map.assign(key, value);
+            }
+            assertEquals(expected.hashCode(), map.hashCode());
+        }
+        assertEquals(expected.hashCode(), JImmutableHashMap.<Integer, Integer>of().assignAll(expected).hashCode());
+    }
+
+    public void testStructuralEquals()
+    {
+        JImmutableMap<Integer, Integer> map1 = JImmutableHashMap.of();
+        for (int i = 0; i < 1000; ++i) {
+            map1 = map1.assign(i, i);
+        }
+        final JImmutableMap<Integer, Integer> map2 = map1.assign(500, -1);
+        assertFalse(map1.equals(map2));
+        assertFalse(map2.equals(map1));
+        assertEquals(map1, map2.assign(500, 500));
+        assertEquals(map1, map1.delete(200).assign(200, 200));
+        assertFalse(map1.equals(map1.delete(200).assign(1200, 200)));
+        assertEquals(map1, JImmutableInsertOrderMap.<Integer, Integer>of().assignAll(map1));
+        assertEquals(map1.getMap(), map1.delete(200).assign(200, 200).getMap());
+    }
+
     public void testDeleteAll()
     {
         JImmutableMap<Integer, Integer> map1 = JImmutableHashMap.<Integer, Integer>usingList().assign(1, 3).assign(2, 4).assign(3, 5);
@@ -262,6 +383,113 @@ public class JImmutableHashMapTest
 
     }
 
+    public void testAssignAllMerge()
+    {
+        final Random r = new Random(500L);
+        for (int loop = 1; loop <= 50; ++loop) {
+            final Map<ManualHashKey, Integer> expected = new HashMap<ManualHashKey, Integer>();
+            JImmutableMap<ManualHashKey, Integer> map = JImmutableHashMap.usingList();
+            JImmutableMap<ManualHashKey, Integer> other = JImmutableHashMap.usingList();
+            final int hashRange = (loop % 2 == 0) ? 1000 : Integer.MAX_VALUE;
+            final int size = r.nextInt(5000);
+            for (int i = 0; i < size; ++i) {
+                final ManualHashKey key = new ManualHashKey(r.nextInt(hashRange) - hashRange / 2, String.valueOf(r.nextInt(4)));
+                map = map.assign(key, i);
+                expected.put(key, i);
+            }
+            final JImmutableMap<ManualHashKey, Integer> original = map;
+
+            // other shares most of its structure with map but has changes of its own
+            final Map<ManualHashKey, Integer> otherExpected = new HashMap<ManualHashKey, Integer>();
+            if (r.nextBoolean()) {
+                other = map;
+                otherExpected.putAll(expected);
+            }
+            for (int i = r.nextInt(200); i > 0; --i) {
+                final ManualHashKey key = new ManualHashKey(r.nextInt(hashRange) - hashRange / 2, String.valueOf(r.nextInt(4)));
+                other = other.assign(key, -i);
+                otherExpected.put(key, -i);
+            }
+            expected.putAll(otherExpected);
+
+            map = map.assignAll(other);
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected, map.getMap());
+            assertEquals(otherExpected, other.getMap());
+            assertEquals(expected.size(), other.assignAll(original).size());
+            assertSame(original, original.assignAll(original));
+            assertSame(map, map.assignAll(other));
+        }
+    }
+
+    public void testAssignAllMergeTransformSelection()
+    {
+        JImmutableMap<Integer, Integer> map = JImmutableHashMap.usingList();
+        map = map.assign(1, 1).assign(2, 2);
+        JImmutableMap<Integer, Integer> other = JImmutableHashMap.of();
+        other = other.assign(2, 20).assign(3, 30);
+        assertSame(JImmutableHashMap.TREE_TRANSFORMS, ((JImmutableHashMap)other).getTransforms());
+        assertSame(other, JImmutableHashMap.<Integer, Integer>of().assignAll(other));
+
+        final JImmutableMap<Integer, Integer> merged = map.assignAll(other);
+        assertSame(JImmutableHashMap.LIST_TRANSFORMS, ((JImmutableHashMap)merged).getTransforms());
+        assertEquals(3, merged.size());
+        assertEquals(Integer.valueOf(1), merged.get(1));
+        assertEquals(Integer.valueOf(20), merged.get(2));
+        assertEquals(Integer.valueOf(30), merged.get(3));
+    }
+
+    public void testDiff()
+    {
+        final Random r = new Random(300L);
+        for (int loop = 1; loop <= 50; ++loop) {
+            final int hashRange = (loop % 2 == 0) ? 500 : Integer.MAX_VALUE;
+            final List<ManualHashKey> keys = new ArrayList<ManualHashKey>();
+            for (int i = 0; i < 3000; ++i) {
+                keys.add(new ManualHashKey(r.nextInt(hashRange) - hashRange / 2, String.valueOf(r.nextInt(4))));
+            }
+            JImmutableMap<ManualHashKey, Integer> older = JImmutableHashMap.usingList();
+            for (int i = r.nextInt(keys.size()); i > 0; --i) {
+                older = older.assign(keys.get(r.nextInt(keys.size())), r.nextInt(10));
+            }
+            JImmutableMap<ManualHashKey, Integer> newer = older;
+            for (int i = r.nextInt(100); i > 0; --i) {
+                final ManualHashKey key = keys.get(r.nextInt(keys.size()));
+                if (r.nextBoolean()) {
+                    newer = newer.delete(key);
+                } else {
+                    newer = newer.assign(key, r.nextInt(10));
+                }
+            }
+
+            final Set<MapDiffEntry<ManualHashKey, Integer>> expected = new HashSet<MapDiffEntry<ManualHashKey, Integer>>();
+            for (ManualHashKey key : new HashSet<ManualHashKey>(keys)) {
+                final Holder<Integer> oldValue = older.find(key);
+                final Holder<Integer> newValue = newer.find(key);
+                if (oldValue.isEmpty() && newValue.isFilled()) {
+                    expected.add(MapDiffEntry.added(key, newValue.getValue()));
+                } else if (oldValue.isFilled() && newValue.isEmpty()) {
+                    expected.add(MapDiffEntry.removed(key, oldValue.getValue()));
+                } else if (oldValue.isFilled() && !oldValue.getValue().equals(newValue.getValue())) {
+                    expected.add(MapDiffEntry.changed(key, oldValue.getValue(), newValue.getValue()));
+                }
+            }
+            assertEquals(expected, diffSet(older, newer));
+            assertEquals(expected, diffSet(older, JImmutableInsertOrderMap.<ManualHashKey, Integer>of().assignAll(newer)));
+            assertEquals(0, diffSet(newer, newer).size());
+        }
+    }
+
+    private static <K, V> Set<MapDiffEntry<K, V>> diffSet(JImmutableMap<K, V> older,
+                                                          JImmutableMap<K, V> newer)
+    {
+        final Set<MapDiffEntry<K, V>> answer = new HashSet<MapDiffEntry<K, V>>();
+        for (Cursor<MapDiffEntry<K, V>> c = ((AbstractJImmutableMap<K, V>)older).diff(newer).start(); c.hasValue(); c = c.next()) {
+            assertEquals(true, answer.add(c.getValue()));
+        }
+        return answer;
+    }
+
     public void testCursor()
     {
         JImmutableMap<Integer, Integer> map = JImmutableHashMap.usingList();
@@ -275,6 +503,49 @@ public class JImmutableHashMapTest
         StandardCursorTest.listCursorTest(expected, map.valuesCursor());
     }
 
+    public void testForEach()
+    {
+        JImmutableMap<ManualHashKey, Integer> listMap = JImmutableHashMap.usingList();
+        JImmutableMap<Integer, Integer> treeMap = JImmutableHashMap.usingTree();
+        assertEquals(Collections.<JImmutableMap.Entry<ManualHashKey, Integer>>emptyList(), forEachEntries(listMap));
+        assertEquals(Collections.<JImmutableMap.Entry<Integer, Integer>>emptyList(), forEachEntries(treeMap));
+        for (int key : new int[]{-100, -2, -1, 1, 2, 100}) {
+            treeMap = treeMap.assign(key, key);
+        }
+        assertEquals(cursorEntries(treeMap), forEachEntries(treeMap));
+        final Random r = new Random(400L);
+        for (int i = 0; i < 20000; ++i) {
+            final int key = r.nextInt(200000) - 100000;
+            listMap = listMap.assign(new ManualHashKey(key % 5000, String.valueOf(key)), i);
+            treeMap = treeMap.assign(key, i);
+        }
+        assertEquals(cursorEntries(listMap), forEachEntries(listMap));
+        assertEquals(cursorEntries(treeMap), forEachEntries(treeMap));
+    }
+
+    private static <K, V> List<JImmutableMap.Entry<K, V>> forEachEntries(JImmutableMap<K, V> map)
+    {
+        final List<JImmutableMap.Entry<K, V>> answer = new ArrayList<JImmutableMap.Entry<K, V>>();
+        map.forEachEntry(new Proc1<JImmutableMap.Entry<K, V>>()
+        {
+            @Override
+            public void apply(JImmutableMap.Entry<K, V> entry)
+            {
+                answer.add(entry);
+            }
+        });
+        return answer;
+    }
+
+    private static <K, V> List<JImmutableMap.Entry<K, V>> cursorEntries(JImmutableMap<K, V> map)
+    {
+        final List<JImmutableMap.Entry<K, V>> answer = new ArrayList<JImmutableMap.Entry<K, V>>();
+        for (Cursor<JImmutableMap.Entry<K, V>> cursor = map.cursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+            answer.add(cursor.getValue());
+        }
+        return answer;
+    }
+
     public void testHashCollisions()
     {
         ManualHashKey key1 = new ManualHashKey(1000, "a");
@@ -363,4 +634,67 @@ public class JImmutableHashMapTest
             return (other.hash == hash) && other.value.equals(value);
         }
     }
+
+    public void testSerialization()
+        throws Exception
+    {
+        StandardSerializableTests.verifySerializableSingleton(JImmutableHashMap.of());
+        StandardSerializableTests.verifySerializableSingleton(JImmutableHashMap.usingList());
+        StandardSerializableTests.verifySerializableSingleton(JImmutableHashMap.<String, Integer>usingTree());
+
+        final Random random = new Random(100L);
+        JImmutableMap<String, Integer> treeMap = JImmutableHashMap.of();
+        JImmutableMap<String, Integer> listMap = JImmutableHashMap.usingList();
+        for (int i = 0; i < 5000; ++i) {
+            final String key = String.valueOf(random.nextInt());
+            treeMap = treeMap.assign(key, i);
+            listMap = listMap.assign(key, i);
+        }
+        // these keys all have the same hash code
+        for (String key : Arrays.asList("AaAa", "BBBB", "AaBB", "BBAa")) {
+            treeMap = treeMap.assign(key, -1);
+            listMap = listMap.assign(key, -1);
+        }
+
+        for (JImmutableMap<String, Integer> map : Arrays.asList(treeMap, listMap)) {
+            JImmutableMap<String, Integer> copy = StandardSerializableTests.verifySerializable(map);
+            copy.checkInvariants();
+            assertEquals(map.size(), copy.size());
+            for (JImmutableMap.Entry<String, Integer> entry : map) {
+                assertEquals(entry.getValue(), copy.get(entry.getKey()));
+                copy = copy.delete(entry.getKey());
+            }
+            assertEquals(0, copy.size());
+        }
+    }
+
+    public void testBuilder()
+    {
+        final Random random = new Random(2100L);
+        final List<JImmutableMap.Entry<Integer, Integer>> entries = new ArrayList<JImmutableMap.Entry<Integer, Integer>>();
+        final Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 5000; ++i) {
+            final Integer key = random.nextInt(2000);
+            final Integer value = random.nextInt();
+            entries.add(MapEntry.of(key, value));
+            expected.put(key, value);
+        }
+
+        final JImmutableHashMap.Builder<Integer, Integer> builder = JImmutableHashMap.<Integer, Integer>builder();
+        assertEquals(0, builder.build().size());
+        final JImmutableMap<Integer, Integer> map = builder.add(entries).build();
+        map.checkInvariants();
+        assertEquals(expected, map.getMap());
+        builder.add(-1, -1);
+        assertEquals(expected.size() + 1, builder.build().size());
+        assertEquals(expected, map.getMap());
+
+        final Indexed<JImmutableMap.Entry<Integer, Integer>> indexed = IndexedList.retained(entries);
+        @SuppressWarnings("unchecked") final JImmutableMap.Entry<Integer, Integer>[] array = entries.toArray(new JImmutableMap.Entry[entries.size()]);
+        assertEquals(expected, JImmutableHashMap.<Integer, Integer>builder().add(StandardCursor.of(indexed)).build().getMap());
+        assertEquals(expected, JImmutableHashMap.<Integer, Integer>builder().add(entries.iterator()).build().getMap());
+        assertEquals(expected, JImmutableHashMap.<Integer, Integer>builder().add(array).build().getMap());
+        assertEquals(expected, JImmutableHashMap.<Integer, Integer>builder().add(indexed).build().getMap());
+        assertEquals(expected, JImmutableHashMap.<Integer, Integer>builder().add(indexed, 0, 2500).add(indexed, 2500, 5000).build().getMap());
+    }
 }
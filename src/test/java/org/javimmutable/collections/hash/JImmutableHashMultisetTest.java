@@ -36,17 +36,24 @@
 package org.javimmutable.collections.hash;
 
 
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
 import com.google.common.collect.TreeMultiset;
 import junit.framework.TestCase;
+import org.javimmutable.collections.Func0;
+import org.javimmutable.collections.Func2;
 import org.javimmutable.collections.JImmutableMultiset;
 import org.javimmutable.collections.JImmutableSet;
 import org.javimmutable.collections.common.StandardJImmutableMultisetTests;
+import org.javimmutable.collections.common.StandardMutableBuilderTests;
+import org.javimmutable.collections.common.StandardSerializableTests;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 public class JImmutableHashMultisetTest
@@ -227,4 +234,71 @@ public class JImmutableHashMultisetTest
         JImmutableMultiset<String> jmet = JImmutableHashMultiset.of();
         return jmet.insertAll(list);
     }
-}
\ No newline at end of file
+
+    public void testSerialization()
+        throws Exception
+    {
+        StandardSerializableTests.verifySerializableSingleton(JImmutableHashMultiset.of());
+
+        JImmutableMultiset<Integer> multiset = JImmutableHashMultiset.of();
+        for (int i = -100; i <= 100; ++i) {
+            multiset = multiset.insert(i, Math.abs(i) + 1);
+        }
+        final JImmutableMultiset<Integer> copy = StandardSerializableTests.verifySerializable(multiset);
+        copy.checkInvariants();
+        assertEquals(multiset.size(), copy.size());
+        assertEquals(multiset.occurrenceCount(), copy.occurrenceCount());
+        assertEquals(101, copy.count(100));
+    }
+
+    public void testBuilder()
+    {
+        final Random random = new Random(2300L);
+        final List<Integer> values = new ArrayList<Integer>();
+        final Multiset<Integer> expected = HashMultiset.<Integer>create();
+        for (int i = 0; i < 5000; ++i) {
+            final Integer value = random.nextInt(2000);
+            values.add(value);
+            expected.add(value);
+        }
+
+        final JImmutableHashMultiset.Builder<Integer> builder = JImmutableHashMultiset.<Integer>builder();
+        assertEquals(true, builder.build().isEmpty());
+        JImmutableMultiset<Integer> multiset = builder.add(values).build();
+        StandardJImmutableMultisetTests.verifyContents(multiset, expected);
+        multiset = builder.add(-1, 3).add(values.get(0), 2).add(-2, 0).build();
+        expected.add(-1, 3);
+        expected.add(values.get(0), 2);
+        StandardJImmutableMultisetTests.verifyContents(multiset, expected);
+        try {
+            builder.add(-1, -1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+            // expected
+        }
+
+        Func0<JImmutableHashMultiset.Builder<Integer>> factory = new Func0<JImmutableHashMultiset.Builder<Integer>>()
+        {
+            @Override
+            public JImmutableHashMultiset.Builder<Integer> apply()
+            {
+                return JImmutableHashMultiset.<Integer>builder();
+            }
+        };
+
+        final Multiset<Integer> counted = HashMultiset.<Integer>create();
+        counted.addAll(values);
+        Func2<List<Integer>, JImmutableMultiset<Integer>, Boolean> comparator = new Func2<List<Integer>, JImmutableMultiset<Integer>, Boolean>()
+        {
+            @Override
+            public Boolean apply(List<Integer> list,
+                                 JImmutableMultiset<Integer> multiset)
+            {
+                StandardJImmutableMultisetTests.verifyContents(multiset, counted);
+                return true;
+            }
+        };
+
+        StandardMutableBuilderTests.verifyBuilder(values, factory, comparator);
+    }
+}
@@ -36,16 +36,22 @@
 package org.javimmutable.collections.hash;
 
 import junit.framework.TestCase;
+import org.javimmutable.collections.Func0;
+import org.javimmutable.collections.Func2;
 import org.javimmutable.collections.JImmutableSet;
 import org.javimmutable.collections.JImmutableStack;
 import org.javimmutable.collections.common.StandardJImmutableSetTests;
+import org.javimmutable.collections.common.StandardMutableBuilderTests;
+import org.javimmutable.collections.common.StandardSerializableTests;
 import org.javimmutable.collections.cursors.StandardCursorTest;
 import org.javimmutable.collections.list.JImmutableLinkedStack;
+import org.javimmutable.collections.tree.JImmutableTreeSet;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -206,4 +212,118 @@ public class JImmutableHashSetTest
         }
         return answer;
     }
+
+    public void testCollisions()
+    {
+        // every string in this list has the same hash code
+        final List<String> colliding = asList("AaAa", "AaBB", "BBAa", "BBBB");
+        JImmutableSet<String> set = JImmutableHashSet.of();
+        for (int i = 0; i < 1000; ++i) {
+            set = set.insert(String.valueOf(i));
+        }
+        for (String value : colliding) {
+            set = set.insert(value);
+            set.checkInvariants();
+        }
+        assertEquals(1004, set.size());
+        assertSame(set, set.insert("BBAa"));
+        for (String value : colliding) {
+            assertEquals(true, set.contains(value));
+        }
+        assertEquals(false, set.contains("AaAb"));
+        final Set<String> expected = new HashSet<String>(set.getSet());
+        for (String value : set) {
+            assertEquals(true, expected.remove(value));
+        }
+        assertEquals(0, expected.size());
+
+        for (String value : colliding) {
+            set = set.delete(value);
+            set.checkInvariants();
+            assertEquals(false, set.contains(value));
+        }
+        assertEquals(1000, set.size());
+        for (int i = 0; i < 1000; ++i) {
+            set = set.delete(String.valueOf(i));
+        }
+        assertEquals(0, set.size());
+    }
+
+    public void testHashCode()
+    {
+        final Set<Integer> expected = new HashSet<Integer>();
+        JImmutableSet<Integer> set = JImmutableHashSet.of();
+        assertEquals(expected.hashCode(), set.hashCode());
+        for (int i = 0; i < 1000; ++i) {
+            final Integer value = (i * 37) % 300;
+            if ((i % 4) == 0) {
+                expected.remove(value);
+                set = set.delete(value);
+            } else {
+                expected.add(value);
+                set = set.insert(value);
+            }
+            assertEquals(expected.hashCode(), set.hashCode());
+        }
+        assertEquals(expected.hashCode(), JImmutableHashSet.<Integer>of().insertAll(expected).hashCode());
+        assertEquals(expected.hashCode(), JImmutableTreeSet.<Integer>of().insertAll(expected).hashCode());
+        assertEquals(set, JImmutableTreeSet.<Integer>of().insertAll(expected));
+        final Integer present = expected.iterator().next();
+        assertEquals(set, set.delete(present).insert(present));
+        assertFalse(set.equals(set.delete(present).insert(1000 + present)));
+    }
+
+    public void testSerialization()
+        throws Exception
+    {
+        StandardSerializableTests.verifySerializableSingleton(JImmutableHashSet.of());
+
+        JImmutableSet<Integer> set = JImmutableHashSet.of();
+        for (int i = -1000; i <= 1000; i += 3) {
+            set = set.insert(i);
+        }
+        final JImmutableSet<Integer> copy = StandardSerializableTests.verifySerializable(set);
+        copy.checkInvariants();
+        assertEquals(set.getSet(), copy.getSet());
+        assertEquals(set.size() + 1, copy.insert(1).size());
+    }
+
+    public void testBuilder()
+    {
+        final Random random = new Random(2200L);
+        final List<Integer> values = new ArrayList<Integer>();
+        final Set<Integer> expected = new HashSet<Integer>();
+        for (int i = 0; i < 5000; ++i) {
+            final Integer value = random.nextInt(2000);
+            values.add(value);
+            expected.add(value);
+        }
+
+        final JImmutableSet<Integer> set = JImmutableHashSet.<Integer>builder().add(values).build();
+        set.checkInvariants();
+        assertEquals(expected, set.getSet());
+
+        Func0<JImmutableHashSet.Builder<Integer>> factory = new Func0<JImmutableHashSet.Builder<Integer>>()
+        {
+            @Override
+            public JImmutableHashSet.Builder<Integer> apply()
+            {
+                return JImmutableHashSet.<Integer>builder();
+            }
+        };
+
+        Func2<List<Integer>, JImmutableSet<Integer>, Boolean> comparator = new Func2<List<Integer>, JImmutableSet<Integer>, Boolean>()
+        {
+            @Override
+            public Boolean apply(List<Integer> list,
+                                 JImmutableSet<Integer> set)
+            {
+                set.checkInvariants();
+                assertEquals(expected, set.getSet());
+                return true;
+            }
+        };
+
+        StandardMutableBuilderTests.verifyBuilder(values, factory, comparator);
+    }
 }
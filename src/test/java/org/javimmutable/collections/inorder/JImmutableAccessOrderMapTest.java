@@ -0,0 +1,167 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.inorder;
+
+import junit.framework.TestCase;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.MapEntry;
+import org.javimmutable.collections.cursors.StandardCursorTest;
+
+import java.util.*;
+
+public class JImmutableAccessOrderMapTest
+        extends TestCase
+{
+    public void testOrder()
+    {
+        JImmutableAccessOrderMap<String, Integer> map = JImmutableAccessOrderMap.of();
+        map = map.assign("a", 1).assign("b", 2).assign("c", 3);
+        verifyKeys(map, "a", "b", "c");
+
+        assertSame(map, map.touch("c"));
+        assertSame(map, map.touch("x"));
+        map = map.touch("a");
+        verifyKeys(map, "b", "c", "a");
+        assertEquals(1, (int)map.get("a"));
+
+        map = map.assign("b", 20);
+        verifyKeys(map, "c", "a", "b");
+        assertEquals(20, (int)map.get("b"));
+        assertSame(map, map.assign("b", map.get("b")));
+
+        map = map.delete("a");
+        verifyKeys(map, "c", "b");
+        assertSame(map, map.evictOldest(0));
+        map = map.assign("d", 4).evictOldest(2);
+        verifyKeys(map, "d");
+        assertEquals(0, map.evictOldest(5).size());
+        map.checkInvariants();
+
+        try {
+            map.evictOldest(-1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+            // expected
+        }
+    }
+
+    public void testCapacity()
+    {
+        JImmutableAccessOrderMap<String, Integer> map = JImmutableAccessOrderMap.of(3);
+        assertEquals(3, map.getCapacity());
+        map = map.assign("a", 1).assign("b", 2).assign("c", 3).touch("a").assign("d", 4);
+        verifyKeys(map, "c", "a", "d");
+        assertEquals(null, map.get("b"));
+        map = map.assign("c", 30).assign("e", 5);
+        verifyKeys(map, "d", "c", "e");
+        map.checkInvariants();
+        assertEquals(3, map.deleteAll().getCapacity());
+        assertEquals(3, map.delete("d").delete("c").delete("e").getCapacity());
+        assertSame(JImmutableAccessOrderMap.of(), JImmutableAccessOrderMap.of(Integer.MAX_VALUE));
+
+        try {
+            JImmutableAccessOrderMap.of(0);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+            // expected
+        }
+    }
+
+    public void testRandom()
+    {
+        final Random random = new Random(2400L);
+        for (int loop = 1; loop <= 20; ++loop) {
+            final int capacity = 1 + random.nextInt(400);
+            JImmutableAccessOrderMap<Integer, Integer> map = JImmutableAccessOrderMap.of(capacity);
+            final Map<Integer, Integer> expected = new LinkedHashMap<Integer, Integer>(16, 0.75f, true)
+            {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest)
+                {
+                    return size() > capacity;
+                }
+            };
+            for (int i = 0; i < 5000; ++i) {
+                final int key = random.nextInt(500);
+                final int value = random.nextInt(1000);
+                switch (random.nextInt(5)) {
+                case 0:
+                case 1:
+                    map = map.assign(key, value);
+                    expected.put(key, value);
+                    break;
+                case 2:
+                    map = map.touch(key);
+                    expected.get(key);
+                    break;
+                case 3:
+                    map = map.delete(key);
+                    expected.remove(key);
+                    break;
+                case 4:
+                    final int count = random.nextInt(4);
+                    map = map.evictOldest(count);
+                    final Iterator<Integer> keys = expected.keySet().iterator();
+                    for (int k = 0; (k < count) && keys.hasNext(); ++k) {
+                        keys.next();
+                        keys.remove();
+                    }
+                    break;
+                }
+                assertEquals(expected.size(), map.size());
+                if ((i % 100) == 0) {
+                    map.checkInvariants();
+                }
+            }
+            map.checkInvariants();
+            final List<JImmutableMap.Entry<Integer, Integer>> entries = new ArrayList<JImmutableMap.Entry<Integer, Integer>>();
+            for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+                entries.add(MapEntry.of(entry));
+            }
+            StandardCursorTest.listCursorTest(entries, map.cursor());
+            StandardCursorTest.listIteratorTest(entries, map.iterator());
+            assertEquals(JImmutableInsertOrderMap.<Integer, Integer>of().assignAll(expected), map);
+        }
+    }
+
+    private void verifyKeys(JImmutableAccessOrderMap<String, Integer> map,
+                            String... keys)
+    {
+        StandardCursorTest.listCursorTest(Arrays.asList(keys), map.keysCursor());
+        assertEquals(keys.length, map.size());
+        map.checkInvariants();
+    }
+}
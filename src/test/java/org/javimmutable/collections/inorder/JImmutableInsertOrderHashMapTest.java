@@ -0,0 +1,157 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.inorder;
+
+import junit.framework.TestCase;
+import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.Indexed;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.MapEntry;
+import org.javimmutable.collections.common.IndexedList;
+import org.javimmutable.collections.cursors.StandardCursor;
+import org.javimmutable.collections.cursors.StandardCursorTest;
+
+import java.util.*;
+
+public class JImmutableInsertOrderHashMapTest
+        extends TestCase
+{
+    public void testEntryCursor()
+    {
+        List<JImmutableMap.Entry<String, String>> expectedEntries = new ArrayList<JImmutableMap.Entry<String, String>>();
+        List<String> expectedKeys = new ArrayList<String>();
+        JImmutableInsertOrderHashMap<String, String> map = JImmutableInsertOrderHashMap.of();
+        StandardCursorTest.listCursorTest(expectedEntries, map.cursor());
+        StandardCursorTest.listCursorTest(expectedKeys, map.keysCursor());
+
+        map = map.assign("x", "X").assign("d", "D").assign("c", "C");
+        expectedEntries.addAll(Arrays.<JImmutableMap.Entry<String, String>>asList(MapEntry.of("x", "X"), MapEntry.of("d", "D"), MapEntry.of("c", "C")));
+        expectedKeys.addAll(Arrays.asList("x", "d", "c"));
+        StandardCursorTest.listCursorTest(expectedEntries, map.cursor());
+        StandardCursorTest.listCursorTest(expectedKeys, map.keysCursor());
+
+        map = map.delete("d");
+        expectedEntries.remove(1);
+        expectedKeys.remove(1);
+        StandardCursorTest.listCursorTest(expectedEntries, map.cursor());
+        StandardCursorTest.listCursorTest(expectedKeys, map.keysCursor());
+
+        map = map.assign("d", "D");
+        expectedEntries.add(MapEntry.of("d", "D"));
+        expectedKeys.add("d");
+        StandardCursorTest.listCursorTest(expectedEntries, map.cursor());
+        StandardCursorTest.listCursorTest(expectedKeys, map.keysCursor());
+
+        map = map.assign("x", "XX");
+        expectedEntries.set(0, MapEntry.of("x", "XX"));
+        StandardCursorTest.listCursorTest(expectedEntries, map.cursor());
+        StandardCursorTest.listCursorTest(expectedKeys, map.keysCursor());
+        assertSame(map, map.assign("x", map.get("x")));
+        assertSame(map, map.delete("q"));
+        map.checkInvariants();
+    }
+
+    public void testRandom()
+    {
+        Random r = new Random(2300L);
+        for (int loop = 1; loop <= 20; ++loop) {
+            JImmutableMap<Integer, Integer> map = JImmutableInsertOrderHashMap.of();
+            Map<Integer, Integer> expected = new LinkedHashMap<Integer, Integer>();
+            for (int i = 0; i < 5000; ++i) {
+                final int key = r.nextInt(500);
+                final int value = r.nextInt(500);
+                if (r.nextInt(3) == 0) {
+                    map = map.delete(key);
+                    expected.remove(key);
+                    assertEquals(null, map.getValueOr(key, null));
+                    assertEquals(Holders.<Integer>of(), map.find(key));
+                } else {
+                    map = map.assign(key, value);
+                    expected.put(key, value);
+                    assertEquals(value, (int)map.get(key));
+                    assertEquals(Holders.of(value), map.find(key));
+                    assertEquals(MapEntry.of(key, value), map.findEntry(key).getValue());
+                }
+                assertEquals(expected.size(), map.size());
+                if ((i % 100) == 0) {
+                    map.checkInvariants();
+                }
+            }
+            map.checkInvariants();
+            assertEquals(expected, map.getMap());
+            List<JImmutableMap.Entry<Integer, Integer>> entries = new ArrayList<JImmutableMap.Entry<Integer, Integer>>();
+            List<Integer> keys = new ArrayList<Integer>();
+            for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+                entries.add(MapEntry.of(entry));
+                keys.add(entry.getKey());
+            }
+            StandardCursorTest.listIteratorTest(entries, map.iterator());
+            StandardCursorTest.listCursorTest(entries, map.cursor());
+            StandardCursorTest.listCursorTest(keys, map.keysCursor());
+            assertEquals(JImmutableInsertOrderMap.<Integer, Integer>of().assignAll(expected), map);
+            while (!keys.isEmpty()) {
+                map = map.delete(keys.remove(0));
+                assertEquals(keys.size(), map.size());
+                map.checkInvariants();
+            }
+            assertSame(JImmutableInsertOrderHashMap.of(), map);
+        }
+    }
+
+    public void testBuilder()
+    {
+        final Random random = new Random(2301L);
+        final List<JImmutableMap.Entry<Integer, Integer>> entries = new ArrayList<JImmutableMap.Entry<Integer, Integer>>();
+        final Map<Integer, Integer> expected = new LinkedHashMap<Integer, Integer>();
+        for (int i = 0; i < 5000; ++i) {
+            final Integer key = random.nextInt(2000);
+            final Integer value = random.nextInt();
+            entries.add(MapEntry.of(key, value));
+            expected.put(key, value);
+        }
+
+        final JImmutableInsertOrderHashMap.Builder<Integer, Integer> builder = JImmutableInsertOrderHashMap.<Integer, Integer>builder();
+        assertEquals(0, builder.build().size());
+        final JImmutableMap<Integer, Integer> map = builder.add(entries).build();
+        map.checkInvariants();
+        assertEquals(expected, map.getMap());
+        StandardCursorTest.listCursorTest(new ArrayList<Integer>(expected.keySet()), map.keysCursor());
+
+        final Indexed<JImmutableMap.Entry<Integer, Integer>> indexed = IndexedList.retained(entries);
+        assertEquals(expected, JImmutableInsertOrderHashMap.<Integer, Integer>builder().add(StandardCursor.of(indexed)).build().getMap());
+        assertEquals(expected, JImmutableInsertOrderHashMap.<Integer, Integer>builder().add(indexed, 0, 2500).add(indexed, 2500, 5000).build().getMap());
+    }
+}
@@ -36,9 +36,13 @@
 package org.javimmutable.collections.inorder;
 
 import junit.framework.TestCase;
+import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.Indexed;
 import org.javimmutable.collections.JImmutableMap;
 import org.javimmutable.collections.MapEntry;
+import org.javimmutable.collections.common.IndexedList;
+import org.javimmutable.collections.cursors.StandardCursor;
 import org.javimmutable.collections.cursors.StandardCursorTest;
 
 import java.util.*;
@@ -246,4 +250,39 @@ public class JImmutableInsertOrderMapTest
         }
         return map;
     }
+
+    public void testBuilder()
+    {
+        final Random random = new Random(2100L);
+        final List<JImmutableMap.Entry<Integer, Integer>> entries = new ArrayList<JImmutableMap.Entry<Integer, Integer>>();
+        final Map<Integer, Integer> expected = new LinkedHashMap<Integer, Integer>();
+        for (int i = 0; i < 5000; ++i) {
+            final Integer key = random.nextInt(2000);
+            final Integer value = random.nextInt();
+            entries.add(MapEntry.of(key, value));
+            expected.put(key, value);
+        }
+
+        final JImmutableInsertOrderMap.Builder<Integer, Integer> builder = JImmutableInsertOrderMap.<Integer, Integer>builder();
+        assertEquals(0, builder.build().size());
+        final JImmutableMap<Integer, Integer> map = builder.add(entries).build();
+        map.checkInvariants();
+        assertEquals(expected, map.getMap());
+        final List<Integer> keys = new ArrayList<Integer>();
+        for (Cursor<Integer> cursor = map.keysCursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+            keys.add(cursor.getValue());
+        }
+        assertEquals(new ArrayList<Integer>(expected.keySet()), keys);
+        builder.add(-1, -1);
+        assertEquals(expected.size() + 1, builder.build().size());
+        assertEquals(expected, map.getMap());
+
+        final Indexed<JImmutableMap.Entry<Integer, Integer>> indexed = IndexedList.retained(entries);
+        @SuppressWarnings("unchecked") final JImmutableMap.Entry<Integer, Integer>[] array = entries.toArray(new JImmutableMap.Entry[entries.size()]);
+        assertEquals(expected, JImmutableInsertOrderMap.<Integer, Integer>builder().add(StandardCursor.of(indexed)).build().getMap());
+        assertEquals(expected, JImmutableInsertOrderMap.<Integer, Integer>builder().add(entries.iterator()).build().getMap());
+        assertEquals(expected, JImmutableInsertOrderMap.<Integer, Integer>builder().add(array).build().getMap());
+        assertEquals(expected, JImmutableInsertOrderMap.<Integer, Integer>builder().add(indexed).build().getMap());
+        assertEquals(expected, JImmutableInsertOrderMap.<Integer, Integer>builder().add(indexed, 0, 2500).add(indexed, 2500, 5000).build().getMap());
+    }
 }
@@ -40,11 +40,14 @@ import com.google.common.collect.Multiset;
 import junit.framework.AssertionFailedError;
 import junit.framework.TestCase;
 import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Func0;
+import org.javimmutable.collections.Func2;
 import org.javimmutable.collections.Holder;
 import org.javimmutable.collections.JImmutableMap;
 import org.javimmutable.collections.JImmutableMultiset;
 import org.javimmutable.collections.JImmutableSet;
 import org.javimmutable.collections.common.StandardJImmutableMultisetTests;
+import org.javimmutable.collections.common.StandardMutableBuilderTests;
 import org.javimmutable.collections.cursors.StandardCursorTest;
 
 import java.util.ArrayList;
@@ -309,4 +312,56 @@ public class JImmutableInsertOrderMultisetTest
         }
         return list;
     }
+
+    public void testBuilder()
+    {
+        final Random random = new Random(2300L);
+        final List<Integer> values = new ArrayList<Integer>();
+        final Multiset<Integer> expected = LinkedHashMultiset.<Integer>create();
+        for (int i = 0; i < 5000; ++i) {
+            final Integer value = random.nextInt(2000);
+            values.add(value);
+            expected.add(value);
+        }
+
+        final JImmutableInsertOrderMultiset.Builder<Integer> builder = JImmutableInsertOrderMultiset.<Integer>builder();
+        assertEquals(true, builder.build().isEmpty());
+        JImmutableMultiset<Integer> multiset = builder.add(values).build();
+        StandardJImmutableMultisetTests.verifyContents(multiset, expected);
+        StandardJImmutableMultisetTests.verifyCursor(multiset, expected);
+        multiset = builder.add(-1, 3).add(values.get(0), 2).add(-2, 0).build();
+        expected.add(-1, 3);
+        expected.add(values.get(0), 2);
+        StandardJImmutableMultisetTests.verifyContents(multiset, expected);
+        try {
+            builder.add(-1, -1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+            // expected
+        }
+
+        Func0<JImmutableInsertOrderMultiset.Builder<Integer>> factory = new Func0<JImmutableInsertOrderMultiset.Builder<Integer>>()
+        {
+            @Override
+            public JImmutableInsertOrderMultiset.Builder<Integer> apply()
+            {
+                return JImmutableInsertOrderMultiset.<Integer>builder();
+            }
+        };
+
+        final Multiset<Integer> counted = LinkedHashMultiset.<Integer>create();
+        counted.addAll(values);
+        Func2<List<Integer>, JImmutableMultiset<Integer>, Boolean> comparator = new Func2<List<Integer>, JImmutableMultiset<Integer>, Boolean>()
+        {
+            @Override
+            public Boolean apply(List<Integer> list,
+                                 JImmutableMultiset<Integer> multiset)
+            {
+                StandardJImmutableMultisetTests.verifyContents(multiset, counted);
+                return true;
+            }
+        };
+
+        StandardMutableBuilderTests.verifyBuilder(values, factory, comparator);
+    }
 }
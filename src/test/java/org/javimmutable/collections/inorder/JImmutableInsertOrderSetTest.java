@@ -36,9 +36,12 @@
 package org.javimmutable.collections.inorder;
 
 import junit.framework.TestCase;
+import org.javimmutable.collections.Func0;
+import org.javimmutable.collections.Func2;
 import org.javimmutable.collections.JImmutableSet;
 import org.javimmutable.collections.JImmutableStack;
 import org.javimmutable.collections.common.StandardJImmutableSetTests;
+import org.javimmutable.collections.common.StandardMutableBuilderTests;
 import org.javimmutable.collections.cursors.StandardCursorTest;
 import org.javimmutable.collections.list.JImmutableLinkedStack;
 
@@ -257,4 +260,48 @@ public class JImmutableInsertOrderSetTest
         }
         return answer;
     }
+
+    public void testBuilder()
+    {
+        final Random random = new Random(2200L);
+        final List<Integer> values = new ArrayList<Integer>();
+        final Set<Integer> expected = new LinkedHashSet<Integer>();
+        for (int i = 0; i < 5000; ++i) {
+            final Integer value = random.nextInt(2000);
+            values.add(value);
+            expected.add(value);
+        }
+
+        final JImmutableSet<Integer> set = JImmutableInsertOrderSet.<Integer>builder().add(values).build();
+        set.checkInvariants();
+        assertEquals(expected, set.getSet());
+        final List<Integer> ordered = new ArrayList<Integer>();
+        for (Integer value : set) {
+            ordered.add(value);
+        }
+        assertEquals(new ArrayList<Integer>(expected), ordered);
+
+        Func0<JImmutableInsertOrderSet.Builder<Integer>> factory = new Func0<JImmutableInsertOrderSet.Builder<Integer>>()
+        {
+            @Override
+            public JImmutableInsertOrderSet.Builder<Integer> apply()
+            {
+                return JImmutableInsertOrderSet.<Integer>builder();
+            }
+        };
+
+        Func2<List<Integer>, JImmutableSet<Integer>, Boolean> comparator = new Func2<List<Integer>, JImmutableSet<Integer>, Boolean>()
+        {
+            @Override
+            public Boolean apply(List<Integer> list,
+                                 JImmutableSet<Integer> set)
+            {
+                set.checkInvariants();
+                assertEquals(expected, set.getSet());
+                return true;
+            }
+        };
+
+        StandardMutableBuilderTests.verifyBuilder(values, factory, comparator);
+    }
 }
@@ -0,0 +1,209 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.list;
+
+import junit.framework.TestCase;
+import org.javimmutable.collections.common.StandardSerializableTests;
+import org.javimmutable.collections.cursors.StandardCursorTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests shared by the primitive lists.  Derived classes adapt the typed methods of their
+ * list and builder to boxed values.
+ */
+public abstract class AbstractPrimitiveListTestCase<T, L extends AbstractPrimitiveList<T, ?, L>, B extends AbstractPrimitiveList.AbstractBuilder<T, ?, L>>
+        extends TestCase
+{
+    abstract L empty();
+
+    abstract L copyOf(L list);
+
+    abstract B builder();
+
+    abstract void add(B builder,
+                      T value);
+
+    abstract T get(L list,
+                   int index);
+
+    abstract L assign(L list,
+                      int index,
+                      T value);
+
+    abstract L insertFirst(L list,
+                           T value);
+
+    abstract L insertLast(L list,
+                          T value);
+
+    abstract T randomValue(Random r);
+
+    abstract T value(int i);
+
+    public void testRandom()
+    {
+        final Random r = new Random(1000L);
+        for (int loop = 1; loop <= 20; ++loop) {
+            final List<T> expected = new ArrayList<T>();
+            L list = empty();
+            final int size = 1 + r.nextInt(5000);
+            for (int i = 0; i < size; ++i) {
+                final T value = randomValue(r);
+                if (r.nextBoolean()) {
+                    expected.add(value);
+                    list = insertLast(list, value);
+                } else {
+                    expected.add(0, value);
+                    list = insertFirst(list, value);
+                }
+            }
+            list.checkInvariants();
+            verifyContents(expected, list);
+            assertEquals(list, copyOf(list));
+
+            for (int i = 0; i < size / 4; ++i) {
+                final int index = r.nextInt(expected.size());
+                final T value = randomValue(r);
+                expected.set(index, value);
+                list = assign(list, index, value);
+            }
+            list.checkInvariants();
+            verifyContents(expected, list);
+
+            while (!expected.isEmpty()) {
+                if (r.nextBoolean()) {
+                    expected.remove(0);
+                    list = list.deleteFirst();
+                } else {
+                    expected.remove(expected.size() - 1);
+                    list = list.deleteLast();
+                }
+                if (expected.size() % 100 == 0) {
+                    list.checkInvariants();
+                    verifyContents(expected, list);
+                }
+            }
+            assertEquals(true, list.isEmpty());
+            assertSame(empty(), list);
+        }
+    }
+
+    public void testBuilder()
+    {
+        final List<T> expected = new ArrayList<T>();
+        final B builder = builder();
+        for (int i = 0; i < 3000; ++i) {
+            assertEquals(expected.size(), builder.build().size());
+            add(builder, value(i));
+            expected.add(value(i));
+            if (i % 97 == 0) {
+                final L list = builder.build();
+                list.checkInvariants();
+                verifyContents(expected, list);
+            }
+        }
+        final L list = builder.build();
+        list.checkInvariants();
+        verifyContents(expected, list);
+        assertEquals(insertFirst(list, value(-1)).deleteFirst(), list);
+        assertEquals(false, list.equals(list.deleteLast()));
+        assertEquals(false, list.equals(insertLast(list.deleteLast(), value(-1))));
+    }
+
+    public void testEqualsAcrossLeafBoundaries()
+    {
+        final B builder = builder();
+        L inserted = empty();
+        for (int i = 0; i < 1000; ++i) {
+            add(builder, value(i));
+            inserted = insertFirst(inserted, value(999 - i));
+        }
+        final L built = builder.build();
+        inserted.checkInvariants();
+        assertEquals(built, inserted);
+        assertEquals(inserted, built);
+        assertEquals(built.hashCode(), inserted.hashCode());
+        for (int i = 0; i < 1000; i += 37) {
+            final L changed = assign(inserted, i, value(-1));
+            changed.checkInvariants();
+            assertEquals(value(-1), get(changed, i));
+            assertEquals(false, built.equals(changed));
+            assertEquals(false, changed.equals(built));
+        }
+        try {
+            assign(built, built.size(), value(0));
+            fail();
+        } catch (IndexOutOfBoundsException ignored) {
+            // expected
+        }
+        try {
+            assign(inserted, -1, value(0));
+            fail();
+        } catch (IndexOutOfBoundsException ignored) {
+            // expected
+        }
+    }
+
+    public void testSerialization()
+        throws Exception
+    {
+        StandardSerializableTests.verifySerializableSingleton(empty());
+
+        final List<T> expected = new ArrayList<T>();
+        final B builder = builder();
+        for (int i = 0; i < 1000; ++i) {
+            add(builder, value(i));
+            expected.add(value(i));
+        }
+        final L copy = StandardSerializableTests.verifySerializable(builder.build());
+        copy.checkInvariants();
+        verifyContents(expected, copy);
+    }
+
+    void verifyContents(List<T> expected,
+                        L list)
+    {
+        assertEquals(expected.size(), list.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i), get(list, i));
+        }
+        StandardCursorTest.listCursorTest(expected, list.cursor());
+        assertEquals(expected.hashCode(), list.hashCode());
+    }
+}
@@ -38,11 +38,16 @@ package org.javimmutable.collections.list;
 import junit.framework.TestCase;
 import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.JImmutableList;
+import org.javimmutable.collections.Proc1;
 import org.javimmutable.collections.common.IndexedArray;
+import org.javimmutable.collections.common.IndexedList;
+import org.javimmutable.collections.common.StandardSerializableTests;
 import org.javimmutable.collections.cursors.IterableCursorable;
 import org.javimmutable.collections.cursors.StandardCursorTest;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class JImmutableArrayListTest
         extends TestCase
@@ -488,6 +493,103 @@ public class JImmutableArrayListTest
         }
     }
 
+    public void testTailBuffer()
+    {
+        Random random = new Random(2000L);
+        for (int loop = 1; loop <= 50; ++loop) {
+            final int initialSize = random.nextInt(200);
+            List<Integer> expected = new ArrayList<Integer>();
+            for (int i = 0; i < initialSize; ++i) {
+                expected.add(i);
+            }
+            JImmutableArrayList<Integer> list = JImmutableArrayList.of(IndexedList.retained(expected));
+            for (int i = 0; i < 2000; ++i) {
+                final int command = random.nextInt(10);
+                final int value = random.nextInt(1000000);
+                if (command < 5) {
+                    list = list.insertLast(value);
+                    expected.add(value);
+                } else if (command == 5) {
+                    list = list.insertFirst(value);
+                    expected.add(0, value);
+                } else if (command == 6) {
+                    list = list.insert(Arrays.asList(value, value + 1, value + 2));
+                    expected.addAll(Arrays.asList(value, value + 1, value + 2));
+                } else if ((command == 7) && (expected.size() > 0)) {
+                    list = list.deleteFirst();
+                    expected.remove(0);
+                } else if ((command == 8) && (expected.size() > 0)) {
+                    list = list.deleteLast();
+                    expected.remove(expected.size() - 1);
+                } else if (expected.size() > 0) {
+                    final int index = random.nextInt(expected.size());
+                    list = list.assign(index, value);
+                    expected.set(index, value);
+                }
+                assertEquals(expected.size(), list.size());
+                list.checkInvariants();
+            }
+            assertEquals(expected, list.getList());
+            for (int i = 0; i < expected.size(); ++i) {
+                assertEquals(expected.get(i), list.get(i));
+            }
+            try {
+                list.get(expected.size());
+                fail();
+            } catch (IndexOutOfBoundsException ignored) {
+                // expected
+            }
+            StandardCursorTest.listCursorTest(expected, list.cursor());
+            StandardCursorTest.listIteratorTest(expected, list.iterator());
+            List<Integer> split = new ArrayList<Integer>();
+            for (Cursor<Integer> cursor : list.splitCursors(4)) {
+                for (Cursor<Integer> c = cursor.start(); c.hasValue(); c = c.next()) {
+                    split.add(c.getValue());
+                }
+            }
+            assertEquals(expected, split);
+            while (!expected.isEmpty()) {
+                list = list.deleteLast();
+                expected.remove(expected.size() - 1);
+            }
+            assertEquals(true, list.isEmpty());
+            assertSame(JImmutableArrayList.<Integer>of(), list);
+        }
+    }
+
+    public void testAppendToBuiltList()
+    {
+        for (int size : new int[]{0, 1, 31, 32, 33, 63, 64, 65, 1023, 1024, 1025, 32 * 32 * 32 + 17}) {
+            final List<Integer> expected = new ArrayList<Integer>();
+            final JImmutableArrayList.Builder<Integer> builder = JImmutableArrayList.builder();
+            for (int i = 0; i < size; ++i) {
+                builder.add(i);
+                expected.add(i);
+            }
+            JImmutableArrayList<Integer> list = builder.build();
+            list.checkInvariants();
+            assertEquals(list, JImmutableArrayList.of(IndexedList.retained(expected)));
+            for (int i = 0; i < 100; ++i) {
+                list = list.insertLast(-i);
+                expected.add(-i);
+                list.checkInvariants();
+            }
+            assertEquals(expected, list.getList());
+            for (int i = 0; (i < 150) && !expected.isEmpty(); ++i) {
+                list = list.deleteLast();
+                expected.remove(expected.size() - 1);
+                list.checkInvariants();
+            }
+            assertEquals(expected, list.getList());
+            for (int i = 0; i < 100; ++i) {
+                list = list.insertLast(i);
+                expected.add(i);
+                list.checkInvariants();
+            }
+            assertEquals(expected, list.getList());
+        }
+    }
+
     public void testCursor()
     {
         JImmutableArrayList<Integer> list = JImmutableArrayList.of();
@@ -614,6 +716,59 @@ public class JImmutableArrayListTest
         assertSame(JImmutableArrayList.<Integer>of(), JImmutableArrayList.of(JImmutableArrayList.<Integer>of()));
     }
 
+    public void testForEach()
+    {
+        for (int size : new int[]{0, 1, 32, 33, 1025, 40000}) {
+            final List<Integer> expected = new ArrayList<Integer>();
+            for (int i = 0; i < size; ++i) {
+                expected.add(i);
+            }
+            // insert at both ends so branch nodes have prefix and suffix values
+            JImmutableArrayList<Integer> list = JImmutableArrayList.of();
+            for (int i = size / 2; i < size; ++i) {
+                list = list.insertLast(i);
+            }
+            for (int i = (size / 2) - 1; i >= 0; --i) {
+                list = list.insertFirst(i);
+            }
+            final List<Integer> visited = new ArrayList<Integer>();
+            list.forEachValue(new Proc1<Integer>()
+            {
+                @Override
+                public void apply(Integer value)
+                {
+                    visited.add(value);
+                }
+            });
+            assertEquals(expected, visited);
+        }
+    }
+
+    public void testParallelBuild()
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int size : new int[]{0, 1, 31, 32, 33, 1023, 1024, 1025, 32 * 32 * 32 + 1, 100000}) {
+                final List<Integer> source = new ArrayList<Integer>();
+                for (int i = 0; i < size; ++i) {
+                    source.add(i);
+                }
+                final JImmutableArrayList<Integer> expected = JImmutableArrayList.of(IndexedList.retained(source));
+                final JImmutableArrayList<Integer> list = JImmutableArrayList.of(IndexedList.retained(source), executor);
+                list.checkInvariants();
+                assertEquals(expected, list);
+                assertEquals(source, list.getList());
+
+                final JImmutableArrayList.Builder<Integer> builder = JImmutableArrayList.builder();
+                final JImmutableArrayList<Integer> built = builder.add(source).build(executor);
+                built.checkInvariants();
+                assertEquals(expected, built);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private List<Integer> makeValues(Random random,
                                      int size)
     {
@@ -623,4 +778,22 @@ public class JImmutableArrayListTest
         }
         return list;
     }
+
+    public void testSerialization()
+        throws Exception
+    {
+        StandardSerializableTests.verifySerializableSingleton(JImmutableArrayList.of());
+
+        final List<Integer> values = new ArrayList<Integer>();
+        for (int length = 1; length <= 20000; length *= 7) {
+            while (values.size() < length) {
+                values.add(values.size());
+            }
+            final JImmutableArrayList<Integer> list = JImmutableArrayList.of(IndexedList.retained(values));
+            final JImmutableArrayList<Integer> copy = StandardSerializableTests.verifySerializable(list);
+            copy.checkInvariants();
+            assertEquals(values, copy.getList());
+            assertEquals(list.insert(-1), copy.insert(-1));
+        }
+    }
 }
@@ -0,0 +1,158 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.list;
+
+import org.javimmutable.collections.cursors.StandardCursorTest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class JImmutableDoubleListTest
+        extends AbstractPrimitiveListTestCase<Double, JImmutableDoubleList, JImmutableDoubleList.Builder>
+{
+    public void test()
+    {
+        JImmutableDoubleList list = JImmutableDoubleList.of();
+        assertEquals(0, list.size());
+        assertEquals(true, list.isEmpty());
+        assertSame(list, JImmutableDoubleList.of().deleteAll());
+        StandardCursorTest.emptyCursorTest(list.cursor());
+
+        list = list.insertLast(100.0).insertLast(200.0).insertFirst(80.0);
+        list.checkInvariants();
+        assertEquals(3, list.size());
+        assertEquals(80.0, list.get(0));
+        assertEquals(100.0, list.get(1));
+        assertEquals(200.0, list.get(2));
+        StandardCursorTest.listCursorTest(Arrays.asList(80.0, 100.0, 200.0), list.cursor());
+        StandardCursorTest.listIteratorTest(Arrays.asList(80.0, 100.0, 200.0), list.iterator());
+
+        list = list.assign(1, -5.5);
+        assertEquals(-5.5, list.get(1));
+        assertEquals(JImmutableDoubleList.of(80.0, -5.5, 200.0), list);
+        assertEquals(Arrays.asList(80.0, -5.5, 200.0).hashCode(), list.hashCode());
+        assertEquals("[80.0,-5.5,200.0]", list.toString());
+
+        list = list.deleteFirst().deleteLast().deleteLast();
+        assertEquals(true, list.isEmpty());
+        assertSame(JImmutableDoubleList.of(), list);
+        try {
+            list.deleteFirst();
+            fail();
+        } catch (IndexOutOfBoundsException ignored) {
+            // expected
+        }
+        try {
+            list.get(0);
+            fail();
+        } catch (IndexOutOfBoundsException ignored) {
+            // expected
+        }
+    }
+
+    public void testEqualsMatchesBoxedDouble()
+    {
+        assertEquals(JImmutableDoubleList.of(Double.NaN), JImmutableDoubleList.of(Double.NaN));
+        assertEquals(false, JImmutableDoubleList.of(0.0).equals(JImmutableDoubleList.of(-0.0)));
+        assertEquals(Arrays.asList(Double.NaN, -0.0).hashCode(), JImmutableDoubleList.of(Double.NaN, -0.0).hashCode());
+    }
+
+    @Override
+    JImmutableDoubleList empty()
+    {
+        return JImmutableDoubleList.of();
+    }
+
+    @Override
+    JImmutableDoubleList copyOf(JImmutableDoubleList list)
+    {
+        return JImmutableDoubleList.of(list.toArray());
+    }
+
+    @Override
+    JImmutableDoubleList.Builder builder()
+    {
+        return JImmutableDoubleList.builder();
+    }
+
+    @Override
+    void add(JImmutableDoubleList.Builder builder,
+             Double value)
+    {
+        builder.add(value);
+    }
+
+    @Override
+    Double get(JImmutableDoubleList list,
+               int index)
+    {
+        return list.get(index);
+    }
+
+    @Override
+    JImmutableDoubleList assign(JImmutableDoubleList list,
+                                int index,
+                                Double value)
+    {
+        return list.assign(index, value);
+    }
+
+    @Override
+    JImmutableDoubleList insertFirst(JImmutableDoubleList list,
+                                     Double value)
+    {
+        return list.insertFirst(value);
+    }
+
+    @Override
+    JImmutableDoubleList insertLast(JImmutableDoubleList list,
+                                    Double value)
+    {
+        return list.insertLast(value);
+    }
+
+    @Override
+    Double randomValue(Random r)
+    {
+        return r.nextDouble();
+    }
+
+    @Override
+    Double value(int i)
+    {
+        return i / 3.0;
+    }
+}
@@ -0,0 +1,151 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.list;
+
+import org.javimmutable.collections.cursors.StandardCursorTest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class JImmutableIntListTest
+        extends AbstractPrimitiveListTestCase<Integer, JImmutableIntList, JImmutableIntList.Builder>
+{
+    public void test()
+    {
+        JImmutableIntList list = JImmutableIntList.of();
+        assertEquals(0, list.size());
+        assertEquals(true, list.isEmpty());
+        assertSame(list, JImmutableIntList.of().deleteAll());
+        StandardCursorTest.emptyCursorTest(list.cursor());
+
+        list = list.insertLast(100).insertLast(200).insertFirst(80);
+        list.checkInvariants();
+        assertEquals(3, list.size());
+        assertEquals(80, list.get(0));
+        assertEquals(100, list.get(1));
+        assertEquals(200, list.get(2));
+        StandardCursorTest.listCursorTest(Arrays.asList(80, 100, 200), list.cursor());
+        StandardCursorTest.listIteratorTest(Arrays.asList(80, 100, 200), list.iterator());
+
+        list = list.assign(1, -5);
+        assertEquals(-5, list.get(1));
+        assertEquals(JImmutableIntList.of(80, -5, 200), list);
+        assertEquals(Arrays.asList(80, -5, 200).hashCode(), list.hashCode());
+        assertEquals("[80,-5,200]", list.toString());
+
+        list = list.deleteFirst().deleteLast().deleteLast();
+        assertEquals(true, list.isEmpty());
+        assertSame(JImmutableIntList.of(), list);
+        try {
+            list.deleteFirst();
+            fail();
+        } catch (IndexOutOfBoundsException ignored) {
+            // expected
+        }
+        try {
+            list.get(0);
+            fail();
+        } catch (IndexOutOfBoundsException ignored) {
+            // expected
+        }
+    }
+
+    @Override
+    JImmutableIntList empty()
+    {
+        return JImmutableIntList.of();
+    }
+
+    @Override
+    JImmutableIntList copyOf(JImmutableIntList list)
+    {
+        return JImmutableIntList.of(list.toArray());
+    }
+
+    @Override
+    JImmutableIntList.Builder builder()
+    {
+        return JImmutableIntList.builder();
+    }
+
+    @Override
+    void add(JImmutableIntList.Builder builder,
+             Integer value)
+    {
+        builder.add(value);
+    }
+
+    @Override
+    Integer get(JImmutableIntList list,
+                int index)
+    {
+        return list.get(index);
+    }
+
+    @Override
+    JImmutableIntList assign(JImmutableIntList list,
+                             int index,
+                             Integer value)
+    {
+        return list.assign(index, value);
+    }
+
+    @Override
+    JImmutableIntList insertFirst(JImmutableIntList list,
+                                  Integer value)
+    {
+        return list.insertFirst(value);
+    }
+
+    @Override
+    JImmutableIntList insertLast(JImmutableIntList list,
+                                 Integer value)
+    {
+        return list.insertLast(value);
+    }
+
+    @Override
+    Integer randomValue(Random r)
+    {
+        return r.nextInt();
+    }
+
+    @Override
+    Integer value(int i)
+    {
+        return i;
+    }
+}
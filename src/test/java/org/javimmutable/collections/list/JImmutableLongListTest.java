@@ -0,0 +1,151 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.list;
+
+import org.javimmutable.collections.cursors.StandardCursorTest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class JImmutableLongListTest
+        extends AbstractPrimitiveListTestCase<Long, JImmutableLongList, JImmutableLongList.Builder>
+{
+    public void test()
+    {
+        JImmutableLongList list = JImmutableLongList.of();
+        assertEquals(0, list.size());
+        assertEquals(true, list.isEmpty());
+        assertSame(list, JImmutableLongList.of().deleteAll());
+        StandardCursorTest.emptyCursorTest(list.cursor());
+
+        list = list.insertLast(100L).insertLast(200L).insertFirst(80L);
+        list.checkInvariants();
+        assertEquals(3, list.size());
+        assertEquals(80L, list.get(0));
+        assertEquals(100L, list.get(1));
+        assertEquals(200L, list.get(2));
+        StandardCursorTest.listCursorTest(Arrays.asList(80L, 100L, 200L), list.cursor());
+        StandardCursorTest.listIteratorTest(Arrays.asList(80L, 100L, 200L), list.iterator());
+
+        list = list.assign(1, -5L);
+        assertEquals(-5L, list.get(1));
+        assertEquals(JImmutableLongList.of(80L, -5L, 200L), list);
+        assertEquals(Arrays.asList(80L, -5L, 200L).hashCode(), list.hashCode());
+        assertEquals("[80,-5,200]", list.toString());
+
+        list = list.deleteFirst().deleteLast().deleteLast();
+        assertEquals(true, list.isEmpty());
+        assertSame(JImmutableLongList.of(), list);
+        try {
+            list.deleteFirst();
+            fail();
+        } catch (IndexOutOfBoundsException ignored) {
+            // expected
+        }
+        try {
+            list.get(0);
+            fail();
+        } catch (IndexOutOfBoundsException ignored) {
+            // expected
+        }
+    }
+
+    @Override
+    JImmutableLongList empty()
+    {
+        return JImmutableLongList.of();
+    }
+
+    @Override
+    JImmutableLongList copyOf(JImmutableLongList list)
+    {
+        return JImmutableLongList.of(list.toArray());
+    }
+
+    @Override
+    JImmutableLongList.Builder builder()
+    {
+        return JImmutableLongList.builder();
+    }
+
+    @Override
+    void add(JImmutableLongList.Builder builder,
+             Long value)
+    {
+        builder.add(value);
+    }
+
+    @Override
+    Long get(JImmutableLongList list,
+             int index)
+    {
+        return list.get(index);
+    }
+
+    @Override
+    JImmutableLongList assign(JImmutableLongList list,
+                              int index,
+                              Long value)
+    {
+        return list.assign(index, value);
+    }
+
+    @Override
+    JImmutableLongList insertFirst(JImmutableLongList list,
+                                   Long value)
+    {
+        return list.insertFirst(value);
+    }
+
+    @Override
+    JImmutableLongList insertLast(JImmutableLongList list,
+                                  Long value)
+    {
+        return list.insertLast(value);
+    }
+
+    @Override
+    Long randomValue(Random r)
+    {
+        return r.nextLong();
+    }
+
+    @Override
+    Long value(int i)
+    {
+        return (long)i * Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,388 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.rrb_list;
+
+import junit.framework.TestCase;
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Func0;
+import org.javimmutable.collections.Func2;
+import org.javimmutable.collections.JImmutableRandomAccessList;
+import org.javimmutable.collections.MutableBuilder;
+import org.javimmutable.collections.Tuple2;
+import org.javimmutable.collections.common.IndexedList;
+import org.javimmutable.collections.common.StandardMutableBuilderTests;
+import org.javimmutable.collections.common.StandardSerializableTests;
+import org.javimmutable.collections.cursors.StandardCursorTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class JImmutableRrbListTest
+        extends TestCase
+{
+    public void test()
+    {
+        JImmutableRrbList<Integer> list = JImmutableRrbList.of();
+        assertEquals(0, list.size());
+        assertEquals(true, list.isEmpty());
+        list = list.insert(100);
+        assertEquals(1, list.size());
+        assertEquals(100, (int)list.get(0));
+        list = list.insert(200).insertFirst(80);
+        assertEquals(3, list.size());
+        assertEquals(80, (int)list.get(0));
+        assertEquals(100, (int)list.get(1));
+        assertEquals(200, (int)list.get(2));
+        list.checkInvariants();
+        StandardCursorTest.indexedCursorTest(list, list.size(), list.cursor());
+        StandardCursorTest.indexedIteratorTest(list, list.size(), list.iterator());
+
+        assertSame(list, list.assign(1, 100));
+        list = list.assign(1, 110);
+        assertEquals(110, (int)list.get(1));
+        list = list.deleteFirst().deleteLast();
+        assertEquals(1, list.size());
+        assertEquals(110, (int)list.get(0));
+        list = list.delete(0);
+        assertEquals(true, list.isEmpty());
+        assertSame(JImmutableRrbList.<Integer>of(), list);
+        list.checkInvariants();
+
+        for (int index : new int[]{-1, 0, 1}) {
+            try {
+                list.get(index);
+                fail();
+            } catch (IndexOutOfBoundsException ignored) {
+                // expected
+            }
+        }
+        try {
+            list.insert(1, 10);
+            fail();
+        } catch (IndexOutOfBoundsException ignored) {
+            // expected
+        }
+        try {
+            list.deleteLast();
+            fail();
+        } catch (IndexOutOfBoundsException ignored) {
+            // expected
+        }
+    }
+
+    public void testAppendStaysBalanced()
+    {
+        JImmutableRrbList<Integer> list = JImmutableRrbList.of();
+        for (int i = 0; i < 40000; ++i) {
+            list = list.insertLast(i);
+            if ((i % 997) == 0) {
+                list.checkInvariants();
+                assertEquals(true, list.isBalanced());
+            }
+        }
+        for (int i = 0; i < 40000; ++i) {
+            assertEquals(i, (int)list.get(i));
+        }
+        while (list.size() > 10000) {
+            list = list.deleteLast();
+        }
+        list.checkInvariants();
+        assertEquals(true, list.isBalanced());
+
+        final List<Integer> values = new ArrayList<Integer>();
+        for (int i = 0; i < 40000; ++i) {
+            values.add(i);
+        }
+        list = JImmutableRrbList.of(IndexedList.retained(values));
+        list.checkInvariants();
+        assertEquals(true, list.isBalanced());
+        assertEquals(values, list.getList());
+
+        // concatenating onto a list with full nodes only touches the right edge
+        final JImmutableRrbList<Integer> joined = list.subList(0, 32 * 32 * 32).concat(list);
+        joined.checkInvariants();
+        assertEquals(true, joined.isBalanced());
+        assertEquals(32 * 32 * 32 + 40000, joined.size());
+        assertEquals(values.get(123), joined.get(32 * 32 * 32 + 123));
+
+        // inserting in the middle relaxes the tree but keeps it correct
+        final JImmutableRrbList<Integer> relaxed = list.insert(17, -1);
+        relaxed.checkInvariants();
+        assertEquals(false, relaxed.isBalanced());
+        assertEquals(-1, (int)relaxed.get(17));
+        assertEquals(39999, (int)relaxed.get(40000));
+    }
+
+    public void testRandom()
+    {
+        Random random = new Random(100L);
+        for (int loop = 1; loop <= 100; ++loop) {
+            int size = random.nextInt(2500);
+            JImmutableRrbList<Integer> list = JImmutableRrbList.of();
+            List<Integer> expected = new ArrayList<Integer>();
+            for (int i = 0; i < size; ++i) {
+                int value = random.nextInt(10000000);
+                switch (random.nextInt(4)) {
+                case 0:
+                    list = list.insertLast(value);
+                    expected.add(value);
+                    break;
+                case 1:
+                    list = list.insertFirst(value);
+                    expected.add(0, value);
+                    break;
+                default: {
+                    final int index = random.nextInt(expected.size() + 1);
+                    list = list.insert(index, value);
+                    expected.add(index, value);
+                    break;
+                }
+                }
+                assertEquals(expected.size(), list.size());
+                if ((i % 50) == 0) {
+                    list.checkInvariants();
+                }
+            }
+            list.checkInvariants();
+            assertEquals(expected, list.getList());
+            StandardCursorTest.indexedCursorTest(list, list.size(), list.cursor());
+            StandardCursorTest.indexedIteratorTest(list, list.size(), list.iterator());
+
+            for (int i = 0; i < size; ++i) {
+                assertEquals(expected.get(i), list.get(i));
+                if (random.nextInt(4) == 0) {
+                    final int value = random.nextInt();
+                    list = list.assign(i, value);
+                    expected.set(i, value);
+                }
+            }
+            assertEquals(expected, list.getList());
+
+            while (!list.isEmpty()) {
+                int index = random.nextInt(list.size());
+                list = list.delete(index);
+                expected.remove(index);
+                if ((list.size() % 100) == 0) {
+                    list.checkInvariants();
+                    assertEquals(expected, list.getList());
+                }
+            }
+            assertEquals(0, list.size());
+        }
+    }
+
+    public void testConcatSplitSubList()
+    {
+        final Random random = new Random(1900L);
+        List<Integer> expected = new ArrayList<Integer>();
+        JImmutableRrbList<Integer> list = JImmutableRrbList.of();
+        for (int loop = 0; loop < 400; ++loop) {
+            final int size = random.nextInt(3) == 0 ? random.nextInt(40) : random.nextInt(2500);
+            final List<Integer> values = new ArrayList<Integer>();
+            for (int i = 0; i < size; ++i) {
+                values.add(random.nextInt());
+            }
+            final JImmutableRrbList<Integer> other = JImmutableRrbList.of(IndexedList.retained(values));
+            switch (random.nextInt(4)) {
+            case 0:
+                list = list.concat(other);
+                expected.addAll(values);
+                break;
+            case 1:
+                list = other.concat(list);
+                expected.addAll(0, values);
+                break;
+            case 2: {
+                final int index = random.nextInt(expected.size() + 1);
+                list = list.insertAll(index, other);
+                expected.addAll(index, values);
+                break;
+            }
+            default: {
+                final int from = random.nextInt(expected.size() + 1);
+                final int to = from + random.nextInt(expected.size() - from + 1);
+                final Tuple2<JImmutableRrbList<Integer>, JImmutableRrbList<Integer>> split = list.split(from);
+                split.getFirst().checkInvariants();
+                split.getSecond().checkInvariants();
+                assertEquals(expected.subList(0, from), split.getFirst().getList());
+                assertEquals(expected.subList(from, expected.size()), split.getSecond().getList());
+                list = list.subList(from, to);
+                expected = new ArrayList<Integer>(expected.subList(from, to));
+                break;
+            }
+            }
+            list.checkInvariants();
+            assertEquals(expected.size(), list.size());
+            assertEquals(expected, list.getList());
+        }
+
+        try {
+            list.split(list.size() + 1);
+            fail();
+        } catch (IndexOutOfBoundsException ignored) {
+            // expected
+        }
+        try {
+            list.subList(1, 0);
+            fail();
+        } catch (IndexOutOfBoundsException ignored) {
+            // expected
+        }
+    }
+
+    public void testConcatKeepsMinimumFill()
+    {
+        final Random random = new Random(1901L);
+        final List<Integer> expected = new ArrayList<Integer>();
+        JImmutableRrbList<Integer> list = JImmutableRrbList.of();
+        for (int loop = 0; loop < 40000; ++loop) {
+            final List<Integer> values = new ArrayList<Integer>();
+            for (int i = 1 + random.nextInt(4); i > 0; --i) {
+                values.add(random.nextInt());
+            }
+            final JImmutableRrbList<Integer> other = JImmutableRrbList.of(IndexedList.retained(values));
+            if (random.nextBoolean()) {
+                list = list.concat(other);
+                expected.addAll(values);
+            } else {
+                list = other.concat(list);
+                expected.addAll(0, values);
+            }
+            if ((loop % 97) == 0) {
+                list.checkInvariants();
+            }
+            // every node off the outer edges of the tree is at least half full
+            int minSize = 1;
+            for (int i = 1; i < list.height(); ++i) {
+                minSize *= RrbNode.MIN_CHILDREN;
+            }
+            assertTrue(list.size() >= minSize);
+        }
+        list.checkInvariants();
+        assertEquals(expected, list.getList());
+        assertEquals(3, list.height());
+    }
+
+    public void testSplitSharesStructure()
+    {
+        final List<Integer> values = new ArrayList<Integer>();
+        for (int i = 0; i < 100000; ++i) {
+            values.add(i);
+        }
+        final JImmutableRrbList<Integer> list = JImmutableRrbList.of(IndexedList.retained(values));
+        assertSame(list, list.subList(0, list.size()));
+        final Tuple2<JImmutableRrbList<Integer>, JImmutableRrbList<Integer>> split = list.split(54321);
+        assertEquals(values.subList(0, 54321), split.getFirst().getList());
+        assertEquals(values.subList(54321, values.size()), split.getSecond().getList());
+        final JImmutableRrbList<Integer> joined = split.getFirst().concat(split.getSecond());
+        joined.checkInvariants();
+        assertEquals(list, joined);
+        assertEquals(100000, joined.deleteFirst().insertFirst(0).size());
+    }
+
+    public void testSplitCursors()
+    {
+        final List<Integer> values = new ArrayList<Integer>();
+        for (int i = 0; i < 5000; ++i) {
+            values.add(i);
+        }
+        final JImmutableRrbList<Integer> list = JImmutableRrbList.of(IndexedList.retained(values));
+        final List<Cursor<Integer>> cursors = list.splitCursors(8);
+        assertEquals(true, cursors.size() >= 8);
+        final List<Integer> collected = new ArrayList<Integer>();
+        for (Cursor<Integer> cursor : cursors) {
+            for (cursor = cursor.start(); cursor.hasValue(); cursor = cursor.next()) {
+                collected.add(cursor.getValue());
+            }
+        }
+        assertEquals(values, collected);
+    }
+
+    public void testBuilder()
+    {
+        List<Integer> source = new ArrayList<Integer>();
+        for (int i = 0; i <= 4127; ++i) {
+            source.add(i);
+            JImmutableRrbList<Integer> list = JImmutableRrbList.<Integer>builder().add(source).build();
+            assertEquals(source, list.getList());
+            list.checkInvariants();
+        }
+
+        Func0<? extends MutableBuilder<Integer, JImmutableRandomAccessList<Integer>>> factory = new Func0<JImmutableRrbList.Builder<Integer>>()
+        {
+            @Override
+            public JImmutableRrbList.Builder<Integer> apply()
+            {
+                return JImmutableRrbList.builder();
+            }
+        };
+
+        Func2<List<Integer>, JImmutableRandomAccessList<Integer>, Boolean> comparator = new Func2<List<Integer>, JImmutableRandomAccessList<Integer>, Boolean>()
+        {
+            @Override
+            public Boolean apply(List<Integer> list,
+                                 JImmutableRandomAccessList<Integer> tree)
+            {
+                ((JImmutableRrbList<Integer>)tree).checkInvariants();
+                for (int i = 0; i < list.size(); ++i) {
+                    assertEquals(list.get(i), tree.get(i));
+                }
+                return true;
+            }
+        };
+
+        StandardMutableBuilderTests.verifyBuilder(source, factory, comparator);
+    }
+
+    public void testSerialization()
+        throws Exception
+    {
+        StandardSerializableTests.verifySerializableSingleton(JImmutableRrbList.of());
+
+        final List<Integer> values = new ArrayList<Integer>();
+        for (int length = 1; length <= 20000; length *= 7) {
+            while (values.size() < length) {
+                values.add(values.size());
+            }
+            final JImmutableRrbList<Integer> list = JImmutableRrbList.of(IndexedList.retained(values));
+            final JImmutableRrbList<Integer> copy = StandardSerializableTests.verifySerializable(list);
+            copy.checkInvariants();
+            assertEquals(values, copy.getList());
+            assertEquals(list.insert(-1), copy.insert(-1));
+        }
+    }
+}
@@ -36,10 +36,19 @@
 package org.javimmutable.collections.tree;
 
 import junit.framework.TestCase;
+import org.javimmutable.collections.Cursor;
 import org.javimmutable.collections.Holder;
+import org.javimmutable.collections.Indexed;
 import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.MapDiffEntry;
 import org.javimmutable.collections.MapEntry;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.common.AbstractJImmutableMap;
+import org.javimmutable.collections.common.IndexedList;
+import org.javimmutable.collections.common.StandardSerializableTests;
+import org.javimmutable.collections.cursors.StandardCursor;
 import org.javimmutable.collections.cursors.StandardCursorTest;
+import org.javimmutable.collections.hash.JImmutableHashMap;
 
 import java.util.*;
 
@@ -183,6 +192,77 @@ public class JImmutableTreeMapTest
         }
     }
 
+    public void testForEach()
+    {
+        JImmutableMap<Integer, Integer> map = JImmutableTreeMap.of();
+        final List<JImmutableMap.Entry<Integer, Integer>> visited = new ArrayList<JImmutableMap.Entry<Integer, Integer>>();
+        final Proc1<JImmutableMap.Entry<Integer, Integer>> proc = new Proc1<JImmutableMap.Entry<Integer, Integer>>()
+        {
+            @Override
+            public void apply(JImmutableMap.Entry<Integer, Integer> entry)
+            {
+                visited.add(entry);
+            }
+        };
+        map.forEachEntry(proc);
+        assertEquals(0, visited.size());
+
+        final Random r = new Random(500L);
+        for (int i = 0; i < 10000; ++i) {
+            map = map.assign(r.nextInt(50000), i);
+        }
+        final List<JImmutableMap.Entry<Integer, Integer>> expected = new ArrayList<JImmutableMap.Entry<Integer, Integer>>();
+        for (JImmutableMap.Entry<Integer, Integer> entry : map) {
+            expected.add(entry);
+        }
+        map.forEachEntry(proc);
+        assertEquals(expected, visited);
+    }
+
+    public void testDiff()
+    {
+        final Random r = new Random(300L);
+        for (int loop = 1; loop <= 50; ++loop) {
+            JImmutableTreeMap<Integer, Integer> older = JImmutableTreeMap.of();
+            final int size = r.nextInt(3000);
+            for (int i = 0; i < size; ++i) {
+                older = older.assign(r.nextInt(5000), r.nextInt(10));
+            }
+            JImmutableTreeMap<Integer, Integer> newer = older;
+            for (int i = r.nextInt(100); i > 0; --i) {
+                final int key = r.nextInt(5000);
+                if (r.nextBoolean()) {
+                    newer = newer.delete(key);
+                } else {
+                    newer = newer.assign(key, r.nextInt(10));
+                }
+            }
+
+            final List<MapDiffEntry<Integer, Integer>> expected = new ArrayList<MapDiffEntry<Integer, Integer>>();
+            for (int key = 0; key < 5000; ++key) {
+                final Holder<Integer> oldValue = older.find(key);
+                final Holder<Integer> newValue = newer.find(key);
+                if (oldValue.isEmpty() && newValue.isFilled()) {
+                    expected.add(MapDiffEntry.added(key, newValue.getValue()));
+                } else if (oldValue.isFilled() && newValue.isEmpty()) {
+                    expected.add(MapDiffEntry.removed(key, oldValue.getValue()));
+                } else if (oldValue.isFilled() && !oldValue.getValue().equals(newValue.getValue())) {
+                    expected.add(MapDiffEntry.changed(key, oldValue.getValue(), newValue.getValue()));
+                }
+            }
+            StandardCursorTest.listCursorTest(expected, older.diff(newer));
+
+            // hash map to tree map diff uses the generic algorithm and visits entries in hash order
+            final Set<MapDiffEntry<Integer, Integer>> unordered = new HashSet<MapDiffEntry<Integer, Integer>>();
+            final AbstractJImmutableMap<Integer, Integer> hashed = (AbstractJImmutableMap<Integer, Integer>)JImmutableHashMap.<Integer, Integer>of().assignAll(older);
+            for (Cursor<MapDiffEntry<Integer, Integer>> c = hashed.diff(newer).start(); c.hasValue(); c = c.next()) {
+                unordered.add(c.getValue());
+            }
+            assertEquals(new HashSet<MapDiffEntry<Integer, Integer>>(expected), unordered);
+            StandardCursorTest.emptyCursorTest(newer.diff(newer));
+        }
+    }
+
     public void testDeleteAll()
     {
         JImmutableTreeMap<Integer, Integer> map = JImmutableTreeMap.of();
@@ -318,4 +398,318 @@ public class JImmutableTreeMapTest
         assertEquals(true, treeMap.find(value).isEmpty());
         return treeMap;
     }
+
+    public void testRangeQueries()
+    {
+        final Random random = new Random(200L);
+        final TreeMap<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+        JImmutableTreeMap<Integer, Integer> map = JImmutableTreeMap.of();
+        assertEquals(true, map.findFloorEntry(10).isEmpty());
+        assertEquals(true, map.findCeilingEntry(10).isEmpty());
+        assertEquals(0, map.subMap(1, 10).size());
+        assertEquals(Collections.<Integer>emptyList(), keys(map.cursor(1, 10)));
+        for (int i = 0; i < 1000; ++i) {
+            final int key = 2 * random.nextInt(2000);
+            expected.put(key, i);
+            map = map.assign(key, i);
+        }
+        for (int loop = 0; loop < 500; ++loop) {
+            final int low = random.nextInt(4020) - 10;
+            final int high = low + random.nextInt(4030 - low);
+            assertEquals(expected.floorKey(low), key(map.findFloorEntry(low)));
+            assertEquals(expected.ceilingKey(low), key(map.findCeilingEntry(low)));
+            assertEquals(new ArrayList<Integer>(expected.tailMap(low).keySet()), keys(map.cursor(low)));
+            assertEquals(new ArrayList<Integer>(expected.subMap(low, high).keySet()), keys(map.cursor(low, high)));
+
+            final JImmutableTreeMap<Integer, Integer> subMap = map.subMap(low, high);
+            subMap.checkInvariants();
+            assertEquals(expected.subMap(low, high), subMap.getMap());
+            final JImmutableTreeMap<Integer, Integer> headMap = map.headMap(high);
+            headMap.checkInvariants();
+            assertEquals(expected.headMap(high), headMap.getMap());
+            final JImmutableTreeMap<Integer, Integer> tailMap = map.tailMap(low);
+            tailMap.checkInvariants();
+            assertEquals(expected.tailMap(low), tailMap.getMap());
+
+            final JImmutableTreeMap<Integer, Integer> modified = subMap.assign(low + 1, -1).delete(high - 1);
+            modified.checkInvariants();
+            final SortedMap<Integer, Integer> modifiedExpected = new TreeMap<Integer, Integer>(expected.subMap(low, high));
+            modifiedExpected.put(low + 1, -1);
+            modifiedExpected.remove(high - 1);
+            assertEquals(modifiedExpected, modified.getMap());
+        }
+        assertSame(map, map.subMap(-1, 5000));
+        assertSame(map, map.headMap(5000));
+        assertSame(map, map.tailMap(-1));
+        try {
+            map.subMap(10, 9);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+            // expected
+        }
+    }
+
+    public void testOrderStatistics()
+    {
+        final Random random = new Random(300L);
+        final TreeMap<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+        JImmutableTreeMap<Integer, Integer> map = JImmutableTreeMap.of();
+        assertEquals(0, map.rank(10));
+        StandardCursorTest.emptyCursorTest(map.indexCursor(0, 0));
+        for (int loop = 0; loop < 3000; ++loop) {
+            final int key = random.nextInt(2000);
+            if (random.nextInt(4) == 0) {
+                expected.remove(key);
+                map = map.delete(key);
+            } else {
+                expected.put(key, loop);
+                map = map.assign(key, loop);
+            }
+        }
+        map.checkInvariants();
+        final List<Integer> keys = new ArrayList<Integer>(expected.keySet());
+        for (int i = 0; i < keys.size(); ++i) {
+            assertEquals(keys.get(i), map.select(i).getKey());
+            assertEquals(expected.get(keys.get(i)), map.select(i).getValue());
+            assertEquals(i, map.rank(keys.get(i)));
+        }
+        for (int key = -1; key <= 2001; ++key) {
+            assertEquals(expected.headMap(key).size(), map.rank(key));
+        }
+        for (int loop = 0; loop < 200; ++loop) {
+            final int fromIndex = random.nextInt(keys.size() + 1);
+            final int toIndex = fromIndex + random.nextInt(keys.size() + 1 - fromIndex);
+            assertEquals(keys.subList(fromIndex, toIndex), keys(map.indexCursor(fromIndex, toIndex)));
+        }
+        for (int index : Arrays.asList(-1, keys.size())) {
+            try {
+                map.select(index);
+                fail();
+            } catch (IndexOutOfBoundsException ignored) {
+                // expected
+            }
+        }
+        try {
+            map.indexCursor(2, 1);
+            fail();
+        } catch (IndexOutOfBoundsException ignored) {
+            // expected
+        }
+    }
+
+    public void testSortedConstruction()
+    {
+        final Map<Integer, Integer> source = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 1000; ++i) {
+            source.put((i * 7919) % 1000, i);
+        }
+        JImmutableTreeMap<Integer, Integer> map = JImmutableTreeMap.of(source);
+        map.checkInvariants();
+        assertEquals(source, map.getMap());
+        assertEquals(new ArrayList<Integer>(new TreeMap<Integer, Integer>(source).keySet()), map.getKeysList());
+
+        final TreeMap<Integer, Integer> reversed = new TreeMap<Integer, Integer>(Collections.<Integer>reverseOrder());
+        reversed.putAll(source);
+        map = JImmutableTreeMap.fromSorted(reversed);
+        map.checkInvariants();
+        assertSame(reversed.comparator(), map.getComparator());
+        assertEquals(new ArrayList<Integer>(reversed.keySet()), map.getKeysList());
+        map = map.assign(2000, 1).delete(500);
+        map.checkInvariants();
+        assertEquals(Integer.valueOf(2000), map.select(0).getKey());
+
+        map = JImmutableTreeMap.of(new TreeMap<Integer, Integer>(source));
+        map.checkInvariants();
+        assertEquals(source, map.getMap());
+        assertEquals(JImmutableTreeMap.<Integer, Integer>of().getComparator(), map.getComparator());
+
+        final JImmutableTreeMap.SortedBuilder<Integer, Integer> builder = JImmutableTreeMap.sortedBuilder();
+        assertEquals(0, builder.build().size());
+        for (int i = 0; i < 100; ++i) {
+            builder.add(i, -i);
+        }
+        builder.add(MapEntry.of(100, -100));
+        map = builder.build();
+        map.checkInvariants();
+        assertEquals(101, map.size());
+        assertEquals(Integer.valueOf(-50), map.get(50));
+        try {
+            builder.add(100, 0);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+            // expected
+        }
+        assertEquals(map, builder.build());
+        try {
+            JImmutableTreeMap.fromSorted(ComparableComparator.<Integer>of(), IndexedList.retained(Arrays.asList(1, 2)), IndexedList.retained(Arrays.asList(1)));
+            fail();
+        } catch (IllegalArgumentException ignored) {
+            // expected
+        }
+        try {
+            JImmutableTreeMap.fromSorted(ComparableComparator.<Integer>of(), IndexedList.retained(Arrays.asList((Integer)null)), IndexedList.retained(Arrays.asList(1)));
+            fail();
+        } catch (NullPointerException ignored) {
+            // expected
+        }
+        try {
+            JImmutableTreeMap.of(Collections.<Integer, Integer>singletonMap(null, 1));
+            fail();
+        } catch (NullPointerException ignored) {
+            // expected
+        }
+    }
+
+    public void testTreeMapAlgebra()
+    {
+        final Random random = new Random(500L);
+        for (int loop = 0; loop < 100; ++loop) {
+            JImmutableTreeMap<Integer, Integer> a = JImmutableTreeMap.of();
+            for (int i = random.nextInt(400); i > 0; --i) {
+                a = a.assign(random.nextInt(1000), i);
+            }
+            JImmutableTreeMap<Integer, Integer> b = (loop % 2 == 0) ? JImmutableTreeMap.<Integer, Integer>of() : a;
+            for (int i = random.nextInt(400); i > 0; --i) {
+                b = b.assign(random.nextInt(1000), -i);
+            }
+
+            final Map<Integer, Integer> expectedUnion = new TreeMap<Integer, Integer>(a.getMap());
+            expectedUnion.putAll(b.getMap());
+            final JImmutableMap<Integer, Integer> union = a.assignAll(b);
+            union.checkInvariants();
+            assertEquals(expectedUnion, union.getMap());
+
+            final Map<Integer, Integer> expectedIntersection = new TreeMap<Integer, Integer>(a.getMap());
+            expectedIntersection.keySet().retainAll(b.getMap().keySet());
+            final JImmutableTreeMap<Integer, Integer> intersection = a.intersection(b);
+            intersection.checkInvariants();
+            assertEquals(expectedIntersection, intersection.getMap());
+
+            final Map<Integer, Integer> expectedDifference = new TreeMap<Integer, Integer>(a.getMap());
+            expectedDifference.keySet().removeAll(b.getMap().keySet());
+            final JImmutableTreeMap<Integer, Integer> difference = a.difference(b);
+            difference.checkInvariants();
+            assertEquals(expectedDifference, difference.getMap());
+
+            final JImmutableTreeMap<Integer, Integer> reversed = (JImmutableTreeMap<Integer, Integer>)JImmutableTreeMap.<Integer, Integer>of(Collections.<Integer>reverseOrder()).assignAll(b.getMap());
+            assertEquals(expectedIntersection, a.intersection(reversed).getMap());
+            assertEquals(expectedDifference, a.difference(reversed).getMap());
+        }
+    }
+
+    private static Integer key(Holder<JImmutableMap.Entry<Integer, Integer>> entry)
+    {
+        return entry.isEmpty() ? null : entry.getValue().getKey();
+    }
+
+    private static List<Integer> keys(Cursor<JImmutableMap.Entry<Integer, Integer>> cursor)
+    {
+        final List<Integer> answer = new ArrayList<Integer>();
+        for (cursor = cursor.start(); cursor.hasValue(); cursor = cursor.next()) {
+            answer.add(cursor.getValue().getKey());
+        }
+        return answer;
+    }
+
+    public void testIncrementalHashCode()
+    {
+        final Random random = new Random(100L);
+        final Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        JImmutableMap<Integer, Integer> map = JImmutableTreeMap.of();
+        assertEquals(expected.hashCode(), map.hashCode());
+        for (int loop = 0; loop < 5000; ++loop) {
+            final Integer key = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.delete(key);
+            } else {
+                final Integer value = random.nextInt(100);
+                expected.put(key, value);
+                map = map.assign(key, value);
+            }
+            assertEquals(expected.hashCode(), map.hashCode());
+        }
+    }
+
+    public void testStructuralEquals()
+    {
+        JImmutableMap<Integer, Integer> map1 = JImmutableTreeMap.of();
+        for (int i = 0; i < 1000; ++i) {
+            map1 = map1.assign(i, i);
+        }
+        final JImmutableMap<Integer, Integer> map2 = map1.assign(500, -1);
+        assertFalse(map1.equals(map2));
+        assertFalse(map2.equals(map1));
+        assertEquals(map1, map2.assign(500, 500));
+        assertEquals(map1, map1.delete(200).assign(200, 200));
+        assertFalse(map1.equals(map1.delete(200).assign(1200, 200)));
+        assertEquals(map1, JImmutableHashMap.<Integer, Integer>of().assignAll(map1));
+        assertEquals(JImmutableHashMap.<Integer, Integer>of().assignAll(map1), map1);
+    }
+
+    public void testSerialization()
+        throws Exception
+    {
+        StandardSerializableTests.verifySerializableSingleton(JImmutableTreeMap.of());
+
+        final Comparator<Integer> reverse = Collections.reverseOrder();
+        JImmutableTreeMap<Integer, Integer> empty = StandardSerializableTests.serializedCopy(JImmutableTreeMap.<Integer, Integer>of(reverse));
+        assertEquals(0, empty.size());
+        assertEquals(reverse, empty.getComparator());
+
+        final Random random = new Random(100L);
+        for (Comparator<Integer> comparator : Arrays.asList(ComparableComparator.<Integer>of(), reverse)) {
+            for (int length = 1; length <= 5000; length *= 5) {
+                JImmutableMap<Integer, Integer> map = JImmutableTreeMap.of(comparator);
+                while (map.size() < length) {
+                    map = map.assign(random.nextInt(), map.size());
+                }
+                JImmutableTreeMap<Integer, Integer> copy = StandardSerializableTests.verifySerializable((JImmutableTreeMap<Integer, Integer>)map);
+                copy.checkInvariants();
+                assertEquals(comparator, copy.getComparator());
+                assertEquals(new ArrayList<Integer>(map.getMap().keySet()), new ArrayList<Integer>(copy.getMap().keySet()));
+                JImmutableMap<Integer, Integer> reduced = copy;
+                for (JImmutableMap.Entry<Integer, Integer> entry : map) {
+                    reduced = reduced.delete(entry.getKey());
+                    reduced.checkInvariants();
+                }
+                assertEquals(0, reduced.size());
+            }
+        }
+    }
+
+    public void testBuilder()
+    {
+        final Random random = new Random(2100L);
+        final List<JImmutableMap.Entry<Integer, Integer>> entries = new ArrayList<JImmutableMap.Entry<Integer, Integer>>();
+        final Map<Integer, Integer> expected = new TreeMap<Integer, Integer>(Collections.<Integer>reverseOrder());
+        for (int i = 0; i < 5000; ++i) {
+            final Integer key = random.nextInt(2000);
+            final Integer value = random.nextInt();
+            entries.add(MapEntry.of(key, value));
+            expected.put(key, value);
+        }
+
+        final JImmutableTreeMap.Builder<Integer, Integer> builder = JImmutableTreeMap.<Integer, Integer>builder(Collections.<Integer>reverseOrder());
+        assertEquals(0, builder.build().size());
+        final JImmutableMap<Integer, Integer> map = builder.add(entries).build();
+        map.checkInvariants();
+        assertEquals(expected, map.getMap());
+        final List<Integer> keys = new ArrayList<Integer>();
+        for (Cursor<Integer> cursor = map.keysCursor().start(); cursor.hasValue(); cursor = cursor.next()) {
+            keys.add(cursor.getValue());
+        }
+        assertEquals(new ArrayList<Integer>(expected.keySet()), keys);
+        builder.add(-1, -1);
+        assertEquals(expected.size() + 1, builder.build().size());
+        assertEquals(expected, map.getMap());
+
+        final Indexed<JImmutableMap.Entry<Integer, Integer>> indexed = IndexedList.retained(entries);
+        @SuppressWarnings("unchecked") final JImmutableMap.Entry<Integer, Integer>[] array = entries.toArray(new JImmutableMap.Entry[entries.size()]);
+        assertEquals(expected, JImmutableTreeMap.<Integer, Integer>builder(Collections.<Integer>reverseOrder()).add(StandardCursor.of(indexed)).build().getMap());
+        assertEquals(expected, JImmutableTreeMap.<Integer, Integer>builder(Collections.<Integer>reverseOrder()).add(entries.iterator()).build().getMap());
+        assertEquals(expected, JImmutableTreeMap.<Integer, Integer>builder(Collections.<Integer>reverseOrder()).add(array).build().getMap());
+        assertEquals(expected, JImmutableTreeMap.<Integer, Integer>builder(Collections.<Integer>reverseOrder()).add(indexed).build().getMap());
+        assertEquals(expected, JImmutableTreeMap.<Integer, Integer>builder(Collections.<Integer>reverseOrder()).add(indexed, 0, 2500).add(indexed, 2500, 5000).build().getMap());
+    }
 }
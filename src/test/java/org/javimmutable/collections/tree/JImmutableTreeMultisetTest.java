@@ -39,9 +39,13 @@ import com.google.common.collect.Multiset;
 import com.google.common.collect.TreeMultiset;
 import junit.framework.TestCase;
 import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Func0;
+import org.javimmutable.collections.Func2;
 import org.javimmutable.collections.JImmutableMultiset;
 import org.javimmutable.collections.JImmutableSet;
 import org.javimmutable.collections.common.StandardJImmutableMultisetTests;
+import org.javimmutable.collections.common.StandardMutableBuilderTests;
+import org.javimmutable.collections.common.StandardSerializableTests;
 import org.javimmutable.collections.cursors.StandardCursorTest;
 
 import java.util.ArrayList;
@@ -320,4 +324,75 @@ public class JImmutableTreeMultisetTest
         }
         return list;
     }
-}
\ No newline at end of file
+
+    public void testSerialization()
+        throws Exception
+    {
+        StandardSerializableTests.verifySerializableSingleton(JImmutableTreeMultiset.of());
+
+        final Comparator<Integer> reverse = Collections.reverseOrder();
+        for (JImmutableMultiset<Integer> multiset : Arrays.<JImmutableMultiset<Integer>>asList(JImmutableTreeMultiset.<Integer>of(), JImmutableTreeMultiset.of(reverse))) {
+            for (int i = -100; i <= 100; ++i) {
+                multiset = multiset.insert(i, Math.abs(i) + 1);
+            }
+            final JImmutableTreeMultiset<Integer> copy = StandardSerializableTests.verifySerializable((JImmutableTreeMultiset<Integer>)multiset);
+            copy.checkInvariants();
+            assertEquals(((JImmutableTreeMultiset<Integer>)multiset).getComparator(), copy.getComparator());
+            assertEquals(multiset.occurrenceCount(), copy.occurrenceCount());
+            assertEquals(new ArrayList<Integer>(multiset.getSet()), new ArrayList<Integer>(copy.getSet()));
+            assertEquals(101, copy.count(100));
+        }
+    }
+
+    public void testBuilder()
+    {
+        final Random random = new Random(2300L);
+        final List<Integer> values = new ArrayList<Integer>();
+        final Multiset<Integer> expected = TreeMultiset.<Integer>create(Collections.<Integer>reverseOrder());
+        for (int i = 0; i < 5000; ++i) {
+            final Integer value = random.nextInt(2000);
+            values.add(value);
+            expected.add(value);
+        }
+
+        final JImmutableTreeMultiset.Builder<Integer> builder = JImmutableTreeMultiset.builder(Collections.<Integer>reverseOrder());
+        assertEquals(true, builder.build().isEmpty());
+        JImmutableMultiset<Integer> multiset = builder.add(values).build();
+        StandardJImmutableMultisetTests.verifyContents(multiset, expected);
+        StandardJImmutableMultisetTests.verifyCursor(multiset, expected);
+        multiset = builder.add(-1, 3).add(values.get(0), 2).add(-2, 0).build();
+        expected.add(-1, 3);
+        expected.add(values.get(0), 2);
+        StandardJImmutableMultisetTests.verifyContents(multiset, expected);
+        try {
+            builder.add(-1, -1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+            // expected
+        }
+
+        Func0<JImmutableTreeMultiset.Builder<Integer>> factory = new Func0<JImmutableTreeMultiset.Builder<Integer>>()
+        {
+            @Override
+            public JImmutableTreeMultiset.Builder<Integer> apply()
+            {
+                return JImmutableTreeMultiset.builder(Collections.<Integer>reverseOrder());
+            }
+        };
+
+        final Multiset<Integer> counted = TreeMultiset.<Integer>create(Collections.<Integer>reverseOrder());
+        counted.addAll(values);
+        Func2<List<Integer>, JImmutableMultiset<Integer>, Boolean> comparator = new Func2<List<Integer>, JImmutableMultiset<Integer>, Boolean>()
+        {
+            @Override
+            public Boolean apply(List<Integer> list,
+                                 JImmutableMultiset<Integer> multiset)
+            {
+                StandardJImmutableMultisetTests.verifyContents(multiset, counted);
+                return true;
+            }
+        };
+
+        StandardMutableBuilderTests.verifyBuilder(values, factory, comparator);
+    }
+}
@@ -37,8 +37,13 @@ package org.javimmutable.collections.tree;
 
 import junit.framework.TestCase;
 import org.javimmutable.collections.Cursorable;
+import org.javimmutable.collections.Func0;
+import org.javimmutable.collections.Func2;
+import org.javimmutable.collections.Holders;
 import org.javimmutable.collections.JImmutableSet;
 import org.javimmutable.collections.common.StandardJImmutableSetTests;
+import org.javimmutable.collections.common.StandardMutableBuilderTests;
+import org.javimmutable.collections.common.StandardSerializableTests;
 import org.javimmutable.collections.cursors.IterableCursorable;
 import org.javimmutable.collections.cursors.StandardCursorTest;
 
@@ -319,4 +324,148 @@ public class JImmutableTreeSetTest
         }
         return answer;
     }
+
+    public void testRangeQueries()
+    {
+        JImmutableTreeSet<Integer> set = JImmutableTreeSet.of();
+        for (int i = 0; i < 100; i += 10) {
+            set = (JImmutableTreeSet<Integer>)set.insert(i);
+        }
+        assertEquals(Holders.of(20), set.findFloor(25));
+        assertEquals(Holders.of(30), set.findCeiling(25));
+        assertEquals(Holders.of(30), set.findCeiling(30));
+        assertEquals(true, set.findFloor(-1).isEmpty());
+        assertEquals(true, set.findCeiling(91).isEmpty());
+        StandardCursorTest.listCursorTest(asList(30, 40, 50), set.cursor(25, 60));
+        StandardCursorTest.listCursorTest(asList(80, 90), set.cursor(80));
+        assertEquals(new TreeSet<Integer>(asList(30, 40, 50)), set.subSet(25, 60).getSet());
+        assertEquals(new TreeSet<Integer>(asList(0, 10, 20)), set.headSet(30).getSet());
+        assertEquals(new TreeSet<Integer>(asList(80, 90)), set.tailSet(71).getSet());
+        assertEquals(3, set.subSet(25, 60).size());
+        assertSame(set, set.tailSet(0));
+
+        assertEquals(2, set.rank(20));
+        assertEquals(3, set.rank(25));
+        assertEquals(Integer.valueOf(70), set.select(7));
+        StandardCursorTest.listCursorTest(asList(20, 30, 40), set.indexCursor(2, 5));
+    }
+
+    public void testTreeSetAlgebra()
+    {
+        final Random random = new Random(400L);
+        for (int loop = 0; loop < 200; ++loop) {
+            final JImmutableTreeSet<Integer> a = randomSet(random, random.nextInt(300), random.nextInt(1000));
+            final JImmutableSet<Integer> b = (loop % 2 == 0) ? randomSet(random, random.nextInt(300), random.nextInt(1000)) : modified(random, a);
+            final TreeSet<Integer> expectedA = new TreeSet<Integer>(a.getSet());
+            final TreeSet<Integer> expectedB = new TreeSet<Integer>(b.getSet());
+
+            final TreeSet<Integer> expectedUnion = new TreeSet<Integer>(expectedA);
+            expectedUnion.addAll(expectedB);
+            final JImmutableSet<Integer> union = a.union(b);
+            union.checkInvariants();
+            assertEquals(expectedUnion, union.getSet());
+
+            final TreeSet<Integer> expectedIntersection = new TreeSet<Integer>(expectedA);
+            expectedIntersection.retainAll(expectedB);
+            final JImmutableSet<Integer> intersection = a.intersection(b);
+            intersection.checkInvariants();
+            assertEquals(expectedIntersection, intersection.getSet());
+            assertEquals(intersection, a.intersection((Cursorable<Integer>)b));
+
+            final TreeSet<Integer> expectedDifference = new TreeSet<Integer>(expectedA);
+            expectedDifference.removeAll(expectedB);
+            final JImmutableSet<Integer> difference = a.deleteAll(b);
+            difference.checkInvariants();
+            assertEquals(expectedDifference, difference.getSet());
+        }
+
+        final JImmutableTreeSet<Integer> set = randomSet(random, 500, 0);
+        assertSame(set, set.union(set.delete(100)));
+        assertSame(set, set.intersection(set.insert(-1)));
+        assertSame(set, set.deleteAll(JImmutableTreeSet.<Integer>of().insert(-1)));
+        assertEquals(0, set.deleteAll(set).size());
+    }
+
+    private static JImmutableTreeSet<Integer> randomSet(Random random,
+                                                      int size,
+                                                      int offset)
+    {
+        JImmutableSet<Integer> answer = JImmutableTreeSet.of();
+        for (int i = 0; i < size; ++i) {
+            answer = answer.insert(offset + random.nextInt(2 * size + 1));
+        }
+        return (JImmutableTreeSet<Integer>)answer;
+    }
+
+    private static JImmutableSet<Integer> modified(Random random,
+                                                   JImmutableSet<Integer> set)
+    {
+        for (int i = random.nextInt(20); i > 0; --i) {
+            final int value = random.nextInt(1500);
+            set = random.nextBoolean() ? set.insert(value) : set.delete(value);
+        }
+        return set;
+    }
+
+    public void testSerialization()
+        throws Exception
+    {
+        StandardSerializableTests.verifySerializableSingleton(JImmutableTreeSet.of());
+
+        final Comparator<Integer> reverse = Collections.reverseOrder();
+        for (JImmutableSet<Integer> set : Arrays.<JImmutableSet<Integer>>asList(JImmutableTreeSet.<Integer>of(), JImmutableTreeSet.of(reverse))) {
+            for (int i = -1000; i <= 1000; i += 3) {
+                set = set.insert(i);
+            }
+            final JImmutableTreeSet<Integer> copy = StandardSerializableTests.verifySerializable((JImmutableTreeSet<Integer>)set);
+            copy.checkInvariants();
+            assertEquals(((JImmutableTreeSet<Integer>)set).getComparator(), copy.getComparator());
+            assertEquals(new ArrayList<Integer>(set.getSet()), new ArrayList<Integer>(copy.getSet()));
+            assertEquals(set.size() + 1, copy.insert(1).size());
+        }
+    }
+
+    public void testBuilder()
+    {
+        final Random random = new Random(2200L);
+        final List<Integer> values = new ArrayList<Integer>();
+        final Set<Integer> expected = new TreeSet<Integer>(Collections.<Integer>reverseOrder());
+        for (int i = 0; i < 5000; ++i) {
+            final Integer value = random.nextInt(2000);
+            values.add(value);
+            expected.add(value);
+        }
+
+        final JImmutableSet<Integer> set = JImmutableTreeSet.builder(Collections.<Integer>reverseOrder()).add(values).build();
+        set.checkInvariants();
+        assertEquals(expected, set.getSet());
+        final List<Integer> ordered = new ArrayList<Integer>();
+        for (Integer value : set) {
+            ordered.add(value);
+        }
+        assertEquals(new ArrayList<Integer>(expected), ordered);
+
+        Func0<JImmutableTreeSet.Builder<Integer>> factory = new Func0<JImmutableTreeSet.Builder<Integer>>()
+        {
+            @Override
+            public JImmutableTreeSet.Builder<Integer> apply()
+            {
+                return JImmutableTreeSet.builder(Collections.<Integer>reverseOrder());
+            }
+        };
+
+        Func2<List<Integer>, JImmutableSet<Integer>, Boolean> comparator = new Func2<List<Integer>, JImmutableSet<Integer>, Boolean>()
+        {
+            @Override
+            public Boolean apply(List<Integer> list,
+                                 JImmutableSet<Integer> set)
+            {
+                set.checkInvariants();
+                assertEquals(expected, set.getSet());
+                return true;
+            }
+        };
+
+        StandardMutableBuilderTests.verifyBuilder(values, factory, comparator);
+    }
 }
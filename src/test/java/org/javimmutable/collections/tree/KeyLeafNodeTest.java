@@ -0,0 +1,141 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.tree;
+
+import junit.framework.TestCase;
+import org.javimmutable.collections.Holders;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.JImmutableSet;
+import org.javimmutable.collections.common.IndexedList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+public class KeyLeafNodeTest
+        extends TestCase
+{
+    private final Comparator<Integer> comparator = ComparableComparator.of();
+    private final KeyLeafNode<Integer, Boolean> node = new KeyLeafNode<Integer, Boolean>(10);
+
+    public void testVarious()
+    {
+        assertEquals(Integer.valueOf(10), node.getKey());
+        assertEquals(Boolean.TRUE, node.getValue());
+        assertEquals(false, node.isEmpty());
+        assertEquals(true, node.isFilled());
+        assertEquals(Boolean.TRUE, node.getValueOrNull());
+        assertEquals(Boolean.TRUE, node.getValueOr(false));
+        assertEquals(Boolean.FALSE, node.getValueOr(comparator, 11, false));
+        assertEquals(Boolean.TRUE, node.getValueOr(comparator, 10, false));
+        assertEquals(Holders.<Boolean>of(), node.find(comparator, 11));
+        assertSame(node, node.find(comparator, 10));
+        assertEquals(Holders.<JImmutableMap.Entry<Integer, Boolean>>of(), node.findEntry(comparator, 11));
+        assertEquals(Holders.<JImmutableMap.Entry<Integer, Boolean>>of(node), node.findEntry(comparator, 10));
+        assertEquals(Integer.valueOf(10), node.getMaxKey());
+        List<JImmutableMap.Entry<Integer, Boolean>> values = new ArrayList<JImmutableMap.Entry<Integer, Boolean>>();
+        node.addEntriesTo(values);
+        //noinspection unchecked
+        assertEquals(Arrays.<JImmutableMap.Entry<Integer, Boolean>>asList(node), values);
+        assertEquals(1, node.verifyDepthsMatch());
+    }
+
+    public void testUpdate()
+    {
+        assertEquals(UpdateResult.<Integer, Boolean>createUnchanged(), node.assignImpl(comparator, 10, Boolean.TRUE));
+        assertEquals(UpdateResult.createInPlace(new LeafNode<Integer, Boolean>(10, false), 0), node.assignImpl(comparator, 10, false));
+        assertEquals(UpdateResult.createSplit(new KeyLeafNode<Integer, Boolean>(8), node, 1), node.assignImpl(comparator, 8, Boolean.TRUE));
+        assertEquals(UpdateResult.createSplit(node, new KeyLeafNode<Integer, Boolean>(12), 1), node.assignImpl(comparator, 12, Boolean.TRUE));
+    }
+
+    public void testDelete()
+    {
+        assertEquals(DeleteResult.<Integer, Boolean>createEliminated(), node.deleteImpl(comparator, 10));
+        assertEquals(DeleteResult.<Integer, Boolean>createUnchanged(), node.deleteImpl(comparator, 11));
+    }
+
+    public void testLeafSelection()
+    {
+        JImmutableTreeMap<Integer, Boolean> keys = JImmutableTreeMap.usingKeysOnly(comparator);
+        JImmutableTreeMap<Integer, Boolean> values = JImmutableTreeMap.of();
+        for (int i = 0; i < 100; ++i) {
+            keys = keys.assign(i, Boolean.TRUE);
+            values = values.assign(i, Boolean.TRUE);
+        }
+        keys.checkInvariants();
+        values.checkInvariants();
+        assertEquals(values, keys);
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(true, keys.findEntry(i).getValue() instanceof KeyLeafNode);
+            assertEquals(true, values.findEntry(i).getValue() instanceof LeafNode);
+        }
+        final JImmutableTreeMap<Integer, Boolean> sorted = JImmutableTreeMap.keysOnlyFromSorted(comparator, IndexedList.retained(keys.getKeysList()));
+        sorted.checkInvariants();
+        assertEquals(keys, sorted);
+        assertEquals(true, sorted.findEntry(50).getValue() instanceof KeyLeafNode);
+
+        // set keeps working after its map becomes empty
+        JImmutableSet<Integer> set = JImmutableTreeSet.of();
+        for (int loop = 0; loop < 2; ++loop) {
+            for (int i = 0; i < 100; ++i) {
+                set = set.insert(i);
+            }
+            set.checkInvariants();
+            assertEquals(100, set.size());
+            for (int i = 0; i < 100; ++i) {
+                set = set.delete(i);
+            }
+            assertEquals(0, set.size());
+        }
+        set = JImmutableTreeSet.<Integer>builder().add(3, 1, 2, 1).build();
+        set.checkInvariants();
+        assertEquals(Arrays.asList(1, 2, 3), new ArrayList<Integer>(set.getSet()));
+
+        JImmutableMap<Integer, Boolean> map = JImmutableTreeMap.of();
+        for (int i = 0; i < 100; ++i) {
+            map = map.assign(i, i % 2 == 0);
+        }
+        map.checkInvariants();
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(Boolean.valueOf(i % 2 == 0), map.get(i));
+            map = map.assign(i, true);
+        }
+        for (JImmutableMap.Entry<Integer, Boolean> entry : map) {
+            assertEquals(Boolean.TRUE, entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,269 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.util;
+
+import junit.framework.TestCase;
+import org.javimmutable.collections.Func1;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.hash.JImmutableHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class JImmutableAtomicReferenceTest
+        extends TestCase
+{
+    private static final int THREADS = 8;
+    private static final int UPDATES = 2000;
+
+    private ExecutorService executor;
+
+    @Override
+    protected void setUp()
+            throws Exception
+    {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @Override
+    protected void tearDown()
+            throws Exception
+    {
+        executor.shutdownNow();
+    }
+
+    public void testBasics()
+    {
+        final JImmutableMap<String, Integer> empty = JImmutableHashMap.of();
+        final JImmutableAtomicReference<JImmutableMap<String, Integer>> ref = JImmutableAtomicReference.of(empty);
+        assertSame(empty, ref.get());
+
+        final JImmutableMap<String, Integer> one = empty.assign("a", 1);
+        assertEquals(false, ref.compareAndSet(one, empty));
+        assertEquals(true, ref.compareAndSet(empty, one));
+        assertSame(one, ref.get());
+
+        ref.set(empty);
+        assertSame(empty, ref.get());
+
+        assertEquals(1, (int)ref.update(assign("a", 1)).get("a"));
+        assertEquals(2, (int)ref.combiningUpdate(assign("b", 2)).get("b"));
+        assertEquals(2, ref.get().size());
+    }
+
+    public void testFailedFunction()
+    {
+        final JImmutableAtomicReference<JImmutableMap<String, Integer>> ref = JImmutableAtomicReference.of(JImmutableHashMap.<String, Integer>of().assign("a", 1));
+        final JImmutableMap<String, Integer> before = ref.get();
+        final Func1<JImmutableMap<String, Integer>, JImmutableMap<String, Integer>> failing = new Func1<JImmutableMap<String, Integer>, JImmutableMap<String, Integer>>()
+        {
+            @Override
+            public JImmutableMap<String, Integer> apply(JImmutableMap<String, Integer> value)
+            {
+                throw new IllegalStateException("failed");
+            }
+        };
+        try {
+            ref.update(failing);
+            fail();
+        } catch (IllegalStateException ex) {
+            assertEquals("failed", ex.getMessage());
+        }
+        assertSame(before, ref.get());
+        try {
+            ref.combiningUpdate(failing);
+            fail();
+        } catch (IllegalStateException ex) {
+            assertEquals("failed", ex.getMessage());
+        }
+        assertEquals(before, ref.get());
+    }
+
+    public void testInterruptedUpdate()
+    {
+        final JImmutableAtomicReference<Integer> ref = JImmutableAtomicReference.of(0);
+        final int[] calls = new int[1];
+        Thread.currentThread().interrupt();
+        try {
+            // first call publishes a competing version so update() has to back off and retry
+            final Integer published = ref.update(new Func1<Integer, Integer>()
+            {
+                @Override
+                public Integer apply(Integer value)
+                {
+                    if (calls[0]++ == 0) {
+                        ref.set(value + 100);
+                    }
+                    return value + 1;
+                }
+            });
+            assertEquals(101, (int)published);
+            assertEquals(2, calls[0]);
+            assertEquals(true, Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    public void testInterruptedCombiningUpdate()
+            throws Exception
+    {
+        final JImmutableAtomicReference<Integer> ref = JImmutableAtomicReference.of(0);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        // holds the combining flag until released so the interrupted caller has to wait
+        final Future<Integer> combiner = executor.submit(new Callable<Integer>()
+        {
+            @Override
+            public Integer call()
+            {
+                return ref.combiningUpdate(new Func1<Integer, Integer>()
+                {
+                    @Override
+                    public Integer apply(Integer value)
+                    {
+                        started.countDown();
+                        awaitUninterruptibly(release);
+                        return value + 1;
+                    }
+                });
+            }
+        });
+        started.await();
+        final Future<Boolean> waiter = executor.submit(new Callable<Boolean>()
+        {
+            @Override
+            public Boolean call()
+            {
+                Thread.currentThread().interrupt();
+                try {
+                    assertEquals(11, (int)ref.combiningUpdate(new Func1<Integer, Integer>()
+                    {
+                        @Override
+                        public Integer apply(Integer value)
+                        {
+                            return value + 10;
+                        }
+                    }));
+                    return Thread.currentThread().isInterrupted();
+                } finally {
+                    Thread.interrupted();
+                }
+            }
+        });
+        Thread.sleep(50);
+        release.countDown();
+        assertEquals(1, (int)combiner.get());
+        assertEquals(Boolean.TRUE, waiter.get());
+        assertEquals(11, (int)ref.get());
+    }
+
+    public void testConcurrentUpdates()
+            throws Exception
+    {
+        verifyConcurrent(false);
+    }
+
+    public void testConcurrentCombiningUpdates()
+            throws Exception
+    {
+        verifyConcurrent(true);
+    }
+
+    private void verifyConcurrent(final boolean combining)
+            throws Exception
+    {
+        final JImmutableAtomicReference<JImmutableMap<Integer, Integer>> ref = JImmutableAtomicReference.<JImmutableMap<Integer, Integer>>of(JImmutableHashMap.<Integer, Integer>of());
+        final List<Future<Object>> futures = new ArrayList<Future<Object>>();
+        for (int t = 0; t < THREADS; ++t) {
+            final int thread = t;
+            futures.add(executor.submit(new Callable<Object>()
+            {
+                @Override
+                public Object call()
+                {
+                    for (int i = 0; i < UPDATES; ++i) {
+                        final Integer key = (thread * UPDATES) + i;
+                        final JImmutableMap<Integer, Integer> published = combining ? ref.combiningUpdate(assign(key, i)) : ref.update(assign(key, i));
+                        assertEquals(i, (int)published.get(key));
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<Object> future : futures) {
+            future.get();
+        }
+        final JImmutableMap<Integer, Integer> map = ref.get();
+        map.checkInvariants();
+        assertEquals(THREADS * UPDATES, map.size());
+        for (int t = 0; t < THREADS; ++t) {
+            for (int i = 0; i < UPDATES; ++i) {
+                assertEquals(i, (int)map.get((t * UPDATES) + i));
+            }
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch)
+    {
+        for (; ; ) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException ex) {
+                // keep waiting
+            }
+        }
+    }
+
+    private static <K, V> Func1<JImmutableMap<K, V>, JImmutableMap<K, V>> assign(final K key,
+                                                                               final V value)
+    {
+        return new Func1<JImmutableMap<K, V>, JImmutableMap<K, V>>()
+        {
+            @Override
+            public JImmutableMap<K, V> apply(JImmutableMap<K, V> map)
+            {
+                return map.assign(key, value);
+            }
+        };
+    }
+}
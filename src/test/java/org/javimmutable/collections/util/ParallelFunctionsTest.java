@@ -0,0 +1,218 @@
+///###////////////////////////////////////////////////////////////////////////
+//
+// Burton Computer Corporation
+// http://www.burton-computer.com
+//
+// Copyright (c) 2017, Burton Computer Corporation
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+//     Redistributions of source code must retain the above copyright
+//     notice, this list of conditions and the following disclaimer.
+//
+//     Redistributions in binary form must reproduce the above copyright
+//     notice, this list of conditions and the following disclaimer in
+//     the documentation and/or other materials provided with the
+//     distribution.
+//
+//     Neither the name of the Burton Computer Corporation nor the names
+//     of its contributors may be used to endorse or promote products
+//     derived from this software without specific prior written permission.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+// "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+// LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+// A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+// HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+// SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+// LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+// DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+// THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+// (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+// OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+package org.javimmutable.collections.util;
+
+import junit.framework.TestCase;
+import org.javimmutable.collections.Cursor;
+import org.javimmutable.collections.Func0;
+import org.javimmutable.collections.Func2;
+import org.javimmutable.collections.JImmutableMap;
+import org.javimmutable.collections.Proc1;
+import org.javimmutable.collections.SplittableCursorable;
+import org.javimmutable.collections.array.trie32.TrieArray;
+import org.javimmutable.collections.btree_list.JImmutableBtreeList;
+import org.javimmutable.collections.hash.JImmutableHashMap;
+import org.javimmutable.collections.list.JImmutableArrayList;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ParallelFunctionsTest
+        extends TestCase
+{
+    private ExecutorService executor;
+
+    @Override
+    protected void setUp()
+            throws Exception
+    {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @Override
+    protected void tearDown()
+            throws Exception
+    {
+        executor.shutdownNow();
+    }
+
+    public void testSplitCursors()
+    {
+        final Random r = new Random(200L);
+        for (int size : new int[]{0, 1, 31, 33, 1025, 40000}) {
+            final List<Integer> values = new ArrayList<Integer>();
+            JImmutableArrayList<Integer> arrayList = JImmutableArrayList.of();
+            JImmutableBtreeList<Integer> btreeList = JImmutableBtreeList.of();
+            TrieArray<Integer> array = TrieArray.of();
+            JImmutableMap<Integer, Integer> map = JImmutableHashMap.of();
+            for (int i = 0; i < size; ++i) {
+                final int value = r.nextInt();
+                values.add(value);
+                arrayList = arrayList.insertLast(value);
+                btreeList = btreeList.insertLast(value);
+                array = array.assign(value, value);
+                map = map.assign(value, value);
+            }
+            for (int parts : new int[]{1, 2, 16, 100}) {
+                assertEquals(values, joined(arrayList, parts));
+                assertEquals(values, joined(btreeList, parts));
+                assertEquals(collect(array.cursor()), joined(array, parts));
+                assertEquals(new HashSet<JImmutableMap.Entry<Integer, Integer>>(collect(map.cursor())),
+                             new HashSet<JImmutableMap.Entry<Integer, Integer>>(joined((SplittableCursorable<JImmutableMap.Entry<Integer, Integer>>)map, parts)));
+                if (size >= 40000) {
+                    assertTrue(arrayList.splitCursors(parts).size() >= parts);
+                    assertTrue(btreeList.splitCursors(parts).size() >= parts);
+                    assertTrue(array.splitCursors(parts).size() >= parts);
+                }
+            }
+        }
+    }
+
+    public void testForEachReduceCollect()
+    {
+        final Random r = new Random(100L);
+        final JImmutableBtreeList.Builder<Integer> builder = JImmutableBtreeList.builder();
+        long expectedSum = 0;
+        final List<Integer> expected = new ArrayList<Integer>();
+        for (int i = 0; i < 100000; ++i) {
+            final int value = r.nextInt(1000);
+            builder.add(value);
+            expected.add(value);
+            expectedSum += value;
+        }
+        final JImmutableBtreeList<Integer> list = builder.build();
+
+        final AtomicLong sum = new AtomicLong();
+        ParallelFunctions.forEach(executor, list, new Proc1<Integer>()
+        {
+            @Override
+            public void apply(Integer value)
+            {
+                sum.addAndGet(value);
+            }
+        });
+        assertEquals(expectedSum, sum.get());
+
+        final Long reduced = ParallelFunctions.reduce(executor, list, 0L, new Func2<Long, Integer, Long>()
+        {
+            @Override
+            public Long apply(Long total,
+                              Integer value)
+            {
+                return total + value;
+            }
+        }, new Func2<Long, Long, Long>()
+        {
+            @Override
+            public Long apply(Long a,
+                              Long b)
+            {
+                return a + b;
+            }
+        });
+        assertEquals(expectedSum, (long)reduced);
+
+        final List<Integer> collected = ParallelFunctions.collect(executor, list, new Func0<List<Integer>>()
+        {
+            @Override
+            public List<Integer> apply()
+            {
+                return new ArrayList<Integer>();
+            }
+        }, new Func2<List<Integer>, Integer, List<Integer>>()
+        {
+            @Override
+            public List<Integer> apply(List<Integer> container,
+                                       Integer value)
+            {
+                container.add(value);
+                return container;
+            }
+        }, new Func2<List<Integer>, List<Integer>, List<Integer>>()
+        {
+            @Override
+            public List<Integer> apply(List<Integer> a,
+                                       List<Integer> b)
+            {
+                a.addAll(b);
+                return a;
+            }
+        });
+        assertEquals(expected, collected);
+    }
+
+    public void testExceptions()
+    {
+        final JImmutableArrayList<Integer> list = JImmutableArrayList.<Integer>builder().add(1).add(2).add(3).build();
+        try {
+            ParallelFunctions.forEach(executor, list, new Proc1<Integer>()
+            {
+                @Override
+                public void apply(Integer value)
+                {
+                    throw new IllegalArgumentException();
+                }
+            });
+            fail();
+        } catch (IllegalArgumentException ignored) {
+            // expected
+        }
+    }
+
+    private static <T> List<T> joined(SplittableCursorable<T> source,
+                                      int parts)
+    {
+        final List<T> answer = new ArrayList<T>();
+        for (Cursor<T> cursor : source.splitCursors(parts)) {
+            answer.addAll(collect(cursor));
+        }
+        return answer;
+    }
+
+    private static <T> List<T> collect(Cursor<T> cursor)
+    {
+        final List<T> answer = new ArrayList<T>();
+        for (Cursor<T> c = cursor.start(); c.hasValue(); c = c.next()) {
+            answer.add(c.getValue());
+        }
+        return answer;
+    }
+}